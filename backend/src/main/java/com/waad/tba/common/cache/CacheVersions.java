@@ -0,0 +1,109 @@
+package com.waad.tba.common.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache Versions
+ *
+ * Change counters of the node-local caches (permission matrix, company settings,
+ * feature flags, pre-approval rules, typeahead indexes), stored in the
+ * cache_versions table (V32). A write bumps the counter in its own transaction,
+ * so the new version becomes visible together with the data. Every node polls
+ * all counters with one query every cache.version-poll-ms and tells each
+ * VersionedCache its current version; a cache built from an older version is
+ * rebuilt on next access.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheVersions {
+
+    private static final String BUMP_SQL = "INSERT INTO cache_versions (name, version, updated_at) VALUES (?, 1, now()) "
+            + "ON CONFLICT (name) DO UPDATE SET version = cache_versions.version + 1, updated_at = now() "
+            + "RETURNING version";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<VersionedCache> caches;
+
+    /**
+     * Make sure the table exists (see also V32 migration).
+     */
+    @PostConstruct
+    public void ensureTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS cache_versions ("
+                + "name VARCHAR(100) PRIMARY KEY, "
+                + "version BIGINT NOT NULL DEFAULT 0, "
+                + "updated_at TIMESTAMPTZ NOT NULL DEFAULT now())");
+    }
+
+    /**
+     * Current version of a cache; read before loading its data so that no later change is skipped.
+     */
+    public long read(String name) {
+        Long version = jdbcTemplate.query("SELECT version FROM cache_versions WHERE name = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, name);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Record a change of the cache's data and return the new version. Inside a
+     * transaction the counter is bumped once per transaction and committed (or
+     * rolled back) with the change; later calls return the same version.
+     */
+    public long bump(String name) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return increment(name);
+        }
+        return pendingBumps().computeIfAbsent(name, this::increment);
+    }
+
+    @Scheduled(fixedDelayString = "${cache.version-poll-ms:5000}",
+               initialDelayString = "${cache.version-poll-ms:5000}")
+    public void poll() {
+        Map<String, Long> versions = new HashMap<>();
+        jdbcTemplate.query("SELECT name, version FROM cache_versions",
+                rs -> { versions.put(rs.getString(1), rs.getLong(2)); });
+        caches.forEach(cache -> {
+            try {
+                cache.onVersion(versions.getOrDefault(cache.cacheName(), 0L));
+            } catch (RuntimeException e) {
+                log.warn("Cache {} could not apply version check: {}", cache.cacheName(), e.getMessage());
+            }
+        });
+    }
+
+    private long increment(String name) {
+        Long version = jdbcTemplate.queryForObject(BUMP_SQL, Long.class, name);
+        return version != null ? version : 0L;
+    }
+
+    // Versions already bumped by the current transaction, by name
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> pendingBumps() {
+        Map<String, Long> pending = (Map<String, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, Long> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheVersions.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,22 @@
+package com.waad.tba.common.cache;
+
+/**
+ * In-memory cache kept consistent across nodes through a cache_versions row.
+ *
+ * Writers call CacheVersions.bump(cacheName()) in the transaction that changes
+ * the cached data; CacheVersions polls the versions and calls
+ * {@link #onVersion(long)} on every node, which drops the cached state when it
+ * was built from another version.
+ */
+public interface VersionedCache {
+
+    /**
+     * Row name in cache_versions.
+     */
+    String cacheName();
+
+    /**
+     * Current database version of this cache (0 if never bumped).
+     */
+    void onVersion(long version);
+}
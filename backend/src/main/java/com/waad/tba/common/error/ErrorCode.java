@@ -12,6 +12,7 @@ public enum ErrorCode {
     MEMBER_ALREADY_EXISTS,
     EMPLOYER_NOT_FOUND,
     VALIDATION_ERROR,
+    CONFLICT,
     INTERNAL_ERROR
 }
 
@@ -0,0 +1,12 @@
+package com.waad.tba.common.exception;
+
+/**
+ * The request conflicts with the current state of the resource (e.g. a claim
+ * leased to another reviewer). Mapped to 409.
+ */
+public class ConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    public ConflictException(String message) {
+        super(message);
+    }
+}
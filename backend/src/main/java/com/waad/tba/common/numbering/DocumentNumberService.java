@@ -0,0 +1,109 @@
+package com.waad.tba.common.numbering;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Document Number Service
+ *
+ * Allocates collision-free document numbers (approvals, pre-authorizations, claims)
+ * as PREFIX-yyyyMMdd-NNNNNN. NNNNNN comes from a per-series database sequence using
+ * hi/lo block allocation: one nextval reserves BLOCK_SIZE numbers, which are then
+ * handed out from memory. Numbers are unique across days and nodes; unused numbers
+ * of a block are lost on restart (gaps are expected).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentNumberService {
+
+    /**
+     * Numbers reserved per sequence call. Must never change once numbers were issued,
+     * otherwise hi * BLOCK_SIZE ranges of old and new blocks would overlap.
+     */
+    static final int BLOCK_SIZE = 50;
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<DocumentNumberType, Block> blocks = new EnumMap<>(DocumentNumberType.class);
+
+    /**
+     * Make sure every series has its sequence (see also V20 migration).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSequences() {
+        for (DocumentNumberType type : DocumentNumberType.values()) {
+            ensureSequence(type);
+        }
+    }
+
+    /**
+     * Next document number of a series, e.g. PA-20250101-000123.
+     */
+    public String next(DocumentNumberType type) {
+        long value = blockFor(type).next();
+        return String.format("%s-%s-%06d", type.getPrefix(), LocalDate.now().format(DAY_FORMAT), value);
+    }
+
+    private synchronized Block blockFor(DocumentNumberType type) {
+        return blocks.computeIfAbsent(type, Block::new);
+    }
+
+    /**
+     * Create the series sequence if missing, starting past numbers issued by the
+     * previous count-based generator.
+     */
+    private void ensureSequence(DocumentNumberType type) {
+        String existing = jdbcTemplate.queryForObject("SELECT CAST(to_regclass(?) AS TEXT)", String.class,
+                type.getSequenceName());
+        if (existing != null) {
+            return;
+        }
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + type.getTableName(), Long.class);
+        long start = (rows != null ? rows : 0L) / BLOCK_SIZE + 1;
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + type.getSequenceName() + " START WITH " + start);
+        log.info("Created number sequence {} starting at block {}", type.getSequenceName(), start);
+    }
+
+    private long nextHi(DocumentNumberType type) {
+        Long hi = jdbcTemplate.queryForObject("SELECT nextval('" + type.getSequenceName() + "')", Long.class);
+        if (hi == null) {
+            throw new IllegalStateException("Sequence returned no value: " + type.getSequenceName());
+        }
+        return hi;
+    }
+
+    /**
+     * Numbers [next, end) reserved for this node.
+     */
+    private final class Block {
+        private final DocumentNumberType type;
+        private long next;
+        private long end;
+
+        Block(DocumentNumberType type) {
+            this.type = type;
+        }
+
+        synchronized long next() {
+            if (next >= end) {
+                long hi = nextHi(type);
+                next = hi * BLOCK_SIZE;
+                end = next + BLOCK_SIZE;
+            }
+            return next++;
+        }
+    }
+}
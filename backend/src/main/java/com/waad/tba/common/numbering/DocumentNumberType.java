@@ -0,0 +1,37 @@
+package com.waad.tba.common.numbering;
+
+/**
+ * Document number series allocated by DocumentNumberService.
+ * Each series has its own database sequence; numbers look like PREFIX-yyyyMMdd-NNNNNN.
+ */
+public enum DocumentNumberType {
+
+    PRE_APPROVAL("PA", "pre_approval_number_seq", "pre_approvals"),
+    PRE_AUTHORIZATION("PAU", "pre_authorization_number_seq", "pre_authorizations"),
+    CLAIM("CLM", "claim_number_seq", "claims");
+
+    private final String prefix;
+    private final String sequenceName;
+    private final String tableName;
+
+    DocumentNumberType(String prefix, String sequenceName, String tableName) {
+        this.prefix = prefix;
+        this.sequenceName = sequenceName;
+        this.tableName = tableName;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String getSequenceName() {
+        return sequenceName;
+    }
+
+    /**
+     * Table holding documents of this series (used to start a new sequence past existing rows).
+     */
+    public String getTableName() {
+        return tableName;
+    }
+}
@@ -0,0 +1,90 @@
+package com.waad.tba.common.search;
+
+import java.util.Locale;
+
+/**
+ * Arabic-aware text normalization for search.
+ *
+ * Applied both to the stored search_text columns and to user search terms, so
+ * spelling variants match each other:
+ * - lower case, whitespace collapsed
+ * - diacritics (tashkeel, Quranic marks) and tatweel removed
+ * - alef variants (أ إ آ ٱ) -> ا, taa marbuta (ة) -> ه, alef maqsura (ى) -> ي,
+ *   hamza carriers (ؤ -> و, ئ -> ي)
+ * - Arabic-Indic and Persian digits -> ASCII digits
+ *
+ * Must stay in sync with the SQL function tba_search_normalize (V23 migration).
+ */
+public final class ArabicTextNormalizer {
+
+    private ArabicTextNormalizer() {
+    }
+
+    public static String normalize(String input) {
+        if (input == null || input.isEmpty()) {
+            return "";
+        }
+        String lower = input.toLowerCase(Locale.ROOT);
+        StringBuilder out = new StringBuilder(lower.length());
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (isIgnorable(c)) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(fold(c));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Normalize and join several fields into one searchable string.
+     */
+    public static String searchText(String... fields) {
+        StringBuilder joined = new StringBuilder();
+        for (String field : fields) {
+            if (field != null && !field.isBlank()) {
+                joined.append(field).append(' ');
+            }
+        }
+        return normalize(joined.toString());
+    }
+
+    private static boolean isIgnorable(char c) {
+        return (c >= '\u064B' && c <= '\u065F')   // harakat, tanween, shadda, sukun
+                || c == '\u0670'                    // superscript alef
+                || c == '\u0640'                    // tatweel
+                || (c >= '\u06D6' && c <= '\u06ED'); // Quranic annotation marks
+    }
+
+    private static char fold(char c) {
+        switch (c) {
+            case '\u0623', '\u0625', '\u0622', '\u0671': // alef with hamza / madda / wasla
+                return '\u0627';                              // bare alef
+            case '\u0629':                                    // taa marbuta
+                return '\u0647';                              // haa
+            case '\u0649', '\u0626':                         // alef maqsura, yaa with hamza
+                return '\u064A';                              // yaa
+            case '\u0624':                                    // waw with hamza
+                return '\u0648';                              // waw
+            default:
+                break;
+        }
+        if (c >= '\u0660' && c <= '\u0669') {                 // Arabic-Indic digits
+            return (char) ('0' + (c - '\u0660'));
+        }
+        if (c >= '\u06F0' && c <= '\u06F9') {                 // Persian digits
+            return (char) ('0' + (c - '\u06F0'));
+        }
+        return c;
+    }
+}
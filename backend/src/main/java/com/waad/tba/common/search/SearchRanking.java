@@ -0,0 +1,70 @@
+package com.waad.tba.common.search;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * In-process relevance ranking for search results, using the same trigram
+ * similarity as PostgreSQL pg_trgm (words padded with "  " / " ", Jaccard over
+ * trigram sets). Runs on any database, so H2 and PostgreSQL rank identically.
+ */
+public final class SearchRanking {
+
+    private SearchRanking() {
+    }
+
+    /**
+     * Sort results by similarity of their normalized search text to the normalized term, best first.
+     */
+    public static <T> List<T> rank(List<T> results, Function<T, String> searchText, String normalizedTerm) {
+        if (normalizedTerm == null || normalizedTerm.isEmpty() || results.size() < 2) {
+            return results;
+        }
+        Set<String> termTrigrams = trigrams(normalizedTerm);
+        return results.stream()
+                .map(result -> new Scored<>(result, similarity(termTrigrams, trigrams(searchText.apply(result)))))
+                .sorted(Comparator.comparingDouble(Scored<T>::score).reversed())
+                .map(Scored::value)
+                .toList();
+    }
+
+    public static double similarity(String a, String b) {
+        return similarity(trigrams(a), trigrams(b));
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        if (text == null) {
+            return trigrams;
+        }
+        for (String word : text.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private static double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int common = 0;
+        for (String trigram : a) {
+            if (b.contains(trigram)) {
+                common++;
+            }
+        }
+        return (double) common / (a.size() + b.size() - common);
+    }
+
+    private record Scored<T>(T value, double score) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.waad.tba.common.typeahead;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.waad.tba.common.cache.CacheVersions;
+import com.waad.tba.common.cache.VersionedCache;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reference Typeahead Index
+ *
+ * Base class for in-memory selector / typeahead indexes over small reference
+ * tables (employers, medical services, categories). The options are loaded
+ * once through a projection query into a SortedPrefixIndex and rebuilt lazily
+ * after the table changes (TypeaheadChangeListener calls invalidate()). Changes
+ * made on other nodes are seen through the "typeahead:<Entity>" cache version
+ * (see CacheVersions).
+ */
+@Slf4j
+public abstract class ReferenceTypeaheadIndex implements VersionedCache {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private volatile SortedPrefixIndex index;
+    private long indexVersion;
+    private CacheVersions cacheVersions;
+
+    // Setter injection keeps the subclasses' constructors to their own repositories
+    @Autowired
+    public void setCacheVersions(CacheVersions cacheVersions) {
+        this.cacheVersions = cacheVersions;
+    }
+
+    /**
+     * Entity type whose changes invalidate this index.
+     */
+    public abstract Class<?> entityType();
+
+    /**
+     * Load all options through a projection query.
+     */
+    protected abstract List<TypeaheadOption> loadOptions();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        current();
+    }
+
+    public List<TypeaheadOption> search(String prefix, int limit) {
+        return current().search(prefix, Math.min(Math.max(limit, 1), MAX_LIMIT));
+    }
+
+    /**
+     * All options in display order (for full selector lists).
+     */
+    public List<TypeaheadOption> all() {
+        return current().all();
+    }
+
+    @Override
+    public String cacheName() {
+        return "typeahead:" + entityType().getSimpleName();
+    }
+
+    @Override
+    public synchronized void onVersion(long version) {
+        if (index != null && indexVersion != version) {
+            index = null;
+        }
+    }
+
+    /**
+     * Schedule a rebuild after the current transaction commits, here and
+     * (through the cache version) on every other node.
+     */
+    public void invalidate() {
+        cacheVersions.bump(cacheName());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markStale();
+                }
+            });
+        } else {
+            markStale();
+        }
+    }
+
+    // Synchronized with the rebuild so an in-flight build of old data cannot outlive the change
+    private synchronized void markStale() {
+        index = null;
+    }
+
+    private SortedPrefixIndex current() {
+        SortedPrefixIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                if (index == null) {
+                    indexVersion = cacheVersions.read(cacheName());
+                    index = SortedPrefixIndex.build(loadOptions());
+                    log.debug("Typeahead index {} built: {} options", entityType().getSimpleName(), index.size());
+                }
+                current = index;
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,112 @@
+package com.waad.tba.common.typeahead;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+import com.waad.tba.common.search.ArabicTextNormalizer;
+
+/**
+ * Immutable prefix index over typeahead options.
+ *
+ * Every option is indexed under its normalized code, full names and each name
+ * word; keys are kept in one sorted array, so a lookup is a binary search to
+ * the first key with the prefix followed by a scan over the matching range.
+ * Results are returned in display order (Arabic name, then code).
+ */
+final class SortedPrefixIndex {
+
+    private static final Comparator<TypeaheadOption> DISPLAY_ORDER = Comparator
+            .comparing(TypeaheadOption::getNameAr, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+            .thenComparing(TypeaheadOption::getCode, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    private final List<TypeaheadOption> options;
+    private final String[] keys;
+    private final int[] optionIndexes;
+
+    private SortedPrefixIndex(List<TypeaheadOption> options, String[] keys, int[] optionIndexes) {
+        this.options = options;
+        this.keys = keys;
+        this.optionIndexes = optionIndexes;
+    }
+
+    static SortedPrefixIndex build(List<TypeaheadOption> source) {
+        List<TypeaheadOption> options = new ArrayList<>(source);
+        options.sort(DISPLAY_ORDER);
+
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < options.size(); i++) {
+            TypeaheadOption option = options.get(i);
+            addKeys(entries, option.getCode(), i);
+            addKeys(entries, option.getNameAr(), i);
+            addKeys(entries, option.getNameEn(), i);
+        }
+        entries.sort(Comparator.comparing(Entry::key).thenComparingInt(Entry::option));
+
+        String[] keys = new String[entries.size()];
+        int[] optionIndexes = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keys[i] = entries.get(i).key();
+            optionIndexes[i] = entries.get(i).option();
+        }
+        return new SortedPrefixIndex(List.copyOf(options), keys, optionIndexes);
+    }
+
+    int size() {
+        return options.size();
+    }
+
+    /**
+     * All options in display order.
+     */
+    List<TypeaheadOption> all() {
+        return options;
+    }
+
+    /**
+     * Options having a code, name or name word starting with the prefix (normalized).
+     */
+    List<TypeaheadOption> search(String prefix, int limit) {
+        String normalized = ArabicTextNormalizer.normalize(prefix);
+        if (normalized.isEmpty()) {
+            return options.subList(0, Math.min(limit, options.size()));
+        }
+
+        int position = Arrays.binarySearch(keys, normalized);
+        if (position < 0) {
+            position = -position - 1;
+        }
+
+        TreeSet<Integer> matches = new TreeSet<>();
+        for (int i = position; i < keys.length && keys[i].startsWith(normalized); i++) {
+            matches.add(optionIndexes[i]);
+        }
+
+        List<TypeaheadOption> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (Integer match : matches) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(options.get(match));
+        }
+        return result;
+    }
+
+    private static void addKeys(List<Entry> entries, String text, int option) {
+        String normalized = ArabicTextNormalizer.normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        entries.add(new Entry(normalized, option));
+        int space = normalized.indexOf(' ');
+        while (space >= 0) {
+            entries.add(new Entry(normalized.substring(space + 1), option));
+            space = normalized.indexOf(' ', space + 1);
+        }
+    }
+
+    private record Entry(String key, int option) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.waad.tba.common.typeahead;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JPA listener that invalidates the typeahead indexes built over the changed
+ * entity's table. Register with @EntityListeners on indexed entities.
+ */
+@Component
+@RequiredArgsConstructor
+public class TypeaheadChangeListener {
+
+    private final ObjectProvider<ReferenceTypeaheadIndex> indexes;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onEntityChanged(Object entity) {
+        indexes.stream()
+                .filter(index -> index.entityType().isInstance(entity))
+                .forEach(ReferenceTypeaheadIndex::invalidate);
+    }
+}
@@ -0,0 +1,19 @@
+package com.waad.tba.common.typeahead;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lightweight selector / typeahead entry. Built from projections (JPQL constructor
+ * expressions), never from full entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeaheadOption {
+    private Long id;
+    private String code;
+    private String nameAr;
+    private String nameEn;
+}
@@ -23,6 +23,7 @@ import com.waad.tba.modules.rbac.entity.Role;
 import com.waad.tba.modules.rbac.entity.User;
 import com.waad.tba.modules.rbac.repository.UserRepository;
 import com.waad.tba.security.JwtTokenProvider;
+import com.waad.tba.security.TokenRevocationService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +39,7 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
 
     @Transactional
     public LoginResponse login(LoginRequest request) {
@@ -221,6 +223,7 @@ public class AuthService {
 
         // 5) Encode password and save user
         user.setPassword(passwordEncoder.encode(newPassword));
+        tokenRevocationService.revokeTokens(user);
         userRepository.save(user);
 
         // 6) Delete token record for this email
@@ -1,9 +1,11 @@
 package com.waad.tba.modules.claim.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,12 +19,21 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.waad.tba.common.dto.ApiResponse;
+import com.waad.tba.common.dto.CursorPageResponse;
 import com.waad.tba.common.dto.PaginationResponse;
+import com.waad.tba.modules.claim.dto.BulkClaimSubmissionResult;
+import com.waad.tba.modules.claim.dto.ClaimAdjudicationRunResult;
 import com.waad.tba.modules.claim.dto.ClaimCreateDto;
+import com.waad.tba.modules.claim.dto.ClaimListItemDto;
 import com.waad.tba.modules.claim.dto.ClaimUpdateDto;
 import com.waad.tba.modules.claim.dto.ClaimViewDto;
+import com.waad.tba.modules.claim.service.ClaimAdjudicationService;
+import com.waad.tba.modules.claim.service.ClaimBulkSubmissionService;
 import com.waad.tba.modules.claim.service.ClaimService;
+import com.waad.tba.modules.claim.service.ClaimTariffService;
+import com.waad.tba.modules.claim.service.ClaimWorkQueueService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -32,6 +43,10 @@ import lombok.RequiredArgsConstructor;
 public class ClaimController {
 
     private final ClaimService claimService;
+    private final ClaimBulkSubmissionService claimBulkSubmissionService;
+    private final ClaimAdjudicationService claimAdjudicationService;
+    private final ClaimTariffService claimTariffService;
+    private final ClaimWorkQueueService claimWorkQueueService;
 
     @PostMapping
     @PreAuthorize("hasAuthority('MANAGE_CLAIMS')")
@@ -41,6 +56,79 @@ public class ClaimController {
                 .body(ApiResponse.success("Claim created successfully", claim));
     }
 
+    /**
+     * Bulk submission: body is a JSON array of claims, read as a stream.
+     * Returns a per-item report (index, CREATED/FAILED, claim id or error).
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('MANAGE_CLAIMS')")
+    public ResponseEntity<ApiResponse<BulkClaimSubmissionResult>> submitBulk(HttpServletRequest request)
+            throws IOException {
+        BulkClaimSubmissionResult result = claimBulkSubmissionService.submit(request.getInputStream());
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("%d claims created, %d failed", result.getCreated(), result.getFailed()), result));
+    }
+
+    /**
+     * Adjudicate all claims awaiting adjudication now (also runs on a schedule).
+     */
+    @PostMapping("/adjudication/run")
+    @PreAuthorize("hasAuthority('MANAGE_CLAIMS')")
+    public ResponseEntity<ApiResponse<ClaimAdjudicationRunResult>> runAdjudication() {
+        ClaimAdjudicationRunResult result = claimAdjudicationService.run();
+        return ResponseEntity.ok(ApiResponse.success(
+                String.format("%d claims adjudicated, %d referred to review", result.getAdjudicated(), result.getReferred()),
+                result));
+    }
+
+    /**
+     * Reload CPT tariffs, provider contracts and package copays used by adjudication.
+     */
+    @PostMapping("/adjudication/tariffs/reload")
+    @PreAuthorize("hasAuthority('MANAGE_CLAIMS')")
+    public ResponseEntity<ApiResponse<Void>> reloadTariffs() {
+        claimTariffService.reload();
+        return ResponseEntity.ok(ApiResponse.success("Claim tariffs reloaded", null));
+    }
+
+    /**
+     * Re-price one claim pending review against the current tariffs.
+     */
+    @PostMapping("/{id}/adjudicate")
+    @PreAuthorize("hasAuthority('MANAGE_CLAIMS')")
+    public ResponseEntity<ApiResponse<ClaimViewDto>> adjudicateClaim(@PathVariable Long id) {
+        ClaimViewDto claim = claimAdjudicationService.adjudicate(id);
+        return ResponseEntity.ok(ApiResponse.success("Claim adjudicated", claim));
+    }
+
+    /**
+     * Review work queue: lease the next claim pending review to the current reviewer.
+     * 204 when the queue is empty.
+     */
+    @PostMapping("/review-queue/next")
+    @PreAuthorize("hasAuthority('MANAGE_CLAIMS') or hasAuthority('APPROVE_CLAIMS')")
+    public ResponseEntity<ApiResponse<ClaimViewDto>> nextForReview() {
+        ClaimViewDto claim = claimWorkQueueService.next();
+        if (claim == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(ApiResponse.success("Claim leased for review", claim));
+    }
+
+    @PostMapping("/{id}/lease")
+    @PreAuthorize("hasAuthority('MANAGE_CLAIMS') or hasAuthority('APPROVE_CLAIMS')")
+    public ResponseEntity<ApiResponse<ClaimViewDto>> renewLease(@PathVariable Long id) {
+        ClaimViewDto claim = claimWorkQueueService.renew(id);
+        return ResponseEntity.ok(ApiResponse.success("Claim lease renewed", claim));
+    }
+
+    @DeleteMapping("/{id}/lease")
+    @PreAuthorize("hasAuthority('MANAGE_CLAIMS') or hasAuthority('APPROVE_CLAIMS')")
+    public ResponseEntity<ApiResponse<Void>> releaseLease(@PathVariable Long id) {
+        claimWorkQueueService.release(id);
+        return ResponseEntity.ok(ApiResponse.success("Claim returned to the review queue", null));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('MANAGE_CLAIMS')")
     public ResponseEntity<ApiResponse<ClaimViewDto>> updateClaim(
@@ -63,7 +151,7 @@ public class ClaimController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String search) {
-        Page<ClaimViewDto> claimsPage = claimService.listClaims(Math.max(0, page - 1), size, search);
+        Page<ClaimViewDto> claimsPage = claimService.listClaims(Math.max(1, page), size, search);
         
         PaginationResponse<ClaimViewDto> response = PaginationResponse.<ClaimViewDto>builder()
                 .items(claimsPage.getContent())
@@ -75,6 +163,20 @@ public class ClaimController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    /**
+     * Keyset-paginated list of flat claim rows, newest first.
+     * Pass nextCursor from the previous response to continue; total=exact|estimate adds a count.
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAuthority('VIEW_CLAIMS')")
+    public ResponseEntity<ApiResponse<CursorPageResponse<ClaimListItemDto>>> scrollClaims(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "none") String total) {
+        return ResponseEntity.ok(ApiResponse.success(claimService.listClaimsKeyset(cursor, size, search, total)));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('MANAGE_CLAIMS')")
     public ResponseEntity<ApiResponse<Void>> deleteClaim(@PathVariable Long id) {
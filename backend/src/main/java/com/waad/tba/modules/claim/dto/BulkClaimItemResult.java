@@ -0,0 +1,26 @@
+package com.waad.tba.modules.claim.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkClaimItemResult {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    /** Zero-based position of the claim in the submitted array */
+    private int index;
+    private Status status;
+    private Long claimId;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.waad.tba.modules.claim.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkClaimSubmissionResult {
+    private int total;
+    private int created;
+    private int failed;
+    private long durationMs;
+    private List<BulkClaimItemResult> items;
+    /** Set when the payload was malformed and reading stopped early */
+    private String error;
+}
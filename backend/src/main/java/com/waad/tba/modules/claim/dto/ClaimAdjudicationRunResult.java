@@ -0,0 +1,19 @@
+package com.waad.tba.modules.claim.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimAdjudicationRunResult {
+    private int adjudicated;
+    private int approved;
+    private int partiallyApproved;
+    private int referred;
+    private int failed;
+    private long durationMs;
+}
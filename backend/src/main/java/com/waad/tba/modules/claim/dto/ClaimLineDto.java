@@ -18,4 +18,7 @@ public class ClaimLineDto {
     private Integer quantity;
     private BigDecimal unitPrice;
     private BigDecimal totalPrice;
+    private BigDecimal allowedAmount;
+    private BigDecimal copayAmount;
+    private String adjudicationNote;
 }
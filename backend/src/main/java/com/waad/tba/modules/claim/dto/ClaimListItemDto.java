@@ -0,0 +1,39 @@
+package com.waad.tba.modules.claim.dto;
+
+import com.waad.tba.modules.claim.entity.ClaimStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat claim row for list screens, selected directly by JPQL constructor
+ * expression (no entity, lines or attachments loaded).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimListItemDto {
+    private Long id;
+    private Long memberId;
+    private String memberFullNameArabic;
+    private String memberCivilId;
+    private Long insuranceCompanyId;
+    private String insuranceCompanyName;
+    private String providerName;
+    private String diagnosis;
+    private LocalDate visitDate;
+    private BigDecimal requestedAmount;
+    private BigDecimal approvedAmount;
+    private ClaimStatus status;
+    private Integer serviceCount;
+    private Integer attachmentsCount;
+    private LocalDateTime createdAt;
+
+    public String getStatusLabel() {
+        return status != null ? status.getArabicLabel() : null;
+    }
+}
@@ -33,4 +33,8 @@ public class ClaimUpdateDto {
     private List<ClaimAttachmentDto> attachments;
     
     private Boolean active;
+
+    // Version the client last read; the update fails with 409 when the claim changed since.
+    // Required when the update changes the status
+    private Long version;
 }
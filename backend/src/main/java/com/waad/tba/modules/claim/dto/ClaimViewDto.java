@@ -58,6 +58,10 @@ public class ClaimViewDto {
     private String statusLabel;
     private String reviewerComment;
     private LocalDateTime reviewedAt;
+    private LocalDateTime adjudicatedAt;
+    private String adjudicationNotes;
+    private String leasedBy;
+    private LocalDateTime leaseExpiresAt;
     
     // Counts
     private Integer serviceCount;
@@ -73,4 +77,6 @@ public class ClaimViewDto {
     private LocalDateTime updatedAt;
     private String createdBy;
     private String updatedBy;
+    // Send back with the update to detect concurrent changes
+    private Long version;
 }
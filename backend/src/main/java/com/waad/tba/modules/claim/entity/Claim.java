@@ -1,5 +1,8 @@
 package com.waad.tba.modules.claim.entity;
 
+import com.waad.tba.common.search.ArabicTextNormalizer;
+import com.waad.tba.modules.dashboard.service.DashboardCounterListener;
+import com.waad.tba.modules.dashboard.service.DashboardCounterSnapshot;
 import com.waad.tba.modules.member.entity.Member;
 import com.waad.tba.modules.insurance.entity.InsuranceCompany;
 import com.waad.tba.modules.insurancepolicy.entity.InsurancePolicy;
@@ -9,7 +12,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -23,10 +28,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(DashboardCounterListener.class)
 public class Claim {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_seq")
+    @SequenceGenerator(name = "claim_seq", sequenceName = "claims_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -89,6 +96,22 @@ public class Claim {
     @Column(name = "reviewed_at")
     private LocalDateTime reviewedAt;
 
+    // Review work queue: reviewer holding the claim and until when (see ClaimWorkQueueService).
+    // Lease changes are bulk updates and do not bump the version.
+    @Column(name = "leased_by", length = 255)
+    private String leasedBy;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    // Set when the adjudication engine priced the claim (see ClaimAdjudicationService)
+    @Column(name = "adjudicated_at")
+    private LocalDateTime adjudicatedAt;
+
+    // Reasons the engine routed the claim to a reviewer; null when decided automatically
+    @Column(name = "adjudication_notes", columnDefinition = "TEXT")
+    private String adjudicationNotes;
+
     @Column(name = "service_count")
     private Integer serviceCount;
 
@@ -111,6 +134,21 @@ public class Claim {
     @Column(name = "updated_by", length = 255)
     private String updatedBy;
 
+    // Optimistic locking: concurrent reviewer / engine updates of the same claim fail instead of overwriting
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    // Normalized provider / diagnosis for search (see ArabicTextNormalizer)
+    @Column(name = "search_text", columnDefinition = "TEXT")
+    private String searchText;
+
+    // Dimensions last written to the dashboard counters (see DashboardCounterListener)
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private DashboardCounterSnapshot countedSnapshot;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -172,6 +210,8 @@ public class Claim {
 
         // Calculate attachments count
         attachmentsCount = (attachments != null) ? attachments.size() : 0;
+
+        searchText = ArabicTextNormalizer.searchText(providerName, diagnosis);
     }
 
     // Helper methods for bidirectional relationships
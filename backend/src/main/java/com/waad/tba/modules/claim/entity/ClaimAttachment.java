@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class ClaimAttachment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_attachment_seq")
+    @SequenceGenerator(name = "claim_attachment_seq", sequenceName = "claim_attachments_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
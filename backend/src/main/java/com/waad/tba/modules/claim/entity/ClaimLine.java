@@ -17,7 +17,8 @@ import java.math.BigDecimal;
 public class ClaimLine {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_line_seq")
+    @SequenceGenerator(name = "claim_line_seq", sequenceName = "claim_lines_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,6 +40,16 @@ public class ClaimLine {
     @Column(name = "total_price", precision = 15, scale = 2, nullable = false)
     private BigDecimal totalPrice;
 
+    // Adjudication: tariff / contract price for the quantity (before copay) and the member's copay share
+    @Column(name = "allowed_amount", precision = 15, scale = 2)
+    private BigDecimal allowedAmount;
+
+    @Column(name = "copay_amount", precision = 15, scale = 2)
+    private BigDecimal copayAmount;
+
+    @Column(name = "adjudication_note", length = 500)
+    private String adjudicationNote;
+
     @PrePersist
     @PreUpdate
     protected void calculateTotalPrice() {
@@ -4,16 +4,28 @@ import com.waad.tba.modules.claim.dto.*;
 import com.waad.tba.modules.claim.entity.Claim;
 import com.waad.tba.modules.claim.entity.ClaimAttachment;
 import com.waad.tba.modules.claim.entity.ClaimLine;
+import com.waad.tba.modules.insurance.entity.InsuranceCompany;
+import com.waad.tba.modules.insurancepolicy.entity.InsurancePolicy;
+import com.waad.tba.modules.insurancepolicy.entity.PolicyBenefitPackage;
+import com.waad.tba.modules.member.entity.Member;
 import com.waad.tba.modules.member.repository.MemberRepository;
 import com.waad.tba.modules.insurance.repository.InsuranceCompanyRepository;
 import com.waad.tba.modules.insurancepolicy.repository.InsurancePolicyRepository;
 import com.waad.tba.modules.insurancepolicy.repository.PolicyBenefitPackageRepository;
+import com.waad.tba.modules.preauth.entity.PreApproval;
 import com.waad.tba.modules.preauth.repository.PreApprovalRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Component
@@ -26,17 +38,22 @@ public class ClaimMapper {
     private final PolicyBenefitPackageRepository policyBenefitPackageRepository;
     private final PreApprovalRepository preApprovalRepository;
 
+    /**
+     * Referenced entities resolved up front (one IN query per type) for bulk submission.
+     */
+    public record References(Map<Long, Member> members,
+                             Map<Long, InsuranceCompany> insuranceCompanies,
+                             Map<Long, InsurancePolicy> insurancePolicies,
+                             Map<Long, PolicyBenefitPackage> benefitPackages,
+                             Map<Long, PreApproval> preApprovals) {
+    }
+
     public Claim toEntity(ClaimCreateDto dto) {
         Claim claim = Claim.builder()
                 .member(memberRepository.findById(dto.getMemberId())
                         .orElseThrow(() -> new IllegalArgumentException("Member not found")))
                 .insuranceCompany(insuranceCompanyRepository.findById(dto.getInsuranceCompanyId())
                         .orElseThrow(() -> new IllegalArgumentException("Insurance company not found")))
-                .providerName(dto.getProviderName())
-                .doctorName(dto.getDoctorName())
-                .diagnosis(dto.getDiagnosis())
-                .visitDate(dto.getVisitDate())
-                .requestedAmount(dto.getRequestedAmount())
                 .build();
 
         if (dto.getInsurancePolicyId() != null) {
@@ -49,6 +66,49 @@ public class ClaimMapper {
             claim.setPreApproval(preApprovalRepository.findById(dto.getPreApprovalId()).orElse(null));
         }
 
+        copyCreateFields(claim, dto);
+        return claim;
+    }
+
+    /**
+     * Build a claim from pre-resolved references, without repository lookups.
+     */
+    public Claim toEntity(ClaimCreateDto dto, References references) {
+        Member member = references.members().get(dto.getMemberId());
+        if (member == null) {
+            throw new IllegalArgumentException("Member not found");
+        }
+        InsuranceCompany insuranceCompany = references.insuranceCompanies().get(dto.getInsuranceCompanyId());
+        if (insuranceCompany == null) {
+            throw new IllegalArgumentException("Insurance company not found");
+        }
+
+        Claim claim = Claim.builder()
+                .member(member)
+                .insuranceCompany(insuranceCompany)
+                .build();
+
+        if (dto.getInsurancePolicyId() != null) {
+            claim.setInsurancePolicy(references.insurancePolicies().get(dto.getInsurancePolicyId()));
+        }
+        if (dto.getBenefitPackageId() != null) {
+            claim.setBenefitPackage(references.benefitPackages().get(dto.getBenefitPackageId()));
+        }
+        if (dto.getPreApprovalId() != null) {
+            claim.setPreApproval(references.preApprovals().get(dto.getPreApprovalId()));
+        }
+
+        copyCreateFields(claim, dto);
+        return claim;
+    }
+
+    private void copyCreateFields(Claim claim, ClaimCreateDto dto) {
+        claim.setProviderName(dto.getProviderName());
+        claim.setDoctorName(dto.getDoctorName());
+        claim.setDiagnosis(dto.getDiagnosis());
+        claim.setVisitDate(dto.getVisitDate());
+        claim.setRequestedAmount(dto.getRequestedAmount());
+
         if (dto.getLines() != null && !dto.getLines().isEmpty()) {
             List<ClaimLine> lines = dto.getLines().stream()
                     .map(lineDto -> ClaimLine.builder()
@@ -73,8 +133,6 @@ public class ClaimMapper {
                     .collect(Collectors.toList());
             claim.setAttachments(attachments);
         }
-
-        return claim;
     }
 
     public void updateEntityFromDto(Claim claim, ClaimUpdateDto dto) {
@@ -99,33 +157,94 @@ public class ClaimMapper {
         }
 
         if (dto.getLines() != null) {
-            claim.getLines().clear();
-            dto.getLines().forEach(lineDto -> {
-                ClaimLine line = ClaimLine.builder()
-                        .claim(claim)
+            mergeLines(claim, dto.getLines());
+        }
+
+        if (dto.getAttachments() != null) {
+            mergeAttachments(claim, dto.getAttachments());
+        }
+    }
+
+    /**
+     * Apply the submitted lines as a diff: lines with an id are updated in place
+     * (only changed columns end up dirty), lines without an id are added and
+     * existing lines missing from the request are removed.
+     */
+    private void mergeLines(Claim claim, List<ClaimLineDto> lineDtos) {
+        Map<Long, ClaimLine> existing = new HashMap<>();
+        claim.getLines().forEach(line -> existing.put(line.getId(), line));
+
+        Set<Long> kept = new HashSet<>();
+        List<ClaimLine> added = new ArrayList<>();
+        for (ClaimLineDto lineDto : lineDtos) {
+            if (lineDto.getId() == null) {
+                added.add(ClaimLine.builder()
                         .serviceCode(lineDto.getServiceCode())
                         .description(lineDto.getDescription())
                         .quantity(lineDto.getQuantity())
                         .unitPrice(lineDto.getUnitPrice())
-                        .build();
-                claim.addLine(line);
-            });
+                        .build());
+                continue;
+            }
+            ClaimLine line = existing.get(lineDto.getId());
+            if (line == null) {
+                throw new IllegalArgumentException("Claim line not found with id: " + lineDto.getId());
+            }
+            kept.add(line.getId());
+            setIfChanged(line.getServiceCode(), lineDto.getServiceCode(), line::setServiceCode);
+            setIfChanged(line.getDescription(), lineDto.getDescription(), line::setDescription);
+            setIfChanged(line.getQuantity(), lineDto.getQuantity(), line::setQuantity);
+            if (!sameAmount(line.getUnitPrice(), lineDto.getUnitPrice())) {
+                line.setUnitPrice(lineDto.getUnitPrice());
+            }
         }
 
-        if (dto.getAttachments() != null) {
-            claim.getAttachments().clear();
-            dto.getAttachments().forEach(attDto -> {
-                ClaimAttachment attachment = ClaimAttachment.builder()
-                        .claim(claim)
+        claim.getLines().removeIf(line -> !kept.contains(line.getId()));
+        added.forEach(claim::addLine);
+    }
+
+    /**
+     * Same diff semantics as {@link #mergeLines} for attachments.
+     */
+    private void mergeAttachments(Claim claim, List<ClaimAttachmentDto> attachmentDtos) {
+        Map<Long, ClaimAttachment> existing = new HashMap<>();
+        claim.getAttachments().forEach(attachment -> existing.put(attachment.getId(), attachment));
+
+        Set<Long> kept = new HashSet<>();
+        List<ClaimAttachment> added = new ArrayList<>();
+        for (ClaimAttachmentDto attDto : attachmentDtos) {
+            if (attDto.getId() == null) {
+                added.add(ClaimAttachment.builder()
                         .fileName(attDto.getFileName())
                         .fileUrl(attDto.getFileUrl())
                         .fileType(attDto.getFileType())
-                        .build();
-                claim.addAttachment(attachment);
-            });
+                        .build());
+                continue;
+            }
+            ClaimAttachment attachment = existing.get(attDto.getId());
+            if (attachment == null) {
+                throw new IllegalArgumentException("Claim attachment not found with id: " + attDto.getId());
+            }
+            kept.add(attachment.getId());
+            setIfChanged(attachment.getFileName(), attDto.getFileName(), attachment::setFileName);
+            setIfChanged(attachment.getFileUrl(), attDto.getFileUrl(), attachment::setFileUrl);
+            setIfChanged(attachment.getFileType(), attDto.getFileType(), attachment::setFileType);
+        }
+
+        claim.getAttachments().removeIf(attachment -> !kept.contains(attachment.getId()));
+        added.forEach(claim::addAttachment);
+    }
+
+    private static <T> void setIfChanged(T current, T value, Consumer<T> setter) {
+        if (!Objects.equals(current, value)) {
+            setter.accept(value);
         }
     }
 
+    private static boolean sameAmount(BigDecimal current, BigDecimal value) {
+        return current == null ? value == null : value != null && current.compareTo(value) == 0;
+    }
+
     public ClaimViewDto toViewDto(Claim claim) {
         ClaimViewDto dto = ClaimViewDto.builder()
                 .id(claim.getId())
@@ -140,6 +259,10 @@ public class ClaimMapper {
                 .statusLabel(claim.getStatus() != null ? claim.getStatus().getArabicLabel() : null)
                 .reviewerComment(claim.getReviewerComment())
                 .reviewedAt(claim.getReviewedAt())
+                .adjudicatedAt(claim.getAdjudicatedAt())
+                .adjudicationNotes(claim.getAdjudicationNotes())
+                .leasedBy(claim.getLeasedBy())
+                .leaseExpiresAt(claim.getLeaseExpiresAt())
                 .serviceCount(claim.getServiceCount())
                 .attachmentsCount(claim.getAttachmentsCount())
                 .active(claim.getActive())
@@ -147,6 +270,7 @@ public class ClaimMapper {
                 .updatedAt(claim.getUpdatedAt())
                 .createdBy(claim.getCreatedBy())
                 .updatedBy(claim.getUpdatedBy())
+                .version(claim.getVersion())
                 .build();
 
         if (claim.getMember() != null) {
@@ -197,6 +321,9 @@ public class ClaimMapper {
                 .quantity(line.getQuantity())
                 .unitPrice(line.getUnitPrice())
                 .totalPrice(line.getTotalPrice())
+                .allowedAmount(line.getAllowedAmount())
+                .copayAmount(line.getCopayAmount())
+                .adjudicationNote(line.getAdjudicationNote())
                 .build();
     }
 
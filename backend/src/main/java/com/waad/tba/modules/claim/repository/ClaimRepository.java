@@ -1,39 +1,53 @@
 package com.waad.tba.modules.claim.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.waad.tba.modules.claim.dto.ClaimListItemDto;
 import com.waad.tba.modules.claim.entity.Claim;
+import com.waad.tba.modules.claim.entity.ClaimStatus;
 
 @Repository
 public interface ClaimRepository extends JpaRepository<Claim, Long> {
 
-    @Query("SELECT c FROM Claim c " +
+    // Search methods expect a term normalized with ArabicTextNormalizer (trigram-indexed, see V23).
+    // Claim text and member text are matched in separate UNION branches: an OR across the
+    // join could use neither trigram index, each branch uses its own (then idx_claims_member_id).
+    String KEYWORD_MATCH = "c.id IN (" +
+           "SELECT kc.id FROM Claim kc WHERE kc.searchText LIKE CONCAT('%', :keyword, '%') " +
+           "UNION " +
+           "SELECT km.id FROM Claim km WHERE km.member.id IN " +
+           "(SELECT mm.id FROM Member mm WHERE mm.searchText LIKE CONCAT('%', :keyword, '%')))";
+
+    @Query(value = "SELECT c FROM Claim c " +
            "LEFT JOIN FETCH c.member m " +
            "LEFT JOIN FETCH c.insuranceCompany ic " +
            "LEFT JOIN FETCH c.insurancePolicy ip " +
            "LEFT JOIN FETCH c.benefitPackage bp " +
            "LEFT JOIN FETCH c.preApproval pa " +
            "WHERE c.active = true " +
-           "AND (LOWER(c.providerName) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-           "OR LOWER(c.diagnosis) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-           "OR LOWER(m.fullNameArabic) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-           "OR LOWER(m.civilId) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+           "AND " + KEYWORD_MATCH,
+           countQuery = "SELECT COUNT(c) FROM Claim c " +
+           "WHERE c.active = true " +
+           "AND " + KEYWORD_MATCH)
     Page<Claim> searchPaged(@Param("keyword") String keyword, Pageable pageable);
 
     @Query("SELECT c FROM Claim c " +
            "LEFT JOIN FETCH c.member m " +
            "WHERE c.active = true " +
-           "AND (LOWER(c.providerName) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(c.diagnosis) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(m.fullNameArabic) LIKE LOWER(CONCAT('%', :query, '%')))")
-    List<Claim> search(@Param("query") String query);
+           "AND " + KEYWORD_MATCH)
+    List<Claim> search(@Param("keyword") String query);
 
     @Query("SELECT c FROM Claim c " +
            "LEFT JOIN FETCH c.member " +
@@ -55,4 +69,134 @@ public interface ClaimRepository extends JpaRepository<Claim, Long> {
 
     @Query("SELECT COUNT(c) FROM Claim c WHERE c.active = true")
     long countActive();
+
+    // Keyset listing: flat projection ordered by (createdAt, id) DESC.
+    // Pass a Pageable of (0, size + 1) only as a row limit; no count query is issued.
+    String LIST_ITEM_SELECT = "SELECT new com.waad.tba.modules.claim.dto.ClaimListItemDto(" +
+           "c.id, m.id, m.fullNameArabic, m.civilId, ic.id, ic.name, c.providerName, c.diagnosis, " +
+           "c.visitDate, c.requestedAmount, c.approvedAmount, c.status, c.serviceCount, " +
+           "c.attachmentsCount, c.createdAt) " +
+           "FROM Claim c JOIN c.member m JOIN c.insuranceCompany ic " +
+           "WHERE c.active = true " +
+           "AND (:keyword = '' OR " + KEYWORD_MATCH + ") ";
+
+    @Query(LIST_ITEM_SELECT + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ClaimListItemDto> findListItems(@Param("keyword") String keyword, Pageable limit);
+
+    @Query(LIST_ITEM_SELECT +
+           "AND (c.createdAt, c.id) < (:createdAt, :id) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ClaimListItemDto> findListItemsAfter(@Param("keyword") String keyword,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable limit);
+
+    @Query("SELECT COUNT(c) FROM Claim c " +
+           "WHERE c.active = true " +
+           "AND " + KEYWORD_MATCH)
+    long countActiveByKeyword(@Param("keyword") String keyword);
+
+    // Planner row estimate for the claims table (constant time, refreshed by ANALYZE/autovacuum)
+    @Query(value = "SELECT CAST(GREATEST(reltuples, 0) AS BIGINT) FROM pg_class WHERE oid = 'claims'::regclass",
+           nativeQuery = true)
+    long estimateRowCount();
+
+    // Scalar lookup for data-level access checks (no entity load)
+    @Query("SELECT c.member.employer.id FROM Claim c WHERE c.id = :claimId")
+    Optional<Long> findMemberEmployerIdById(@Param("claimId") Long claimId);
+
+    // Member balance ledger: approved amount consumed by a member's claims
+    @Query("SELECT COALESCE(SUM(c.approvedAmount), 0) FROM Claim c " +
+           "WHERE c.member.id = :memberId AND c.active = true AND c.status IN :statuses")
+    BigDecimal sumApprovedAmountByMemberId(@Param("memberId") Long memberId,
+                                           @Param("statuses") List<ClaimStatus> statuses);
+
+    // Adjudication batches: next claims not yet priced, in id order (partial index, see V30).
+    // Claims under an active reviewer lease are skipped until the lease ends
+    @Query("SELECT c.id FROM Claim c " +
+           "WHERE c.active = true AND c.status = :status AND c.adjudicatedAt IS NULL AND c.id > :afterId " +
+           "AND (c.leaseExpiresAt IS NULL OR c.leaseExpiresAt < :now) " +
+           "ORDER BY c.id")
+    List<Long> findIdsAwaitingAdjudication(@Param("status") ClaimStatus status,
+                                           @Param("afterId") Long afterId,
+                                           @Param("now") LocalDateTime now,
+                                           Pageable limit);
+
+    // Locks the claims of an adjudication batch that are still unpriced and not leased;
+    // claims another worker (or node) holds are skipped, not waited for
+    @Query(value = "SELECT c.id FROM claims c WHERE c.id IN (:ids) AND c.active = true " +
+           "AND c.status = 'PENDING_REVIEW' AND c.adjudicated_at IS NULL " +
+           "AND (c.lease_expires_at IS NULL OR c.lease_expires_at < :now) " +
+           "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockAwaitingAdjudication(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Row lock for re-adjudicating a single claim (serializes with batch runs)
+    @Query(value = "SELECT c.id FROM claims c WHERE c.id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    // Routes a claim the engine could not process to the reviewers
+    @Modifying
+    @Query("UPDATE Claim c SET c.adjudicatedAt = :now, c.adjudicationNotes = :notes " +
+           "WHERE c.id = :id AND c.adjudicatedAt IS NULL")
+    int markAdjudicationFailed(@Param("id") Long id, @Param("notes") String notes, @Param("now") LocalDateTime now);
+
+    // Everything the adjudication engine reads, in one query per batch
+    @Query("SELECT DISTINCT c FROM Claim c " +
+           "LEFT JOIN FETCH c.lines " +
+           "LEFT JOIN FETCH c.member " +
+           "LEFT JOIN FETCH c.benefitPackage " +
+           "LEFT JOIN FETCH c.preApproval " +
+           "WHERE c.id IN :ids")
+    List<Claim> findForAdjudication(@Param("ids") Collection<Long> ids);
+
+    // Review work queue: oldest claim pending review that nobody holds, locked for the
+    // leasing transaction. Claims locked by a concurrent dispatch are skipped, so each
+    // reviewer gets a different claim; the scan stops at the first free row of the
+    // partial (created_at, id) index (see V31)
+    @Query(value = "SELECT c.id FROM claims c " +
+           "WHERE c.status = 'PENDING_REVIEW' AND c.active = true " +
+           "AND (c.lease_expires_at IS NULL OR c.lease_expires_at < :now) " +
+           "ORDER BY c.created_at, c.id " +
+           "LIMIT 1 " +
+           "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Long> findNextForReview(@Param("now") LocalDateTime now);
+
+    // Same, restricted to claims the adjudication engine referred (used while it is enabled).
+    // The literal adjudicated_at condition lets the planner use the matching partial index
+    // (see V33), so claims still waiting for the engine are not scanned
+    @Query(value = "SELECT c.id FROM claims c " +
+           "WHERE c.status = 'PENDING_REVIEW' AND c.active = true AND c.adjudicated_at IS NOT NULL " +
+           "AND (c.lease_expires_at IS NULL OR c.lease_expires_at < :now) " +
+           "ORDER BY c.created_at, c.id " +
+           "LIMIT 1 " +
+           "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Long> findNextAdjudicatedForReview(@Param("now") LocalDateTime now);
+
+    @Query("SELECT c.id FROM Claim c " +
+           "WHERE c.leasedBy = :username AND c.leaseExpiresAt > :now " +
+           "AND c.status = :status AND c.active = true " +
+           "ORDER BY c.leaseExpiresAt DESC")
+    List<Long> findLeasedIds(@Param("username") String username,
+                             @Param("status") ClaimStatus status,
+                             @Param("now") LocalDateTime now,
+                             Pageable limit);
+
+    // Lease updates are bulk updates: they do not bump the version the reviewer's form holds
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Claim c SET c.leasedBy = :username, c.leaseExpiresAt = :expiresAt WHERE c.id = :id")
+    int lease(@Param("id") Long id, @Param("username") String username, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Claim c SET c.leaseExpiresAt = :expiresAt " +
+           "WHERE c.id = :id AND c.leasedBy = :username AND c.leaseExpiresAt > :now " +
+           "AND c.status = :status AND c.active = true")
+    int renewLease(@Param("id") Long id,
+                   @Param("username") String username,
+                   @Param("status") ClaimStatus status,
+                   @Param("now") LocalDateTime now,
+                   @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Claim c SET c.leasedBy = NULL, c.leaseExpiresAt = NULL WHERE c.id = :id AND c.leasedBy = :username")
+    int releaseLease(@Param("id") Long id, @Param("username") String username);
 }
@@ -0,0 +1,281 @@
+package com.waad.tba.modules.claim.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.waad.tba.common.exception.ConflictException;
+import com.waad.tba.modules.claim.dto.ClaimAdjudicationRunResult;
+import com.waad.tba.modules.claim.dto.ClaimViewDto;
+import com.waad.tba.modules.claim.entity.Claim;
+import com.waad.tba.modules.claim.entity.ClaimLine;
+import com.waad.tba.modules.claim.entity.ClaimStatus;
+import com.waad.tba.modules.claim.mapper.ClaimMapper;
+import com.waad.tba.modules.claim.repository.ClaimRepository;
+import com.waad.tba.modules.member.service.MemberBalanceService;
+import com.waad.tba.modules.preauth.entity.PreApproval;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Claim Adjudication Service
+ *
+ * Prices PENDING_REVIEW claims automatically (see ClaimAdjudicator) and routes
+ * only the exceptions to reviewers:
+ * - claims not yet adjudicated are processed in batches of
+ *   claims.adjudication.batch-size, one transaction per batch
+ * - each batch locks its claims with FOR UPDATE SKIP LOCKED, so concurrent runs
+ *   (other nodes, manual runs) split the backlog instead of colliding
+ * - claims, lines, member, package and pre-approval are loaded with one query
+ *   per batch; tariffs come from the in-memory ClaimTariffs snapshot
+ * - pricing runs in parallel over the batch, results are applied in order
+ *
+ * Auto-decided claims become APPROVED / PARTIALLY_APPROVED and consume the
+ * member balance like a reviewer decision; a claim that would overspend the
+ * remaining balance is referred instead. Referred claims stay PENDING_REVIEW
+ * with the priced amounts and the reasons in adjudicationNotes.
+ *
+ * If a batch fails it is replayed claim by claim; a claim that still fails is
+ * referred with the error, so it is not picked up again.
+ *
+ * Claims a reviewer holds an active lease on (ClaimWorkQueueService) are left
+ * alone and picked up by a later run. Each batch clears the persistence context
+ * after its flush: a manual run executes on the request thread, where
+ * open-in-view would otherwise keep every adjudicated claim managed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClaimAdjudicationService {
+
+    private static final String ENGINE_USER = "adjudication-engine";
+
+    private static final Set<PreApproval.ApprovalStatus> AUTHORIZING_APPROVAL_STATUSES = Set.of(
+            PreApproval.ApprovalStatus.APPROVED,
+            PreApproval.ApprovalStatus.PARTIALLY_APPROVED,
+            PreApproval.ApprovalStatus.USED);
+
+    private final ClaimRepository claimRepository;
+    private final ClaimTariffService tariffService;
+    private final ClaimService claimService;
+    private final ClaimWorkQueueService claimWorkQueueService;
+    private final ClaimMapper claimMapper;
+    private final MemberBalanceService memberBalanceService;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    @Value("${claims.adjudication.enabled:true}")
+    private boolean enabled;
+
+    @Value("${claims.adjudication.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Claims priced above this amount are always referred to a reviewer.
+     */
+    @Value("${claims.adjudication.auto-approve-max-amount:5000}")
+    private BigDecimal autoApproveMaxAmount;
+
+    @Scheduled(fixedDelayString = "${claims.adjudication.run-delay-ms:60000}",
+               initialDelayString = "${claims.adjudication.run-delay-ms:60000}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Adjudicate every claim awaiting adjudication.
+     */
+    public ClaimAdjudicationRunResult run() {
+        if (!enabled) {
+            throw new ConflictException("Claim adjudication is disabled (claims.adjudication.enabled)");
+        }
+        long startedAt = System.currentTimeMillis();
+        ClaimTariffs tariffs = tariffService.current();
+        Map<ClaimStatus, Integer> outcomes = new HashMap<>();
+        int failed = 0;
+
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            ids = claimRepository.findIdsAwaitingAdjudication(ClaimStatus.PENDING_REVIEW, afterId,
+                    LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            failed += processBatch(ids, tariffs, outcomes);
+        } while (ids.size() == batchSize);
+
+        int approved = outcomes.getOrDefault(ClaimStatus.APPROVED, 0);
+        int partiallyApproved = outcomes.getOrDefault(ClaimStatus.PARTIALLY_APPROVED, 0);
+        int referred = outcomes.getOrDefault(ClaimStatus.PENDING_REVIEW, 0);
+        long duration = System.currentTimeMillis() - startedAt;
+        if (approved + partiallyApproved + referred + failed > 0) {
+            log.info("Claim adjudication: {} approved, {} partially approved, {} referred, {} failed in {} ms",
+                    approved, partiallyApproved, referred, failed, duration);
+        }
+        return ClaimAdjudicationRunResult.builder()
+                .adjudicated(approved + partiallyApproved + referred)
+                .approved(approved)
+                .partiallyApproved(partiallyApproved)
+                .referred(referred)
+                .failed(failed)
+                .durationMs(duration)
+                .build();
+    }
+
+    /**
+     * Re-price one PENDING_REVIEW claim (e.g. after a reviewer corrected its lines).
+     */
+    public ClaimViewDto adjudicate(Long id) {
+        ClaimTariffs tariffs = tariffService.current();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> {
+            claimRepository.lockById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Claim not found with id: " + id));
+            Claim claim = claimRepository.findForAdjudication(List.of(id)).get(0);
+            if (!Boolean.TRUE.equals(claim.getActive()) || claim.getStatus() != ClaimStatus.PENDING_REVIEW) {
+                throw new IllegalArgumentException("Only active claims pending review can be adjudicated");
+            }
+            claimWorkQueueService.checkLease(claim);
+            adjudicate(List.of(claim), tariffs);
+            claimRepository.flush();
+            return claimMapper.toViewDto(claim);
+        });
+    }
+
+    // Returns the number of claims that failed
+    private int processBatch(List<Long> ids, ClaimTariffs tariffs, Map<ClaimStatus, Integer> outcomes) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            count(outcomes, transaction.execute(status -> adjudicateBatch(ids, tariffs)));
+            return 0;
+        } catch (RuntimeException e) {
+            log.warn("Claim adjudication batch from id {} failed ({}), retrying claim by claim", ids.get(0), e.getMessage());
+        }
+
+        int failed = 0;
+        for (Long id : ids) {
+            try {
+                count(outcomes, transaction.execute(status -> adjudicateBatch(List.of(id), tariffs)));
+            } catch (RuntimeException e) {
+                String error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                log.warn("Claim {} could not be adjudicated: {}", id, error);
+                transaction.executeWithoutResult(status ->
+                        claimRepository.markAdjudicationFailed(id, "Adjudication failed: " + error, LocalDateTime.now()));
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    private List<ClaimStatus> adjudicateBatch(List<Long> ids, ClaimTariffs tariffs) {
+        List<Long> locked = claimRepository.lockAwaitingAdjudication(ids, LocalDateTime.now());
+        if (locked.isEmpty()) {
+            return List.of();
+        }
+        List<ClaimStatus> outcomes = adjudicate(claimRepository.findForAdjudication(locked), tariffs);
+        claimRepository.flush();
+        entityManager.clear();
+        return outcomes;
+    }
+
+    private List<ClaimStatus> adjudicate(List<Claim> claims, ClaimTariffs tariffs) {
+        // Entities are read on this thread only; pool threads see plain facts
+        List<ClaimAdjudicator.ClaimFacts> facts = claims.stream()
+                .map(claim -> facts(claim, tariffs))
+                .toList();
+        Map<Long, ClaimAdjudicator.Result> results = facts.parallelStream()
+                .map(claim -> ClaimAdjudicator.adjudicate(claim, tariffs, autoApproveMaxAmount))
+                .collect(Collectors.toMap(ClaimAdjudicator.Result::claimId, Function.identity()));
+
+        Map<Long, BigDecimal> remaining = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        List<ClaimStatus> outcomes = new ArrayList<>(claims.size());
+        for (Claim claim : claims) {
+            outcomes.add(apply(claim, results.get(claim.getId()), remaining, now));
+        }
+        return outcomes;
+    }
+
+    private static ClaimAdjudicator.ClaimFacts facts(Claim claim, ClaimTariffs tariffs) {
+        BigDecimal copay = claim.getBenefitPackage() != null
+                ? claim.getBenefitPackage().getCopayPercentage()
+                : tariffs.packageCopay(claim.getMember().getBenefitPackageId());
+        PreApproval preApproval = claim.getPreApproval();
+        boolean preAuthorized = preApproval != null && Boolean.TRUE.equals(preApproval.getActive())
+                && AUTHORIZING_APPROVAL_STATUSES.contains(preApproval.getStatus());
+        LocalDate serviceDate = claim.getVisitDate() != null ? claim.getVisitDate() : claim.getCreatedAt().toLocalDate();
+        List<ClaimAdjudicator.LineFacts> lines = claim.getLines().stream()
+                .map(line -> new ClaimAdjudicator.LineFacts(line.getId(), line.getServiceCode(),
+                        line.getQuantity(), line.getUnitPrice()))
+                .toList();
+        return new ClaimAdjudicator.ClaimFacts(claim.getId(), claim.getMember().getId(), claim.getProviderName(),
+                serviceDate, claim.getRequestedAmount(), copay, preAuthorized, lines);
+    }
+
+    /**
+     * Write the result to the claim; returns its outcome (PENDING_REVIEW when referred).
+     * remaining tracks member balances across the claims of the batch.
+     */
+    private ClaimStatus apply(Claim claim, ClaimAdjudicator.Result result, Map<Long, BigDecimal> remaining,
+                              LocalDateTime now) {
+        Map<Long, ClaimAdjudicator.LineResult> lineResults = result.lines().stream()
+                .collect(Collectors.toMap(ClaimAdjudicator.LineResult::lineId, Function.identity()));
+        for (ClaimLine line : claim.getLines()) {
+            ClaimAdjudicator.LineResult lineResult = lineResults.get(line.getId());
+            line.setAllowedAmount(lineResult.allowedAmount());
+            line.setCopayAmount(lineResult.copayAmount());
+            line.setAdjudicationNote(lineResult.note());
+        }
+
+        List<String> exceptions = new ArrayList<>(result.exceptions());
+        Long memberId = claim.getMember().getId();
+        BigDecimal available = null;
+        if (!result.referred()) {
+            available = remaining.computeIfAbsent(memberId, memberBalanceService::getRemainingBalance);
+            if (result.approvedAmount().compareTo(available) > 0) {
+                exceptions.add("Approved amount " + result.approvedAmount().toPlainString()
+                        + " exceeds the member's remaining balance " + available.toPlainString());
+            }
+        }
+
+        BigDecimal consumedBefore = MemberBalanceService.consumedAmountOf(claim);
+        claim.setApprovedAmount(result.approvedAmount());
+        claim.setAdjudicatedAt(now);
+        claim.setUpdatedBy(ENGINE_USER);
+        if (!exceptions.isEmpty()) {
+            claim.setAdjudicationNotes(String.join("; ", exceptions));
+            return ClaimStatus.PENDING_REVIEW;
+        }
+
+        claim.setStatus(result.status());
+        claim.setAdjudicationNotes(null);
+        claimService.applyBalanceChange(claim, consumedBefore);
+        remaining.put(memberId, available.subtract(result.approvedAmount()));
+        return result.status();
+    }
+
+    private static void count(Map<ClaimStatus, Integer> outcomes, List<ClaimStatus> batch) {
+        batch.forEach(status -> outcomes.merge(status, 1, Integer::sum));
+    }
+}
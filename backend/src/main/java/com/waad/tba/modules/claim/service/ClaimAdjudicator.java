@@ -0,0 +1,173 @@
+package com.waad.tba.modules.claim.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.waad.tba.modules.claim.entity.ClaimStatus;
+
+/**
+ * Prices a claim against the tariff snapshot. Pure function of its inputs, so
+ * the claims of a batch are adjudicated in parallel.
+ *
+ * Per line:
+ * - unknown / inactive service code: not priced, exception
+ * - code not covered: allowed 0 (line denied)
+ * - contract price = CPT standard price less the provider discount (contract in
+ *   force on the service date, else the provider default), raised to the
+ *   minimum and capped at the maximum allowed price; without a standard price
+ *   the maximum allowed price is the reference, without either: exception
+ * - allowed = min(billed unit price, contract price) x quantity
+ * - copay = allowed x (CPT copay percentage, else benefit package copay)
+ * - code requires pre-authorization and the claim has no approved one: exception
+ *
+ * The claim is approved for the sum of allowed - copay (APPROVED when nothing
+ * was cut, else PARTIALLY_APPROVED) unless it has an exception; then it stays
+ * PENDING_REVIEW with the priced amounts as the reviewer's starting point.
+ */
+final class ClaimAdjudicator {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private ClaimAdjudicator() {
+    }
+
+    record LineFacts(Long lineId, String serviceCode, int quantity, BigDecimal unitPrice) {
+    }
+
+    /**
+     * Claim state read on the transaction thread; copayPercentage is the benefit package copay (may be null).
+     */
+    record ClaimFacts(long claimId,
+                      long memberId,
+                      String providerName,
+                      LocalDate serviceDate,
+                      BigDecimal requestedAmount,
+                      BigDecimal copayPercentage,
+                      boolean preAuthorized,
+                      List<LineFacts> lines) {
+    }
+
+    record LineResult(Long lineId, BigDecimal allowedAmount, BigDecimal copayAmount, String note) {
+    }
+
+    /**
+     * status is APPROVED / PARTIALLY_APPROVED, or PENDING_REVIEW when exceptions is not empty.
+     * approvedAmount is null when a line could not be priced.
+     */
+    record Result(long claimId, ClaimStatus status, BigDecimal approvedAmount, List<LineResult> lines,
+                  List<String> exceptions) {
+
+        boolean referred() {
+            return status == ClaimStatus.PENDING_REVIEW;
+        }
+    }
+
+    static Result adjudicate(ClaimFacts claim, ClaimTariffs tariffs, BigDecimal autoApproveMaxAmount) {
+        List<String> exceptions = new ArrayList<>();
+        if (claim.lines().isEmpty()) {
+            exceptions.add("Claim has no service lines");
+        }
+
+        BigDecimal discountRate = BigDecimal.ZERO;
+        ClaimTariffs.ProviderTerms provider = tariffs.provider(claim.providerName());
+        if (provider != null) {
+            discountRate = provider.discountRate(claim.serviceDate());
+        } else if (claim.providerName() == null || claim.providerName().isBlank()) {
+            exceptions.add("Claim has no provider");
+        } else if (tariffs.isAmbiguousProvider(claim.providerName())) {
+            exceptions.add("Provider name '" + claim.providerName() + "' matches more than one provider");
+        } else {
+            exceptions.add("Provider '" + claim.providerName() + "' is not a registered provider");
+        }
+
+        List<LineResult> lines = new ArrayList<>(claim.lines().size());
+        BigDecimal billed = BigDecimal.ZERO;
+        BigDecimal approved = BigDecimal.ZERO;
+        boolean priced = true;
+        for (int i = 0; i < claim.lines().size(); i++) {
+            LineFacts line = claim.lines().get(i);
+            billed = billed.add(line.unitPrice().multiply(BigDecimal.valueOf(line.quantity())));
+            LineResult result = priceLine(i + 1, line, tariffs.cpt(line.serviceCode()), discountRate,
+                    claim.copayPercentage(), claim.preAuthorized(), exceptions);
+            lines.add(result);
+            if (result.allowedAmount() == null) {
+                priced = false;
+            } else {
+                approved = approved.add(result.allowedAmount()).subtract(result.copayAmount());
+            }
+        }
+
+        if (!claim.lines().isEmpty() && billed.compareTo(claim.requestedAmount()) != 0) {
+            exceptions.add("Service lines total " + amount(billed) + " differs from requested amount "
+                    + amount(claim.requestedAmount()));
+        }
+        BigDecimal approvedAmount = priced && !claim.lines().isEmpty() ? approved.min(claim.requestedAmount()) : null;
+        if (approvedAmount != null) {
+            if (approvedAmount.signum() == 0) {
+                exceptions.add("No payable amount (all services denied)");
+            } else if (autoApproveMaxAmount != null && approvedAmount.compareTo(autoApproveMaxAmount) > 0) {
+                exceptions.add("Approved amount " + amount(approvedAmount) + " is above the auto-approval limit "
+                        + amount(autoApproveMaxAmount));
+            }
+        }
+
+        ClaimStatus status;
+        if (!exceptions.isEmpty()) {
+            status = ClaimStatus.PENDING_REVIEW;
+        } else if (approvedAmount.compareTo(claim.requestedAmount()) < 0) {
+            status = ClaimStatus.PARTIALLY_APPROVED;
+        } else {
+            status = ClaimStatus.APPROVED;
+        }
+        return new Result(claim.claimId(), status, approvedAmount, lines, exceptions);
+    }
+
+    private static LineResult priceLine(int number, LineFacts line, ClaimTariffs.CptTariff tariff,
+                                        BigDecimal discountRate, BigDecimal packageCopay, boolean preAuthorized,
+                                        List<String> exceptions) {
+        if (tariff == null || !tariff.active()) {
+            String reason = tariff == null ? "Unknown service code" : "Inactive service code";
+            exceptions.add("Line " + number + ": " + reason.toLowerCase(Locale.ROOT) + " '" + line.serviceCode() + "'");
+            return new LineResult(line.lineId(), null, null, reason);
+        }
+        if (!tariff.covered()) {
+            return new LineResult(line.lineId(), BigDecimal.ZERO, BigDecimal.ZERO, "Service not covered");
+        }
+        if (tariff.requiresPreAuth() && !preAuthorized) {
+            exceptions.add("Line " + number + ": " + tariff.code() + " requires pre-authorization");
+        }
+
+        BigDecimal contractPrice;
+        if (tariff.standardPrice() != null) {
+            contractPrice = tariff.standardPrice().multiply(HUNDRED.subtract(discountRate)).divide(HUNDRED);
+            if (tariff.minAllowedPrice() != null && contractPrice.compareTo(tariff.minAllowedPrice()) < 0) {
+                contractPrice = tariff.minAllowedPrice();
+            }
+        } else if (tariff.maxAllowedPrice() != null) {
+            contractPrice = tariff.maxAllowedPrice();
+        } else {
+            exceptions.add("Line " + number + ": no tariff price for " + tariff.code());
+            return new LineResult(line.lineId(), null, null, "No tariff price");
+        }
+        if (tariff.maxAllowedPrice() != null && contractPrice.compareTo(tariff.maxAllowedPrice()) > 0) {
+            contractPrice = tariff.maxAllowedPrice();
+        }
+
+        BigDecimal unitPrice = line.unitPrice().min(contractPrice);
+        BigDecimal allowed = unitPrice.multiply(BigDecimal.valueOf(line.quantity())).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal copayPercentage = tariff.coPaymentPercentage() != null ? tariff.coPaymentPercentage() : packageCopay;
+        BigDecimal copay = copayPercentage != null
+                ? allowed.multiply(copayPercentage).divide(HUNDRED, 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+        String note = unitPrice.compareTo(line.unitPrice()) < 0 ? "Priced at tariff " + amount(contractPrice) : null;
+        return new LineResult(line.lineId(), allowed, copay, note);
+    }
+
+    private static String amount(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
@@ -0,0 +1,314 @@
+package com.waad.tba.modules.claim.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waad.tba.modules.claim.dto.BulkClaimItemResult;
+import com.waad.tba.modules.claim.dto.BulkClaimSubmissionResult;
+import com.waad.tba.modules.claim.dto.ClaimAttachmentDto;
+import com.waad.tba.modules.claim.dto.ClaimCreateDto;
+import com.waad.tba.modules.claim.dto.ClaimLineDto;
+import com.waad.tba.modules.claim.entity.Claim;
+import com.waad.tba.modules.claim.mapper.ClaimMapper;
+import com.waad.tba.modules.claim.repository.ClaimRepository;
+import com.waad.tba.modules.insurance.entity.InsuranceCompany;
+import com.waad.tba.modules.insurance.repository.InsuranceCompanyRepository;
+import com.waad.tba.modules.insurancepolicy.entity.InsurancePolicy;
+import com.waad.tba.modules.insurancepolicy.entity.PolicyBenefitPackage;
+import com.waad.tba.modules.insurancepolicy.repository.InsurancePolicyRepository;
+import com.waad.tba.modules.insurancepolicy.repository.PolicyBenefitPackageRepository;
+import com.waad.tba.modules.member.entity.Member;
+import com.waad.tba.modules.member.repository.MemberRepository;
+import com.waad.tba.modules.preauth.entity.PreApproval;
+import com.waad.tba.modules.preauth.repository.PreApprovalRepository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk Claim Submission Service
+ *
+ * Accepts a JSON array of ClaimCreateDto and processes it as a stream of chunks:
+ * - the request body is read item by item (never fully materialized as a list)
+ * - referenced members, companies, policies, packages and pre-approvals are
+ *   resolved with one IN query per entity type and chunk
+ * - items of a chunk are validated in parallel
+ * - valid items are persisted in one transaction per chunk (batched inserts)
+ *
+ * If a chunk fails at persistence time it is replayed item by item, so one bad
+ * claim only fails itself. A malformed item ends the submission: it is reported
+ * as failed next to the claims already created, and the result's error says
+ * that the items after it were not processed. New claims start in PENDING_REVIEW and do not consume
+ * member balance, so no ledger update is needed here.
+ *
+ * With open-in-view the chunk transactions share the request's EntityManager,
+ * so each chunk clears it after its flush (a rolled back chunk is cleared by
+ * the transaction manager); memory stays bounded by the chunk size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClaimBulkSubmissionService {
+
+    private final ObjectMapper objectMapper;
+    private final ClaimMapper claimMapper;
+    private final ClaimRepository claimRepository;
+    private final MemberRepository memberRepository;
+    private final InsuranceCompanyRepository insuranceCompanyRepository;
+    private final InsurancePolicyRepository insurancePolicyRepository;
+    private final PolicyBenefitPackageRepository policyBenefitPackageRepository;
+    private final PreApprovalRepository preApprovalRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    @Value("${claims.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${claims.bulk.max-items:20000}")
+    private int maxItems;
+
+    /**
+     * Read and process a JSON array of claims from the given stream.
+     */
+    public BulkClaimSubmissionResult submit(InputStream body) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        List<BulkClaimItemResult> results = new ArrayList<>();
+        List<ClaimCreateDto> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        String payloadError = null;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Bulk claim payload must be a JSON array");
+            }
+
+            while (true) {
+                ClaimCreateDto dto;
+                try {
+                    dto = readItem(parser);
+                } catch (JsonProcessingException e) {
+                    // Earlier chunks are committed: stop reading and report what was done
+                    results.add(failed(index, "Malformed claim: " + e.getOriginalMessage()));
+                    payloadError = "Bulk claim payload is malformed at index " + index
+                            + "; the items after it were not processed";
+                    break;
+                }
+                if (dto == null) {
+                    break;
+                }
+                if (index >= maxItems) {
+                    results.add(failed(index, "Bulk submission limit of " + maxItems + " claims exceeded"));
+                } else {
+                    chunk.add(dto);
+                    if (chunk.size() == chunkSize) {
+                        results.addAll(processChunk(chunk, index - chunk.size() + 1));
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                index++;
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            results.addAll(processChunk(chunk, Math.min(index, maxItems) - chunk.size()));
+        }
+
+        results.sort(Comparator.comparingInt(BulkClaimItemResult::getIndex));
+        int created = (int) results.stream()
+                .filter(result -> result.getStatus() == BulkClaimItemResult.Status.CREATED)
+                .count();
+        long duration = System.currentTimeMillis() - startedAt;
+        log.info("Bulk claim submission: {} items, {} created, {} failed in {} ms{}",
+                results.size(), created, results.size() - created, duration,
+                payloadError != null ? " (" + payloadError + ")" : "");
+
+        return BulkClaimSubmissionResult.builder()
+                .total(results.size())
+                .created(created)
+                .failed(results.size() - created)
+                .durationMs(duration)
+                .items(results)
+                .error(payloadError)
+                .build();
+    }
+
+    /**
+     * Next claim of the array, or null at its end.
+     */
+    private ClaimCreateDto readItem(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, token == null
+                    ? "Unexpected end of payload" : "Expected a claim object but found " + token);
+        }
+        return objectMapper.readValue(parser, ClaimCreateDto.class);
+    }
+
+    private List<BulkClaimItemResult> processChunk(List<ClaimCreateDto> chunk, int firstIndex) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            return transaction.execute(status -> persistChunk(chunk, firstIndex));
+        } catch (RuntimeException e) {
+            log.warn("Bulk claim chunk at index {} failed ({}), retrying item by item", firstIndex, e.getMessage());
+        }
+
+        List<BulkClaimItemResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            int itemIndex = firstIndex + i;
+            List<ClaimCreateDto> single = List.of(chunk.get(i));
+            try {
+                results.addAll(transaction.execute(status -> persistChunk(single, itemIndex)));
+            } catch (RuntimeException e) {
+                results.add(failed(itemIndex, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private List<BulkClaimItemResult> persistChunk(List<ClaimCreateDto> chunk, int firstIndex) {
+        ClaimMapper.References references = resolveReferences(chunk);
+
+        List<String> errors = IntStream.range(0, chunk.size())
+                .parallel()
+                .mapToObj(i -> validate(chunk.get(i), references))
+                .toList();
+
+        List<Claim> claims = new ArrayList<>(chunk.size());
+        List<Integer> claimIndexes = new ArrayList<>(chunk.size());
+        BulkClaimItemResult[] results = new BulkClaimItemResult[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            if (errors.get(i) != null) {
+                results[i] = failed(firstIndex + i, errors.get(i));
+            } else {
+                claims.add(claimMapper.toEntity(chunk.get(i), references));
+                claimIndexes.add(i);
+            }
+        }
+
+        claimRepository.saveAll(claims);
+        claimRepository.flush();
+        // Ids are assigned; nothing of the chunk is read again, so keep the context empty
+        entityManager.clear();
+
+        for (int i = 0; i < claims.size(); i++) {
+            int position = claimIndexes.get(i);
+            results[position] = BulkClaimItemResult.builder()
+                    .index(firstIndex + position)
+                    .status(BulkClaimItemResult.Status.CREATED)
+                    .claimId(claims.get(i).getId())
+                    .build();
+        }
+        return List.of(results);
+    }
+
+    private ClaimMapper.References resolveReferences(List<ClaimCreateDto> chunk) {
+        return new ClaimMapper.References(
+                loadById(memberRepository, chunk, ClaimCreateDto::getMemberId, Member::getId),
+                loadById(insuranceCompanyRepository, chunk, ClaimCreateDto::getInsuranceCompanyId, InsuranceCompany::getId),
+                loadById(insurancePolicyRepository, chunk, ClaimCreateDto::getInsurancePolicyId, InsurancePolicy::getId),
+                loadById(policyBenefitPackageRepository, chunk, ClaimCreateDto::getBenefitPackageId,
+                        PolicyBenefitPackage::getId),
+                loadById(preApprovalRepository, chunk, ClaimCreateDto::getPreApprovalId, PreApproval::getId));
+    }
+
+    private static <T> Map<Long, T> loadById(JpaRepository<T, Long> repository,
+                                             List<ClaimCreateDto> chunk,
+                                             Function<ClaimCreateDto, Long> idOf,
+                                             Function<T, Long> entityId) {
+        Set<Long> ids = chunk.stream()
+                .map(idOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(entityId, Function.identity()));
+    }
+
+    /**
+     * Validate one item against the resolved references; null when valid.
+     * Runs on pool threads, so it must only read already loaded state.
+     */
+    private static String validate(ClaimCreateDto dto, ClaimMapper.References references) {
+        try {
+            ClaimService.validateCreateDto(dto);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        if (dto.getMemberId() == null || !references.members().containsKey(dto.getMemberId())) {
+            return "Member not found";
+        }
+        if (dto.getInsuranceCompanyId() == null
+                || !references.insuranceCompanies().containsKey(dto.getInsuranceCompanyId())) {
+            return "Insurance company not found";
+        }
+        String lineError = validateLines(dto.getLines());
+        if (lineError != null) {
+            return lineError;
+        }
+        return validateAttachments(dto.getAttachments());
+    }
+
+    private static String validateLines(Collection<ClaimLineDto> lines) {
+        if (lines == null) {
+            return null;
+        }
+        for (ClaimLineDto line : lines) {
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                return "Claim line quantity must be greater than zero";
+            }
+            if (line.getUnitPrice() == null || line.getUnitPrice().compareTo(BigDecimal.ZERO) < 0) {
+                return "Claim line unit price is required and cannot be negative";
+            }
+        }
+        return null;
+    }
+
+    private static String validateAttachments(Collection<ClaimAttachmentDto> attachments) {
+        if (attachments == null) {
+            return null;
+        }
+        for (ClaimAttachmentDto attachment : attachments) {
+            if (attachment.getFileName() == null || attachment.getFileName().isBlank()) {
+                return "Claim attachment file name is required";
+            }
+        }
+        return null;
+    }
+
+    private static BulkClaimItemResult failed(int index, String error) {
+        return BulkClaimItemResult.builder()
+                .index(index)
+                .status(BulkClaimItemResult.Status.FAILED)
+                .error(error)
+                .build();
+    }
+}
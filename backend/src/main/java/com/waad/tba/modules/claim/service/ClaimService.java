@@ -8,16 +8,24 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.waad.tba.common.dto.CursorPageResponse;
+import com.waad.tba.common.dto.KeysetCursor;
+import com.waad.tba.common.search.ArabicTextNormalizer;
+import com.waad.tba.common.search.SearchRanking;
 import com.waad.tba.modules.claim.dto.ClaimCreateDto;
+import com.waad.tba.modules.claim.dto.ClaimListItemDto;
 import com.waad.tba.modules.claim.dto.ClaimUpdateDto;
 import com.waad.tba.modules.claim.dto.ClaimViewDto;
 import com.waad.tba.modules.claim.entity.Claim;
 import com.waad.tba.modules.claim.entity.ClaimStatus;
 import com.waad.tba.modules.claim.mapper.ClaimMapper;
 import com.waad.tba.modules.claim.repository.ClaimRepository;
+import com.waad.tba.modules.member.service.MemberBalanceService;
+import com.waad.tba.modules.preauth.entity.PreApproval;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,11 +34,18 @@ import lombok.RequiredArgsConstructor;
 @Transactional
 public class ClaimService {
 
+    private static final int MAX_KEYSET_PAGE_SIZE = 200;
+
     private final ClaimRepository claimRepository;
     private final ClaimMapper claimMapper;
+    private final MemberBalanceService memberBalanceService;
+    private final ClaimWorkQueueService claimWorkQueueService;
 
     public List<ClaimViewDto> search(String query) {
-        return claimRepository.search(query).stream()
+        String term = ArabicTextNormalizer.normalize(query);
+        List<Claim> claims = SearchRanking.rank(claimRepository.search(term),
+                claim -> ArabicTextNormalizer.searchText(claim.getSearchText(), claim.getMember().getSearchText()), term);
+        return claims.stream()
                 .map(claimMapper::toViewDto)
                 .collect(Collectors.toList());
     }
@@ -39,6 +54,7 @@ public class ClaimService {
         validateCreateDto(dto);
         Claim claim = claimMapper.toEntity(dto);
         Claim savedClaim = claimRepository.save(claim);
+        applyBalanceChange(savedClaim, BigDecimal.ZERO);
         return claimMapper.toViewDto(savedClaim);
     }
 
@@ -47,8 +63,24 @@ public class ClaimService {
                 .orElseThrow(() -> new IllegalArgumentException("Claim not found with id: " + id));
         
         validateUpdateDto(dto, claim);
+        // Status transitions are optimistic-locked: the caller must say which version it decided on
+        if (dto.getStatus() != null && dto.getStatus() != claim.getStatus() && dto.getVersion() == null) {
+            throw new IllegalArgumentException("version is required when changing the claim status");
+        }
+        if (dto.getVersion() != null && !dto.getVersion().equals(claim.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Claim.class, id);
+        }
+        claimWorkQueueService.checkLease(claim);
+        BigDecimal consumedBefore = MemberBalanceService.consumedAmountOf(claim);
         claimMapper.updateEntityFromDto(claim, dto);
-        Claim updatedClaim = claimRepository.save(claim);
+        if (claim.getStatus() != ClaimStatus.PENDING_REVIEW) {
+            // Decided: the claim leaves the review queue
+            claim.setLeasedBy(null);
+            claim.setLeaseExpiresAt(null);
+        }
+        // Flush so the returned version is the one the next update must send
+        Claim updatedClaim = claimRepository.saveAndFlush(claim);
+        applyBalanceChange(updatedClaim, consumedBefore);
         return claimMapper.toViewDto(updatedClaim);
     }
 
@@ -62,12 +94,50 @@ public class ClaimService {
     @Transactional(readOnly = true)
     public Page<ClaimViewDto> listClaims(int page, int size, String search) {
         Pageable pageable = PageRequest.of(page - 1, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        String keyword = (search != null && !search.trim().isEmpty()) ? search.trim() : "";
+        String keyword = ArabicTextNormalizer.normalize(search);
         
         Page<Claim> claimsPage = claimRepository.searchPaged(keyword, pageable);
         return claimsPage.map(claimMapper::toViewDto);
     }
 
+    /**
+     * Keyset-paginated claim list (flat projection, newest first).
+     * Cost per page is independent of how deep the client has scrolled.
+     *
+     * @param total none (default), exact, or estimate (table statistics; unfiltered lists only)
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ClaimListItemDto> listClaimsKeyset(String cursor, int size, String search, String total) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_KEYSET_PAGE_SIZE);
+        String keyword = ArabicTextNormalizer.normalize(search);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<ClaimListItemDto> rows = after == null
+                ? claimRepository.findListItems(keyword, limit)
+                : claimRepository.findListItemsAfter(keyword, after.timestamp(), after.id(), limit);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ClaimListItemDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+        ClaimListItemDto last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        CursorPageResponse<ClaimListItemDto> response = CursorPageResponse.<ClaimListItemDto>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? new KeysetCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .size(pageSize)
+                .build();
+
+        if ("exact".equalsIgnoreCase(total)) {
+            response.setTotal(keyword.isEmpty() ? claimRepository.countActive() : claimRepository.countActiveByKeyword(keyword));
+            response.setTotalEstimated(false);
+        } else if ("estimate".equalsIgnoreCase(total) && keyword.isEmpty()) {
+            response.setTotal(claimRepository.estimateRowCount());
+            response.setTotalEstimated(true);
+        }
+        return response;
+    }
+
     @Transactional(readOnly = true)
     public List<ClaimViewDto> getClaimsByMember(Long memberId) {
         List<Claim> claims = claimRepository.findByMemberId(memberId);
@@ -87,8 +157,10 @@ public class ClaimService {
     public void deleteClaim(Long id) {
         Claim claim = claimRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Claim not found with id: " + id));
+        BigDecimal consumedBefore = MemberBalanceService.consumedAmountOf(claim);
         claim.setActive(false);
         claimRepository.save(claim);
+        applyBalanceChange(claim, consumedBefore);
     }
 
     @Transactional(readOnly = true)
@@ -96,7 +168,29 @@ public class ClaimService {
         return claimRepository.countActive();
     }
 
-    private void validateCreateDto(ClaimCreateDto dto) {
+    /**
+     * Report the claim's consumption change to the member balance ledger.
+     * When a claim starts consuming, its open pre-approval is marked USED and
+     * the reservation is released in the same ledger update.
+     * Also used by ClaimAdjudicationService for automatic decisions.
+     */
+    void applyBalanceChange(Claim claim, BigDecimal consumedBefore) {
+        BigDecimal consumedAfter = MemberBalanceService.consumedAmountOf(claim);
+        BigDecimal reservedDelta = BigDecimal.ZERO;
+
+        PreApproval preApproval = claim.getPreApproval();
+        if (consumedBefore.signum() == 0 && consumedAfter.signum() > 0 && preApproval != null) {
+            reservedDelta = MemberBalanceService.reservedAmountOf(preApproval).negate();
+            if (reservedDelta.signum() != 0) {
+                preApproval.setStatus(PreApproval.ApprovalStatus.USED);
+            }
+        }
+
+        memberBalanceService.applyDelta(claim.getMember().getId(),
+                consumedAfter.subtract(consumedBefore), reservedDelta, true);
+    }
+
+    static void validateCreateDto(ClaimCreateDto dto) {
         if (dto.getRequestedAmount() == null || dto.getRequestedAmount().compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Requested amount must be greater than zero");
         }
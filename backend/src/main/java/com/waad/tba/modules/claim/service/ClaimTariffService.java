@@ -0,0 +1,129 @@
+package com.waad.tba.modules.claim.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.waad.tba.modules.insurancepolicy.entity.PolicyBenefitPackage;
+import com.waad.tba.modules.insurancepolicy.repository.PolicyBenefitPackageRepository;
+import com.waad.tba.modules.medicalcode.entity.CptCode;
+import com.waad.tba.modules.medicalcode.repository.CptCodeRepository;
+import com.waad.tba.modules.provider.entity.Provider;
+import com.waad.tba.modules.provider.entity.ProviderContract;
+import com.waad.tba.modules.provider.repository.ProviderContractRepository;
+import com.waad.tba.modules.provider.repository.ProviderRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Claim Tariff Service
+ *
+ * Holds the ClaimTariffs snapshot used by claim adjudication. The snapshot is
+ * built with one query per table and replaced as a whole, at most every
+ * claims.adjudication.tariff-max-age-ms or on an explicit reload, so tariff
+ * edits reach the engine without a restart.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClaimTariffService {
+
+    private final CptCodeRepository cptCodeRepository;
+    private final ProviderRepository providerRepository;
+    private final ProviderContractRepository providerContractRepository;
+    private final PolicyBenefitPackageRepository benefitPackageRepository;
+
+    @Value("${claims.adjudication.tariff-max-age-ms:300000}")
+    private long maxAgeMillis;
+
+    private volatile ClaimTariffs tariffs;
+
+    /**
+     * Current snapshot, reloaded first when older than the configured maximum age.
+     */
+    ClaimTariffs current() {
+        ClaimTariffs snapshot = tariffs;
+        if (snapshot == null || snapshot.loadedAt().isBefore(LocalDateTime.now().minusNanos(maxAgeMillis * 1_000_000))) {
+            synchronized (this) {
+                snapshot = tariffs;
+                if (snapshot == null || snapshot.loadedAt().isBefore(LocalDateTime.now().minusNanos(maxAgeMillis * 1_000_000))) {
+                    snapshot = load();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuild the snapshot now (after tariff or contract changes).
+     */
+    public synchronized void reload() {
+        load();
+    }
+
+    private ClaimTariffs load() {
+        long startedAt = System.currentTimeMillis();
+
+        Map<String, ClaimTariffs.CptTariff> cptCodes = new HashMap<>();
+        for (CptCode cpt : cptCodeRepository.findAll()) {
+            String key = ClaimTariffs.codeKey(cpt.getCode());
+            if (key != null) {
+                cptCodes.put(key, new ClaimTariffs.CptTariff(cpt.getCode(), cpt.getStandardPrice(),
+                        cpt.getMinAllowedPrice(), cpt.getMaxAllowedPrice(),
+                        Boolean.TRUE.equals(cpt.getActive()), Boolean.TRUE.equals(cpt.getCovered()),
+                        cpt.getCoPaymentPercentage(), Boolean.TRUE.equals(cpt.getRequiresPreAuth())));
+            }
+        }
+
+        Map<Long, List<ClaimTariffs.ContractTerms>> contracts = new HashMap<>();
+        for (ProviderContract contract : providerContractRepository.findAllActiveWithProvider()) {
+            contracts.computeIfAbsent(contract.getProvider().getId(), id -> new ArrayList<>())
+                    .add(new ClaimTariffs.ContractTerms(contract.getStartDate(), contract.getEndDate(),
+                            Boolean.TRUE.equals(contract.getAutoRenew()), contract.getDiscountRate()));
+        }
+
+        // Claims reference their provider by name only; a name shared by two providers matches neither
+        Map<String, ClaimTariffs.ProviderTerms> providers = new HashMap<>();
+        Set<String> ambiguous = new HashSet<>();
+        for (Provider provider : providerRepository.findAllActive()) {
+            List<ClaimTariffs.ContractTerms> terms = contracts.getOrDefault(provider.getId(), new ArrayList<>());
+            terms.sort(ClaimTariffs.NEWEST_FIRST);
+            ClaimTariffs.ProviderTerms providerTerms = new ClaimTariffs.ProviderTerms(provider.getId(),
+                    provider.getDefaultDiscountRate(), List.copyOf(terms));
+            for (String name : new String[] {provider.getNameArabic(), provider.getNameEnglish()}) {
+                String key = ClaimTariffs.providerKey(name);
+                if (key.isEmpty() || ambiguous.contains(key)) {
+                    continue;
+                }
+                ClaimTariffs.ProviderTerms previous = providers.putIfAbsent(key, providerTerms);
+                if (previous != null && previous.providerId() != provider.getId()) {
+                    providers.remove(key);
+                    ambiguous.add(key);
+                }
+            }
+        }
+
+        Map<Long, BigDecimal> packageCopays = new HashMap<>();
+        for (PolicyBenefitPackage benefitPackage : benefitPackageRepository.findAll()) {
+            if (benefitPackage.getCopayPercentage() != null) {
+                packageCopays.put(benefitPackage.getId(), benefitPackage.getCopayPercentage());
+            }
+        }
+
+        ClaimTariffs snapshot = new ClaimTariffs(cptCodes, providers, ambiguous, packageCopays, LocalDateTime.now());
+        tariffs = snapshot;
+        log.info("Claim tariffs loaded: {} CPT codes, {} provider names ({} ambiguous), {} package copays in {} ms",
+                snapshot.cptCount(), snapshot.providerCount(), ambiguous.size(), packageCopays.size(),
+                System.currentTimeMillis() - startedAt);
+        return snapshot;
+    }
+}
@@ -0,0 +1,117 @@
+package com.waad.tba.modules.claim.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.waad.tba.common.search.ArabicTextNormalizer;
+
+/**
+ * Immutable snapshot of the tables claim adjudication prices against: CPT
+ * tariffs by code, provider discount terms by provider name and benefit package
+ * copays. Built by ClaimTariffService and shared read-only by the pool threads
+ * that adjudicate a batch, so no query is issued per claim line.
+ */
+final class ClaimTariffs {
+
+    record CptTariff(String code,
+                     BigDecimal standardPrice,
+                     BigDecimal minAllowedPrice,
+                     BigDecimal maxAllowedPrice,
+                     boolean active,
+                     boolean covered,
+                     BigDecimal coPaymentPercentage,
+                     boolean requiresPreAuth) {
+    }
+
+    record ContractTerms(LocalDate startDate, LocalDate endDate, boolean autoRenew, BigDecimal discountRate) {
+
+        boolean covers(LocalDate day) {
+            return !day.isBefore(startDate) && (endDate == null || autoRenew || !day.isAfter(endDate));
+        }
+    }
+
+    /**
+     * Contracts are ordered by start date, newest first.
+     */
+    record ProviderTerms(long providerId, BigDecimal defaultDiscountRate, List<ContractTerms> contracts) {
+
+        /**
+         * Discount of the newest contract in force on the day, else the provider default (0 when unset).
+         */
+        BigDecimal discountRate(LocalDate day) {
+            for (ContractTerms contract : contracts) {
+                if (contract.discountRate() != null && contract.covers(day)) {
+                    return contract.discountRate();
+                }
+            }
+            return defaultDiscountRate != null ? defaultDiscountRate : BigDecimal.ZERO;
+        }
+    }
+
+    static final Comparator<ContractTerms> NEWEST_FIRST =
+            Comparator.comparing(ContractTerms::startDate).reversed();
+
+    private final Map<String, CptTariff> cptCodes;
+    private final Map<String, ProviderTerms> providers;
+    private final Set<String> ambiguousProviders;
+    private final Map<Long, BigDecimal> packageCopays;
+    private final LocalDateTime loadedAt;
+
+    ClaimTariffs(Map<String, CptTariff> cptCodes,
+                 Map<String, ProviderTerms> providers,
+                 Set<String> ambiguousProviders,
+                 Map<Long, BigDecimal> packageCopays,
+                 LocalDateTime loadedAt) {
+        this.cptCodes = Map.copyOf(cptCodes);
+        this.providers = Map.copyOf(providers);
+        this.ambiguousProviders = Set.copyOf(ambiguousProviders);
+        this.packageCopays = Map.copyOf(packageCopays);
+        this.loadedAt = loadedAt;
+    }
+
+    CptTariff cpt(String code) {
+        String key = codeKey(code);
+        return key != null ? cptCodes.get(key) : null;
+    }
+
+    /**
+     * Provider by its Arabic or English name; null when unknown or when the name is shared.
+     */
+    ProviderTerms provider(String name) {
+        return providers.get(providerKey(name));
+    }
+
+    boolean isAmbiguousProvider(String name) {
+        return ambiguousProviders.contains(providerKey(name));
+    }
+
+    BigDecimal packageCopay(Long benefitPackageId) {
+        return benefitPackageId != null ? packageCopays.get(benefitPackageId) : null;
+    }
+
+    LocalDateTime loadedAt() {
+        return loadedAt;
+    }
+
+    int cptCount() {
+        return cptCodes.size();
+    }
+
+    int providerCount() {
+        return providers.size();
+    }
+
+    static String codeKey(String code) {
+        return code == null || code.isBlank() ? null : code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    static String providerKey(String name) {
+        return ArabicTextNormalizer.normalize(name);
+    }
+}
@@ -0,0 +1,40 @@
+package com.waad.tba.modules.claim.service;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Claim Version Backfill
+ *
+ * Claim is optimistic-locked on claims.version (V31 backfills it and makes it
+ * NOT NULL). Without V31, schema update adds the column as nullable and every
+ * existing claim would fail its first update on the null version. While the
+ * column is still nullable, startup gives such claims version 0 instead.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class ClaimVersionBackfill {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void backfill() {
+        String nullable = jdbcTemplate.query(
+                "SELECT is_nullable FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND table_name = 'claims' AND column_name = 'version'",
+                rs -> rs.next() ? rs.getString(1) : null);
+        if (!"YES".equals(nullable)) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE claims ALTER COLUMN version SET DEFAULT 0");
+        int updated = jdbcTemplate.update("UPDATE claims SET version = 0 WHERE version IS NULL");
+        log.warn("claims.version is nullable (apply V31 migration); {} claims backfilled with version 0", updated);
+    }
+}
@@ -0,0 +1,129 @@
+package com.waad.tba.modules.claim.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.waad.tba.common.exception.ConflictException;
+import com.waad.tba.modules.claim.dto.ClaimViewDto;
+import com.waad.tba.modules.claim.entity.Claim;
+import com.waad.tba.modules.claim.entity.ClaimStatus;
+import com.waad.tba.modules.claim.mapper.ClaimMapper;
+import com.waad.tba.modules.claim.repository.ClaimRepository;
+import com.waad.tba.security.AuthorizationService;
+import com.waad.tba.security.ResolvedPrincipal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Claim Work Queue Service
+ *
+ * Dispatches PENDING_REVIEW claims to reviewers one at a time, oldest first:
+ * - the next free claim is selected with FOR UPDATE SKIP LOCKED, so concurrent
+ *   dispatches never hand out the same claim and never wait on each other
+ * - the claim is leased to the reviewer for claims.review-queue.lease-minutes;
+ *   an expired lease makes the claim available again, nothing has to clean up
+ * - while the lease is active, updates by other users are rejected (409)
+ *
+ * When the adjudication engine is enabled only claims it has referred are
+ * dispatched. Status changes are protected by the claim's @Version; lease
+ * changes are not versioned, so renewing a lease does not invalidate the
+ * reviewer's form.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ClaimWorkQueueService {
+
+    private final ClaimRepository claimRepository;
+    private final ClaimMapper claimMapper;
+    private final AuthorizationService authorizationService;
+
+    @Value("${claims.review-queue.lease-minutes:15}")
+    private long leaseMinutes;
+
+    @Value("${claims.adjudication.enabled:true}")
+    private boolean adjudicationEnabled;
+
+    /**
+     * Lease the next claim to the current reviewer. A reviewer holding an active
+     * lease gets that claim again (lease renewed). Returns null when the queue is empty.
+     */
+    public ClaimViewDto next() {
+        String username = currentUsername();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusMinutes(leaseMinutes);
+
+        Long id;
+        List<Long> held = claimRepository.findLeasedIds(username, ClaimStatus.PENDING_REVIEW, now, PageRequest.of(0, 1));
+        if (!held.isEmpty()) {
+            id = held.get(0);
+            claimRepository.renewLease(id, username, ClaimStatus.PENDING_REVIEW, now, expiresAt);
+        } else {
+            Optional<Long> next = adjudicationEnabled
+                    ? claimRepository.findNextAdjudicatedForReview(now)
+                    : claimRepository.findNextForReview(now);
+            if (next.isEmpty()) {
+                return null;
+            }
+            id = next.get();
+            claimRepository.lease(id, username, expiresAt);
+            log.debug("Claim {} leased to {} until {}", id, username, expiresAt);
+        }
+        return claimMapper.toViewDto(claimRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Claim not found with id: " + id)));
+    }
+
+    /**
+     * Extend the current reviewer's lease on a claim.
+     */
+    public ClaimViewDto renew(Long id) {
+        String username = currentUsername();
+        LocalDateTime now = LocalDateTime.now();
+        if (claimRepository.renewLease(id, username, ClaimStatus.PENDING_REVIEW, now, now.plusMinutes(leaseMinutes)) == 0) {
+            throw new ConflictException("You do not hold an active lease on claim " + id);
+        }
+        return claimMapper.toViewDto(claimRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Claim not found with id: " + id)));
+    }
+
+    /**
+     * Give a leased claim back to the queue.
+     */
+    public void release(Long id) {
+        if (claimRepository.releaseLease(id, currentUsername()) == 0) {
+            throw new ConflictException("You do not hold a lease on claim " + id);
+        }
+    }
+
+    /**
+     * Reject changes to a claim another user holds an active lease on.
+     */
+    void checkLease(Claim claim) {
+        if (claim.getLeasedBy() == null || claim.getLeaseExpiresAt() == null
+                || !claim.getLeaseExpiresAt().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        ResolvedPrincipal user = authorizationService.getCurrentPrincipal();
+        if (user == null || !claim.getLeasedBy().equals(user.getUsername())) {
+            throw new ConflictException("Claim " + claim.getId() + " is being reviewed by " + claim.getLeasedBy()
+                    + " until " + claim.getLeaseExpiresAt());
+        }
+    }
+
+    private String currentUsername() {
+        ResolvedPrincipal user = authorizationService.getCurrentPrincipal();
+        if (user == null) {
+            throw new AccessDeniedException("Authentication required");
+        }
+        return user.getUsername();
+    }
+}
@@ -3,11 +3,13 @@ package com.waad.tba.modules.company.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waad.tba.common.cache.CacheVersions;
 import com.waad.tba.common.exception.ResourceNotFoundException;
 import com.waad.tba.modules.company.dto.CompanySettingsDto;
 import com.waad.tba.modules.company.dto.UiVisibilityDto;
@@ -22,6 +24,10 @@ import lombok.extern.slf4j.Slf4j;
  * 
  * Service for managing company settings and feature toggles.
  * Provides methods to create, update, and retrieve employer feature settings.
+ * 
+ * Feature checks and UI visibility reads are served from CompanySettingsSnapshot
+ * (no transaction, no database access); every write publishes a change event
+ * that refreshes the snapshot after commit.
  */
 @Slf4j
 @Service
@@ -30,6 +36,9 @@ public class CompanySettingsService {
 
     private final CompanySettingsRepository repository;
     private final ObjectMapper objectMapper;
+    private final CompanySettingsSnapshot snapshot;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheVersions cacheVersions;
 
     /**
      * Get settings for a specific employer.
@@ -100,6 +109,7 @@ public class CompanySettingsService {
                 .build();
         
         CompanySettings saved = repository.save(settings);
+        publishChanged(employerId);
         log.info("Default settings created successfully for employer: {} with id: {}", employerId, saved.getId());
         
         return saved;
@@ -141,6 +151,7 @@ public class CompanySettingsService {
         }
         
         CompanySettings updated = repository.save(settings);
+        publishChanged(employerId);
         log.info("Settings updated successfully for employer: {}", employerId);
         
         return updated;
@@ -171,6 +182,7 @@ public class CompanySettingsService {
                 .orElseThrow(() -> new ResourceNotFoundException("CompanySettings", "employerId", employerId));
         
         repository.delete(settings);
+        publishChanged(employerId);
         log.info("Settings deleted successfully for employer: {}", employerId);
     }
 
@@ -230,10 +242,8 @@ public class CompanySettingsService {
      * @param employerId Employer ID
      * @return true if canViewClaims is enabled
      */
-    @Transactional(readOnly = true)
     public boolean canEmployerViewClaims(Long employerId) {
-        CompanySettings settings = getSettingsForEmployer(employerId);
-        boolean result = settings.getCanViewClaims();
+        boolean result = snapshot.isEnabled(employerId, CompanySettingsSnapshot.VIEW_CLAIMS);
         
         log.debug("FeatureCheck: employerId={} feature=VIEW_CLAIMS result={}", 
             employerId, result ? "ALLOWED" : "DENIED");
@@ -247,10 +257,8 @@ public class CompanySettingsService {
      * @param employerId Employer ID
      * @return true if canViewVisits is enabled
      */
-    @Transactional(readOnly = true)
     public boolean canEmployerViewVisits(Long employerId) {
-        CompanySettings settings = getSettingsForEmployer(employerId);
-        boolean result = settings.getCanViewVisits();
+        boolean result = snapshot.isEnabled(employerId, CompanySettingsSnapshot.VIEW_VISITS);
         
         log.debug("FeatureCheck: employerId={} feature=VIEW_VISITS result={}", 
             employerId, result ? "ALLOWED" : "DENIED");
@@ -264,10 +272,8 @@ public class CompanySettingsService {
      * @param employerId Employer ID
      * @return true if canEditMembers is enabled
      */
-    @Transactional(readOnly = true)
     public boolean canEmployerEditMembers(Long employerId) {
-        CompanySettings settings = getSettingsForEmployer(employerId);
-        boolean result = settings.getCanEditMembers();
+        boolean result = snapshot.isEnabled(employerId, CompanySettingsSnapshot.EDIT_MEMBERS);
         
         log.debug("FeatureCheck: employerId={} feature=EDIT_MEMBERS result={}", 
             employerId, result ? "ALLOWED" : "DENIED");
@@ -281,10 +287,8 @@ public class CompanySettingsService {
      * @param employerId Employer ID
      * @return true if canDownloadAttachments is enabled
      */
-    @Transactional(readOnly = true)
     public boolean canEmployerDownloadAttachments(Long employerId) {
-        CompanySettings settings = getSettingsForEmployer(employerId);
-        boolean result = settings.getCanDownloadAttachments();
+        boolean result = snapshot.isEnabled(employerId, CompanySettingsSnapshot.DOWNLOAD_ATTACHMENTS);
         
         log.debug("FeatureCheck: employerId={} feature=DOWNLOAD_ATTACHMENTS result={}", 
             employerId, result ? "ALLOWED" : "DENIED");
@@ -299,15 +303,15 @@ public class CompanySettingsService {
     /**
      * Get UI visibility settings for an employer.
      * Returns default (all enabled) if not configured.
+     * Served from the pre-parsed snapshot; the returned DTO must not be mutated.
      * 
      * @param employerId Employer ID
      * @return UiVisibilityDto with visibility settings
      */
-    @Transactional(readOnly = true)
     public UiVisibilityDto getUiVisibilityForEmployer(Long employerId) {
         log.debug("Getting UI visibility for employer: {}", employerId);
-        CompanySettings settings = getOrCreateSettingsForEmployer(employerId);
-        return parseUiVisibility(settings.getUiVisibility());
+        CompanySettingsSnapshot.EmployerFeatures features = snapshot.get(employerId);
+        return features != null ? features.uiVisibility() : UiVisibilityDto.defaultAllEnabled();
     }
 
     /**
@@ -323,6 +327,7 @@ public class CompanySettingsService {
         CompanySettings settings = getOrCreateSettingsForEmployer(employerId);
         settings.setUiVisibility(toUiVisibilityJson(uiVisibilityDto));
         CompanySettings saved = repository.save(settings);
+        publishChanged(employerId);
         log.info("UI visibility updated successfully for employer: {}", employerId);
         return parseUiVisibility(saved.getUiVisibility());
     }
@@ -343,7 +348,9 @@ public class CompanySettingsService {
                 created.setCanEditMembers(true);
                 created.setCanDownloadAttachments(true);
                 created.setUiVisibility(toUiVisibilityJson(UiVisibilityDto.defaultAllEnabled()));
-                return repository.save(created);
+                CompanySettings saved = repository.save(created);
+                publishChanged(employerId);
+                return saved;
             });
     }
 
@@ -352,15 +359,16 @@ public class CompanySettingsService {
      * Returns default (all enabled) if JSON is empty or invalid.
      */
     private UiVisibilityDto parseUiVisibility(String json) {
-        if (json == null || json.isBlank() || json.equals("{}")) {
-            return UiVisibilityDto.defaultAllEnabled();
-        }
-        try {
-            return objectMapper.readValue(json, UiVisibilityDto.class);
-        } catch (Exception ex) {
-            log.warn("Failed to parse UI visibility JSON: {}. Using defaults.", ex.getMessage());
-            return UiVisibilityDto.defaultAllEnabled();
-        }
+        return snapshot.parseUiVisibility(json);
+    }
+
+    /**
+     * Refresh the employer's snapshot entry once the current transaction commits
+     * (and the whole snapshot on the other nodes).
+     */
+    private void publishChanged(Long employerId) {
+        long version = cacheVersions.bump(CompanySettingsSnapshot.CACHE_NAME);
+        eventPublisher.publishEvent(new CompanySettingsSnapshot.Changed(employerId, version));
     }
 
     /**
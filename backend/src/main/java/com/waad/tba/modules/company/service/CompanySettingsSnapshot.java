@@ -0,0 +1,182 @@
+package com.waad.tba.modules.company.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waad.tba.common.cache.CacheVersions;
+import com.waad.tba.common.cache.VersionedCache;
+import com.waad.tba.modules.company.dto.UiVisibilityDto;
+import com.waad.tba.modules.company.entity.CompanySettings;
+import com.waad.tba.modules.company.repository.CompanySettingsRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * CompanySettingsSnapshot
+ *
+ * Immutable in-memory view of all company_settings rows keyed by employerId.
+ * Feature toggles are packed into an int and ui_visibility JSON is parsed once,
+ * so feature checks are a map lookup and a bit test without a transaction.
+ *
+ * Loaded on startup and patched per employer when CompanySettingsService
+ * publishes a {@link Changed} event (after commit). Changes made on other nodes
+ * bump the "company-settings" cache version; the snapshot is then reloaded as
+ * a whole (see CacheVersions).
+ *
+ * @author TBA WAAD System
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class CompanySettingsSnapshot implements VersionedCache {
+
+    static final String CACHE_NAME = "company-settings";
+
+    static final int VIEW_CLAIMS = 1;
+    static final int VIEW_VISITS = 1 << 1;
+    static final int EDIT_MEMBERS = 1 << 2;
+    static final int DOWNLOAD_ATTACHMENTS = 1 << 3;
+
+    /**
+     * Flags applied when an employer has no settings row (see createDefaultSettingsForEmployer).
+     */
+    static final int DEFAULT_FLAGS = EDIT_MEMBERS | DOWNLOAD_ATTACHMENTS;
+
+    private final CompanySettingsRepository repository;
+    private final ObjectMapper objectMapper;
+    private final CacheVersions cacheVersions;
+
+    private volatile Map<Long, EmployerFeatures> byEmployer;
+    private long loadedVersion;
+
+    /**
+     * Settings of one employer. uiVisibility is shared and must not be mutated.
+     */
+    record EmployerFeatures(Long companyId, int flags, UiVisibilityDto uiVisibility) {
+
+        boolean has(int flag) {
+            return (flags & flag) != 0;
+        }
+    }
+
+    /**
+     * Published by CompanySettingsService whenever an employer's settings row changes;
+     * version is the cache version the change was committed with.
+     */
+    record Changed(Long employerId, long version) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        current();
+    }
+
+    /**
+     * Features of employer, or null if the employer has no settings row.
+     */
+    EmployerFeatures get(Long employerId) {
+        return current().get(employerId);
+    }
+
+    /**
+     * Whether flag is enabled for employer, falling back to defaults for
+     * employers without a settings row.
+     */
+    boolean isEnabled(Long employerId, int flag) {
+        EmployerFeatures features = get(employerId);
+        return ((features != null ? features.flags() : DEFAULT_FLAGS) & flag) != 0;
+    }
+
+    @Override
+    public String cacheName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    public synchronized void onVersion(long version) {
+        if (byEmployer != null && loadedVersion != version) {
+            byEmployer = null; // Next read loads fresh state
+            log.debug("Company settings changed on another node, snapshot will be reloaded");
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onChanged(Changed event) {
+        Map<Long, EmployerFeatures> current = byEmployer;
+        if (current == null) {
+            return; // Not loaded yet, next read loads fresh state
+        }
+        Map<Long, EmployerFeatures> next = new HashMap<>(current);
+        repository.findByEmployerId(event.employerId()).ifPresentOrElse(
+                settings -> next.put(settings.getEmployerId(), compile(settings)),
+                () -> next.remove(event.employerId()));
+        byEmployer = Map.copyOf(next);
+        // Adopt the version when it directly follows the loaded one (several events of one
+        // transaction share it); after a gap another node changed settings, the poll reloads
+        if (event.version() == loadedVersion + 1 || event.version() == loadedVersion) {
+            loadedVersion = event.version();
+        }
+        log.debug("Company settings snapshot refreshed for employer {}", event.employerId());
+    }
+
+    private Map<Long, EmployerFeatures> current() {
+        Map<Long, EmployerFeatures> current = byEmployer;
+        if (current == null) {
+            synchronized (this) {
+                if (byEmployer == null) {
+                    loadedVersion = cacheVersions.read(CACHE_NAME);
+                    Map<Long, EmployerFeatures> loaded = new HashMap<>();
+                    for (CompanySettings settings : repository.findAll()) {
+                        loaded.put(settings.getEmployerId(), compile(settings));
+                    }
+                    byEmployer = Map.copyOf(loaded);
+                    log.info("Company settings snapshot loaded: {} employers", loaded.size());
+                }
+                current = byEmployer;
+            }
+        }
+        return current;
+    }
+
+    private EmployerFeatures compile(CompanySettings settings) {
+        int flags = 0;
+        if (Boolean.TRUE.equals(settings.getCanViewClaims())) {
+            flags |= VIEW_CLAIMS;
+        }
+        if (Boolean.TRUE.equals(settings.getCanViewVisits())) {
+            flags |= VIEW_VISITS;
+        }
+        if (Boolean.TRUE.equals(settings.getCanEditMembers())) {
+            flags |= EDIT_MEMBERS;
+        }
+        if (Boolean.TRUE.equals(settings.getCanDownloadAttachments())) {
+            flags |= DOWNLOAD_ATTACHMENTS;
+        }
+        return new EmployerFeatures(settings.getCompanyId(), flags, parseUiVisibility(settings.getUiVisibility()));
+    }
+
+    /**
+     * Parse JSON string to UiVisibilityDto.
+     * Returns default (all enabled) if JSON is empty or invalid.
+     */
+    UiVisibilityDto parseUiVisibility(String json) {
+        if (json == null || json.isBlank() || json.equals("{}")) {
+            return UiVisibilityDto.defaultAllEnabled();
+        }
+        try {
+            return objectMapper.readValue(json, UiVisibilityDto.class);
+        } catch (Exception ex) {
+            log.warn("Failed to parse UI visibility JSON: {}. Using defaults.", ex.getMessage());
+            return UiVisibilityDto.defaultAllEnabled();
+        }
+    }
+}
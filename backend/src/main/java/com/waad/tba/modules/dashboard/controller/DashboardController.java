@@ -13,8 +13,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.waad.tba.common.dto.ApiResponse;
+import com.waad.tba.modules.claim.entity.ClaimStatus;
+import com.waad.tba.modules.dashboard.dto.ClaimFinancialsDto;
 import com.waad.tba.modules.dashboard.dto.ClaimsPerDayDto;
 import com.waad.tba.modules.dashboard.dto.DashboardStatsDto;
+import com.waad.tba.modules.dashboard.entity.ClaimRollupBasis;
+import com.waad.tba.modules.dashboard.entity.ClaimRollupGranularity;
 import com.waad.tba.modules.dashboard.service.DashboardService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -68,4 +72,32 @@ public class DashboardController {
         List<ClaimsPerDayDto> data = service.getClaimsPerDay(employerId, startDate, endDate);
         return ResponseEntity.ok(ApiResponse.success(data));
     }
+
+    @GetMapping("/claims-financials")
+    @PreAuthorize("hasAuthority('VIEW_REPORTS')")
+    @Operation(summary = "Get claim financials over time", description = "Returns claim count and requested / approved / difference amounts per day or month, bucketed by visit date or submission date. Accepts optional X-Employer-ID header for filtering.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Data retrieved successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponse<List<ClaimFinancialsDto>>> getClaimFinancials(
+            @Parameter(name = "X-Employer-ID", description = "Optional employer ID for filtering claims", required = false)
+            @RequestHeader(value = "X-Employer-ID", required = false) Long employerId,
+            @Parameter(name = "startDate", description = "Start date (YYYY-MM-DD)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(name = "endDate", description = "End date (YYYY-MM-DD)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(name = "granularity", description = "DAY or MONTH")
+            @RequestParam(defaultValue = "DAY") ClaimRollupGranularity granularity,
+            @Parameter(name = "basis", description = "VISIT (visit date) or CREATED (submission date)")
+            @RequestParam(defaultValue = "VISIT") ClaimRollupBasis basis,
+            @RequestParam(required = false) Long insuranceCompanyId,
+            @RequestParam(required = false) String providerName,
+            @RequestParam(required = false) ClaimStatus status) {
+        List<ClaimFinancialsDto> data = service.getClaimFinancials(employerId, basis, granularity,
+                startDate, endDate, insuranceCompanyId, providerName, status);
+        return ResponseEntity.ok(ApiResponse.success(data));
+    }
 }
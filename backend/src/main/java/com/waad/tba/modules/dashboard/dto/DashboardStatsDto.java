@@ -15,6 +15,7 @@ public class DashboardStatsDto {
     private Long pendingClaims;
     private Long approvedClaims;
     private Long rejectedClaims;
+    private Long totalVisits;
     private Long totalEmployers;
     private Long totalInsuranceCompanies;
     private Long totalReviewerCompanies;
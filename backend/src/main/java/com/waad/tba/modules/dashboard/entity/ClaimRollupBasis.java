@@ -0,0 +1,11 @@
+package com.waad.tba.modules.dashboard.entity;
+
+/**
+ * Date a claim is bucketed by in the claim rollups.
+ */
+public enum ClaimRollupBasis {
+    /** claims.created_at (submission date) */
+    CREATED,
+    /** claims.visit_date (service date); claims without a visit date are not bucketed */
+    VISIT
+}
@@ -0,0 +1,38 @@
+package com.waad.tba.modules.dashboard.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Claim count and amounts of active claims per day, employer, insurance company,
+ * provider and status. Re-aggregated from claims (see ClaimRollupService).
+ */
+@Entity
+@Table(name = "claim_rollup_daily")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimRollupDaily {
+
+    @EmbeddedId
+    private ClaimRollupId id;
+
+    @Column(name = "claim_count", nullable = false)
+    private Long claimCount;
+
+    @Column(name = "requested_amount", precision = 18, scale = 2, nullable = false)
+    private BigDecimal requestedAmount;
+
+    @Column(name = "approved_amount", precision = 18, scale = 2, nullable = false)
+    private BigDecimal approvedAmount;
+
+    @Column(name = "difference_amount", precision = 18, scale = 2, nullable = false)
+    private BigDecimal differenceAmount;
+}
@@ -0,0 +1,48 @@
+package com.waad.tba.modules.dashboard.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Day whose claim rollup buckets must be re-aggregated. Marked in the same
+ * transaction as the claim change; consumed by ClaimRollupService.
+ */
+@Entity
+@Table(name = "claim_rollup_dirty_days")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimRollupDirtyDay {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "marked_at", nullable = false)
+    private LocalDateTime markedAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "basis", length = 10, nullable = false)
+        private ClaimRollupBasis basis;
+
+        @Column(name = "bucket_date", nullable = false)
+        private LocalDate bucketDate;
+    }
+}
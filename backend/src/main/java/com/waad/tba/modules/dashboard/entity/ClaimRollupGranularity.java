@@ -0,0 +1,9 @@
+package com.waad.tba.modules.dashboard.entity;
+
+/**
+ * Bucket size of a claim rollup series.
+ */
+public enum ClaimRollupGranularity {
+    DAY,
+    MONTH
+}
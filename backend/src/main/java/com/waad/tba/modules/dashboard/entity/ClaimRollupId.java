@@ -0,0 +1,42 @@
+package com.waad.tba.modules.dashboard.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Claim rollup bucket. bucketDate is the day (daily rollup) or the first day of
+ * the month (monthly rollup). A missing provider name is stored as ''.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimRollupId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "basis", length = 10, nullable = false)
+    private ClaimRollupBasis basis;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "employer_id", nullable = false)
+    private Long employerId;
+
+    @Column(name = "insurance_company_id", nullable = false)
+    private Long insuranceCompanyId;
+
+    @Column(name = "provider_name", length = 255, nullable = false)
+    private String providerName;
+
+    @Column(name = "status", length = 30, nullable = false)
+    private String status;
+}
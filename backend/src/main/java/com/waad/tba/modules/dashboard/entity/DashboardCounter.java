@@ -0,0 +1,31 @@
+package com.waad.tba.modules.dashboard.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dashboard Counter
+ *
+ * Pre-aggregated row count per (metric, employer, insurance company, status, day).
+ * Maintained incrementally by DashboardCounterListener in the same transaction
+ * as the counted change, and rebuilt from the source tables by
+ * DashboardCounterReconciler. Written only through native upserts.
+ */
+@Entity
+@Table(name = "dashboard_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardCounter {
+
+    @EmbeddedId
+    private DashboardCounterId id;
+
+    @Column(name = "total", nullable = false)
+    private Long total;
+}
@@ -0,0 +1,39 @@
+package com.waad.tba.modules.dashboard.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counter dimensions. Missing employer / insurance company are stored as 0 and
+ * a missing status as '' so every dimension can be part of the primary key.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardCounterId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "metric", length = 20, nullable = false)
+    private DashboardMetric metric;
+
+    @Column(name = "employer_id", nullable = false)
+    private Long employerId;
+
+    @Column(name = "insurance_company_id", nullable = false)
+    private Long insuranceCompanyId;
+
+    @Column(name = "status", length = 30, nullable = false)
+    private String status;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+}
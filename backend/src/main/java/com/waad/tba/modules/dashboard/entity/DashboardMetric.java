@@ -0,0 +1,10 @@
+package com.waad.tba.modules.dashboard.entity;
+
+/**
+ * Fact tables counted in dashboard_counters.
+ */
+public enum DashboardMetric {
+    MEMBERS,
+    CLAIMS,
+    VISITS
+}
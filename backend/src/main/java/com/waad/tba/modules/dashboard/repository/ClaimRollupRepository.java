@@ -0,0 +1,148 @@
+package com.waad.tba.modules.dashboard.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.waad.tba.modules.dashboard.dto.ClaimFinancialsDto;
+import com.waad.tba.modules.dashboard.entity.ClaimRollupBasis;
+import com.waad.tba.modules.dashboard.entity.ClaimRollupDaily;
+import com.waad.tba.modules.dashboard.entity.ClaimRollupId;
+
+@Repository
+public interface ClaimRollupRepository extends JpaRepository<ClaimRollupDaily, ClaimRollupId> {
+
+    interface DirtyDay {
+        String getBasis();
+        LocalDate getBucketDate();
+    }
+
+    String ROLLUP_FILTER =
+            "r.id.basis = :basis AND r.id.bucketDate BETWEEN :startDate AND :endDate " +
+            "AND (:employerId IS NULL OR r.id.employerId = :employerId) " +
+            "AND (:insuranceCompanyId IS NULL OR r.id.insuranceCompanyId = :insuranceCompanyId) " +
+            "AND (:providerName IS NULL OR r.id.providerName = :providerName) " +
+            "AND (:status IS NULL OR r.id.status = :status) ";
+
+    // ==================== Series ====================
+
+    @Query("SELECT new com.waad.tba.modules.dashboard.dto.ClaimFinancialsDto(r.id.bucketDate, SUM(r.claimCount), " +
+           "SUM(r.requestedAmount), SUM(r.approvedAmount), SUM(r.differenceAmount)) " +
+           "FROM ClaimRollupDaily r WHERE " + ROLLUP_FILTER +
+           "GROUP BY r.id.bucketDate ORDER BY r.id.bucketDate")
+    List<ClaimFinancialsDto> sumDaily(@Param("basis") ClaimRollupBasis basis,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate,
+                                      @Param("employerId") Long employerId,
+                                      @Param("insuranceCompanyId") Long insuranceCompanyId,
+                                      @Param("providerName") String providerName,
+                                      @Param("status") String status);
+
+    @Query("SELECT new com.waad.tba.modules.dashboard.dto.ClaimFinancialsDto(r.id.bucketDate, SUM(r.claimCount), " +
+           "SUM(r.requestedAmount), SUM(r.approvedAmount), SUM(r.differenceAmount)) " +
+           "FROM ClaimRollupMonthly r WHERE " + ROLLUP_FILTER +
+           "GROUP BY r.id.bucketDate ORDER BY r.id.bucketDate")
+    List<ClaimFinancialsDto> sumMonthly(@Param("basis") ClaimRollupBasis basis,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate,
+                                        @Param("employerId") Long employerId,
+                                        @Param("insuranceCompanyId") Long insuranceCompanyId,
+                                        @Param("providerName") String providerName,
+                                        @Param("status") String status);
+
+    // ==================== Dirty buckets ====================
+
+    // DO UPDATE (not DO NOTHING) keeps the row locked until the marking transaction
+    // commits, so a concurrent refresh cannot consume the mark before the change is visible
+    @Modifying
+    @Query(value = "INSERT INTO claim_rollup_dirty_days (basis, bucket_date, marked_at) " +
+                   "VALUES (:basis, :bucketDate, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (basis, bucket_date) DO UPDATE SET marked_at = EXCLUDED.marked_at",
+           nativeQuery = true)
+    void markDirty(@Param("basis") String basis, @Param("bucketDate") LocalDate bucketDate);
+
+    // Backfill: every day that has active claims
+    @Modifying
+    @Query(value = "INSERT INTO claim_rollup_dirty_days (basis, bucket_date, marked_at) " +
+                   "SELECT 'CREATED', d, CURRENT_TIMESTAMP FROM " +
+                   "(SELECT DISTINCT CAST(created_at AS DATE) AS d FROM claims WHERE active = true) created_days " +
+                   "UNION ALL " +
+                   "SELECT 'VISIT', d, CURRENT_TIMESTAMP FROM " +
+                   "(SELECT DISTINCT visit_date AS d FROM claims WHERE active = true AND visit_date IS NOT NULL) visit_days " +
+                   "ON CONFLICT (basis, bucket_date) DO NOTHING",
+           nativeQuery = true)
+    int markAllDirty();
+
+    // Only one refresher at a time across instances
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('claim_rollup_refresh'))", nativeQuery = true)
+    boolean tryRefreshLock();
+
+    // Rows still locked by a marking transaction are left for the next run
+    @Query(value = "SELECT basis AS \"basis\", bucket_date AS \"bucketDate\" FROM claim_rollup_dirty_days " +
+                   "ORDER BY bucket_date LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<DirtyDay> lockDirtyDays(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM claim_rollup_dirty_days WHERE basis = :basis AND bucket_date = :bucketDate",
+           nativeQuery = true)
+    void deleteDirtyDay(@Param("basis") String basis, @Param("bucketDate") LocalDate bucketDate);
+
+    // ==================== Re-aggregation ====================
+
+    @Modifying
+    @Query(value = "DELETE FROM claim_rollup_daily WHERE basis = :basis AND bucket_date = :bucketDate",
+           nativeQuery = true)
+    void deleteDaily(@Param("basis") String basis, @Param("bucketDate") LocalDate bucketDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO claim_rollup_daily (basis, bucket_date, employer_id, insurance_company_id, provider_name, " +
+                   "status, claim_count, requested_amount, approved_amount, difference_amount) " +
+                   "SELECT 'CREATED', CAST(:bucketDate AS DATE), m.employer_id, c.insurance_company_id, " +
+                   "COALESCE(c.provider_name, ''), c.status, COUNT(*), COALESCE(SUM(c.requested_amount), 0), " +
+                   "COALESCE(SUM(c.approved_amount), 0), COALESCE(SUM(c.difference_amount), 0) " +
+                   "FROM claims c JOIN members m ON m.id = c.member_id " +
+                   "WHERE c.active = true AND c.created_at >= :dayStart AND c.created_at < :dayEnd " +
+                   "GROUP BY m.employer_id, c.insurance_company_id, COALESCE(c.provider_name, ''), c.status",
+           nativeQuery = true)
+    int insertCreatedDaily(@Param("bucketDate") LocalDate bucketDate,
+                           @Param("dayStart") LocalDateTime dayStart,
+                           @Param("dayEnd") LocalDateTime dayEnd);
+
+    @Modifying
+    @Query(value = "INSERT INTO claim_rollup_daily (basis, bucket_date, employer_id, insurance_company_id, provider_name, " +
+                   "status, claim_count, requested_amount, approved_amount, difference_amount) " +
+                   "SELECT 'VISIT', CAST(:bucketDate AS DATE), m.employer_id, c.insurance_company_id, " +
+                   "COALESCE(c.provider_name, ''), c.status, COUNT(*), COALESCE(SUM(c.requested_amount), 0), " +
+                   "COALESCE(SUM(c.approved_amount), 0), COALESCE(SUM(c.difference_amount), 0) " +
+                   "FROM claims c JOIN members m ON m.id = c.member_id " +
+                   "WHERE c.active = true AND c.visit_date = :bucketDate " +
+                   "GROUP BY m.employer_id, c.insurance_company_id, COALESCE(c.provider_name, ''), c.status",
+           nativeQuery = true)
+    int insertVisitDaily(@Param("bucketDate") LocalDate bucketDate);
+
+    @Modifying
+    @Query(value = "DELETE FROM claim_rollup_monthly WHERE basis = :basis AND bucket_date = :monthStart",
+           nativeQuery = true)
+    void deleteMonthly(@Param("basis") String basis, @Param("monthStart") LocalDate monthStart);
+
+    // Monthly buckets are summed from the daily rollup, never from claims
+    @Modifying
+    @Query(value = "INSERT INTO claim_rollup_monthly (basis, bucket_date, employer_id, insurance_company_id, provider_name, " +
+                   "status, claim_count, requested_amount, approved_amount, difference_amount) " +
+                   "SELECT basis, CAST(:monthStart AS DATE), employer_id, insurance_company_id, provider_name, status, " +
+                   "SUM(claim_count), SUM(requested_amount), SUM(approved_amount), SUM(difference_amount) " +
+                   "FROM claim_rollup_daily " +
+                   "WHERE basis = :basis AND bucket_date >= :monthStart AND bucket_date < :nextMonthStart " +
+                   "GROUP BY basis, employer_id, insurance_company_id, provider_name, status",
+           nativeQuery = true)
+    int insertMonthly(@Param("basis") String basis,
+                      @Param("monthStart") LocalDate monthStart,
+                      @Param("nextMonthStart") LocalDate nextMonthStart);
+}
@@ -0,0 +1,104 @@
+package com.waad.tba.modules.dashboard.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.waad.tba.modules.dashboard.dto.ClaimsPerDayDto;
+import com.waad.tba.modules.dashboard.entity.DashboardCounter;
+import com.waad.tba.modules.dashboard.entity.DashboardCounterId;
+import com.waad.tba.modules.dashboard.entity.DashboardMetric;
+
+@Repository
+public interface DashboardCounterRepository extends JpaRepository<DashboardCounter, DashboardCounterId> {
+
+    interface CounterTotal {
+        DashboardMetric getMetric();
+        String getStatus();
+        Long getTotal();
+    }
+
+    interface ReferenceCounts {
+        long getEmployers();
+        long getInsuranceCompanies();
+        long getReviewerCompanies();
+    }
+
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_counters (metric, employer_id, insurance_company_id, status, stat_date, total) " +
+                   "VALUES (:metric, :employerId, :insuranceCompanyId, :status, :statDate, :delta) " +
+                   "ON CONFLICT (metric, employer_id, insurance_company_id, status, stat_date) " +
+                   "DO UPDATE SET total = dashboard_counters.total + EXCLUDED.total",
+           nativeQuery = true)
+    void increment(@Param("metric") String metric,
+                   @Param("employerId") Long employerId,
+                   @Param("insuranceCompanyId") Long insuranceCompanyId,
+                   @Param("status") String status,
+                   @Param("statDate") LocalDate statDate,
+                   @Param("delta") long delta);
+
+    // Totals per metric and status, optionally for one employer
+    @Query("SELECT c.id.metric AS metric, c.id.status AS status, SUM(c.total) AS total " +
+           "FROM DashboardCounter c " +
+           "WHERE (:employerId IS NULL OR c.id.employerId = :employerId) " +
+           "GROUP BY c.id.metric, c.id.status")
+    List<CounterTotal> sumByMetricAndStatus(@Param("employerId") Long employerId);
+
+    @Query("SELECT new com.waad.tba.modules.dashboard.dto.ClaimsPerDayDto(c.id.statDate, SUM(c.total)) " +
+           "FROM DashboardCounter c " +
+           "WHERE c.id.metric = com.waad.tba.modules.dashboard.entity.DashboardMetric.CLAIMS " +
+           "AND c.id.statDate BETWEEN :startDate AND :endDate " +
+           "AND (:employerId IS NULL OR c.id.employerId = :employerId) " +
+           "GROUP BY c.id.statDate ORDER BY c.id.statDate")
+    List<ClaimsPerDayDto> sumClaimsPerDay(@Param("employerId") Long employerId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+
+    // Small reference tables, counted in one round trip
+    @Query(value = "SELECT (SELECT COUNT(*) FROM employers) AS \"employers\", " +
+                   "(SELECT COUNT(*) FROM insurance_companies) AS \"insuranceCompanies\", " +
+                   "(SELECT COUNT(*) FROM reviewer_companies) AS \"reviewerCompanies\"",
+           nativeQuery = true)
+    ReferenceCounts countReferenceTables();
+
+    // ==================== Reconciliation (see DashboardCounterReconciler) ====================
+
+    // Blocks concurrent increments until the rebuild commits
+    @Modifying
+    @Query(value = "LOCK TABLE dashboard_counters IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM dashboard_counters", nativeQuery = true)
+    int deleteAllCounters();
+
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_counters (metric, employer_id, insurance_company_id, status, stat_date, total) " +
+                   "SELECT 'MEMBERS', m.employer_id, COALESCE(m.insurance_company_id, 0), '', " +
+                   "CAST(COALESCE(m.created_at, CURRENT_TIMESTAMP) AS DATE), COUNT(*) " +
+                   "FROM members m WHERE m.active = true " +
+                   "GROUP BY 2, 3, 5",
+           nativeQuery = true)
+    int insertMemberCounters();
+
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_counters (metric, employer_id, insurance_company_id, status, stat_date, total) " +
+                   "SELECT 'CLAIMS', m.employer_id, c.insurance_company_id, c.status, CAST(c.created_at AS DATE), COUNT(*) " +
+                   "FROM claims c JOIN members m ON m.id = c.member_id WHERE c.active = true " +
+                   "GROUP BY 2, 3, 4, 5",
+           nativeQuery = true)
+    int insertClaimCounters();
+
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_counters (metric, employer_id, insurance_company_id, status, stat_date, total) " +
+                   "SELECT 'VISITS', m.employer_id, COALESCE(m.insurance_company_id, 0), '', v.visit_date, COUNT(*) " +
+                   "FROM visits v JOIN members m ON m.id = v.member_id WHERE v.active IS DISTINCT FROM false " +
+                   "GROUP BY 2, 3, 5",
+           nativeQuery = true)
+    int insertVisitCounters();
+}
@@ -0,0 +1,110 @@
+package com.waad.tba.modules.dashboard.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.waad.tba.modules.dashboard.entity.ClaimRollupBasis;
+import com.waad.tba.modules.dashboard.repository.ClaimRollupRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Claim Rollup Service
+ *
+ * Keeps claim_rollup_daily / claim_rollup_monthly current. Claim writes mark the
+ * affected (basis, day) buckets dirty in their own transaction (see
+ * DashboardCounterListener); this service re-aggregates only those days from
+ * claims, then rebuilds the touched months from the daily rows. A claim whose
+ * visit date moves marks both the old and the new day, so late updates never
+ * require a full rebuild.
+ *
+ * At startup, if the daily rollup is empty, every day that has claims is marked
+ * dirty and the backlog is worked off in batches by the regular refresh.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClaimRollupService {
+
+    private final ClaimRollupRepository rollupRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${claims.rollup.batch-size:200}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (rollupRepository.count() == 0) {
+                Integer marked = new TransactionTemplate(transactionManager)
+                        .execute(status -> rollupRepository.markAllDirty());
+                log.info("Claim rollup backfill scheduled for {} days", marked);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Claim rollup backfill could not be scheduled: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-aggregate dirty buckets, one transaction per batch of days.
+     */
+    @Scheduled(fixedDelayString = "${claims.rollup.refresh-delay-ms:30000}")
+    public void refreshDirtyBuckets() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int refreshed;
+        int total = 0;
+        do {
+            Integer batch = transaction.execute(status -> refreshBatch());
+            refreshed = batch != null ? batch : 0;
+            total += refreshed;
+        } while (refreshed == batchSize);
+
+        if (total > 0) {
+            log.debug("Claim rollups refreshed for {} dirty days", total);
+        }
+    }
+
+    private int refreshBatch() {
+        if (!rollupRepository.tryRefreshLock()) {
+            return 0;
+        }
+
+        List<ClaimRollupRepository.DirtyDay> dirtyDays = rollupRepository.lockDirtyDays(batchSize);
+        Set<MonthBucket> months = new LinkedHashSet<>();
+
+        for (ClaimRollupRepository.DirtyDay dirty : dirtyDays) {
+            String basis = dirty.getBasis();
+            LocalDate day = dirty.getBucketDate();
+
+            // Consume the mark first: a claim change committing after this point marks the day again
+            rollupRepository.deleteDirtyDay(basis, day);
+            rollupRepository.deleteDaily(basis, day);
+            if (ClaimRollupBasis.valueOf(basis) == ClaimRollupBasis.CREATED) {
+                rollupRepository.insertCreatedDaily(day, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            } else {
+                rollupRepository.insertVisitDaily(day);
+            }
+            months.add(new MonthBucket(basis, day.withDayOfMonth(1)));
+        }
+
+        for (MonthBucket month : months) {
+            rollupRepository.deleteMonthly(month.basis(), month.start());
+            rollupRepository.insertMonthly(month.basis(), month.start(), month.start().plusMonths(1));
+        }
+        return dirtyDays.size();
+    }
+
+    private record MonthBucket(String basis, LocalDate start) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.waad.tba.modules.dashboard.service;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.waad.tba.modules.dashboard.entity.ClaimRollupBasis;
+import com.waad.tba.modules.dashboard.entity.DashboardCounterId;
+import com.waad.tba.modules.dashboard.repository.ClaimRollupRepository;
+import com.waad.tba.modules.dashboard.repository.DashboardCounterRepository;
+import com.waad.tba.modules.member.repository.MemberRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dashboard Counter Buffer
+ *
+ * Collects counter deltas and dirty claim rollup days (see ClaimRollupService)
+ * per transaction and writes them right before commit,
+ * after the persistence context has been flushed, so counters commit or roll back
+ * together with the change that produced them. Deltas on the same counter row are
+ * merged, so a bulk insert of claims costs one upsert per distinct row.
+ *
+ * Changes made outside a transaction are not counted; the periodic reconciliation
+ * picks them up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardCounterBuffer {
+
+    private static final Comparator<DashboardCounterId> COUNTER_ORDER = Comparator
+            .comparing(DashboardCounterId::getMetric)
+            .thenComparing(DashboardCounterId::getEmployerId)
+            .thenComparing(DashboardCounterId::getInsuranceCompanyId)
+            .thenComparing(DashboardCounterId::getStatus)
+            .thenComparing(DashboardCounterId::getStatDate);
+
+    private final DashboardCounterRepository counterRepository;
+    private final MemberRepository memberRepository;
+    private final ClaimRollupRepository rollupRepository;
+
+    /**
+     * Register the buffer of the current read-write transaction. Called when a
+     * counted entity is loaded, persisted or removed: callbacks of the flush done
+     * by the commit itself fire after the beforeCommit phase has started, so the
+     * synchronization has to exist before that.
+     */
+    public void join() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pending();
+        }
+    }
+
+    public void record(DashboardCounterSnapshot snapshot, long delta) {
+        if (snapshot == null || delta == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.debug("Dashboard counter change outside a transaction left to reconciliation: {}", snapshot);
+            return;
+        }
+        pending().deltas.merge(snapshot, delta, Long::sum);
+    }
+
+    /**
+     * Mark the rollup days of a claim (as counted by the snapshot) for re-aggregation.
+     */
+    public void markClaimRollups(DashboardCounterSnapshot snapshot) {
+        if (snapshot == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        PendingDeltas pending = pending();
+        pending.dirtyRollupDays.add(new RollupDay(ClaimRollupBasis.CREATED, snapshot.statDate()));
+        if (snapshot.visitDate() != null) {
+            pending.dirtyRollupDays.add(new RollupDay(ClaimRollupBasis.VISIT, snapshot.visitDate()));
+        }
+    }
+
+    private PendingDeltas pending() {
+        PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDeltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private void apply(Map<DashboardCounterSnapshot, Long> deltas) {
+        Set<Long> unresolvedMembers = deltas.keySet().stream()
+                .filter(snapshot -> snapshot.employerId() == null && snapshot.memberId() != null)
+                .map(DashboardCounterSnapshot::memberId)
+                .collect(Collectors.toSet());
+        Map<Long, MemberRepository.CounterDimensions> members = unresolvedMembers.isEmpty()
+                ? Map.of()
+                : memberRepository.findCounterDimensions(unresolvedMembers).stream()
+                        .collect(Collectors.toMap(MemberRepository.CounterDimensions::getMemberId, Function.identity()));
+
+        Map<DashboardCounterId, Long> rows = new HashMap<>();
+        deltas.forEach((snapshot, delta) -> rows.merge(counterId(snapshot, members), delta, Long::sum));
+
+        // Sorted so concurrent transactions lock the counter rows in the same order
+        rows.entrySet().stream()
+                .filter(row -> row.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(COUNTER_ORDER))
+                .forEach(row -> {
+                    DashboardCounterId id = row.getKey();
+                    counterRepository.increment(id.getMetric().name(), id.getEmployerId(),
+                            id.getInsuranceCompanyId(), id.getStatus(), id.getStatDate(), row.getValue());
+                });
+    }
+
+    private static DashboardCounterId counterId(DashboardCounterSnapshot snapshot,
+                                                Map<Long, MemberRepository.CounterDimensions> members) {
+        Long employerId = snapshot.employerId();
+        Long insuranceCompanyId = snapshot.insuranceCompanyId();
+        if (employerId == null) {
+            MemberRepository.CounterDimensions member = members.get(snapshot.memberId());
+            if (member != null) {
+                employerId = member.getEmployerId();
+                if (insuranceCompanyId == null) {
+                    insuranceCompanyId = member.getInsuranceCompanyId();
+                }
+            }
+        }
+        return new DashboardCounterId(
+                snapshot.metric(),
+                employerId != null ? employerId : 0L,
+                insuranceCompanyId != null ? insuranceCompanyId : 0L,
+                snapshot.status() != null ? snapshot.status() : "",
+                snapshot.statDate() != null ? snapshot.statDate() : LocalDate.now());
+    }
+
+    private record RollupDay(ClaimRollupBasis basis, LocalDate day) {
+    }
+
+    private final class PendingDeltas implements TransactionSynchronization {
+
+        private final Map<DashboardCounterSnapshot, Long> deltas = new HashMap<>();
+        private final Set<RollupDay> dirtyRollupDays = new HashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (readOnly) {
+                return;
+            }
+            // Flush first so entity callbacks of pending writes land in this buffer
+            counterRepository.flush();
+            while (!deltas.isEmpty()) {
+                Map<DashboardCounterSnapshot, Long> batch = new HashMap<>(deltas);
+                deltas.clear();
+                apply(batch);
+            }
+            // Sorted so concurrent transactions lock the dirty rows in the same order
+            dirtyRollupDays.stream()
+                    .sorted(Comparator.comparing(RollupDay::day).thenComparing(RollupDay::basis))
+                    .forEach(dirty -> rollupRepository.markDirty(dirty.basis().name(), dirty.day()));
+            dirtyRollupDays.clear();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DashboardCounterBuffer.this);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.waad.tba.modules.dashboard.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.waad.tba.modules.claim.entity.Claim;
+import com.waad.tba.modules.dashboard.entity.DashboardMetric;
+import com.waad.tba.modules.employer.entity.Employer;
+import com.waad.tba.modules.insurance.entity.InsuranceCompany;
+import com.waad.tba.modules.member.entity.Member;
+import com.waad.tba.modules.visit.entity.Visit;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JPA listener that turns member / claim / visit lifecycle events into dashboard
+ * counter deltas and dirty claim rollup days. Register with @EntityListeners on
+ * counted entities.
+ *
+ * Each entity remembers the dimensions it was last counted under (countedSnapshot,
+ * taken on load and after every write), so an update moves one count from the old
+ * row to the new one and a soft delete (active = false) removes it.
+ * Only ids are read from associations, so no lazy proxy is initialized here.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardCounterListener {
+
+    private final ObjectProvider<DashboardCounterBuffer> buffer;
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        setCounted(entity, snapshotOf(entity));
+        buffer.getObject().join();
+    }
+
+    @PrePersist
+    @PreRemove
+    public void onPendingWrite(Object entity) {
+        buffer.getObject().join();
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(Object entity) {
+        DashboardCounterSnapshot previous = getCounted(entity);
+        DashboardCounterSnapshot current = snapshotOf(entity);
+        DashboardCounterBuffer pending = buffer.getObject();
+        if (entity instanceof Claim) {
+            // Amounts are not part of the snapshot, so every claim write refreshes its rollup buckets
+            pending.markClaimRollups(previous);
+            pending.markClaimRollups(current);
+        }
+        if (!Objects.equals(previous, current)) {
+            pending.record(previous, -1);
+            pending.record(current, 1);
+            setCounted(entity, current);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        DashboardCounterSnapshot previous = getCounted(entity);
+        DashboardCounterBuffer pending = buffer.getObject();
+        if (entity instanceof Claim) {
+            pending.markClaimRollups(previous);
+        }
+        pending.record(previous, -1);
+        setCounted(entity, null);
+    }
+
+    /**
+     * Current counter dimensions of the entity; null when it is not counted (inactive).
+     */
+    static DashboardCounterSnapshot snapshotOf(Object entity) {
+        if (entity instanceof Claim claim) {
+            if (!Boolean.TRUE.equals(claim.getActive())) {
+                return null;
+            }
+            return new DashboardCounterSnapshot(DashboardMetric.CLAIMS,
+                    idOf(claim.getMember()), null, idOf(claim.getInsuranceCompany()),
+                    claim.getStatus() != null ? claim.getStatus().name() : "",
+                    dayOf(claim.getCreatedAt()), claim.getVisitDate());
+        }
+        if (entity instanceof Visit visit) {
+            if (Boolean.FALSE.equals(visit.getActive())) {
+                return null;
+            }
+            return new DashboardCounterSnapshot(DashboardMetric.VISITS,
+                    idOf(visit.getMember()), null, null, "", visit.getVisitDate(), null);
+        }
+        if (entity instanceof Member member) {
+            if (!Boolean.TRUE.equals(member.getActive())) {
+                return null;
+            }
+            return new DashboardCounterSnapshot(DashboardMetric.MEMBERS,
+                    member.getId(), idOf(member.getEmployer()), idOf(member.getInsuranceCompany()),
+                    "", dayOf(member.getCreatedAt()), null);
+        }
+        return null;
+    }
+
+    private static DashboardCounterSnapshot getCounted(Object entity) {
+        if (entity instanceof Claim claim) {
+            return claim.getCountedSnapshot();
+        }
+        if (entity instanceof Visit visit) {
+            return visit.getCountedSnapshot();
+        }
+        if (entity instanceof Member member) {
+            return member.getCountedSnapshot();
+        }
+        return null;
+    }
+
+    private static void setCounted(Object entity, DashboardCounterSnapshot snapshot) {
+        if (entity instanceof Claim claim) {
+            claim.setCountedSnapshot(snapshot);
+        } else if (entity instanceof Visit visit) {
+            visit.setCountedSnapshot(snapshot);
+        } else if (entity instanceof Member member) {
+            member.setCountedSnapshot(snapshot);
+        }
+    }
+
+    private static Long idOf(Member member) {
+        return member != null ? member.getId() : null;
+    }
+
+    private static Long idOf(Employer employer) {
+        return employer != null ? employer.getId() : null;
+    }
+
+    private static Long idOf(InsuranceCompany company) {
+        return company != null ? company.getId() : null;
+    }
+
+    private static LocalDate dayOf(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toLocalDate() : LocalDate.now();
+    }
+}
@@ -0,0 +1,58 @@
+package com.waad.tba.modules.dashboard.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.waad.tba.modules.dashboard.repository.DashboardCounterRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dashboard Counter Reconciler
+ *
+ * Rebuilds dashboard_counters from members, claims and visits. Runs on the
+ * dashboard.counters.reconcile-cron schedule and once at startup when the table
+ * is empty (first deployment). Corrects drift the incremental path cannot see:
+ * changes outside a transaction, bulk SQL updates, and members moved to another
+ * employer (their claims and visits stay counted under the old employer until then).
+ *
+ * The rebuild holds an exclusive lock on the counter table, so increments of
+ * concurrent transactions wait and are applied on top of the rebuilt rows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardCounterReconciler {
+
+    private final DashboardCounterRepository counterRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (counterRepository.count() == 0) {
+                reconcile();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Initial dashboard counter build failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${dashboard.counters.reconcile-cron:0 30 2 * * *}")
+    public void reconcile() {
+        long startedAt = System.currentTimeMillis();
+        Integer rows = new TransactionTemplate(transactionManager).execute(status -> {
+            counterRepository.lockForRebuild();
+            counterRepository.deleteAllCounters();
+            return counterRepository.insertMemberCounters()
+                    + counterRepository.insertClaimCounters()
+                    + counterRepository.insertVisitCounters();
+        });
+        log.info("Dashboard counters rebuilt: {} rows in {} ms", rows, System.currentTimeMillis() - startedAt);
+    }
+}
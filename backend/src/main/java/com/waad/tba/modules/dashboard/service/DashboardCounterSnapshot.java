@@ -0,0 +1,22 @@
+package com.waad.tba.modules.dashboard.service;
+
+import java.time.LocalDate;
+
+import com.waad.tba.modules.dashboard.entity.DashboardMetric;
+
+/**
+ * Counter dimensions of one counted entity as last written to dashboard_counters.
+ * Employer / insurance company may be null when they are taken from the member
+ * at flush time (claims and visits), which avoids initializing the member proxy
+ * inside entity callbacks. visitDate is only set for claims and selects the
+ * VISIT claim rollup bucket (it does not change the counter row).
+ */
+public record DashboardCounterSnapshot(
+        DashboardMetric metric,
+        Long memberId,
+        Long employerId,
+        Long insuranceCompanyId,
+        String status,
+        LocalDate statDate,
+        LocalDate visitDate) {
+}
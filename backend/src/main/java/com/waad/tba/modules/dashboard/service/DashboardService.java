@@ -1,80 +1,170 @@
 package com.waad.tba.modules.dashboard.service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.waad.tba.modules.claim.repository.ClaimRepository;
+import com.waad.tba.modules.claim.entity.ClaimStatus;
+import com.waad.tba.modules.dashboard.dto.ClaimFinancialsDto;
 import com.waad.tba.modules.dashboard.dto.ClaimsPerDayDto;
 import com.waad.tba.modules.dashboard.dto.DashboardStatsDto;
-import com.waad.tba.modules.employer.repository.EmployerRepository;
-import com.waad.tba.modules.insurance.repository.InsuranceCompanyRepository;
-import com.waad.tba.modules.member.repository.MemberRepository;
-import com.waad.tba.modules.reviewer.repository.ReviewerCompanyRepository;
+import com.waad.tba.modules.dashboard.entity.ClaimRollupBasis;
+import com.waad.tba.modules.dashboard.entity.ClaimRollupGranularity;
+import com.waad.tba.modules.dashboard.entity.DashboardMetric;
+import com.waad.tba.modules.dashboard.repository.ClaimRollupRepository;
+import com.waad.tba.modules.dashboard.repository.DashboardCounterRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Dashboard statistics, read from the pre-aggregated dashboard_counters rows
+ * (see DashboardCounterListener / DashboardCounterReconciler) and claim rollups
+ * (see ClaimRollupService) instead of scanning the member, claim and visit
+ * tables on every call.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
-    private final MemberRepository memberRepository;
-    private final ClaimRepository claimRepository;
-    private final EmployerRepository employerRepository;
-    private final InsuranceCompanyRepository insuranceRepository;
-    private final ReviewerCompanyRepository reviewerRepository;
+    private static final Set<ClaimStatus> PENDING_STATUSES =
+            EnumSet.of(ClaimStatus.PENDING_REVIEW, ClaimStatus.RETURNED_FOR_INFO);
+    private static final Set<ClaimStatus> APPROVED_STATUSES =
+            EnumSet.of(ClaimStatus.APPROVED, ClaimStatus.PARTIALLY_APPROVED);
+    private static final Set<ClaimStatus> REJECTED_STATUSES = EnumSet.of(ClaimStatus.REJECTED);
+
+    private static final long MAX_CHART_DAYS = 366;
+
+    private static final long MAX_CHART_MONTHS = 120;
+
+    private final DashboardCounterRepository counterRepository;
+    private final ClaimRollupRepository rollupRepository;
 
     @Transactional(readOnly = true)
     public DashboardStatsDto getStats(Long employerId) {
         log.debug("Fetching dashboard statistics for employerId: {}", employerId);
-        
-        long totalMembers;
-        long totalClaims;
-        long pendingClaims;
-        long approvedClaims;
-        long rejectedClaims;
-        
-        if (employerId != null) {
-            // Filter by employer
-            totalMembers = memberRepository.countByEmployerId(employerId);
-            totalClaims = claimRepository.countActive(); // Simplified - use countActive for now
-            pendingClaims = 0; // TODO: Add specific query methods
-            approvedClaims = 0;
-            rejectedClaims = 0;
-        } else {
-            // Global stats (all employers)
-            totalMembers = memberRepository.count();
-            totalClaims = claimRepository.countActive();
-            pendingClaims = 0; // TODO: Add specific query methods
-            approvedClaims = 0;
-            rejectedClaims = 0;
-        }
-        
-        long totalEmployers = employerRepository.count();
-        long totalInsurance = insuranceRepository.count();
-        long totalReviewers = reviewerRepository.count();
+
+        List<DashboardCounterRepository.CounterTotal> totals = counterRepository.sumByMetricAndStatus(employerId);
+        Map<String, Long> claimsByStatus = totals.stream()
+                .filter(total -> total.getMetric() == DashboardMetric.CLAIMS)
+                .collect(Collectors.toMap(DashboardCounterRepository.CounterTotal::getStatus,
+                        DashboardCounterRepository.CounterTotal::getTotal, Long::sum));
+
+        DashboardCounterRepository.ReferenceCounts references = counterRepository.countReferenceTables();
 
         return DashboardStatsDto.builder()
-                .totalMembers(totalMembers)
-                .totalClaims(totalClaims)
-                .pendingClaims(pendingClaims)
-                .approvedClaims(approvedClaims)
-                .rejectedClaims(rejectedClaims)
-                .totalEmployers(totalEmployers)
-                .totalInsuranceCompanies(totalInsurance)
-                .totalReviewerCompanies(totalReviewers)
+                .totalMembers(sum(totals, DashboardMetric.MEMBERS))
+                .totalClaims(sum(totals, DashboardMetric.CLAIMS))
+                .pendingClaims(sum(claimsByStatus, PENDING_STATUSES))
+                .approvedClaims(sum(claimsByStatus, APPROVED_STATUSES))
+                .rejectedClaims(sum(claimsByStatus, REJECTED_STATUSES))
+                .totalVisits(sum(totals, DashboardMetric.VISITS))
+                .totalEmployers(references.getEmployers())
+                .totalInsuranceCompanies(references.getInsuranceCompanies())
+                .totalReviewerCompanies(references.getReviewerCompanies())
                 .build();
     }
 
+    /**
+     * Claims created per day in [startDate, endDate], including days without claims.
+     */
     @Transactional(readOnly = true)
     public List<ClaimsPerDayDto> getClaimsPerDay(Long employerId, LocalDate startDate, LocalDate endDate) {
         log.debug("Fetching claims per day from {} to {} for employerId: {}", startDate, endDate, employerId);
-        
-        // TODO: Add daily statistics query methods to ClaimRepository
-        return new java.util.ArrayList<>();
+
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_CHART_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_CHART_DAYS + " days");
+        }
+
+        Map<LocalDate, Long> counts = counterRepository.sumClaimsPerDay(employerId, startDate, endDate).stream()
+                .collect(Collectors.toMap(ClaimsPerDayDto::getDate, ClaimsPerDayDto::getCount));
+
+        List<ClaimsPerDayDto> days = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            days.add(new ClaimsPerDayDto(day, counts.getOrDefault(day, 0L)));
+        }
+        return days;
+    }
+
+    /**
+     * Claim count and requested / approved / difference amounts per day or month,
+     * read from the claim rollups. Buckets without claims are returned as zero.
+     */
+    @Transactional(readOnly = true)
+    public List<ClaimFinancialsDto> getClaimFinancials(Long employerId,
+                                                       ClaimRollupBasis basis,
+                                                       ClaimRollupGranularity granularity,
+                                                       LocalDate startDate,
+                                                       LocalDate endDate,
+                                                       Long insuranceCompanyId,
+                                                       String providerName,
+                                                       ClaimStatus status) {
+        log.debug("Fetching claim financials by {} {} from {} to {} for employerId: {}",
+                basis, granularity, startDate, endDate, employerId);
+
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        String statusName = status != null ? status.name() : null;
+        String provider = providerName != null && !providerName.isBlank() ? providerName.trim() : null;
+        List<ClaimFinancialsDto> buckets;
+        LocalDate first;
+        LocalDate last;
+        if (granularity == ClaimRollupGranularity.MONTH) {
+            first = startDate.withDayOfMonth(1);
+            last = endDate.withDayOfMonth(1);
+            if (ChronoUnit.MONTHS.between(first, last) >= MAX_CHART_MONTHS) {
+                throw new IllegalArgumentException("Date range must not exceed " + MAX_CHART_MONTHS + " months");
+            }
+            buckets = rollupRepository.sumMonthly(basis, first, last, employerId, insuranceCompanyId,
+                    provider, statusName);
+        } else {
+            first = startDate;
+            last = endDate;
+            if (ChronoUnit.DAYS.between(first, last) >= MAX_CHART_DAYS) {
+                throw new IllegalArgumentException("Date range must not exceed " + MAX_CHART_DAYS + " days");
+            }
+            buckets = rollupRepository.sumDaily(basis, first, last, employerId, insuranceCompanyId,
+                    provider, statusName);
+        }
+
+        Map<LocalDate, ClaimFinancialsDto> byBucket = buckets.stream()
+                .collect(Collectors.toMap(ClaimFinancialsDto::getBucket, bucket -> bucket));
+
+        List<ClaimFinancialsDto> series = new ArrayList<>();
+        for (LocalDate bucket = first; !bucket.isAfter(last);
+                bucket = granularity == ClaimRollupGranularity.MONTH ? bucket.plusMonths(1) : bucket.plusDays(1)) {
+            ClaimFinancialsDto value = byBucket.get(bucket);
+            series.add(value != null ? value : new ClaimFinancialsDto(bucket, 0L,
+                    BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+        }
+        return series;
+    }
+
+    private static long sum(List<DashboardCounterRepository.CounterTotal> totals, DashboardMetric metric) {
+        return totals.stream()
+                .filter(total -> total.getMetric() == metric)
+                .mapToLong(DashboardCounterRepository.CounterTotal::getTotal)
+                .sum();
+    }
+
+    private static long sum(Map<String, Long> byStatus, Set<ClaimStatus> statuses) {
+        return statuses.stream()
+                .mapToLong(status -> byStatus.getOrDefault(status.name(), 0L))
+                .sum();
     }
 }
@@ -0,0 +1,46 @@
+package com.waad.tba.modules.eligibility.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.waad.tba.common.dto.ApiResponse;
+import com.waad.tba.modules.eligibility.dto.EligibilityCheckDto;
+import com.waad.tba.modules.eligibility.dto.EligibilityIdentifierType;
+import com.waad.tba.modules.eligibility.service.EligibilityService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/eligibility")
+@RequiredArgsConstructor
+@Tag(name = "Eligibility", description = "Point-of-care member eligibility verification")
+public class EligibilityController {
+
+    private final EligibilityService eligibilityService;
+
+    /**
+     * Eligibility of the member or dependant holding a card number, QR code value or civil ID.
+     */
+    @GetMapping("/check")
+    @PreAuthorize("hasAnyAuthority('VIEW_MEMBERS', 'MANAGE_VISITS', 'MANAGE_CLAIMS')")
+    @Operation(summary = "Check eligibility", description = "Looks up a member or dependant by card number, QR code or civil ID and evaluates eligibility on the given date")
+    public ResponseEntity<ApiResponse<EligibilityCheckDto>> check(
+            @Parameter(name = "identifier", description = "Card number, QR code value or civil ID", required = true)
+            @RequestParam String identifier,
+            @Parameter(name = "type", description = "ANY, CARD, QR or CIVIL_ID")
+            @RequestParam(defaultValue = "ANY") EligibilityIdentifierType type,
+            @Parameter(name = "date", description = "Date of service (default today)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(ApiResponse.success(eligibilityService.check(identifier, type, date)));
+    }
+}
@@ -0,0 +1,43 @@
+package com.waad.tba.modules.eligibility.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Eligibility of a member or dependant on a given date.
+ * reasons lists every failed check (empty when eligible). Dependants are covered
+ * through the principal member, so the coverage fields are the principal's.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EligibilityCheckDto {
+    private EligibilityIdentifierType matchedBy;
+    private boolean eligible;
+    private List<String> reasons;
+    private LocalDate checkDate;
+
+    private Long memberId;
+    private String memberStatus;
+    private String cardStatus;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long employerId;
+    private Long policyId;
+    private Long benefitPackageId;
+    private boolean chronicDiseaseCovered;
+
+    private boolean dependant;
+    private Long familyMemberId;
+    private String relationship;
+    private String dependantStatus;
+}
@@ -0,0 +1,12 @@
+package com.waad.tba.modules.eligibility.dto;
+
+/**
+ * Identifier presented at the point of care.
+ * ANY tries card number, QR code value and civil ID in that order.
+ */
+public enum EligibilityIdentifierType {
+    ANY,
+    CARD,
+    QR,
+    CIVIL_ID
+}
@@ -0,0 +1,66 @@
+package com.waad.tba.modules.eligibility.service;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.waad.tba.modules.member.entity.FamilyMember;
+import com.waad.tba.modules.member.repository.FamilyMemberRepository;
+
+/**
+ * Packed eligibility state of one dependant (FamilyMember). Coverage itself is
+ * the principal member's; only the dependant's own status is kept here.
+ */
+final class DependantEligibility {
+
+    private static final FamilyMember.Relationship[] RELATIONSHIPS = FamilyMember.Relationship.values();
+    private static final FamilyMember.FamilyMemberStatus[] STATUSES = FamilyMember.FamilyMemberStatus.values();
+
+    // bits 0-3 relationship ordinal, bits 4-5 status ordinal, then the active flag
+    private static final int ACTIVE = 1 << 6;
+
+    final long familyMemberId;
+    final long memberId;
+    final int bits;
+    final String cardKey;
+    final String civilIdKey;
+
+    DependantEligibility(long familyMemberId, long memberId, int bits, String cardKey, String civilIdKey) {
+        this.familyMemberId = familyMemberId;
+        this.memberId = memberId;
+        this.bits = bits;
+        this.cardKey = cardKey;
+        this.civilIdKey = civilIdKey;
+    }
+
+    static DependantEligibility from(FamilyMemberRepository.EligibilityRow row) {
+        int bits = Objects.requireNonNullElse(row.getRelationship(), FamilyMember.Relationship.SON).ordinal()
+                | Objects.requireNonNullElse(row.getStatus(), FamilyMember.FamilyMemberStatus.INACTIVE).ordinal() << 4;
+        if (Boolean.TRUE.equals(row.getActive())) {
+            bits |= ACTIVE;
+        }
+        return new DependantEligibility(row.getFamilyMemberId(), row.getMemberId(), bits,
+                EligibilityIndex.normalizeKey(row.getCardNumber()),
+                EligibilityIndex.normalizeKey(row.getCivilId()));
+    }
+
+    FamilyMember.Relationship relationship() {
+        return RELATIONSHIPS[bits & 0xF];
+    }
+
+    FamilyMember.FamilyMemberStatus status() {
+        return STATUSES[(bits >>> 4) & 0x3];
+    }
+
+    boolean active() {
+        return (bits & ACTIVE) != 0;
+    }
+
+    void collectReasons(List<String> reasons) {
+        if (!active()) {
+            reasons.add("DEPENDANT_INACTIVE");
+        }
+        if (status() != FamilyMember.FamilyMemberStatus.ACTIVE) {
+            reasons.add("DEPENDANT_" + status().name());
+        }
+    }
+}
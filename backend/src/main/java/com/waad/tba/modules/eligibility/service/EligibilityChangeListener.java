@@ -0,0 +1,44 @@
+package com.waad.tba.modules.eligibility.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.waad.tba.modules.member.entity.FamilyMember;
+import com.waad.tba.modules.member.entity.Member;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JPA listener that keeps the EligibilityIndex current. Register with
+ * @EntityListeners on Member, FamilyMember, Policy and BenefitPackage.
+ * Member and dependant changes reload that member after commit; policy and
+ * benefit package changes request a full rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+public class EligibilityChangeListener {
+
+    private final ObjectProvider<EligibilityIndex> index;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onEntityChanged(Object entity) {
+        EligibilityIndex eligibilityIndex = index.getIfAvailable();
+        if (eligibilityIndex == null) {
+            return;
+        }
+        if (entity instanceof Member member) {
+            eligibilityIndex.memberChanged(member.getId());
+        } else if (entity instanceof FamilyMember familyMember) {
+            if (familyMember.getMember() != null) {
+                eligibilityIndex.memberChanged(familyMember.getMember().getId());
+            }
+        } else {
+            eligibilityIndex.requestRebuild();
+        }
+    }
+}
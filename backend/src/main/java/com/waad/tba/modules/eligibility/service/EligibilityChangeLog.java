@@ -0,0 +1,51 @@
+package com.waad.tba.modules.eligibility.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reads the eligibility_changes table (V28), filled by database triggers on
+ * members, family_members, policies and benefit_packages. Positions are
+ * database timestamps, so they do not depend on the clock of the node.
+ */
+@Component
+@RequiredArgsConstructor
+public class EligibilityChangeLog {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * True when the change log table exists (V28 applied).
+     */
+    public boolean isAvailable() {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass('eligibility_changes') IS NOT NULL", Boolean.class);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Current position of the log; read before loading data so that no later change is skipped.
+     */
+    public Instant currentPosition() {
+        return jdbcTemplate.queryForObject("SELECT clock_timestamp()", Timestamp.class).toInstant();
+    }
+
+    /**
+     * Members changed at or after the position.
+     */
+    public List<Long> changedMemberIdsSince(Instant position) {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT member_id FROM eligibility_changes WHERE changed_at >= ?",
+                Long.class, Timestamp.from(position));
+    }
+
+    public int pruneBefore(Instant position) {
+        return jdbcTemplate.update("DELETE FROM eligibility_changes WHERE changed_at < ?", Timestamp.from(position));
+    }
+}
@@ -0,0 +1,669 @@
+package com.waad.tba.modules.eligibility.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.waad.tba.modules.eligibility.dto.EligibilityIdentifierType;
+import com.waad.tba.modules.member.repository.FamilyMemberRepository;
+import com.waad.tba.modules.member.repository.MemberRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Eligibility Index
+ *
+ * Maps card number, QR code value and civil ID to the packed eligibility state
+ * of members (MemberEligibility) and their dependants (DependantEligibility,
+ * FamilyMember.cardNumber / civilId). Lookups are lock-free; a member's civil ID
+ * takes precedence over a dependant's with the same value.
+ *
+ * Storage is two layers:
+ * - base: the memory-mapped EligibilitySnapshot written by the last full rebuild
+ *   (off-heap, read-only); absent when snapshots are disabled or cannot be written
+ * - overlay: on-heap entries of members changed since then. A member present in
+ *   the overlay (or removed) hides its base entry, its base keys and its base
+ *   dependants; the overlay always holds all current dependants of such a member.
+ *
+ * Keeping it current:
+ * - Member / FamilyMember writes (EligibilityChangeListener) collect member ids per
+ *   transaction; after commit those members and their dependants are reloaded.
+ * - With the change log (V28) the refresh run also reloads members changed on
+ *   other nodes, and a restarting node maps the snapshot and replays the members
+ *   changed since its change-log position instead of rescanning the tables.
+ * - Without the change log, policy / benefit package writes request a full
+ *   rebuild, picked up by the next refresh run (eligibility.index.refresh-delay-ms).
+ * - A scheduled full rebuild (eligibility.index.rebuild-cron) writes a new
+ *   snapshot, empties the overlay and catches anything that bypassed the above.
+ * Changes committed while a rebuild is loading are replayed on the new tables.
+ */
+@Slf4j
+@Component
+public class EligibilityIndex {
+
+    private static final int REFRESH_CHUNK_SIZE = 1000;
+
+    private final MemberRepository memberRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final EligibilityChangeLog changeLog;
+    private final TransactionTemplate readTransaction;
+
+    @Value("${eligibility.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${eligibility.snapshot.path:./data/eligibility-index.snap}")
+    private String snapshotPath;
+
+    @Value("${eligibility.snapshot.replay-overlap-seconds:120}")
+    private long replayOverlapSeconds;
+
+    @Value("${eligibility.snapshot.change-log-retention-days:7}")
+    private int changeLogRetentionDays;
+
+    private final Object writeLock = new Object();
+    private volatile Tables tables;
+
+    // Guarded by writeLock
+    private boolean rebuilding;
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+
+    private volatile boolean changeLogAvailable;
+    private volatile Instant changeLogPosition;
+
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final LongAdder incrementalRefreshes = new LongAdder();
+    private volatile Instant lastRebuildAt;
+    private volatile long lastRebuildMillis;
+    private volatile String loadedFrom;
+
+    public EligibilityIndex(MemberRepository memberRepository,
+                            FamilyMemberRepository familyMemberRepository,
+                            EligibilityChangeLog changeLog,
+                            PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.familyMemberRepository = familyMemberRepository;
+        this.changeLog = changeLog;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Result of a lookup: the principal member, plus the dependant when the identifier is a dependant's.
+     */
+    record Match(EligibilityIdentifierType matchedBy, MemberEligibility member, DependantEligibility dependant) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            if (!restoreFromSnapshot()) {
+                current();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Eligibility index warmup failed, it will be built on first lookup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Find the member or dependant holding the identifier; null when unknown.
+     */
+    Match find(EligibilityIdentifierType type, String identifier) {
+        String key = normalizeKey(identifier);
+        if (key == null) {
+            return null;
+        }
+        Tables current = current();
+        return switch (type) {
+            case CARD -> current.find(EligibilityIdentifierType.CARD, key);
+            case QR -> current.find(EligibilityIdentifierType.QR, key);
+            case CIVIL_ID -> current.find(EligibilityIdentifierType.CIVIL_ID, key);
+            case ANY -> {
+                Match match = current.find(EligibilityIdentifierType.CARD, key);
+                if (match == null) {
+                    match = current.find(EligibilityIdentifierType.QR, key);
+                }
+                if (match == null) {
+                    match = current.find(EligibilityIdentifierType.CIVIL_ID, key);
+                }
+                yield match;
+            }
+        };
+    }
+
+    /**
+     * Reload a member and its dependants after the current transaction commits
+     * (immediately when called outside a transaction).
+     */
+    public void memberChanged(Long memberId) {
+        if (memberId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshMembers(Set.of(memberId));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.memberIds.add(memberId);
+    }
+
+    /**
+     * Ask for a full rebuild on the next refresh run (policy / benefit package changes).
+     * Not needed when the change log is available: its triggers list the affected members.
+     */
+    public void requestRebuild() {
+        if (!changeLogAvailable) {
+            rebuildRequested.set(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${eligibility.index.refresh-delay-ms:60000}",
+               initialDelayString = "${eligibility.index.refresh-delay-ms:60000}")
+    public void refresh() {
+        if (rebuildRequested.getAndSet(false)) {
+            rebuildSafely();
+        } else if (changeLogAvailable && changeLogPosition != null && tables != null) {
+            try {
+                tailChangeLog();
+            } catch (RuntimeException e) {
+                log.warn("Eligibility change log tail failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${eligibility.index.rebuild-cron:0 30 2 * * *}")
+    public void scheduledRebuild() {
+        rebuildSafely();
+        if (changeLogAvailable && changeLogPosition != null) {
+            try {
+                int pruned = changeLog.pruneBefore(changeLogPosition.minus(Duration.ofDays(changeLogRetentionDays)));
+                log.debug("Pruned {} eligibility change log rows", pruned);
+            } catch (RuntimeException e) {
+                log.warn("Eligibility change log prune failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void rebuildSafely() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            rebuildRequested.set(true);
+            log.warn("Eligibility index rebuild failed, retrying on next refresh: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load all members and dependants, write a new snapshot and swap it in with an empty overlay.
+     * Synchronized with the lazy first build in current(), so only one rebuild runs at a time.
+     */
+    public synchronized void rebuild() {
+        synchronized (writeLock) {
+            rebuilding = true;
+            changedDuringRebuild.clear();
+        }
+        Set<Long> replay;
+        try {
+            long startedAt = System.currentTimeMillis();
+            changeLogAvailable = detectChangeLog();
+            // Read the position before the data, so changes made during the load are replayed later
+            Instant position = changeLogAvailable ? changeLog.currentPosition() : null;
+            Loaded loaded = readTransaction.execute(status -> load());
+            Tables fresh = buildTables(loaded, position);
+            synchronized (writeLock) {
+                tables = fresh;
+                changeLogPosition = position;
+                replay = new HashSet<>(changedDuringRebuild);
+            }
+            lastRebuildMillis = System.currentTimeMillis() - startedAt;
+            lastRebuildAt = Instant.now();
+            loadedFrom = fresh.base != null ? "database, snapshot written" : "database";
+            log.info("Eligibility index rebuilt: {} members, {} dependants in {} ms ({})",
+                    loaded.members.size(), loaded.dependants.size(), lastRebuildMillis, loadedFrom);
+        } finally {
+            synchronized (writeLock) {
+                rebuilding = false;
+                changedDuringRebuild.clear();
+            }
+        }
+        if (!replay.isEmpty()) {
+            refreshMembers(replay);
+        }
+    }
+
+    private Loaded load() {
+        Loaded loaded = new Loaded();
+        try (Stream<MemberRepository.EligibilityRow> rows = memberRepository.streamEligibilityRows()) {
+            rows.forEach(row -> loaded.members.add(MemberEligibility.from(row)));
+        }
+        try (Stream<FamilyMemberRepository.EligibilityRow> rows = familyMemberRepository.streamEligibilityRows()) {
+            rows.forEach(row -> loaded.dependants.add(DependantEligibility.from(row)));
+        }
+        return loaded;
+    }
+
+    // Snapshot-backed tables when possible (the loaded records are then only garbage), else all on heap
+    private Tables buildTables(Loaded loaded, Instant position) {
+        if (snapshotEnabled && position != null) {
+            try {
+                Path path = Paths.get(snapshotPath);
+                EligibilitySnapshot.write(path, loaded.members, loaded.dependants, position);
+                return new Tables(EligibilitySnapshot.open(path));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Eligibility snapshot could not be written to {}, keeping the index on heap: {}",
+                        snapshotPath, e.getMessage());
+            }
+        }
+        Tables fresh = new Tables(null);
+        loaded.members.forEach(fresh::putMember);
+        loaded.dependants.forEach(fresh::putDependant);
+        return fresh;
+    }
+
+    /**
+     * Warm restart: map the last snapshot and reload the members changed since its
+     * change-log position. False when there is no usable snapshot or change log.
+     */
+    private synchronized boolean restoreFromSnapshot() {
+        Path path = Paths.get(snapshotPath);
+        if (!snapshotEnabled || tables != null || !Files.isRegularFile(path)) {
+            return false;
+        }
+        long startedAt = System.currentTimeMillis();
+        try {
+            if (!detectChangeLog()) {
+                log.info("Eligibility change log (V28) not available, ignoring snapshot {}", path);
+                return false;
+            }
+            changeLogAvailable = true;
+            EligibilitySnapshot snapshot = EligibilitySnapshot.open(path);
+            Instant position = changeLog.currentPosition();
+            if (snapshot.changeLogPosition().isBefore(position.minus(Duration.ofDays(changeLogRetentionDays)))) {
+                log.info("Eligibility snapshot {} is older than the change log retention, rebuilding", path);
+                return false;
+            }
+
+            Tables restored = new Tables(snapshot);
+            List<Long> changed = changeLog.changedMemberIdsSince(
+                    snapshot.changeLogPosition().minusSeconds(replayOverlapSeconds));
+            for (int from = 0; from < changed.size(); from += REFRESH_CHUNK_SIZE) {
+                List<Long> chunk = changed.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, changed.size()));
+                applyRefresh(restored, chunk, loadRows(chunk));
+            }
+            synchronized (writeLock) {
+                tables = restored;
+                changeLogPosition = position;
+            }
+            lastRebuildMillis = System.currentTimeMillis() - startedAt;
+            lastRebuildAt = Instant.now();
+            loadedFrom = "snapshot";
+            log.info("Eligibility index restored from snapshot {} ({} members, {} dependants, written {}), "
+                    + "{} changed members replayed in {} ms", path, snapshot.memberCount(),
+                    snapshot.dependantCount(), snapshot.createdAt(), changed.size(), lastRebuildMillis);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Eligibility snapshot {} could not be restored, rebuilding: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    // Reload members changed since the last position, including changes made on other nodes
+    private void tailChangeLog() {
+        Instant next = changeLog.currentPosition();
+        List<Long> changed = changeLog.changedMemberIdsSince(changeLogPosition.minusSeconds(replayOverlapSeconds));
+        refreshMembers(changed);
+        changeLogPosition = next;
+    }
+
+    private boolean detectChangeLog() {
+        try {
+            return changeLog.isAvailable();
+        } catch (RuntimeException e) {
+            log.warn("Eligibility change log check failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reload the given members and all of their dependants; members no longer found are removed.
+     */
+    public void refreshMembers(Collection<Long> memberIds) {
+        if (memberIds.isEmpty() || tables == null) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(memberIds);
+        for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, ids.size()));
+            Rows rows = loadRows(chunk);
+            synchronized (writeLock) {
+                if (rebuilding) {
+                    changedDuringRebuild.addAll(chunk);
+                }
+                applyRefresh(tables, chunk, rows);
+            }
+        }
+        incrementalRefreshes.increment();
+    }
+
+    private Rows loadRows(Collection<Long> memberIds) {
+        Rows rows = new Rows();
+        readTransaction.executeWithoutResult(status -> {
+            rows.members.addAll(memberRepository.findEligibilityRows(memberIds));
+            rows.dependants.addAll(familyMemberRepository.findEligibilityRowsByMemberIdIn(memberIds));
+        });
+        return rows;
+    }
+
+    private static void applyRefresh(Tables target, Collection<Long> memberIds, Rows rows) {
+        Map<Long, Set<Long>> dependantIds = new HashMap<>();
+        for (FamilyMemberRepository.EligibilityRow row : rows.dependants) {
+            target.putDependant(DependantEligibility.from(row));
+            dependantIds.computeIfAbsent(row.getMemberId(), id -> new HashSet<>()).add(row.getFamilyMemberId());
+        }
+        Set<Long> found = new HashSet<>();
+        for (MemberRepository.EligibilityRow row : rows.members) {
+            target.putMember(MemberEligibility.from(row));
+            found.add(row.getMemberId());
+        }
+        for (Long memberId : memberIds) {
+            if (found.contains(memberId)) {
+                target.retainDependants(memberId, dependantIds.getOrDefault(memberId, Set.of()));
+            } else {
+                target.removeMember(memberId);
+            }
+        }
+    }
+
+    private Tables current() {
+        Tables current = tables;
+        if (current == null) {
+            synchronized (this) {
+                if (tables == null) {
+                    rebuild();
+                }
+                current = tables;
+            }
+        }
+        return current;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Tables current = tables;
+        EligibilitySnapshot base = current != null ? current.base : null;
+        stats.put("loaded", current != null);
+        stats.put("loadedFrom", loadedFrom);
+        stats.put("snapshotMembers", base != null ? base.memberCount() : 0);
+        stats.put("snapshotDependants", base != null ? base.dependantCount() : 0);
+        stats.put("snapshotBytes", base != null ? base.sizeBytes() : 0);
+        stats.put("snapshotWrittenAt", base != null ? base.createdAt() : null);
+        stats.put("heapMembers", current != null ? current.members.size() : 0);
+        stats.put("heapDependants", current != null ? current.dependants.size() : 0);
+        stats.put("removedMembers", current != null ? current.removedMembers.size() : 0);
+        stats.put("changeLogAvailable", changeLogAvailable);
+        stats.put("changeLogPosition", changeLogPosition);
+        stats.put("lastRebuildAt", lastRebuildAt);
+        stats.put("lastRebuildMs", lastRebuildMillis);
+        stats.put("incrementalRefreshes", incrementalRefreshes.sum());
+        stats.put("rebuildRequested", rebuildRequested.get());
+        return stats;
+    }
+
+    /**
+     * Identifiers are matched trimmed and case-insensitively; blank yields null.
+     */
+    static String normalizeKey(String identifier) {
+        if (identifier == null || identifier.isBlank()) {
+            return null;
+        }
+        return identifier.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static final class Loaded {
+        final List<MemberEligibility> members = new ArrayList<>();
+        final List<DependantEligibility> dependants = new ArrayList<>();
+    }
+
+    private static final class Rows {
+        final List<MemberRepository.EligibilityRow> members = new ArrayList<>();
+        final List<FamilyMemberRepository.EligibilityRow> dependants = new ArrayList<>();
+    }
+
+    /**
+     * Index tables: optional snapshot base plus on-heap overlay.
+     * Readers use them without locking; writers hold writeLock.
+     * Index values are member ids (> 0) or negated family member ids (< 0).
+     */
+    private static final class Tables {
+        final EligibilitySnapshot base;
+        final ConcurrentHashMap<Long, MemberEligibility> members = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Long, DependantEligibility> dependants = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Long> cards = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Long> qrCodes = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, Long> civilIds = new ConcurrentHashMap<>();
+        // Base members deleted since the snapshot
+        final Set<Long> removedMembers = ConcurrentHashMap.newKeySet();
+        // Only touched by writers
+        final Map<Long, Set<Long>> dependantIdsByMember = new HashMap<>();
+
+        Tables(EligibilitySnapshot base) {
+            this.base = base;
+        }
+
+        Match find(EligibilityIdentifierType type, String key) {
+            Long ref = switch (type) {
+                case CARD -> cards.get(key);
+                case QR -> qrCodes.get(key);
+                default -> civilIds.get(key);
+            };
+            if (ref == null && base != null) {
+                ref = base.find(snapshotType(type), key);
+                // Base keys of members changed since the snapshot are stale
+                if (ref != null && baseRefHidden(ref)) {
+                    ref = null;
+                }
+            }
+            return ref != null ? resolve(type, ref) : null;
+        }
+
+        private static byte snapshotType(EligibilityIdentifierType type) {
+            return switch (type) {
+                case CARD -> EligibilitySnapshot.CARD;
+                case QR -> EligibilitySnapshot.QR;
+                default -> EligibilitySnapshot.CIVIL_ID;
+            };
+        }
+
+        private boolean memberOverridden(long memberId) {
+            return members.containsKey(memberId) || removedMembers.contains(memberId);
+        }
+
+        private boolean baseRefHidden(long ref) {
+            if (ref > 0) {
+                return memberOverridden(ref);
+            }
+            if (dependants.containsKey(-ref)) {
+                return true;
+            }
+            DependantEligibility dependant = base.dependant(-ref);
+            return dependant == null || memberOverridden(dependant.memberId);
+        }
+
+        private MemberEligibility member(long memberId) {
+            MemberEligibility member = members.get(memberId);
+            if (member != null || base == null || removedMembers.contains(memberId)) {
+                return member;
+            }
+            return base.member(memberId);
+        }
+
+        private DependantEligibility dependant(long familyMemberId) {
+            DependantEligibility dependant = dependants.get(familyMemberId);
+            if (dependant != null || base == null) {
+                return dependant;
+            }
+            dependant = base.dependant(familyMemberId);
+            return dependant != null && !memberOverridden(dependant.memberId) ? dependant : null;
+        }
+
+        private Match resolve(EligibilityIdentifierType matchedBy, long ref) {
+            if (ref > 0) {
+                MemberEligibility member = member(ref);
+                return member != null ? new Match(matchedBy, member, null) : null;
+            }
+            DependantEligibility dependant = dependant(-ref);
+            if (dependant == null) {
+                return null;
+            }
+            MemberEligibility principal = member(dependant.memberId);
+            return principal != null ? new Match(matchedBy, principal, dependant) : null;
+        }
+
+        // Puts before removing stale keys, so readers never miss an unchanged key
+        void putMember(MemberEligibility member) {
+            Long ref = member.memberId;
+            MemberEligibility old = members.put(member.memberId, member);
+            removedMembers.remove(member.memberId);
+            putKey(cards, member.cardKey, ref);
+            putKey(qrCodes, member.qrKey, ref);
+            putKey(civilIds, member.civilIdKey, ref);
+            if (old != null) {
+                removeStaleKey(cards, old.cardKey, member.cardKey, ref);
+                removeStaleKey(qrCodes, old.qrKey, member.qrKey, ref);
+                removeStaleKey(civilIds, old.civilIdKey, member.civilIdKey, ref);
+            }
+        }
+
+        void putDependant(DependantEligibility dependant) {
+            Long ref = -dependant.familyMemberId;
+            DependantEligibility old = dependants.put(dependant.familyMemberId, dependant);
+            dependantIdsByMember.computeIfAbsent(dependant.memberId, id -> new HashSet<>()).add(dependant.familyMemberId);
+            putKey(cards, dependant.cardKey, ref);
+            if (dependant.civilIdKey != null) {
+                civilIds.merge(dependant.civilIdKey, ref, (existing, added) -> existing > 0 ? existing : added);
+            }
+            if (old != null) {
+                removeStaleKey(cards, old.cardKey, dependant.cardKey, ref);
+                removeStaleKey(civilIds, old.civilIdKey, dependant.civilIdKey, ref);
+                if (old.memberId != dependant.memberId) {
+                    Set<Long> previous = dependantIdsByMember.get(old.memberId);
+                    if (previous != null) {
+                        previous.remove(dependant.familyMemberId);
+                    }
+                }
+            }
+        }
+
+        // Removes the member and all of its dependants with their keys
+        void removeMember(Long memberId) {
+            if (base != null && base.member(memberId) != null) {
+                removedMembers.add(memberId);
+            }
+            MemberEligibility member = members.remove(memberId);
+            if (member != null) {
+                removeKey(cards, member.cardKey, memberId);
+                removeKey(qrCodes, member.qrKey, memberId);
+                removeKey(civilIds, member.civilIdKey, memberId);
+            }
+            retainDependants(memberId, Set.of());
+        }
+
+        // Removes the member's overlay dependants that are not in keep
+        void retainDependants(Long memberId, Set<Long> keep) {
+            Set<Long> dependantIds = dependantIdsByMember.get(memberId);
+            if (dependantIds == null) {
+                return;
+            }
+            for (Iterator<Long> it = dependantIds.iterator(); it.hasNext(); ) {
+                Long familyMemberId = it.next();
+                if (keep.contains(familyMemberId)) {
+                    continue;
+                }
+                it.remove();
+                DependantEligibility dependant = dependants.get(familyMemberId);
+                if (dependant != null && dependant.memberId == memberId) {
+                    dependants.remove(familyMemberId);
+                    removeKey(cards, dependant.cardKey, -familyMemberId);
+                    removeKey(civilIds, dependant.civilIdKey, -familyMemberId);
+                }
+            }
+            if (dependantIds.isEmpty()) {
+                dependantIdsByMember.remove(memberId);
+            }
+        }
+
+        private static void putKey(Map<String, Long> keys, String key, Long ref) {
+            if (key != null) {
+                keys.put(key, ref);
+            }
+        }
+
+        private static void removeKey(Map<String, Long> keys, String key, Long ref) {
+            if (key != null) {
+                keys.remove(key, ref);
+            }
+        }
+
+        private static void removeStaleKey(Map<String, Long> keys, String oldKey, String newKey, Long ref) {
+            if (oldKey != null && !oldKey.equals(newKey)) {
+                keys.remove(oldKey, ref);
+            }
+        }
+    }
+
+    /**
+     * Member ids changed by one transaction, reloaded once it has committed.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        final Set<Long> memberIds = new HashSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EligibilityIndex.this);
+            if (status != STATUS_COMMITTED) {
+                return;
+            }
+            try {
+                refreshMembers(memberIds);
+            } catch (RuntimeException e) {
+                rebuildRequested.set(true);
+                log.warn("Eligibility index refresh of members {} failed, full rebuild requested: {}",
+                        memberIds, e.getMessage());
+            }
+        }
+    }
+}
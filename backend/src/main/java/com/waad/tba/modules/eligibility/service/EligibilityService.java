@@ -0,0 +1,99 @@
+package com.waad.tba.modules.eligibility.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Service;
+
+import com.waad.tba.common.exception.ResourceNotFoundException;
+import com.waad.tba.modules.eligibility.dto.EligibilityCheckDto;
+import com.waad.tba.modules.eligibility.dto.EligibilityIdentifierType;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Eligibility Service
+ *
+ * Point-of-care eligibility check by card number, QR code value or civil ID,
+ * answered from the EligibilityIndex without touching the database. Lookup
+ * latency (index probe and evaluation) is recorded in a histogram and exposed
+ * with the index statistics.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EligibilityService {
+
+    private final EligibilityIndex index;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Check eligibility of the member or dependant holding the identifier on the given date (today when null).
+     */
+    public EligibilityCheckDto check(String identifier, EligibilityIdentifierType type, LocalDate date) {
+        long startedAt = System.nanoTime();
+        LocalDate checkDate = date != null ? date : LocalDate.now();
+        EligibilityIndex.Match match = index.find(type != null ? type : EligibilityIdentifierType.ANY, identifier);
+        EligibilityCheckDto result = match != null ? evaluate(match, checkDate) : null;
+        latency.record(System.nanoTime() - startedAt);
+
+        if (result == null) {
+            misses.increment();
+            throw new ResourceNotFoundException("Member", "identifier", identifier);
+        }
+        hits.increment();
+        return result;
+    }
+
+    private static EligibilityCheckDto evaluate(EligibilityIndex.Match match, LocalDate checkDate) {
+        MemberEligibility member = match.member();
+        DependantEligibility dependant = match.dependant();
+
+        List<String> reasons = new ArrayList<>(2);
+        if (dependant != null) {
+            dependant.collectReasons(reasons);
+        }
+        member.collectReasons(checkDate.toEpochDay(), reasons);
+
+        EligibilityCheckDto.EligibilityCheckDtoBuilder result = EligibilityCheckDto.builder()
+                .matchedBy(match.matchedBy())
+                .eligible(reasons.isEmpty())
+                .reasons(reasons)
+                .checkDate(checkDate)
+                .memberId(member.memberId)
+                .memberStatus(member.status().name())
+                .cardStatus(member.cardStatus().name())
+                .startDate(member.startDate())
+                .endDate(member.endDate())
+                .employerId(MemberEligibility.zeroToNull(member.employerId))
+                .policyId(MemberEligibility.zeroToNull(member.policyId))
+                .benefitPackageId(MemberEligibility.zeroToNull(member.benefitPackageId))
+                .chronicDiseaseCovered(member.chronicDiseaseCovered());
+        if (dependant != null) {
+            result.dependant(true)
+                    .familyMemberId(dependant.familyMemberId)
+                    .relationship(dependant.relationship().name())
+                    .dependantStatus(dependant.status().name());
+        }
+        return result.build();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(index.getStats());
+        stats.put("lookups", latency.count());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("p50Micros", latency.percentileNanos(50) / 1000.0);
+        stats.put("p99Micros", latency.percentileNanos(99) / 1000.0);
+        stats.put("maxMicros", latency.maxNanos() / 1000.0);
+        return stats;
+    }
+}
@@ -0,0 +1,307 @@
+package com.waad.tba.modules.eligibility.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memory-mapped, read-only eligibility snapshot file.
+ *
+ * Layout (big-endian):
+ * - header (64 bytes): magic, version, created-at millis, change-log position
+ *   (epoch micros), member / dependant / slot counts, key area size
+ * - member records (48 bytes each, sorted by member id, binary searched)
+ * - dependant records (24 bytes each, sorted by family member id)
+ * - open-addressing hash table of 24-byte slots: 64-bit key hash, index value
+ *   (member id or negated family member id), key offset, key length, key type;
+ *   linear probing, load factor at most 0.5
+ * - key area: UTF-8 normalized keys, compared on hash match so a hash collision
+ *   can never return the wrong member
+ *
+ * Lookups read the mapping with absolute gets, so any number of threads can
+ * share it and none of the data lives on the Java heap.
+ */
+final class EligibilitySnapshot {
+
+    private static final int MAGIC = 0x454C4947; // "ELIG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int MEMBER_BYTES = 48;
+    private static final int DEPENDANT_BYTES = 24;
+    private static final int SLOT_BYTES = 24;
+
+    static final byte CARD = 1;
+    static final byte QR = 2;
+    static final byte CIVIL_ID = 3;
+
+    private final ByteBuffer buffer;
+    private final Instant createdAt;
+    private final Instant changeLogPosition;
+    private final int memberCount;
+    private final int dependantCount;
+    private final int slotCount;
+    private final int membersOffset;
+    private final int dependantsOffset;
+    private final int slotsOffset;
+    private final int keysOffset;
+
+    private EligibilitySnapshot(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not an eligibility snapshot of version " + VERSION);
+        }
+        this.buffer = buffer;
+        this.createdAt = Instant.ofEpochMilli(buffer.getLong(8));
+        this.changeLogPosition = Instant.EPOCH.plus(buffer.getLong(16), ChronoUnit.MICROS);
+        this.memberCount = buffer.getInt(24);
+        this.dependantCount = buffer.getInt(28);
+        this.slotCount = buffer.getInt(32);
+        int keyBytes = buffer.getInt(36);
+        this.membersOffset = HEADER_BYTES;
+        this.dependantsOffset = membersOffset + memberCount * MEMBER_BYTES;
+        this.slotsOffset = dependantsOffset + dependantCount * DEPENDANT_BYTES;
+        this.keysOffset = slotsOffset + slotCount * SLOT_BYTES;
+        if (Integer.bitCount(slotCount) != 1 || (long) keysOffset + keyBytes != buffer.capacity()) {
+            throw new IllegalStateException("Eligibility snapshot is truncated or corrupt");
+        }
+    }
+
+    static EligibilitySnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Eligibility snapshot larger than 2 GB: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new EligibilitySnapshot(mapped);
+        }
+    }
+
+    /**
+     * Write a snapshot to a temporary file and move it over the target atomically.
+     * Keys follow the index rules: a member's civil ID wins over a dependant's.
+     */
+    static void write(Path path, List<MemberEligibility> members, List<DependantEligibility> dependants,
+                      Instant changeLogPosition) throws IOException {
+        List<MemberEligibility> sortedMembers = new ArrayList<>(members);
+        sortedMembers.sort(Comparator.comparingLong(member -> member.memberId));
+        List<DependantEligibility> sortedDependants = new ArrayList<>(dependants);
+        sortedDependants.sort(Comparator.comparingLong(dependant -> dependant.familyMemberId));
+
+        Map<String, Long> cards = new HashMap<>();
+        Map<String, Long> qrCodes = new HashMap<>();
+        Map<String, Long> civilIds = new HashMap<>();
+        for (MemberEligibility member : sortedMembers) {
+            putKey(cards, member.cardKey, member.memberId);
+            putKey(qrCodes, member.qrKey, member.memberId);
+            putKey(civilIds, member.civilIdKey, member.memberId);
+        }
+        for (DependantEligibility dependant : sortedDependants) {
+            putKey(cards, dependant.cardKey, -dependant.familyMemberId);
+            if (dependant.civilIdKey != null && !civilIds.containsKey(dependant.civilIdKey)) {
+                putKey(civilIds, dependant.civilIdKey, -dependant.familyMemberId);
+            }
+        }
+
+        int keyCount = cards.size() + qrCodes.size() + civilIds.size();
+        int slotCount = Integer.highestOneBit(Math.max(16, keyCount * 2 - 1)) << 1;
+        long keyAreaSize = 0;
+        for (Map<String, Long> keys : List.of(cards, qrCodes, civilIds)) {
+            for (String key : keys.keySet()) {
+                keyAreaSize += key.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        long size = HEADER_BYTES
+                + (long) sortedMembers.size() * MEMBER_BYTES
+                + (long) sortedDependants.size() * DEPENDANT_BYTES
+                + (long) slotCount * SLOT_BYTES
+                + keyAreaSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Eligibility snapshot would exceed 2 GB");
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(0, MAGIC);
+            out.putInt(4, VERSION);
+            out.putLong(8, System.currentTimeMillis());
+            out.putLong(16, ChronoUnit.MICROS.between(Instant.EPOCH, changeLogPosition));
+            out.putInt(24, sortedMembers.size());
+            out.putInt(28, sortedDependants.size());
+            out.putInt(32, slotCount);
+            out.putInt(36, (int) keyAreaSize);
+
+            int at = HEADER_BYTES;
+            for (MemberEligibility member : sortedMembers) {
+                out.putLong(at, member.memberId);
+                out.putLong(at + 8, member.employerId);
+                out.putLong(at + 16, member.policyId);
+                out.putLong(at + 24, member.benefitPackageId);
+                out.putInt(at + 32, member.startDay);
+                out.putInt(at + 36, member.endDay);
+                out.putInt(at + 40, member.bits);
+                at += MEMBER_BYTES;
+            }
+            for (DependantEligibility dependant : sortedDependants) {
+                out.putLong(at, dependant.familyMemberId);
+                out.putLong(at + 8, dependant.memberId);
+                out.putInt(at + 16, dependant.bits);
+                at += DEPENDANT_BYTES;
+            }
+
+            int slotsOffset = at;
+            int keysOffset = slotsOffset + slotCount * SLOT_BYTES;
+            int keyAt = 0;
+            byte[] types = {CARD, QR, CIVIL_ID};
+            List<Map<String, Long>> tables = List.of(cards, qrCodes, civilIds);
+            for (int t = 0; t < types.length; t++) {
+                for (Map.Entry<String, Long> entry : tables.get(t).entrySet()) {
+                    byte[] bytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    long hash = hash(types[t], bytes);
+                    int slot = (int) (hash & (slotCount - 1));
+                    while (out.getShort(slotsOffset + slot * SLOT_BYTES + 20) != 0) {
+                        slot = (slot + 1) & (slotCount - 1);
+                    }
+                    int slotAt = slotsOffset + slot * SLOT_BYTES;
+                    out.putLong(slotAt, hash);
+                    out.putLong(slotAt + 8, entry.getValue());
+                    out.putInt(slotAt + 16, keyAt);
+                    out.putShort(slotAt + 20, (short) bytes.length);
+                    out.put(slotAt + 22, types[t]);
+                    out.put(keysOffset + keyAt, bytes);
+                    keyAt += bytes.length;
+                }
+            }
+            out.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void putKey(Map<String, Long> keys, String key, long ref) {
+        if (key != null && key.length() <= Short.MAX_VALUE / 4) {
+            keys.put(key, ref);
+        }
+    }
+
+    Instant createdAt() {
+        return createdAt;
+    }
+
+    Instant changeLogPosition() {
+        return changeLogPosition;
+    }
+
+    int memberCount() {
+        return memberCount;
+    }
+
+    int dependantCount() {
+        return dependantCount;
+    }
+
+    int sizeBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Index value (member id, or negated family member id) of a normalized key; null when absent.
+     */
+    Long find(byte type, String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(type, bytes);
+        int mask = slotCount - 1;
+        int slot = (int) (hash & mask);
+        for (int probes = 0; probes < slotCount; probes++) {
+            int at = slotsOffset + slot * SLOT_BYTES;
+            int length = buffer.getShort(at + 20);
+            if (length == 0) {
+                return null;
+            }
+            if (buffer.getLong(at) == hash && buffer.get(at + 22) == type && length == bytes.length
+                    && keyEquals(keysOffset + buffer.getInt(at + 16), bytes)) {
+                return buffer.getLong(at + 8);
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private boolean keyEquals(int at, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(at + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    MemberEligibility member(long memberId) {
+        int low = 0;
+        int high = memberCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int at = membersOffset + mid * MEMBER_BYTES;
+            long id = buffer.getLong(at);
+            if (id < memberId) {
+                low = mid + 1;
+            } else if (id > memberId) {
+                high = mid - 1;
+            } else {
+                return new MemberEligibility(id, buffer.getLong(at + 8), buffer.getLong(at + 16),
+                        buffer.getLong(at + 24), buffer.getInt(at + 32), buffer.getInt(at + 36),
+                        buffer.getInt(at + 40), null, null, null);
+            }
+        }
+        return null;
+    }
+
+    DependantEligibility dependant(long familyMemberId) {
+        int low = 0;
+        int high = dependantCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int at = dependantsOffset + mid * DEPENDANT_BYTES;
+            long id = buffer.getLong(at);
+            if (id < familyMemberId) {
+                low = mid + 1;
+            } else if (id > familyMemberId) {
+                high = mid - 1;
+            } else {
+                return new DependantEligibility(id, buffer.getLong(at + 8), buffer.getInt(at + 16), null, null);
+            }
+        }
+        return null;
+    }
+
+    // FNV-1a over type and key bytes, finished with the murmur3 64-bit mixer
+    private static long hash(byte type, byte[] bytes) {
+        long hash = 0xcbf29ce484222325L ^ type;
+        hash *= 0x100000001b3L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,137 @@
+package com.waad.tba.modules.eligibility.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+import com.waad.tba.modules.member.entity.Member;
+import com.waad.tba.modules.member.repository.MemberRepository;
+
+/**
+ * Packed eligibility state of one member: ids as longs (0 = none), coverage dates
+ * as epoch days and the two statuses plus flags in a single int. The normalized
+ * lookup keys are kept so a later change can remove them from the index.
+ */
+final class MemberEligibility {
+
+    private static final Member.MemberStatus[] STATUSES = Member.MemberStatus.values();
+    private static final Member.CardStatus[] CARD_STATUSES = Member.CardStatus.values();
+
+    // bits 0-2 member status ordinal, bits 3-5 card status ordinal, then flags
+    private static final int ACTIVE = 1 << 6;
+    private static final int ELIGIBLE = 1 << 7;
+    private static final int CHRONIC = 1 << 8;
+
+    static final int NO_START = Integer.MIN_VALUE;
+    static final int NO_END = Integer.MAX_VALUE;
+
+    final long memberId;
+    final long employerId;
+    final long policyId;
+    final long benefitPackageId;
+    final int startDay;
+    final int endDay;
+    final int bits;
+    final String cardKey;
+    final String qrKey;
+    final String civilIdKey;
+
+    MemberEligibility(long memberId, long employerId, long policyId, long benefitPackageId,
+                      int startDay, int endDay, int bits, String cardKey, String qrKey, String civilIdKey) {
+        this.memberId = memberId;
+        this.employerId = employerId;
+        this.policyId = policyId;
+        this.benefitPackageId = benefitPackageId;
+        this.startDay = startDay;
+        this.endDay = endDay;
+        this.bits = bits;
+        this.cardKey = cardKey;
+        this.qrKey = qrKey;
+        this.civilIdKey = civilIdKey;
+    }
+
+    static MemberEligibility from(MemberRepository.EligibilityRow row) {
+        int bits = Objects.requireNonNullElse(row.getStatus(), Member.MemberStatus.PENDING).ordinal()
+                | Objects.requireNonNullElse(row.getCardStatus(), Member.CardStatus.INACTIVE).ordinal() << 3;
+        if (Boolean.TRUE.equals(row.getActive())) {
+            bits |= ACTIVE;
+        }
+        if (Boolean.TRUE.equals(row.getEligibilityStatus())) {
+            bits |= ELIGIBLE;
+        }
+        if (Boolean.TRUE.equals(row.getChronicDiseaseCovered())) {
+            bits |= CHRONIC;
+        }
+        return new MemberEligibility(
+                row.getMemberId(),
+                idOrZero(row.getEmployerId()),
+                idOrZero(row.getPolicyId()),
+                idOrZero(row.getBenefitPackageId()),
+                row.getStartDate() != null ? (int) row.getStartDate().toEpochDay() : NO_START,
+                row.getEndDate() != null ? (int) row.getEndDate().toEpochDay() : NO_END,
+                bits,
+                EligibilityIndex.normalizeKey(row.getCardNumber()),
+                EligibilityIndex.normalizeKey(row.getQrCodeValue()),
+                EligibilityIndex.normalizeKey(row.getCivilId()));
+    }
+
+    Member.MemberStatus status() {
+        return STATUSES[bits & 0x7];
+    }
+
+    Member.CardStatus cardStatus() {
+        return CARD_STATUSES[(bits >>> 3) & 0x7];
+    }
+
+    boolean active() {
+        return (bits & ACTIVE) != 0;
+    }
+
+    boolean eligibilityFlag() {
+        return (bits & ELIGIBLE) != 0;
+    }
+
+    boolean chronicDiseaseCovered() {
+        return (bits & CHRONIC) != 0;
+    }
+
+    LocalDate startDate() {
+        return startDay == NO_START ? null : LocalDate.ofEpochDay(startDay);
+    }
+
+    LocalDate endDate() {
+        return endDay == NO_END ? null : LocalDate.ofEpochDay(endDay);
+    }
+
+    /**
+     * Add the reason of every failed check on the given day.
+     */
+    void collectReasons(long epochDay, List<String> reasons) {
+        if (!active()) {
+            reasons.add("MEMBER_INACTIVE");
+        }
+        if (status() != Member.MemberStatus.ACTIVE) {
+            reasons.add("MEMBER_" + status().name());
+        }
+        if (cardStatus() != Member.CardStatus.ACTIVE) {
+            reasons.add("CARD_" + cardStatus().name());
+        }
+        if (!eligibilityFlag()) {
+            reasons.add("ELIGIBILITY_SUSPENDED");
+        }
+        if (epochDay < startDay) {
+            reasons.add("COVERAGE_NOT_STARTED");
+        }
+        if (epochDay > endDay) {
+            reasons.add("COVERAGE_ENDED");
+        }
+    }
+
+    static Long zeroToNull(long id) {
+        return id == 0 ? null : id;
+    }
+
+    private static long idOrZero(Long id) {
+        return id != null ? id : 0L;
+    }
+}
@@ -1,6 +1,7 @@
 package com.waad.tba.modules.employer.controller;
 
 import com.waad.tba.common.dto.ApiResponse;
+import com.waad.tba.common.typeahead.TypeaheadOption;
 import com.waad.tba.modules.employer.dto.EmployerCreateDto;
 import com.waad.tba.modules.employer.dto.EmployerResponseDto;
 import com.waad.tba.modules.employer.dto.EmployerSelectorDto;
@@ -41,6 +42,15 @@ public class EmployerController {
         return ResponseEntity.ok(ApiResponse.success(options));
     }
 
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasAnyAuthority('ADMIN','TBA_OPERATIONS','TBA_MEDICAL_REVIEWER','TBA_FINANCE')")
+    @Operation(summary = "Employer typeahead", description = "Returns up to limit active employers whose code, name or a name word starts with q (Arabic-normalized)")
+    public ResponseEntity<ApiResponse<List<TypeaheadOption>>> typeahead(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(service.typeahead(q, limit)));
+    }
+
     /**
      * @deprecated Use GET /api/employers?page=&size=&search= instead (paginated search)
      */
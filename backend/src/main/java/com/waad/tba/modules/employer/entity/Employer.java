@@ -1,5 +1,6 @@
 package com.waad.tba.modules.employer.entity;
 
+import com.waad.tba.common.typeahead.TypeaheadChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -21,7 +22,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, TypeaheadChangeListener.class})
 public class Employer {
 
     @Id
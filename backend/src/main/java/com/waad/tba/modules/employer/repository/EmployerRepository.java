@@ -1,5 +1,6 @@
 package com.waad.tba.modules.employer.repository;
 
+import com.waad.tba.common.typeahead.TypeaheadOption;
 import com.waad.tba.modules.employer.entity.Employer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -40,4 +41,9 @@ public interface EmployerRepository extends JpaRepository<Employer, Long> {
     // Find active employers for selector (multi-employer filter)
     @Query("SELECT e FROM Employer e WHERE e.active = true ORDER BY e.nameAr ASC")
     List<Employer> findActiveEmployersForSelector();
+
+    // Selector / typeahead projection (no entity load)
+    @Query("SELECT new com.waad.tba.common.typeahead.TypeaheadOption(e.id, e.code, e.nameAr, e.nameEn) " +
+           "FROM Employer e WHERE e.active = true")
+    List<TypeaheadOption> findActiveTypeaheadOptions();
 }
@@ -2,6 +2,7 @@ package com.waad.tba.modules.employer.service;
 
 import com.waad.tba.common.dto.PaginationResponse;
 import com.waad.tba.common.exception.ResourceNotFoundException;
+import com.waad.tba.common.typeahead.TypeaheadOption;
 import com.waad.tba.modules.employer.dto.EmployerCreateDto;
 import com.waad.tba.modules.employer.dto.EmployerResponseDto;
 import com.waad.tba.modules.employer.dto.EmployerSelectorDto;
@@ -24,6 +25,7 @@ public class EmployerService {
 
     private final EmployerRepository repository;
     private final EmployerMapper mapper;
+    private final EmployerTypeaheadIndex typeaheadIndex;
 
     @Transactional(readOnly = true)
     public List<EmployerResponseDto> findAll() {
@@ -118,13 +120,17 @@ public class EmployerService {
      * Get employer selector options for multi-employer filter
      * Returns active employers only for dropdown selection
      */
-    @Transactional(readOnly = true)
     public List<EmployerSelectorDto> getSelectorOptions() {
         log.debug("Fetching employer selector options");
-        List<Employer> employers = repository.findActiveEmployersForSelector();
-        
-        return employers.stream()
-                .map(e -> new EmployerSelectorDto(e.getId(), e.getNameAr(), e.getCode()))
+        return typeaheadIndex.all().stream()
+                .map(option -> new EmployerSelectorDto(option.getId(), option.getNameAr(), option.getCode()))
                 .toList();
     }
+
+    /**
+     * Prefix search over active employers (in-memory index)
+     */
+    public List<TypeaheadOption> typeahead(String prefix, int limit) {
+        return typeaheadIndex.search(prefix, limit);
+    }
 }
@@ -0,0 +1,32 @@
+package com.waad.tba.modules.employer.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.waad.tba.common.typeahead.ReferenceTypeaheadIndex;
+import com.waad.tba.common.typeahead.TypeaheadOption;
+import com.waad.tba.modules.employer.entity.Employer;
+import com.waad.tba.modules.employer.repository.EmployerRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory typeahead / selector index over active employers.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployerTypeaheadIndex extends ReferenceTypeaheadIndex {
+
+    private final EmployerRepository repository;
+
+    @Override
+    public Class<?> entityType() {
+        return Employer.class;
+    }
+
+    @Override
+    protected List<TypeaheadOption> loadOptions() {
+        return repository.findActiveTypeaheadOptions();
+    }
+}
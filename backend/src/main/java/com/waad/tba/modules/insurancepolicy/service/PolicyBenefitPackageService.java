@@ -9,12 +9,15 @@ import com.waad.tba.modules.insurancepolicy.entity.PolicyBenefitPackage;
 import com.waad.tba.modules.insurancepolicy.mapper.PolicyBenefitPackageMapper;
 import com.waad.tba.modules.insurancepolicy.repository.InsurancePolicyRepository;
 import com.waad.tba.modules.insurancepolicy.repository.PolicyBenefitPackageRepository;
+import com.waad.tba.modules.member.service.MemberBalanceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,6 +28,7 @@ public class PolicyBenefitPackageService {
     private final PolicyBenefitPackageRepository benefitPackageRepository;
     private final InsurancePolicyRepository insurancePolicyRepository;
     private final PolicyBenefitPackageMapper benefitPackageMapper;
+    private final MemberBalanceService memberBalanceService;
 
     @Transactional
     public PolicyBenefitPackageViewDto createBenefitPackage(Long policyId, PolicyBenefitPackageCreateDto dto) {
@@ -44,8 +48,13 @@ public class PolicyBenefitPackageService {
         log.info("Updating benefit package with ID: {}", id);
 
         PolicyBenefitPackage entity = findEntityById(id);
+        BigDecimal maxLimitBefore = entity.getMaxLimit();
         benefitPackageMapper.updateEntityFromDto(dto, entity);
         PolicyBenefitPackage updated = benefitPackageRepository.save(entity);
+
+        if (!Objects.equals(maxLimitBefore, updated.getMaxLimit())) {
+            memberBalanceService.refreshLimitsForBenefitPackage(id, updated.getMaxLimit());
+        }
         
         return benefitPackageMapper.toViewDto(updated);
     }
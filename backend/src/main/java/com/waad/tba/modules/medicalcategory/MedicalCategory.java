@@ -1,5 +1,6 @@
 package com.waad.tba.modules.medicalcategory;
 
+import com.waad.tba.common.typeahead.TypeaheadChangeListener;
 import com.waad.tba.modules.medicalservice.MedicalService;
 import jakarta.persistence.*;
 import lombok.*;
@@ -17,6 +18,7 @@ import java.util.List;
  */
 @Entity
 @Table(name = "medical_categories")
+@EntityListeners(TypeaheadChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -2,6 +2,7 @@ package com.waad.tba.modules.medicalcategory;
 
 import com.waad.tba.common.dto.ApiResponse;
 import com.waad.tba.common.dto.PaginationResponse;
+import com.waad.tba.common.typeahead.TypeaheadOption;
 import com.waad.tba.modules.medicalcategory.dto.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -38,6 +39,15 @@ public class MedicalCategoryController {
         return ResponseEntity.ok(ApiResponse.success(options));
     }
 
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'VIEW_MEDICAL_CATEGORIES', 'MANAGE_MEDICAL_CATEGORIES')")
+    @Operation(summary = "Medical category typeahead", description = "Returns up to limit medical categories whose code, name or a name word starts with q (Arabic-normalized)")
+    public ResponseEntity<ApiResponse<List<TypeaheadOption>>> typeahead(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(service.typeahead(q, limit)));
+    }
+
     /**
      * Get all medical categories with pagination
      * GET /api/medical-categories
@@ -1,5 +1,6 @@
 package com.waad.tba.modules.medicalcategory;
 
+import com.waad.tba.common.typeahead.TypeaheadOption;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -29,4 +30,9 @@ public interface MedicalCategoryRepository extends JpaRepository<MedicalCategory
            "LOWER(mc.nameEn) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(mc.code) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<MedicalCategory> search(@Param("query") String query);
+
+    // Selector / typeahead projection (no entity load)
+    @Query("SELECT new com.waad.tba.common.typeahead.TypeaheadOption(mc.id, mc.code, mc.nameAr, mc.nameEn) " +
+           "FROM MedicalCategory mc")
+    List<TypeaheadOption> findTypeaheadOptions();
 }
@@ -1,6 +1,7 @@
 package com.waad.tba.modules.medicalcategory;
 
 import com.waad.tba.common.exception.ResourceNotFoundException;
+import com.waad.tba.common.typeahead.TypeaheadOption;
 import com.waad.tba.modules.medicalcategory.dto.MedicalCategoryCreateDto;
 import com.waad.tba.modules.medicalcategory.dto.MedicalCategorySelectorDto;
 import com.waad.tba.modules.medicalcategory.dto.MedicalCategoryUpdateDto;
@@ -20,13 +21,26 @@ import java.util.stream.Collectors;
 public class MedicalCategoryService {
 
     private final MedicalCategoryRepository repository;
+    private final MedicalCategoryTypeaheadIndex typeaheadIndex;
 
     public List<MedicalCategorySelectorDto> getSelectorOptions() {
-        return repository.findAll().stream()
-                .map(MedicalCategoryMapper::toSelectorDto)
+        return typeaheadIndex.all().stream()
+                .map(option -> MedicalCategorySelectorDto.builder()
+                        .id(option.getId())
+                        .code(option.getCode())
+                        .nameAr(option.getNameAr())
+                        .nameEn(option.getNameEn())
+                        .build())
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Prefix search over medical categories (in-memory index)
+     */
+    public List<TypeaheadOption> typeahead(String prefix, int limit) {
+        return typeaheadIndex.search(prefix, limit);
+    }
+
     public Page<MedicalCategoryViewDto> findAllPaginated(Pageable pageable, String search) {
         Page<MedicalCategory> page = repository.findAllWithSearch(search, pageable);
         return page.map(MedicalCategoryMapper::toViewDto);
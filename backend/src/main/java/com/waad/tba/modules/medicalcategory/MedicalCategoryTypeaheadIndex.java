@@ -0,0 +1,30 @@
+package com.waad.tba.modules.medicalcategory;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.waad.tba.common.typeahead.ReferenceTypeaheadIndex;
+import com.waad.tba.common.typeahead.TypeaheadOption;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory typeahead / selector index over medical categories.
+ */
+@Component
+@RequiredArgsConstructor
+public class MedicalCategoryTypeaheadIndex extends ReferenceTypeaheadIndex {
+
+    private final MedicalCategoryRepository repository;
+
+    @Override
+    public Class<?> entityType() {
+        return MedicalCategory.class;
+    }
+
+    @Override
+    protected List<TypeaheadOption> loadOptions() {
+        return repository.findTypeaheadOptions();
+    }
+}
@@ -1,12 +1,14 @@
 package com.waad.tba.modules.medicalservice;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.waad.tba.common.typeahead.TypeaheadChangeListener;
 import com.waad.tba.modules.medicalcategory.MedicalCategory;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
 @Table(name = "medical_services")
+@EntityListeners(TypeaheadChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -2,6 +2,7 @@ package com.waad.tba.modules.medicalservice;
 
 import com.waad.tba.common.dto.ApiResponse;
 import com.waad.tba.common.dto.PaginationResponse;
+import com.waad.tba.common.typeahead.TypeaheadOption;
 import com.waad.tba.modules.medicalservice.dto.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -34,6 +35,15 @@ public class MedicalServiceController {
         return ResponseEntity.ok(ApiResponse.success(options));
     }
 
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'VIEW_MEDICAL_SERVICES', 'MANAGE_MEDICAL_SERVICES')")
+    @Operation(summary = "Medical service typeahead", description = "Returns up to limit medical services whose code, name or a name word starts with q (Arabic-normalized)")
+    public ResponseEntity<ApiResponse<List<TypeaheadOption>>> typeahead(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(service.typeahead(q, limit)));
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'VIEW_MEDICAL_SERVICES', 'MANAGE_MEDICAL_SERVICES')")
     @Operation(summary = "List medical services with pagination", description = "Returns paginated list of medical services with optional search")
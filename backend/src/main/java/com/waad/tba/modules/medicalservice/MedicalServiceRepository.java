@@ -1,5 +1,6 @@
 package com.waad.tba.modules.medicalservice;
 
+import com.waad.tba.common.typeahead.TypeaheadOption;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -22,4 +23,9 @@ public interface MedicalServiceRepository extends JpaRepository<MedicalService,
            "LOWER(ms.nameEn) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(ms.code) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<MedicalService> search(@Param("query") String query);
+
+    // Selector / typeahead projection (no entity load)
+    @Query("SELECT new com.waad.tba.common.typeahead.TypeaheadOption(ms.id, ms.code, ms.nameAr, ms.nameEn) " +
+           "FROM MedicalService ms")
+    List<TypeaheadOption> findTypeaheadOptions();
 }
@@ -1,6 +1,7 @@
 package com.waad.tba.modules.medicalservice;
 
 import com.waad.tba.common.exception.ResourceNotFoundException;
+import com.waad.tba.common.typeahead.TypeaheadOption;
 import com.waad.tba.modules.medicalcategory.MedicalCategory;
 import com.waad.tba.modules.medicalcategory.MedicalCategoryRepository;
 import com.waad.tba.modules.medicalservice.dto.MedicalServiceCreateDto;
@@ -23,13 +24,26 @@ public class MedicalServiceService {
 
     private final MedicalServiceRepository repo;
     private final MedicalCategoryRepository categoryRepository;
+    private final MedicalServiceTypeaheadIndex typeaheadIndex;
 
     public List<MedicalServiceSelectorDto> getSelectorOptions() {
-        return repo.findAll().stream()
-                .map(MedicalServiceMapper::toSelectorDto)
+        return typeaheadIndex.all().stream()
+                .map(option -> MedicalServiceSelectorDto.builder()
+                        .id(option.getId())
+                        .code(option.getCode())
+                        .nameAr(option.getNameAr())
+                        .nameEn(option.getNameEn())
+                        .build())
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Prefix search over medical services (in-memory index)
+     */
+    public List<TypeaheadOption> typeahead(String prefix, int limit) {
+        return typeaheadIndex.search(prefix, limit);
+    }
+
     public Page<MedicalServiceViewDto> findAllPaginated(Pageable pageable, String search) {
         Page<MedicalService> page = repo.findAllWithSearch(search, pageable);
         return page.map(MedicalServiceMapper::toViewDto);
@@ -0,0 +1,30 @@
+package com.waad.tba.modules.medicalservice;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.waad.tba.common.typeahead.ReferenceTypeaheadIndex;
+import com.waad.tba.common.typeahead.TypeaheadOption;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory typeahead / selector index over medical services.
+ */
+@Component
+@RequiredArgsConstructor
+public class MedicalServiceTypeaheadIndex extends ReferenceTypeaheadIndex {
+
+    private final MedicalServiceRepository repository;
+
+    @Override
+    public Class<?> entityType() {
+        return MedicalService.class;
+    }
+
+    @Override
+    protected List<TypeaheadOption> loadOptions() {
+        return repository.findTypeaheadOptions();
+    }
+}
@@ -0,0 +1,102 @@
+package com.waad.tba.modules.member.controller;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.waad.tba.common.dto.ApiResponse;
+import com.waad.tba.common.dto.PaginationResponse;
+import com.waad.tba.modules.member.dto.CensusImportDto;
+import com.waad.tba.modules.member.service.CensusImportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/members/census-imports")
+@RequiredArgsConstructor
+@Tag(name = "Member Census Import", description = "Bulk import of employees and dependants from an employer census file")
+public class CensusImportController {
+
+    private final CensusImportService censusImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAuthority('MANAGE_MEMBERS')")
+    @Operation(summary = "Start census import",
+               description = "Uploads a CSV or XLSX census (one row per employee or dependant) and imports it in the background; poll GET /{id} for progress")
+    public ResponseEntity<ApiResponse<CensusImportDto>> start(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam Long employerId,
+            @RequestParam(required = false) Long insuranceCompanyId,
+            @RequestParam(required = false) Long policyId,
+            @RequestParam(required = false) Long benefitPackageId) throws IOException {
+        CensusImportDto job = censusImportService.start(file, employerId, insuranceCompanyId, policyId, benefitPackageId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Census import started", job));
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAuthority('MANAGE_MEMBERS')")
+    @Operation(summary = "Get census import", description = "Returns the status and progress of a census import")
+    public ResponseEntity<ApiResponse<CensusImportDto>> get(
+            @Parameter(description = "Import ID", required = true) @PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(censusImportService.get(id)));
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAuthority('MANAGE_MEMBERS')")
+    @Operation(summary = "List census imports", description = "Returns census imports, newest first")
+    public ResponseEntity<ApiResponse<PaginationResponse<CensusImportDto>>> list(
+            @Parameter(description = "Page number (1-based)") @RequestParam(defaultValue = "1") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        Page<CensusImportDto> pageResult = censusImportService.list(PageRequest.of(Math.max(0, page - 1), size));
+
+        PaginationResponse<CensusImportDto> response = PaginationResponse.<CensusImportDto>builder()
+                .items(pageResult.getContent())
+                .total(pageResult.getTotalElements())
+                .page(page)
+                .size(size)
+                .build();
+
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @PostMapping("/{id}/resume")
+    @PreAuthorize("hasAuthority('MANAGE_MEMBERS')")
+    @Operation(summary = "Resume census import", description = "Continues a failed or stalled import after its last committed row")
+    public ResponseEntity<ApiResponse<CensusImportDto>> resume(
+            @Parameter(description = "Import ID", required = true) @PathVariable Long id) {
+        CensusImportDto job = censusImportService.resume(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Census import resumed", job));
+    }
+
+    @GetMapping("/{id}/rejected")
+    @PreAuthorize("hasAuthority('MANAGE_MEMBERS')")
+    @Operation(summary = "Download rejected rows",
+               description = "CSV of the rejected rows with their row number and reason; 204 when no row was rejected")
+    public ResponseEntity<Resource> rejectedRows(
+            @Parameter(description = "Import ID", required = true) @PathVariable Long id) {
+        Path file = censusImportService.rejectedFile(id);
+        if (file == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"census-import-" + id + "-rejected.csv\"")
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(new FileSystemResource(file));
+    }
+}
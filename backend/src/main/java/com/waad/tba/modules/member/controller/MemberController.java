@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 
 import com.waad.tba.common.dto.ApiResponse;
 import com.waad.tba.common.dto.PaginationResponse;
+import com.waad.tba.common.typeahead.TypeaheadOption;
 import com.waad.tba.modules.member.dto.MemberCreateDto;
 import com.waad.tba.modules.member.dto.MemberSelectorDto;
 import com.waad.tba.modules.member.dto.MemberUpdateDto;
@@ -40,6 +41,15 @@ public class MemberController {
         return ResponseEntity.ok(ApiResponse.success(options));
     }
 
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasAuthority('VIEW_MEMBERS') or hasAuthority('MANAGE_MEMBERS')")
+    @Operation(summary = "Member typeahead", description = "Returns up to limit active members whose name, civil ID or card number (or a name word) starts with q (Arabic-normalized)")
+    public ResponseEntity<ApiResponse<List<TypeaheadOption>>> typeahead(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(memberService.typeahead(q, limit)));
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('MANAGE_MEMBERS')")
     @Operation(summary = "Create member", description = "Creates a new member with optional family members")
@@ -76,12 +86,14 @@ public class MemberController {
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Sort by field") @RequestParam(defaultValue = "createdAt") String sortBy,
             @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "desc") String sortDir,
-            @Parameter(description = "Search query") @RequestParam(required = false) String search) {
+            @Parameter(description = "Search query") @RequestParam(required = false) String search,
+            @Parameter(description = "Include family member details (false returns familyMembersCount only)")
+            @RequestParam(defaultValue = "true") boolean includeFamily) {
         
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         PageRequest pageRequest = PageRequest.of(Math.max(0, page - 1), size, sort);
         
-        Page<MemberViewDto> pageResult = memberService.listMembers(pageRequest, search);
+        Page<MemberViewDto> pageResult = memberService.listMembers(pageRequest, search, includeFamily);
         
         PaginationResponse<MemberViewDto> response = PaginationResponse.<MemberViewDto>builder()
                 .items(pageResult.getContent())
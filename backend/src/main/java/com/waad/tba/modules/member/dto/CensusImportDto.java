@@ -0,0 +1,53 @@
+package com.waad.tba.modules.member.dto;
+
+import java.time.LocalDateTime;
+
+import com.waad.tba.modules.member.entity.CensusImport;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Employer census import job and its progress")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CensusImportDto {
+
+    private Long id;
+    private Long employerId;
+    private Long insuranceCompanyId;
+    private Long policyId;
+    private Long benefitPackageId;
+    private String fileName;
+    private CensusImport.Format format;
+    private CensusImport.Status status;
+
+    @Schema(description = "Data rows in the file, known once processing has started")
+    private Integer totalRows;
+
+    @Schema(description = "Rows committed so far (imported or rejected)")
+    private int processedRows;
+
+    @Schema(description = "processedRows / totalRows in percent")
+    private Integer percentComplete;
+
+    private int insertedMembers;
+    private int updatedMembers;
+    private int insertedDependants;
+    private int updatedDependants;
+    private int rejectedRows;
+
+    @Schema(description = "True when GET /{id}/rejected has rows to download")
+    private boolean rejectedFileAvailable;
+
+    private String error;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime heartbeatAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,129 @@
+package com.waad.tba.modules.member.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Employer census import job (see CensusImportService).
+ *
+ * processedRows is the checkpoint: it is advanced in the same transaction as the
+ * members written for those rows, together with the counters and the committed
+ * length of the rejected-rows file, so a resumed job continues after the last
+ * committed row without duplicating work.
+ */
+@Entity
+@Table(name = "census_imports")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CensusImport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Applied to every imported member
+    @Column(name = "employer_id", nullable = false)
+    private Long employerId;
+
+    @Column(name = "insurance_company_id")
+    private Long insuranceCompanyId;
+
+    @Column(name = "policy_id")
+    private Long policyId;
+
+    @Column(name = "benefit_package_id")
+    private Long benefitPackageId;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    // Uploaded file on local disk (census.import.dir)
+    @Column(name = "file_path", nullable = false, length = 1000)
+    private String filePath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Format format;
+
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    // Data rows in the file (header excluded); set when processing starts
+    @Column(name = "total_rows")
+    private Integer totalRows;
+
+    @Builder.Default
+    @Column(name = "processed_rows", nullable = false)
+    private int processedRows = 0;
+
+    @Builder.Default
+    @Column(name = "inserted_members", nullable = false)
+    private int insertedMembers = 0;
+
+    @Builder.Default
+    @Column(name = "updated_members", nullable = false)
+    private int updatedMembers = 0;
+
+    @Builder.Default
+    @Column(name = "inserted_dependants", nullable = false)
+    private int insertedDependants = 0;
+
+    @Builder.Default
+    @Column(name = "updated_dependants", nullable = false)
+    private int updatedDependants = 0;
+
+    @Builder.Default
+    @Column(name = "rejected_rows", nullable = false)
+    private int rejectedRows = 0;
+
+    @Column(name = "rejected_file_path", length = 1000)
+    private String rejectedFilePath;
+
+    // Committed length of the rejected-rows file; anything beyond it is truncated on resume
+    @Builder.Default
+    @Column(name = "rejected_bytes", nullable = false)
+    private long rejectedBytes = 0;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    // Advanced with every checkpoint; a RUNNING job with a stale heartbeat can be resumed
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum Format {
+        CSV, XLSX
+    }
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
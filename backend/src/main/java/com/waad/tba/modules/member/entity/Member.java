@@ -7,6 +7,10 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import com.waad.tba.common.search.ArabicTextNormalizer;
+import com.waad.tba.modules.dashboard.service.DashboardCounterListener;
+import com.waad.tba.modules.dashboard.service.DashboardCounterSnapshot;
+import com.waad.tba.modules.eligibility.service.EligibilityChangeListener;
 import com.waad.tba.modules.employer.entity.Employer;
 import com.waad.tba.modules.insurance.entity.InsuranceCompany;
 import com.waad.tba.modules.policy.entity.Policy;
@@ -22,6 +26,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import jakarta.persistence.UniqueConstraint;
@@ -31,7 +37,9 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "members", uniqueConstraints = {
@@ -42,7 +50,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, DashboardCounterListener.class, EligibilityChangeListener.class})
 public class Member {
 
     @Id
@@ -178,6 +186,22 @@ public class Member {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Normalized names / identifiers for search (see ArabicTextNormalizer)
+    @Column(name = "search_text", columnDefinition = "TEXT")
+    private String searchText;
+
+    // Dimensions last written to the dashboard counters (see DashboardCounterListener)
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private DashboardCounterSnapshot countedSnapshot;
+
+    @PrePersist
+    @PreUpdate
+    protected void updateSearchText() {
+        searchText = ArabicTextNormalizer.searchText(fullNameEnglish, fullNameArabic, civilId, cardNumber);
+    }
+
     // Computed field for full name
     @Transient
     public String getFullName() {
@@ -0,0 +1,76 @@
+package com.waad.tba.modules.member.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MemberBalance Entity
+ *
+ * Materialized benefit-utilization ledger row, one per member.
+ * - annualLimit: PolicyBenefitPackage.maxLimit / BenefitPackage.annualLimitPerMember
+ * - consumedAmount: sum of approved claim amounts
+ * - reservedAmount: sum of approved, not yet used pre-approval amounts
+ *
+ * Maintained incrementally by MemberBalanceService; concurrent writers are
+ * serialized by the version column (compare-and-set update).
+ */
+@Entity
+@Table(name = "member_balances", uniqueConstraints = {
+    @UniqueConstraint(columnNames = "member_id", name = "uk_member_balance_member")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "member_id", nullable = false)
+    private Long memberId;
+
+    @Column(name = "annual_limit", precision = 15, scale = 2)
+    private BigDecimal annualLimit;
+
+    @Builder.Default
+    @Column(name = "consumed_amount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal consumedAmount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "reserved_amount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal reservedAmount = BigDecimal.ZERO;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Remaining balance, or null if the member has no configured limit.
+     */
+    @Transient
+    public BigDecimal getRemainingAmount() {
+        if (annualLimit == null) {
+            return null;
+        }
+        return annualLimit.subtract(consumedAmount).subtract(reservedAmount);
+    }
+}
@@ -7,11 +7,13 @@ import org.springframework.stereotype.Component;
 
 import com.waad.tba.modules.employer.entity.Employer;
 import com.waad.tba.modules.insurance.entity.InsuranceCompany;
+import com.waad.tba.modules.member.dto.CensusImportDto;
 import com.waad.tba.modules.member.dto.FamilyMemberDto;
 import com.waad.tba.modules.member.dto.MemberCreateDto;
 import com.waad.tba.modules.member.dto.MemberSelectorDto;
 import com.waad.tba.modules.member.dto.MemberUpdateDto;
 import com.waad.tba.modules.member.dto.MemberViewDto;
+import com.waad.tba.modules.member.entity.CensusImport;
 import com.waad.tba.modules.member.entity.FamilyMember;
 import com.waad.tba.modules.member.entity.Member;
 
@@ -90,6 +92,33 @@ public class MemberMapperV2 {
     public MemberViewDto toViewDto(Member entity, List<FamilyMember> familyMembers) {
         if (entity == null) return null;
 
+        MemberViewDto dto = toBaseViewDto(entity);
+
+        if (familyMembers != null && !familyMembers.isEmpty()) {
+            dto.setFamilyMembers(familyMembers.stream()
+                    .map(this::toFamilyMemberDto)
+                    .collect(Collectors.toList()));
+
+            dto.setFamilyMembersCount(familyMembers.size());
+        } else {
+            dto.setFamilyMembersCount(0);
+        }
+
+        return dto;
+    }
+
+    /**
+     * List-mode view: member fields and familyMembersCount only, no family member details.
+     */
+    public MemberViewDto toSummaryViewDto(Member entity, int familyMembersCount) {
+        if (entity == null) return null;
+
+        MemberViewDto dto = toBaseViewDto(entity);
+        dto.setFamilyMembersCount(familyMembersCount);
+        return dto;
+    }
+
+    private MemberViewDto toBaseViewDto(Member entity) {
         MemberViewDto dto = MemberViewDto.builder()
                 .id(entity.getId())
                 .fullNameArabic(entity.getFullNameArabic())
@@ -134,16 +163,6 @@ public class MemberMapperV2 {
             dto.setInsuranceCompanyName(entity.getInsuranceCompany().getName());
         }
 
-        if (familyMembers != null && !familyMembers.isEmpty()) {
-            dto.setFamilyMembers(familyMembers.stream()
-                    .map(this::toFamilyMemberDto)
-                    .collect(Collectors.toList()));
-
-            dto.setFamilyMembersCount(familyMembers.size());
-        } else {
-            dto.setFamilyMembersCount(0);
-        }
-
         return dto;
     }
 
@@ -195,4 +214,39 @@ public class MemberMapperV2 {
                 .active(dto.getActive() != null && dto.getActive())
                 .build();
     }
+
+    public CensusImportDto toCensusImportDto(CensusImport job) {
+        if (job == null) return null;
+
+        Integer percent = null;
+        if (job.getTotalRows() != null) {
+            percent = job.getTotalRows() == 0 ? 100 : (int) (job.getProcessedRows() * 100L / job.getTotalRows());
+        }
+
+        return CensusImportDto.builder()
+                .id(job.getId())
+                .employerId(job.getEmployerId())
+                .insuranceCompanyId(job.getInsuranceCompanyId())
+                .policyId(job.getPolicyId())
+                .benefitPackageId(job.getBenefitPackageId())
+                .fileName(job.getFileName())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .totalRows(job.getTotalRows())
+                .processedRows(job.getProcessedRows())
+                .percentComplete(percent)
+                .insertedMembers(job.getInsertedMembers())
+                .updatedMembers(job.getUpdatedMembers())
+                .insertedDependants(job.getInsertedDependants())
+                .updatedDependants(job.getUpdatedDependants())
+                .rejectedRows(job.getRejectedRows())
+                .rejectedFileAvailable(job.getRejectedRows() > 0)
+                .error(job.getError())
+                .createdBy(job.getCreatedBy())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .heartbeatAt(job.getHeartbeatAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
 }
@@ -0,0 +1,84 @@
+package com.waad.tba.modules.member.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.waad.tba.modules.member.entity.CensusImport;
+
+@Repository
+public interface CensusImportRepository extends JpaRepository<CensusImport, Long> {
+
+    Page<CensusImport> findByEmployerIdOrderByIdDesc(Long employerId, Pageable pageable);
+
+    Page<CensusImport> findAllByOrderByIdDesc(Pageable pageable);
+
+    /**
+     * Jobs nobody is working on: running without a recent heartbeat, or pending since before staleBefore.
+     */
+    @Query("SELECT i.id FROM CensusImport i WHERE (i.status = :running AND i.heartbeatAt < :staleBefore) " +
+           "OR (i.status = :pending AND i.createdAt < :staleBefore)")
+    List<Long> findStalledIds(@Param("running") CensusImport.Status running,
+                              @Param("pending") CensusImport.Status pending,
+                              @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Take over a job for processing: pending / failed jobs, or running jobs whose
+     * worker stopped sending heartbeats. Returns 0 when another worker holds it.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CensusImport i SET i.status = :running, i.heartbeatAt = :now, i.error = NULL, " +
+           "i.startedAt = COALESCE(i.startedAt, :now), i.finishedAt = NULL " +
+           "WHERE i.id = :id AND (i.status IN :resumable OR (i.status = :running AND i.heartbeatAt < :staleBefore))")
+    int claim(@Param("id") Long id,
+              @Param("running") CensusImport.Status running,
+              @Param("resumable") Collection<CensusImport.Status> resumable,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Advance the checkpoint from processedFrom to processedTo. Runs in the transaction
+     * that wrote the rows; returns 0 when the checkpoint moved (job taken over).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CensusImport i SET i.processedRows = :processedTo, " +
+           "i.insertedMembers = i.insertedMembers + :insertedMembers, " +
+           "i.updatedMembers = i.updatedMembers + :updatedMembers, " +
+           "i.insertedDependants = i.insertedDependants + :insertedDependants, " +
+           "i.updatedDependants = i.updatedDependants + :updatedDependants, " +
+           "i.rejectedRows = i.rejectedRows + :rejectedRows, " +
+           "i.rejectedBytes = :rejectedBytes, i.heartbeatAt = :now " +
+           "WHERE i.id = :id AND i.status = :running AND i.processedRows = :processedFrom")
+    int checkpoint(@Param("id") Long id,
+                   @Param("running") CensusImport.Status running,
+                   @Param("processedFrom") int processedFrom,
+                   @Param("processedTo") int processedTo,
+                   @Param("insertedMembers") int insertedMembers,
+                   @Param("updatedMembers") int updatedMembers,
+                   @Param("insertedDependants") int insertedDependants,
+                   @Param("updatedDependants") int updatedDependants,
+                   @Param("rejectedRows") int rejectedRows,
+                   @Param("rejectedBytes") long rejectedBytes,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CensusImport i SET i.totalRows = :totalRows, i.heartbeatAt = :now WHERE i.id = :id")
+    int updateTotalRows(@Param("id") Long id, @Param("totalRows") int totalRows, @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CensusImport i SET i.status = :status, i.error = :error, i.finishedAt = :now, i.heartbeatAt = :now " +
+           "WHERE i.id = :id AND i.status = :running")
+    int finish(@Param("id") Long id,
+               @Param("running") CensusImport.Status running,
+               @Param("status") CensusImport.Status status,
+               @Param("error") String error,
+               @Param("now") LocalDateTime now);
+}
@@ -1,14 +1,22 @@
 package com.waad.tba.modules.member.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.waad.tba.modules.member.entity.FamilyMember;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface FamilyMemberRepository extends JpaRepository<FamilyMember, Long> {
 
@@ -17,6 +25,54 @@ public interface FamilyMemberRepository extends JpaRepository<FamilyMember, Long
      */
     List<FamilyMember> findByMemberId(Long memberId);
 
+    /**
+     * Find family members of several members in one query (batch loading for lists)
+     */
+    @Query("SELECT f FROM FamilyMember f WHERE f.member.id IN :memberIds ORDER BY f.member.id, f.id")
+    List<FamilyMember> findByMemberIdIn(@Param("memberIds") Collection<Long> memberIds);
+
+    /**
+     * Family member counts of several members in one grouped query
+     */
+    @Query("SELECT f.member.id AS memberId, COUNT(f) AS familyCount FROM FamilyMember f " +
+           "WHERE f.member.id IN :memberIds GROUP BY f.member.id")
+    List<FamilyCount> countByMemberIdIn(@Param("memberIds") Collection<Long> memberIds);
+
+    interface FamilyCount {
+        Long getMemberId();
+        long getFamilyCount();
+    }
+
+    interface EligibilityRow {
+        Long getFamilyMemberId();
+        Long getMemberId();
+        String getCardNumber();
+        String getCivilId();
+        FamilyMember.Relationship getRelationship();
+        FamilyMember.FamilyMemberStatus getStatus();
+        Boolean getActive();
+    }
+
+    /**
+     * Dependant rows of the eligibility index (full load, read-only cursor; the caller must close the stream)
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "2000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f.id AS familyMemberId, f.member.id AS memberId, f.cardNumber AS cardNumber, " +
+           "f.civilId AS civilId, f.relationship AS relationship, f.status AS status, f.active AS active " +
+           "FROM FamilyMember f")
+    Stream<EligibilityRow> streamEligibilityRows();
+
+    /**
+     * Dependant rows of the eligibility index for several members
+     */
+    @Query("SELECT f.id AS familyMemberId, f.member.id AS memberId, f.cardNumber AS cardNumber, " +
+           "f.civilId AS civilId, f.relationship AS relationship, f.status AS status, f.active AS active " +
+           "FROM FamilyMember f WHERE f.member.id IN :memberIds")
+    List<EligibilityRow> findEligibilityRowsByMemberIdIn(@Param("memberIds") Collection<Long> memberIds);
+
     /**
      * Find all active family members for a specific member
      */
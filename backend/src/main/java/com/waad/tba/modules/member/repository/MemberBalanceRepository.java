@@ -0,0 +1,70 @@
+package com.waad.tba.modules.member.repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.waad.tba.modules.member.entity.MemberBalance;
+
+@Repository
+public interface MemberBalanceRepository extends JpaRepository<MemberBalance, Long> {
+
+    /**
+     * Current ledger state as a scalar projection (always read from the database,
+     * never from the persistence context).
+     */
+    @Query("SELECT b.version AS version, b.annualLimit AS annualLimit, " +
+           "b.consumedAmount AS consumedAmount, b.reservedAmount AS reservedAmount " +
+           "FROM MemberBalance b WHERE b.memberId = :memberId")
+    Optional<BalanceState> findStateByMemberId(@Param("memberId") Long memberId);
+
+    /**
+     * Compare-and-set update; returns 0 if another transaction changed the row first.
+     */
+    @Modifying
+    @Query("UPDATE MemberBalance b SET " +
+           "b.consumedAmount = b.consumedAmount + :consumedDelta, " +
+           "b.reservedAmount = b.reservedAmount + :reservedDelta, " +
+           "b.version = b.version + 1, " +
+           "b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.memberId = :memberId AND b.version = :version")
+    int applyDelta(@Param("memberId") Long memberId,
+                   @Param("version") Long version,
+                   @Param("consumedDelta") BigDecimal consumedDelta,
+                   @Param("reservedDelta") BigDecimal reservedDelta);
+
+    @Modifying
+    @Query(value = "INSERT INTO member_balances " +
+                   "(member_id, annual_limit, consumed_amount, reserved_amount, version, updated_at) " +
+                   "VALUES (:memberId, :annualLimit, :consumedAmount, :reservedAmount, 0, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (member_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("memberId") Long memberId,
+                       @Param("annualLimit") BigDecimal annualLimit,
+                       @Param("consumedAmount") BigDecimal consumedAmount,
+                       @Param("reservedAmount") BigDecimal reservedAmount);
+
+    @Modifying
+    @Query("UPDATE MemberBalance b SET b.annualLimit = :annualLimit, b.version = b.version + 1, " +
+           "b.updatedAt = CURRENT_TIMESTAMP WHERE b.memberId = :memberId")
+    int updateLimit(@Param("memberId") Long memberId, @Param("annualLimit") BigDecimal annualLimit);
+
+    @Modifying
+    @Query("UPDATE MemberBalance b SET b.annualLimit = :annualLimit, b.version = b.version + 1, " +
+           "b.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE b.memberId IN (SELECT m.id FROM Member m WHERE m.benefitPackageId = :benefitPackageId)")
+    int updateLimitForBenefitPackage(@Param("benefitPackageId") Long benefitPackageId,
+                                     @Param("annualLimit") BigDecimal annualLimit);
+
+    interface BalanceState {
+        Long getVersion();
+        BigDecimal getAnnualLimit();
+        BigDecimal getConsumedAmount();
+        BigDecimal getReservedAmount();
+    }
+}
@@ -1,26 +1,106 @@
 package com.waad.tba.modules.member.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.waad.tba.common.typeahead.TypeaheadOption;
+import com.waad.tba.modules.member.dto.MemberSelectorDto;
 import com.waad.tba.modules.member.entity.Member;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
     
+    interface CounterDimensions {
+        Long getMemberId();
+        Long getEmployerId();
+        Long getInsuranceCompanyId();
+    }
+
+    // Employer / insurance company of members, for dashboard counter deltas
+    @Query("SELECT m.id AS memberId, m.employer.id AS employerId, ic.id AS insuranceCompanyId " +
+           "FROM Member m LEFT JOIN m.insuranceCompany ic WHERE m.id IN :ids")
+    List<CounterDimensions> findCounterDimensions(@Param("ids") Collection<Long> ids);
+
+    interface EligibilityRow {
+        Long getMemberId();
+        String getCardNumber();
+        String getQrCodeValue();
+        String getCivilId();
+        Member.MemberStatus getStatus();
+        Member.CardStatus getCardStatus();
+        Boolean getActive();
+        Boolean getEligibilityStatus();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+        Long getEmployerId();
+        Long getPolicyId();
+        Long getBenefitPackageId();
+        Boolean getChronicDiseaseCovered();
+    }
+
+    // Eligibility index rows (see EligibilityIndex); chronic coverage comes from the policy's benefit package
+    String ELIGIBILITY_SELECT = "SELECT m.id AS memberId, m.cardNumber AS cardNumber, m.qrCodeValue AS qrCodeValue, " +
+           "m.civilId AS civilId, m.status AS status, m.cardStatus AS cardStatus, m.active AS active, " +
+           "m.eligibilityStatus AS eligibilityStatus, m.startDate AS startDate, m.endDate AS endDate, " +
+           "m.employer.id AS employerId, p.id AS policyId, m.benefitPackageId AS benefitPackageId, " +
+           "bp.chronicDiseaseCovered AS chronicDiseaseCovered " +
+           "FROM Member m LEFT JOIN m.policy p LEFT JOIN p.benefitPackage bp ";
+
+    // Full load: read-only cursor, the caller must close the stream
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "2000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(ELIGIBILITY_SELECT)
+    Stream<EligibilityRow> streamEligibilityRows();
+
+    @Query(ELIGIBILITY_SELECT + "WHERE m.id IN :ids")
+    List<EligibilityRow> findEligibilityRows(@Param("ids") Collection<Long> ids);
+
+    // Selector projection (no entity load), bounded by the Pageable; inactive members included
+    @Query("SELECT new com.waad.tba.modules.member.dto.MemberSelectorDto(m.id, m.cardNumber, m.fullNameArabic, m.fullNameArabic) " +
+           "FROM Member m ORDER BY m.fullNameArabic")
+    List<MemberSelectorDto> findSelectorOptions(Pageable limit);
+
+    // Typeahead: normalized prefix of the search text or of any word in it (trigram-indexed, see V23)
+    @Query("SELECT new com.waad.tba.common.typeahead.TypeaheadOption(m.id, m.cardNumber, m.fullNameArabic, m.fullNameEnglish) " +
+           "FROM Member m WHERE m.active = true " +
+           "AND (m.searchText LIKE CONCAT(:prefix, '%') OR m.searchText LIKE CONCAT('% ', :prefix, '%')) " +
+           "ORDER BY m.fullNameArabic")
+    List<TypeaheadOption> findTypeaheadOptions(@Param("prefix") String prefix, Pageable limit);
+
+    // Member list page with employer and insurance company in the same query
+    @Override
+    @EntityGraph(attributePaths = {"employer", "insuranceCompany"})
+    Page<Member> findAll(Pageable pageable);
+
     Optional<Member> findByCivilId(String civilId);
     
     Optional<Member> findByCardNumber(String cardNumber);
     
     Optional<Member> findByQrCodeValue(String qrCodeValue);
     
+    // Scalar lookup for data-level access checks (no entity load)
+    @Query("SELECT m.employer.id FROM Member m WHERE m.id = :memberId")
+    Optional<Long> findEmployerIdById(@Param("memberId") Long memberId);
+    
     List<Member> findByEmployerId(Long employerId);
     
     Long countByEmployerId(Long employerId);
@@ -40,34 +120,36 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
     
     Page<Member> findByEmployerId(Long employerId, Pageable pageable);
     
-    @Query("SELECT m FROM Member m WHERE m.employer.id = :employerId AND (" +
-           "LOWER(m.fullNameEnglish) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.fullNameArabic) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.civilId) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.cardNumber) LIKE LOWER(CONCAT('%', :search, '%')))")
+    // Search methods expect a term normalized with ArabicTextNormalizer (trigram-indexed, see V23)
+    @Query("SELECT m FROM Member m WHERE m.employer.id = :employerId " +
+           "AND m.searchText LIKE CONCAT('%', :search, '%')")
     Page<Member> searchByEmployer(@Param("employerId") Long employerId, @Param("search") String search, Pageable pageable);
     
+    @EntityGraph(attributePaths = {"employer", "insuranceCompany"})
     @Query("SELECT m FROM Member m WHERE " +
-           "LOWER(m.fullNameEnglish) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.fullNameArabic) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.civilId) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.cardNumber) LIKE LOWER(CONCAT('%', :search, '%'))")
+           "m.searchText LIKE CONCAT('%', :search, '%')")
     Page<Member> searchPaged(@Param("search") String search, Pageable pageable);
     
+    // Bounded: pass a Pageable of (0, limit) only as a row limit; most similar first (pg_trgm, see V23)
+    @EntityGraph(attributePaths = {"employer", "insuranceCompany"})
     @Query("SELECT m FROM Member m WHERE " +
-           "LOWER(m.fullNameEnglish) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(m.fullNameArabic) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(m.civilId) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(m.cardNumber) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Member> search(@Param("query") String query);
+           "m.searchText LIKE CONCAT('%', :query, '%') " +
+           "ORDER BY function('similarity', m.searchText, :query) DESC, m.id")
+    List<Member> search(@Param("query") String query, Pageable limit);
     
     @Query("SELECT m FROM Member m WHERE m.insuranceCompany.id = :companyId")
     Page<Member> findByInsuranceCompanyIdPaged(@Param("companyId") Long companyId, Pageable pageable);
     
-    @Query("SELECT m FROM Member m WHERE m.insuranceCompany.id = :companyId AND (" +
-           "LOWER(m.fullNameEnglish) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.fullNameArabic) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.civilId) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(m.cardNumber) LIKE LOWER(CONCAT('%', :search, '%')))")
+    @Query("SELECT m FROM Member m WHERE m.insuranceCompany.id = :companyId " +
+           "AND m.searchText LIKE CONCAT('%', :search, '%')")
     Page<Member> searchByInsuranceCompany(@Param("companyId") Long companyId, @Param("search") String search, Pageable pageable);
+
+    // Member balance ledger: limit of the member's policy benefit package
+    @Query("SELECT p.maxLimit FROM Member m, PolicyBenefitPackage p " +
+           "WHERE m.id = :memberId AND p.id = m.benefitPackageId")
+    Optional<BigDecimal> findBenefitPackageMaxLimitById(@Param("memberId") Long memberId);
+
+    // Member balance ledger: annual per-member limit of the member's policy benefit package
+    @Query("SELECT m.policy.benefitPackage.annualLimitPerMember FROM Member m WHERE m.id = :memberId")
+    Optional<BigDecimal> findPolicyAnnualLimitById(@Param("memberId") Long memberId);
 }
@@ -0,0 +1,316 @@
+package com.waad.tba.modules.member.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.waad.tba.modules.member.entity.CensusImport;
+
+/**
+ * Streaming reader of census files: one record (list of cell values) at a time,
+ * the first record being the header.
+ *
+ * - CSV: RFC 4180 (quoted fields may contain commas, quotes and line breaks), UTF-8
+ *   with or without BOM
+ * - XLSX: first worksheet, parsed with StAX straight from the zip entry; only the
+ *   shared string table is held in memory. Empty rows are skipped by Excel itself.
+ *   Numeric cells are returned in plain notation (dates stay serial day numbers,
+ *   see CensusRow).
+ */
+abstract class CensusFileReader implements Closeable {
+
+    /**
+     * Next record, or null at the end of the file.
+     */
+    abstract List<String> next() throws IOException;
+
+    static CensusFileReader open(Path path, CensusImport.Format format) throws IOException {
+        return format == CensusImport.Format.XLSX ? new Xlsx(path) : new Csv(path);
+    }
+
+    /**
+     * Number of data records (header excluded).
+     */
+    static int countRows(Path path, CensusImport.Format format) throws IOException {
+        try (CensusFileReader reader = open(path, format)) {
+            int records = 0;
+            while (reader.next() != null) {
+                records++;
+            }
+            return Math.max(0, records - 1);
+        }
+    }
+
+    private static final class Csv extends CensusFileReader {
+
+        private final PushbackReader reader;
+
+        Csv(Path path) throws IOException {
+            this.reader = new PushbackReader(Files.newBufferedReader(path, StandardCharsets.UTF_8), 1);
+            int first = reader.read();
+            if (first != -1 && first != '\uFEFF') {
+                reader.unread(first);
+            }
+        }
+
+        @Override
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean inQuotes = false;
+            while (true) {
+                if (inQuotes) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted CSV field");
+                    }
+                    if (c == '"') {
+                        int following = reader.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            inQuotes = false;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    int following = reader.read();
+                    if (following != '\n' && following != -1) {
+                        reader.unread(following);
+                    }
+                    break;
+                } else if (c == '"' && field.isEmpty()) {
+                    inQuotes = true;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class Xlsx extends CensusFileReader {
+
+        private static final Pattern SHEET_ENTRY = Pattern.compile("xl/worksheets/sheet(\\d+)\\.xml");
+
+        private final ZipFile zip;
+        private final InputStream sheetStream;
+        private final XMLStreamReader sheet;
+        private final List<String> sharedStrings;
+
+        Xlsx(Path path) throws IOException {
+            this.zip = new ZipFile(path.toFile());
+            try {
+                ZipEntry sheetEntry = firstSheet(zip);
+                if (sheetEntry == null) {
+                    throw new IOException("XLSX file has no worksheet");
+                }
+                ZipEntry stringsEntry = zip.getEntry("xl/sharedStrings.xml");
+                this.sharedStrings = stringsEntry != null ? readSharedStrings(zip, stringsEntry) : List.of();
+                this.sheetStream = zip.getInputStream(sheetEntry);
+                this.sheet = xmlFactory().createXMLStreamReader(sheetStream);
+            } catch (IOException | XMLStreamException | RuntimeException e) {
+                zip.close();
+                throw e instanceof IOException io ? io : new IOException("Invalid XLSX file: " + e.getMessage(), e);
+            }
+        }
+
+        private static ZipEntry firstSheet(ZipFile zip) {
+            ZipEntry first = zip.getEntry("xl/worksheets/sheet1.xml");
+            if (first != null) {
+                return first;
+            }
+            return Collections.list(zip.entries()).stream()
+                    .filter(entry -> SHEET_ENTRY.matcher(entry.getName()).matches())
+                    .min(Comparator.comparingInt(entry -> sheetNumber(entry.getName())))
+                    .orElse(null);
+        }
+
+        private static int sheetNumber(String name) {
+            var matcher = SHEET_ENTRY.matcher(name);
+            return matcher.matches() ? Integer.parseInt(matcher.group(1)) : Integer.MAX_VALUE;
+        }
+
+        private static XMLInputFactory xmlFactory() {
+            XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            return factory;
+        }
+
+        // Text of every <si>, concatenating rich text runs and skipping phonetic hints
+        private static List<String> readSharedStrings(ZipFile zip, ZipEntry entry) throws IOException, XMLStreamException {
+            List<String> strings = new ArrayList<>();
+            try (InputStream in = zip.getInputStream(entry)) {
+                XMLStreamReader xml = xmlFactory().createXMLStreamReader(in);
+                StringBuilder text = null;
+                int phoneticDepth = 0;
+                while (xml.hasNext()) {
+                    int event = xml.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (xml.getLocalName()) {
+                            case "si" -> text = new StringBuilder();
+                            case "rPh" -> phoneticDepth++;
+                            case "t" -> {
+                                String value = xml.getElementText();
+                                if (text != null && phoneticDepth == 0) {
+                                    text.append(value);
+                                }
+                            }
+                            default -> {
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if ("si".equals(xml.getLocalName()) && text != null) {
+                            strings.add(text.toString());
+                            text = null;
+                        } else if ("rPh".equals(xml.getLocalName())) {
+                            phoneticDepth--;
+                        }
+                    }
+                }
+                xml.close();
+            }
+            return strings;
+        }
+
+        @Override
+        List<String> next() throws IOException {
+            try {
+                while (sheet.hasNext()) {
+                    if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                        return readRow();
+                    }
+                }
+                return null;
+            } catch (XMLStreamException e) {
+                throw new IOException("Invalid XLSX worksheet: " + e.getMessage(), e);
+            }
+        }
+
+        private List<String> readRow() throws XMLStreamException {
+            List<String> cells = new ArrayList<>();
+            while (sheet.hasNext()) {
+                int event = sheet.next();
+                if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    break;
+                }
+                if (event == XMLStreamConstants.START_ELEMENT && "c".equals(sheet.getLocalName())) {
+                    String reference = sheet.getAttributeValue(null, "r");
+                    int column = reference != null ? columnIndex(reference) : cells.size();
+                    String type = sheet.getAttributeValue(null, "t");
+                    String value = readCell(type);
+                    while (cells.size() < column) {
+                        cells.add("");
+                    }
+                    if (column < cells.size()) {
+                        cells.set(column, value);
+                    } else {
+                        cells.add(value);
+                    }
+                }
+            }
+            return cells;
+        }
+
+        // Value of the current <c>, leaving the reader on its end element
+        private String readCell(String type) throws XMLStreamException {
+            String raw = null;
+            while (sheet.hasNext()) {
+                int event = sheet.next();
+                if (event == XMLStreamConstants.END_ELEMENT && "c".equals(sheet.getLocalName())) {
+                    break;
+                }
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = sheet.getLocalName();
+                    if ("v".equals(name) || "t".equals(name)) {
+                        raw = (raw != null ? raw : "") + sheet.getElementText();
+                    }
+                }
+            }
+            if (raw == null) {
+                return "";
+            }
+            if (type == null || "n".equals(type)) {
+                return plainNumber(raw);
+            }
+            return switch (type) {
+                case "s" -> sharedString(raw);
+                case "b" -> "1".equals(raw) ? "TRUE" : "FALSE";
+                default -> raw;
+            };
+        }
+
+        private String sharedString(String raw) {
+            int index = Integer.parseInt(raw.trim());
+            return index >= 0 && index < sharedStrings.size() ? sharedStrings.get(index) : "";
+        }
+
+        // Large integers such as civil IDs may be stored in scientific notation
+        private static String plainNumber(String raw) {
+            try {
+                return new BigDecimal(raw.trim()).stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                return raw;
+            }
+        }
+
+        private static int columnIndex(String reference) {
+            int column = 0;
+            for (int i = 0; i < reference.length(); i++) {
+                char c = reference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                sheet.close();
+            } catch (XMLStreamException e) {
+                // closing the zip releases everything
+            }
+            sheetStream.close();
+            zip.close();
+        }
+    }
+}
@@ -0,0 +1,663 @@
+package com.waad.tba.modules.member.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.waad.tba.common.exception.ResourceNotFoundException;
+import com.waad.tba.modules.dashboard.entity.DashboardMetric;
+import com.waad.tba.modules.dashboard.service.DashboardCounterBuffer;
+import com.waad.tba.modules.dashboard.service.DashboardCounterSnapshot;
+import com.waad.tba.modules.eligibility.service.EligibilityIndex;
+import com.waad.tba.modules.employer.repository.EmployerRepository;
+import com.waad.tba.modules.insurance.repository.InsuranceCompanyRepository;
+import com.waad.tba.modules.insurancepolicy.repository.PolicyBenefitPackageRepository;
+import com.waad.tba.modules.member.dto.CensusImportDto;
+import com.waad.tba.modules.member.entity.CensusImport;
+import com.waad.tba.modules.member.mapper.MemberMapperV2;
+import com.waad.tba.modules.member.repository.CensusImportRepository;
+import com.waad.tba.modules.member.repository.FamilyMemberRepository;
+import com.waad.tba.modules.member.repository.MemberRepository;
+import com.waad.tba.modules.policy.repository.PolicyRepository;
+import com.waad.tba.security.AuthorizationService;
+import com.waad.tba.security.ResolvedPrincipal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Census Import Service
+ *
+ * Imports an employer census (employees and their dependants) from a CSV or XLSX
+ * file, replacing one createMember call per employee:
+ * - the upload is stored under census.import.dir and read back as a stream
+ * - civil ID / card number uniqueness is checked against identifier sets loaded
+ *   once per run (CensusKeys), not with a query per row
+ * - rows are validated in parallel per chunk, then checked in file order
+ *   (duplicates, ownership by another employer, card conflicts)
+ * - each chunk is one transaction: members and family members are inserted and
+ *   updated with JDBC batches (CensusImportWriter), rejected rows are appended
+ *   to the rejected-rows file and the job checkpoint is advanced
+ *
+ * Rows are matched by civil ID: an employee of the same employer is updated,
+ * otherwise inserted; a dependant is matched by its employee and civil ID.
+ * Dependants must follow their employee in the file (or the employee must exist).
+ *
+ * Jobs run one at a time per node on a background worker. A chunk that fails at
+ * write time is replayed row by row, so one bad row only rejects itself. A job
+ * interrupted by a restart is picked up again once its heartbeat is older than
+ * census.import.stale-after-ms (on a node that has the file); failed jobs can be
+ * resumed explicitly. Either way processing continues after the last committed row.
+ */
+@Slf4j
+@Service
+public class CensusImportService {
+
+    private static final List<CensusImport.Status> RESUMABLE =
+            List.of(CensusImport.Status.PENDING, CensusImport.Status.FAILED);
+
+    private final CensusImportRepository importRepository;
+    private final MemberRepository memberRepository;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final EmployerRepository employerRepository;
+    private final InsuranceCompanyRepository insuranceCompanyRepository;
+    private final PolicyRepository policyRepository;
+    private final PolicyBenefitPackageRepository benefitPackageRepository;
+    private final CensusImportWriter writer;
+    private final DashboardCounterBuffer counterBuffer;
+    private final EligibilityIndex eligibilityIndex;
+    private final MemberBalanceService memberBalanceService;
+    private final MemberMapperV2 mapper;
+    private final AuthorizationService authorizationService;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readTransaction;
+    private final ExecutorService worker;
+
+    @Value("${census.import.dir:./data/census-imports}")
+    private String importDir;
+
+    @Value("${census.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${census.import.stale-after-ms:300000}")
+    private long staleAfterMillis;
+
+    public CensusImportService(CensusImportRepository importRepository,
+                               MemberRepository memberRepository,
+                               FamilyMemberRepository familyMemberRepository,
+                               EmployerRepository employerRepository,
+                               InsuranceCompanyRepository insuranceCompanyRepository,
+                               PolicyRepository policyRepository,
+                               PolicyBenefitPackageRepository benefitPackageRepository,
+                               CensusImportWriter writer,
+                               DashboardCounterBuffer counterBuffer,
+                               EligibilityIndex eligibilityIndex,
+                               MemberBalanceService memberBalanceService,
+                               MemberMapperV2 mapper,
+                               AuthorizationService authorizationService,
+                               PlatformTransactionManager transactionManager) {
+        this.importRepository = importRepository;
+        this.memberRepository = memberRepository;
+        this.familyMemberRepository = familyMemberRepository;
+        this.employerRepository = employerRepository;
+        this.insuranceCompanyRepository = insuranceCompanyRepository;
+        this.policyRepository = policyRepository;
+        this.benefitPackageRepository = benefitPackageRepository;
+        this.writer = writer;
+        this.counterBuffer = counterBuffer;
+        this.eligibilityIndex = eligibilityIndex;
+        this.memberBalanceService = memberBalanceService;
+        this.mapper = mapper;
+        this.authorizationService = authorizationService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.worker = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "census-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        // The running job keeps its checkpoint and is resumed once its heartbeat is stale
+        worker.shutdownNow();
+    }
+
+    /**
+     * Store the uploaded file, check its header and queue the import.
+     */
+    public CensusImportDto start(MultipartFile file, Long employerId, Long insuranceCompanyId,
+                                 Long policyId, Long benefitPackageId) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Census file is required");
+        }
+        if (employerId == null) {
+            throw new IllegalArgumentException("Employer is required");
+        }
+        ResolvedPrincipal user = checkEmployerScope(employerId);
+        CensusImport.Format format = formatOf(file.getOriginalFilename());
+        if (!employerRepository.existsById(employerId)) {
+            throw new ResourceNotFoundException("Employer not found with id: " + employerId);
+        }
+        if (insuranceCompanyId != null && !insuranceCompanyRepository.existsById(insuranceCompanyId)) {
+            throw new ResourceNotFoundException("Insurance company not found");
+        }
+        if (policyId != null && !policyRepository.existsById(policyId)) {
+            throw new ResourceNotFoundException("Policy not found with id: " + policyId);
+        }
+        if (benefitPackageId != null && !benefitPackageRepository.existsById(benefitPackageId)) {
+            throw new ResourceNotFoundException("Benefit package not found with id: " + benefitPackageId);
+        }
+
+        Path dir = Paths.get(importDir);
+        Files.createDirectories(dir);
+        Path path = dir.resolve(UUID.randomUUID() + "." + format.name().toLowerCase(Locale.ROOT));
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, path);
+        }
+        try (CensusFileReader reader = CensusFileReader.open(path, format)) {
+            CensusRow.columns(reader.next());
+        } catch (IOException | IllegalArgumentException e) {
+            Files.deleteIfExists(path);
+            throw e instanceof IllegalArgumentException invalid ? invalid
+                    : new IllegalArgumentException("Census file could not be read: " + e.getMessage());
+        }
+
+        CensusImport job = importRepository.save(CensusImport.builder()
+                .employerId(employerId)
+                .insuranceCompanyId(insuranceCompanyId)
+                .policyId(policyId)
+                .benefitPackageId(benefitPackageId)
+                .fileName(file.getOriginalFilename())
+                .filePath(path.toString())
+                .rejectedFilePath(path + ".rejected.csv")
+                .format(format)
+                .createdBy(user != null ? user.getUsername() : null)
+                .createdAt(LocalDateTime.now())
+                .build());
+        submit(job.getId());
+        log.info("Census import {} queued for employer {} ({}, {} bytes)", job.getId(), employerId,
+                file.getOriginalFilename(), file.getSize());
+        return mapper.toCensusImportDto(job);
+    }
+
+    public CensusImportDto get(Long id) {
+        return mapper.toCensusImportDto(load(id));
+    }
+
+    public Page<CensusImportDto> list(Pageable pageable) {
+        Long employerId = authorizationService.getEmployerFilterForUser(authorizationService.getCurrentPrincipal());
+        Page<CensusImport> jobs = employerId != null
+                ? importRepository.findByEmployerIdOrderByIdDesc(employerId, pageable)
+                : importRepository.findAllByOrderByIdDesc(pageable);
+        return jobs.map(mapper::toCensusImportDto);
+    }
+
+    /**
+     * Queue a failed (or stalled) job again; it continues after its last committed row.
+     */
+    public CensusImportDto resume(Long id) {
+        CensusImport job = load(id);
+        boolean stalled = job.getStatus() == CensusImport.Status.RUNNING
+                && job.getHeartbeatAt() != null
+                && job.getHeartbeatAt().isBefore(LocalDateTime.now().minusNanos(staleAfterMillis * 1_000_000));
+        if (!RESUMABLE.contains(job.getStatus()) && !stalled) {
+            throw new IllegalArgumentException("Census import " + id + " is " + job.getStatus() + " and cannot be resumed");
+        }
+        if (!Files.isRegularFile(Paths.get(job.getFilePath()))) {
+            throw new IllegalArgumentException("Census file of import " + id + " is not available on this node");
+        }
+        submit(id);
+        return mapper.toCensusImportDto(job);
+    }
+
+    /**
+     * Rejected-rows CSV of a job; null when no row was rejected.
+     */
+    public Path rejectedFile(Long id) {
+        CensusImport job = load(id);
+        if (job.getRejectedRows() == 0 || job.getRejectedFilePath() == null) {
+            return null;
+        }
+        Path path = Paths.get(job.getRejectedFilePath());
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Rejected rows of census import " + id + " are not available on this node");
+        }
+        return path;
+    }
+
+    /**
+     * Pick up jobs interrupted by a restart (or never started) whose file is on this node.
+     */
+    @Scheduled(fixedDelayString = "${census.import.resume-check-ms:60000}",
+               initialDelayString = "${census.import.resume-check-ms:60000}")
+    public void resumeStalled() {
+        List<Long> stalled = importRepository.findStalledIds(CensusImport.Status.RUNNING,
+                CensusImport.Status.PENDING, staleBefore());
+        for (Long id : stalled) {
+            importRepository.findById(id)
+                    .filter(job -> Files.isRegularFile(Paths.get(job.getFilePath())))
+                    .ifPresent(job -> {
+                        log.info("Resuming stalled census import {} after row {}", id, job.getProcessedRows());
+                        submit(id);
+                    });
+        }
+    }
+
+    private void submit(Long id) {
+        try {
+            worker.execute(() -> run(id));
+        } catch (RejectedExecutionException e) {
+            log.warn("Census import {} not queued, worker is shut down", id);
+        }
+    }
+
+    private CensusImport load(Long id) {
+        CensusImport job = importRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("CensusImport", "id", id));
+        checkEmployerScope(job.getEmployerId());
+        return job;
+    }
+
+    private ResolvedPrincipal checkEmployerScope(Long employerId) {
+        ResolvedPrincipal user = authorizationService.getCurrentPrincipal();
+        if (authorizationService.isEmployerAdmin(user)) {
+            if (!authorizationService.canEmployerEditMembers(user)) {
+                throw new AccessDeniedException("Your employer account does not have permission to edit members");
+            }
+            Long ownEmployerId = authorizationService.getEmployerFilterForUser(user);
+            if (ownEmployerId != null && !ownEmployerId.equals(employerId)) {
+                throw new AccessDeniedException("Access denied to this employer");
+            }
+        }
+        return user;
+    }
+
+    private static CensusImport.Format formatOf(String fileName) {
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) {
+            return CensusImport.Format.CSV;
+        }
+        if (name.endsWith(".xlsx")) {
+            return CensusImport.Format.XLSX;
+        }
+        throw new IllegalArgumentException("Census file must be .csv or .xlsx");
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minusNanos(staleAfterMillis * 1_000_000);
+    }
+
+    // ==================== Worker ====================
+
+    private void run(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transaction.execute(status ->
+                importRepository.claim(id, CensusImport.Status.RUNNING, RESUMABLE, now, staleBefore()));
+        if (claimed == null || claimed == 0) {
+            log.debug("Census import {} is not claimable, skipped", id);
+            return;
+        }
+        CensusImport job = importRepository.findById(id).orElseThrow();
+        long startedAt = System.currentTimeMillis();
+        try {
+            Path file = Paths.get(job.getFilePath());
+            if (job.getTotalRows() == null) {
+                int totalRows = CensusFileReader.countRows(file, job.getFormat());
+                transaction.executeWithoutResult(status ->
+                        importRepository.updateTotalRows(id, totalRows, LocalDateTime.now()));
+            }
+            new ImportRun(job, preload()).execute(file);
+            transaction.executeWithoutResult(status -> importRepository.finish(id, CensusImport.Status.RUNNING,
+                    CensusImport.Status.COMPLETED, null, LocalDateTime.now()));
+            log.info("Census import {} completed in {} ms", id, System.currentTimeMillis() - startedAt);
+        } catch (TakenOverException e) {
+            log.warn("Census import {} was taken over by another worker, stopping", id);
+        } catch (IOException | RuntimeException e) {
+            log.error("Census import {} failed: {}", id, e.getMessage(), e);
+            String error = Objects.toString(NestedExceptionUtils.getMostSpecificCause(e).getMessage(), e.toString());
+            transaction.executeWithoutResult(status -> importRepository.finish(id, CensusImport.Status.RUNNING,
+                    CensusImport.Status.FAILED, error.length() > 1000 ? error.substring(0, 1000) : error,
+                    LocalDateTime.now()));
+        }
+    }
+
+    private CensusKeys preload() {
+        CensusKeys keys = new CensusKeys();
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<MemberRepository.EligibilityRow> rows = memberRepository.streamEligibilityRows()) {
+                rows.forEach(keys::load);
+            }
+            try (Stream<FamilyMemberRepository.EligibilityRow> rows = familyMemberRepository.streamEligibilityRows()) {
+                rows.forEach(keys::load);
+            }
+        });
+        return keys;
+    }
+
+    private record RawRow(int rowNumber, List<String> values) {
+    }
+
+    // Result of field validation: row is null when the record is blank or rejected (error set)
+    private record ParsedRow(RawRow raw, CensusRow row, String error) {
+    }
+
+    /**
+     * Rows of one chunk, classified in file order.
+     */
+    private static final class ChunkPlan {
+        final List<CensusImportWriter.MemberWrite> insertMembers = new ArrayList<>();
+        final List<CensusImportWriter.MemberWrite> updateMembers = new ArrayList<>();
+        final List<CensusImportWriter.DependantWrite> insertDependants = new ArrayList<>();
+        final List<CensusImportWriter.DependantWrite> updateDependants = new ArrayList<>();
+        final Set<Long> changedMembers = new LinkedHashSet<>();
+        final Set<Long> limitChanged = new HashSet<>();
+        final List<ParsedRow> rejected = new ArrayList<>();
+    }
+
+    /**
+     * Thrown when the checkpoint moved under this worker (the job was taken over).
+     */
+    private static final class TakenOverException extends RuntimeException {
+        TakenOverException(Long id) {
+            super("Census import " + id + " checkpoint moved");
+        }
+    }
+
+    /**
+     * State of one processing run of a job; confined to the worker thread.
+     */
+    private final class ImportRun {
+
+        private final CensusImport job;
+        private final CensusKeys keys;
+        private final CensusImportWriter.IdPool memberIds = writer.memberIds();
+        private final CensusImportWriter.IdPool dependantIds = writer.dependantIds();
+        private Map<CensusRow.Column, Integer> columns;
+        private CensusRejectedRows rejected;
+        // Committed state
+        private int processedRows;
+        private long rejectedBytes;
+
+        ImportRun(CensusImport job, CensusKeys keys) {
+            this.job = job;
+            this.keys = keys;
+            this.processedRows = job.getProcessedRows();
+            this.rejectedBytes = job.getRejectedBytes();
+        }
+
+        void execute(Path file) throws IOException {
+            try (CensusFileReader reader = CensusFileReader.open(file, job.getFormat())) {
+                List<String> header = reader.next();
+                columns = CensusRow.columns(header);
+                try (CensusRejectedRows rejectedRows = CensusRejectedRows.open(
+                        Paths.get(job.getRejectedFilePath()), rejectedBytes, header)) {
+                    rejected = rejectedRows;
+                    if (rejectedBytes == 0) {
+                        rejectedBytes = rejected.size();
+                    }
+                    int rowNumber = skipCommitted(reader);
+                    List<RawRow> chunk = new ArrayList<>(chunkSize);
+                    List<String> values;
+                    while ((values = reader.next()) != null) {
+                        chunk.add(new RawRow(++rowNumber, values));
+                        if (chunk.size() == chunkSize) {
+                            processChunk(chunk);
+                            chunk = new ArrayList<>(chunkSize);
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        processChunk(chunk);
+                    }
+                }
+            }
+        }
+
+        // Rows committed by an earlier run are only read for duplicate detection
+        private int skipCommitted(CensusFileReader reader) throws IOException {
+            int rowNumber = 0;
+            while (rowNumber < processedRows) {
+                List<String> values = reader.next();
+                if (values == null) {
+                    break;
+                }
+                rowNumber++;
+                String[] identity = CensusRow.identity(values, columns);
+                if (identity != null) {
+                    keys.firstSeen(identity[1] == null ? CensusKeys.principalIdentity(identity[0])
+                            : CensusKeys.dependantIdentity(identity[1], identity[0]), rowNumber);
+                }
+            }
+            keys.commit();
+            return rowNumber;
+        }
+
+        private void processChunk(List<RawRow> chunk) {
+            // Field validation only reads the row, so it runs in parallel; everything else in file order
+            List<ParsedRow> parsed = chunk.parallelStream()
+                    .map(this::parse)
+                    .toList();
+            writeChunk(parsed);
+        }
+
+        private ParsedRow parse(RawRow raw) {
+            if (CensusRow.isBlank(raw.values())) {
+                return new ParsedRow(raw, null, null);
+            }
+            try {
+                return new ParsedRow(raw, CensusRow.parse(raw.rowNumber(), raw.values(), columns), null);
+            } catch (IllegalArgumentException e) {
+                return new ParsedRow(raw, null, e.getMessage());
+            }
+        }
+
+        private void writeChunk(List<ParsedRow> parsed) {
+            try {
+                long committedBytes = transaction.execute(status -> apply(parsed));
+                keys.commit();
+                processedRows = parsed.get(parsed.size() - 1).raw().rowNumber();
+                rejectedBytes = committedBytes;
+            } catch (TakenOverException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                keys.rollback();
+                rejected.truncate(rejectedBytes);
+                if (parsed.size() == 1) {
+                    rejectUnsaved(parsed.get(0), e);
+                    return;
+                }
+                log.warn("Census import {} chunk at row {} failed ({}), retrying row by row", job.getId(),
+                        parsed.get(0).raw().rowNumber(), e.getMessage());
+                for (ParsedRow row : parsed) {
+                    writeChunk(List.of(row));
+                }
+            }
+        }
+
+        // Classify, write and checkpoint one chunk; returns the rejected-rows file length to commit
+        private long apply(List<ParsedRow> parsed) {
+            ChunkPlan plan = new ChunkPlan();
+            for (ParsedRow row : parsed) {
+                String error = row.error();
+                if (row.row() != null) {
+                    error = classify(row.row(), plan);
+                } else if (error == null) {
+                    continue;
+                }
+                if (error != null) {
+                    plan.rejected.add(new ParsedRow(row.raw(), row.row(), error));
+                    markRejectedPrincipal(row.raw());
+                }
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            writer.insertMembers(job, plan.insertMembers, job.getCreatedBy(), now);
+            writer.updateMembers(job, plan.updateMembers, job.getCreatedBy(), now);
+            writer.insertDependants(plan.insertDependants, now);
+            writer.updateDependants(plan.updateDependants, now);
+            reportChanges(plan, now);
+
+            for (ParsedRow row : plan.rejected) {
+                rejected.append(row.raw().rowNumber(), row.error(), row.raw().values());
+            }
+            if (!plan.rejected.isEmpty()) {
+                rejected.sync();
+            }
+            long bytes = rejected.size();
+            int processedTo = parsed.get(parsed.size() - 1).raw().rowNumber();
+            int updated = importRepository.checkpoint(job.getId(), CensusImport.Status.RUNNING,
+                    processedRows, processedTo,
+                    plan.insertMembers.size(), plan.updateMembers.size(),
+                    plan.insertDependants.size(), plan.updateDependants.size(),
+                    plan.rejected.size(), bytes, now);
+            if (updated == 0) {
+                throw new TakenOverException(job.getId());
+            }
+            return bytes;
+        }
+
+        /**
+         * Check one row against the identifier sets and add it to the plan; returns the rejection reason, if any.
+         */
+        private String classify(CensusRow row, ChunkPlan plan) {
+            return row.isDependant() ? classifyDependant(row, plan) : classifyEmployee(row, plan);
+        }
+
+        private String classifyEmployee(CensusRow row, ChunkPlan plan) {
+            Integer firstRow = keys.firstSeen(CensusKeys.principalIdentity(row.civilId()), row.rowNumber());
+            if (firstRow != null) {
+                return "Duplicate civil ID (row " + firstRow + ")";
+            }
+            CensusKeys.MemberKey existing = keys.member(row.civilId());
+            if (existing != null && existing.employerId() != job.getEmployerId()) {
+                return "Civil ID belongs to a member of another employer";
+            }
+            Long cardOwner = keys.cardOwner(row.cardNumber());
+            if (cardOwner != null && (existing == null || cardOwner != existing.memberId())) {
+                return "Card number already assigned to another member";
+            }
+
+            String cardKey = row.cardNumber() != null ? CensusKeys.key(row.cardNumber())
+                    : existing != null ? existing.cardKey() : null;
+            if (existing == null) {
+                long memberId = memberIds.next();
+                plan.insertMembers.add(new CensusImportWriter.MemberWrite(memberId, row, row.cardNumber()));
+                plan.changedMembers.add(memberId);
+                keys.putMember(row.civilId(), new CensusKeys.MemberKey(memberId, job.getEmployerId(),
+                        job.getPolicyId(), job.getBenefitPackageId(), cardKey), null);
+                return null;
+            }
+
+            long memberId = existing.memberId();
+            Long policyId = job.getPolicyId() != null ? job.getPolicyId() : existing.policyId();
+            Long benefitPackageId = job.getBenefitPackageId() != null ? job.getBenefitPackageId() : existing.benefitPackageId();
+            plan.updateMembers.add(new CensusImportWriter.MemberWrite(memberId, row, cardKey));
+            plan.changedMembers.add(memberId);
+            if (!Objects.equals(policyId, existing.policyId())
+                    || !Objects.equals(benefitPackageId, existing.benefitPackageId())) {
+                plan.limitChanged.add(memberId);
+            }
+            keys.putMember(row.civilId(), new CensusKeys.MemberKey(memberId, job.getEmployerId(),
+                    policyId, benefitPackageId, cardKey), existing);
+            return null;
+        }
+
+        private String classifyDependant(CensusRow row, ChunkPlan plan) {
+            Integer firstRow = keys.firstSeen(
+                    CensusKeys.dependantIdentity(row.principalCivilId(), row.civilId()), row.rowNumber());
+            if (firstRow != null) {
+                return "Duplicate dependant of the same employee (row " + firstRow + ")";
+            }
+            CensusKeys.MemberKey principal = keys.member(row.principalCivilId());
+            if (principal == null) {
+                Integer rejectedRow = keys.rejectedPrincipalRow(row.principalCivilId());
+                return rejectedRow != null
+                        ? "Employee row " + rejectedRow + " was rejected"
+                        : "Employee with civil ID " + row.principalCivilId() + " not found (dependants must follow their employee)";
+            }
+            if (principal.employerId() != job.getEmployerId()) {
+                return "Employee belongs to another employer";
+            }
+            Long existing = keys.dependant(principal.memberId(), row.civilId());
+            Long cardOwner = keys.cardOwner(row.cardNumber());
+            if (cardOwner != null && (existing == null || cardOwner != -existing)) {
+                return "Card number already assigned to another member";
+            }
+
+            long familyMemberId = existing != null ? existing : dependantIds.next();
+            CensusImportWriter.DependantWrite write =
+                    new CensusImportWriter.DependantWrite(familyMemberId, principal.memberId(), row);
+            (existing != null ? plan.updateDependants : plan.insertDependants).add(write);
+            plan.changedMembers.add(principal.memberId());
+            keys.putDependant(principal.memberId(), row.civilId(), familyMemberId, row.cardNumber());
+            return null;
+        }
+
+        // Dependants of a rejected employee row are rejected with a pointer to it
+        private void markRejectedPrincipal(RawRow raw) {
+            String[] identity = CensusRow.identity(raw.values(), columns);
+            if (identity != null && identity[1] == null && keys.member(identity[0]) == null) {
+                keys.markRejectedPrincipal(identity[0], raw.rowNumber());
+            }
+        }
+
+        // Entity listeners are bypassed by the JDBC writes, so their effects are reported here
+        private void reportChanges(ChunkPlan plan, LocalDateTime now) {
+            for (CensusImportWriter.MemberWrite write : plan.insertMembers) {
+                counterBuffer.record(new DashboardCounterSnapshot(DashboardMetric.MEMBERS, write.id(),
+                        job.getEmployerId(), job.getInsuranceCompanyId(), "", now.toLocalDate(), null), 1);
+            }
+            plan.changedMembers.forEach(eligibilityIndex::memberChanged);
+            plan.limitChanged.forEach(memberBalanceService::refreshLimit);
+        }
+
+        // A row whose write failed on its own (e.g. a concurrent insert of the same civil ID)
+        private void rejectUnsaved(ParsedRow row, RuntimeException cause) {
+            String reason = "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(cause).getMessage();
+            long committedBytes = transaction.execute(status -> {
+                rejected.append(row.raw().rowNumber(), reason, row.raw().values());
+                rejected.sync();
+                long bytes = rejected.size();
+                int updated = importRepository.checkpoint(job.getId(), CensusImport.Status.RUNNING,
+                        processedRows, row.raw().rowNumber(), 0, 0, 0, 0, 1, bytes, LocalDateTime.now());
+                if (updated == 0) {
+                    throw new TakenOverException(job.getId());
+                }
+                return bytes;
+            });
+            markRejectedPrincipal(row.raw());
+            keys.commit();
+            processedRows = row.raw().rowNumber();
+            rejectedBytes = committedBytes;
+        }
+    }
+}
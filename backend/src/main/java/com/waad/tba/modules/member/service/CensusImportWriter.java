@@ -0,0 +1,270 @@
+package com.waad.tba.modules.member.service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.waad.tba.common.search.ArabicTextNormalizer;
+import com.waad.tba.modules.member.entity.CensusImport;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bulk writes of census imports: JDBC batches of members and family members,
+ * which the driver sends as multi-row statements (reWriteBatchedInserts).
+ * Ids are taken from the tables' own sequences in blocks, so inserted members can
+ * be referenced by their dependants in the same batch. Runs inside the caller's
+ * transaction; entity listeners are bypassed, so the caller reports the changes
+ * (dashboard counters, eligibility index, balances).
+ */
+@Component
+@RequiredArgsConstructor
+class CensusImportWriter {
+
+    private static final int ID_BLOCK_SIZE = 100;
+
+    private static final String INSERT_MEMBER_SQL =
+            "INSERT INTO members (id, employer_id, insurance_company_id, policy_id, benefit_package_id, " +
+            "full_name_arabic, full_name_english, civil_id, card_number, birth_date, gender, marital_status, " +
+            "phone, email, address, nationality, employee_number, join_date, occupation, start_date, end_date, " +
+            "status, card_status, active, eligibility_status, search_text, created_by, updated_by, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " +
+            "'ACTIVE', 'ACTIVE', true, true, ?, ?, ?, ?, ?)";
+
+    // Blank census cells keep the stored value; active flag and insurance company are left alone
+    private static final String UPDATE_MEMBER_SQL =
+            "UPDATE members SET policy_id = COALESCE(?, policy_id), benefit_package_id = COALESCE(?, benefit_package_id), " +
+            "full_name_arabic = ?, full_name_english = COALESCE(?, full_name_english), " +
+            "card_number = COALESCE(?, card_number), birth_date = ?, gender = ?, " +
+            "marital_status = COALESCE(?, marital_status), phone = COALESCE(?, phone), email = COALESCE(?, email), " +
+            "address = COALESCE(?, address), nationality = COALESCE(?, nationality), " +
+            "employee_number = COALESCE(?, employee_number), join_date = COALESCE(?, join_date), " +
+            "occupation = COALESCE(?, occupation), start_date = COALESCE(?, start_date), " +
+            "end_date = COALESCE(?, end_date), search_text = ?, updated_by = ?, updated_at = ? WHERE id = ?";
+
+    private static final String INSERT_DEPENDANT_SQL =
+            "INSERT INTO family_members (id, member_id, relationship, full_name_arabic, full_name_english, civil_id, " +
+            "birth_date, gender, status, card_number, phone, active, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'ACTIVE', ?, ?, true, ?, ?)";
+
+    private static final String UPDATE_DEPENDANT_SQL =
+            "UPDATE family_members SET relationship = ?, full_name_arabic = ?, " +
+            "full_name_english = COALESCE(?, full_name_english), birth_date = ?, gender = ?, " +
+            "card_number = COALESCE(?, card_number), phone = COALESCE(?, phone), updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * searchCardNumber: card number the member ends up with (the stored one when the row has none).
+     */
+    record MemberWrite(long id, CensusRow row, String searchCardNumber) {
+    }
+
+    record DependantWrite(long id, long memberId, CensusRow row) {
+    }
+
+    /**
+     * Ids reserved from a table's id sequence, fetched ID_BLOCK_SIZE at a time.
+     * Unused ids are left as gaps.
+     */
+    final class IdPool {
+
+        private final String table;
+        private final Deque<Long> ids = new ArrayDeque<>();
+
+        private IdPool(String table) {
+            this.table = table;
+        }
+
+        long next() {
+            if (ids.isEmpty()) {
+                ids.addAll(jdbcTemplate.queryForList(
+                        "SELECT nextval(pg_get_serial_sequence('" + table + "', 'id')) FROM generate_series(1, ?)",
+                        Long.class, ID_BLOCK_SIZE));
+            }
+            return ids.pop();
+        }
+    }
+
+    IdPool memberIds() {
+        return new IdPool("members");
+    }
+
+    IdPool dependantIds() {
+        return new IdPool("family_members");
+    }
+
+    void insertMembers(CensusImport job, List<MemberWrite> writes, String username, LocalDateTime now) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_MEMBER_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                MemberWrite write = writes.get(i);
+                CensusRow row = write.row();
+                int p = 1;
+                statement.setLong(p++, write.id());
+                statement.setLong(p++, job.getEmployerId());
+                statement.setObject(p++, job.getInsuranceCompanyId(), Types.BIGINT);
+                statement.setObject(p++, job.getPolicyId(), Types.BIGINT);
+                statement.setObject(p++, job.getBenefitPackageId(), Types.BIGINT);
+                p = setPersonal(statement, p, row);
+                statement.setString(p++, searchText(write));
+                statement.setString(p++, username);
+                statement.setString(p++, username);
+                statement.setTimestamp(p++, Timestamp.valueOf(now));
+                statement.setTimestamp(p, Timestamp.valueOf(now));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return writes.size();
+            }
+        });
+    }
+
+    void updateMembers(CensusImport job, List<MemberWrite> writes, String username, LocalDateTime now) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_MEMBER_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                MemberWrite write = writes.get(i);
+                CensusRow row = write.row();
+                int p = 1;
+                statement.setObject(p++, job.getPolicyId(), Types.BIGINT);
+                statement.setObject(p++, job.getBenefitPackageId(), Types.BIGINT);
+                statement.setString(p++, row.fullNameArabic());
+                statement.setString(p++, row.fullNameEnglish());
+                statement.setString(p++, row.cardNumber());
+                statement.setDate(p++, Date.valueOf(row.birthDate()));
+                statement.setString(p++, row.gender());
+                statement.setString(p++, row.maritalStatus() != null ? row.maritalStatus().name() : null);
+                statement.setString(p++, row.phone());
+                statement.setString(p++, row.email());
+                statement.setString(p++, row.address());
+                statement.setString(p++, row.nationality());
+                statement.setString(p++, row.employeeNumber());
+                setDate(statement, p++, row.joinDate());
+                statement.setString(p++, row.occupation());
+                setDate(statement, p++, row.startDate());
+                setDate(statement, p++, row.endDate());
+                statement.setString(p++, searchText(write));
+                statement.setString(p++, username);
+                statement.setTimestamp(p++, Timestamp.valueOf(now));
+                statement.setLong(p, write.id());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return writes.size();
+            }
+        });
+    }
+
+    void insertDependants(List<DependantWrite> writes, LocalDateTime now) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_DEPENDANT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                DependantWrite write = writes.get(i);
+                CensusRow row = write.row();
+                statement.setLong(1, write.id());
+                statement.setLong(2, write.memberId());
+                statement.setString(3, row.relationship().name());
+                statement.setString(4, row.fullNameArabic());
+                statement.setString(5, row.fullNameEnglish());
+                statement.setString(6, row.civilId());
+                statement.setDate(7, Date.valueOf(row.birthDate()));
+                statement.setString(8, row.gender());
+                statement.setString(9, row.cardNumber());
+                statement.setString(10, row.phone());
+                statement.setTimestamp(11, Timestamp.valueOf(now));
+                statement.setTimestamp(12, Timestamp.valueOf(now));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return writes.size();
+            }
+        });
+    }
+
+    void updateDependants(List<DependantWrite> writes, LocalDateTime now) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_DEPENDANT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                DependantWrite write = writes.get(i);
+                CensusRow row = write.row();
+                statement.setString(1, row.relationship().name());
+                statement.setString(2, row.fullNameArabic());
+                statement.setString(3, row.fullNameEnglish());
+                statement.setDate(4, Date.valueOf(row.birthDate()));
+                statement.setString(5, row.gender());
+                statement.setString(6, row.cardNumber());
+                statement.setString(7, row.phone());
+                statement.setTimestamp(8, Timestamp.valueOf(now));
+                statement.setLong(9, write.id());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return writes.size();
+            }
+        });
+    }
+
+    // full_name_arabic .. end_date of INSERT_MEMBER_SQL
+    private static int setPersonal(PreparedStatement statement, int p, CensusRow row) throws SQLException {
+        statement.setString(p++, row.fullNameArabic());
+        statement.setString(p++, row.fullNameEnglish());
+        statement.setString(p++, row.civilId());
+        statement.setString(p++, row.cardNumber());
+        statement.setDate(p++, Date.valueOf(row.birthDate()));
+        statement.setString(p++, row.gender());
+        statement.setString(p++, row.maritalStatus() != null ? row.maritalStatus().name() : null);
+        statement.setString(p++, row.phone());
+        statement.setString(p++, row.email());
+        statement.setString(p++, row.address());
+        statement.setString(p++, row.nationality());
+        statement.setString(p++, row.employeeNumber());
+        setDate(statement, p++, row.joinDate());
+        statement.setString(p++, row.occupation());
+        setDate(statement, p++, row.startDate());
+        setDate(statement, p++, row.endDate());
+        return p;
+    }
+
+    private static void setDate(PreparedStatement statement, int index, LocalDate date) throws SQLException {
+        if (date != null) {
+            statement.setDate(index, Date.valueOf(date));
+        } else {
+            statement.setNull(index, Types.DATE);
+        }
+    }
+
+    // Same fields as Member.updateSearchText()
+    private static String searchText(MemberWrite write) {
+        CensusRow row = write.row();
+        return ArabicTextNormalizer.searchText(row.fullNameEnglish(), row.fullNameArabic(), row.civilId(),
+                write.searchCardNumber());
+    }
+}
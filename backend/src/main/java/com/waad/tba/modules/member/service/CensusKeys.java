@@ -0,0 +1,161 @@
+package com.waad.tba.modules.member.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.waad.tba.modules.member.repository.FamilyMemberRepository;
+import com.waad.tba.modules.member.repository.MemberRepository;
+
+/**
+ * Identifier sets of a census import, preloaded once per job run so that civil ID
+ * and card number uniqueness is a hash lookup instead of a query per row.
+ *
+ * Changes made while a chunk is processed are recorded in an undo log: commit()
+ * keeps them once the chunk's transaction has committed, rollback() restores the
+ * state of the last commit when it failed.
+ */
+final class CensusKeys {
+
+    /**
+     * Existing or imported member; policy / benefit package as currently stored.
+     */
+    record MemberKey(long memberId, long employerId, Long policyId, Long benefitPackageId, String cardKey) {
+    }
+
+    // Member civil ID -> member
+    private final Map<String, MemberKey> members = new HashMap<>();
+    // Card number -> member id, or negated family member id
+    private final Map<String, Long> cards = new HashMap<>();
+    // Member id + '/' + dependant civil ID -> family member id
+    private final Map<String, Long> dependants = new HashMap<>();
+    // Family member id -> card key, to release a dependant's previous card
+    private final Map<Long, String> dependantCards = new HashMap<>();
+    // Civil IDs (employee) and principal + civil ID (dependant) seen earlier in the file -> row
+    private final Map<String, Integer> seenRows = new HashMap<>();
+    // Employee civil IDs whose row was rejected
+    private final Map<String, Integer> rejectedPrincipals = new HashMap<>();
+
+    private final Deque<Runnable> undo = new ArrayDeque<>();
+
+    void load(MemberRepository.EligibilityRow row) {
+        String cardKey = key(row.getCardNumber());
+        members.put(key(row.getCivilId()), new MemberKey(row.getMemberId(), row.getEmployerId(),
+                row.getPolicyId(), row.getBenefitPackageId(), cardKey));
+        if (cardKey != null) {
+            cards.put(cardKey, row.getMemberId());
+        }
+    }
+
+    void load(FamilyMemberRepository.EligibilityRow row) {
+        String cardKey = key(row.getCardNumber());
+        dependants.put(row.getMemberId() + "/" + key(row.getCivilId()), row.getFamilyMemberId());
+        if (cardKey != null) {
+            cards.putIfAbsent(cardKey, -row.getFamilyMemberId());
+            dependantCards.put(row.getFamilyMemberId(), cardKey);
+        }
+    }
+
+    MemberKey member(String civilId) {
+        return members.get(key(civilId));
+    }
+
+    Long dependant(long memberId, String civilId) {
+        return dependants.get(memberId + "/" + key(civilId));
+    }
+
+    /**
+     * Owner of the card (member id, or negated family member id); null when free.
+     */
+    Long cardOwner(String cardNumber) {
+        String cardKey = key(cardNumber);
+        return cardKey != null ? cards.get(cardKey) : null;
+    }
+
+    void putMember(String civilId, MemberKey member, MemberKey previous) {
+        put(members, key(civilId), member);
+        moveCard(previous != null ? previous.cardKey() : null, member.cardKey(), member.memberId());
+    }
+
+    // A blank card number keeps the dependant's stored card (see CensusImportWriter)
+    void putDependant(long memberId, String civilId, long familyMemberId, String cardNumber) {
+        put(dependants, memberId + "/" + key(civilId), familyMemberId);
+        String cardKey = cardNumber != null ? key(cardNumber) : dependantCards.get(familyMemberId);
+        moveCard(dependantCards.get(familyMemberId), cardKey, -familyMemberId);
+        put(dependantCards, familyMemberId, cardKey);
+    }
+
+    // Identifiers are compared trimmed and upper-cased; blank is null
+    static String key(String identifier) {
+        if (identifier == null || identifier.isBlank()) {
+            return null;
+        }
+        return identifier.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Row number where the identity was first seen in this file, recording it when new.
+     */
+    Integer firstSeen(String identity, int rowNumber) {
+        Integer first = seenRows.get(identity);
+        if (first == null) {
+            put(seenRows, identity, rowNumber);
+        }
+        return first;
+    }
+
+    void markRejectedPrincipal(String civilId, int rowNumber) {
+        put(rejectedPrincipals, key(civilId), rowNumber);
+    }
+
+    Integer rejectedPrincipalRow(String civilId) {
+        return rejectedPrincipals.get(key(civilId));
+    }
+
+    static String principalIdentity(String civilId) {
+        return key(civilId);
+    }
+
+    static String dependantIdentity(String principalCivilId, String civilId) {
+        return key(principalCivilId) + "/" + key(civilId);
+    }
+
+    void commit() {
+        undo.clear();
+    }
+
+    void rollback() {
+        while (!undo.isEmpty()) {
+            undo.pop().run();
+        }
+    }
+
+    private void moveCard(String previousKey, String cardKey, long ref) {
+        if (previousKey != null && !previousKey.equals(cardKey) && Long.valueOf(ref).equals(cards.get(previousKey))) {
+            remove(cards, previousKey);
+        }
+        if (cardKey != null) {
+            put(cards, cardKey, ref);
+        }
+    }
+
+    private <K, V> void put(Map<K, V> map, K key, V value) {
+        V previous = value != null ? map.put(key, value) : map.remove(key);
+        undo.push(() -> restore(map, key, previous));
+    }
+
+    private <K, V> void remove(Map<K, V> map, K key) {
+        V previous = map.remove(key);
+        undo.push(() -> restore(map, key, previous));
+    }
+
+    private static <K, V> void restore(Map<K, V> map, K key, V previous) {
+        if (previous == null) {
+            map.remove(key);
+        } else {
+            map.put(key, previous);
+        }
+    }
+}
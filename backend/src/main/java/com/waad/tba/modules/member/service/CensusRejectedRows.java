@@ -0,0 +1,117 @@
+package com.waad.tba.modules.member.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Rejected-rows file of a census import: CSV with the row number, the reason and
+ * the original cells. Lines are appended before the chunk's transaction commits
+ * and the committed length is stored with the checkpoint, so truncate() can drop
+ * lines of a chunk that was rolled back or interrupted.
+ */
+final class CensusRejectedRows implements Closeable {
+
+    private final FileChannel channel;
+
+    private CensusRejectedRows(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Open the file, cut back to the committed length; the header is written to a new file.
+     */
+    static CensusRejectedRows open(Path path, long committedBytes, List<String> header) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        CensusRejectedRows rejected = new CensusRejectedRows(channel);
+        try {
+            rejected.truncate(committedBytes);
+            if (committedBytes == 0) {
+                rejected.write("row,error," + line(header));
+            }
+        } catch (RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return rejected;
+    }
+
+    /**
+     * Current length, to be committed with the checkpoint.
+     */
+    long size() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void truncate(long length) {
+        try {
+            channel.truncate(length);
+            channel.position(length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void append(int rowNumber, String reason, List<String> values) {
+        write(rowNumber + "," + field(reason) + "," + line(values));
+    }
+
+    /**
+     * Force appended lines to disk before the checkpoint referencing them commits.
+     */
+    void sync() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(String line) {
+        ByteBuffer bytes = ByteBuffer.wrap((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String line(List<String> values) {
+        StringBuilder line = new StringBuilder(128);
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            line.append(field(values.get(i)));
+        }
+        return line.toString();
+    }
+
+    // RFC 4180 quoting, as in AuditLogCsv
+    private static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
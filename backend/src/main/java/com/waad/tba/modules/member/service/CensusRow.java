@@ -0,0 +1,256 @@
+package com.waad.tba.modules.member.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.waad.tba.modules.member.entity.FamilyMember;
+import com.waad.tba.modules.member.entity.Member;
+
+/**
+ * One validated census row: an employee (relationship empty / EMPLOYEE) or a
+ * dependant, linked to its employee by principal_civil_id.
+ *
+ * Header names are matched case-insensitively, ignoring spaces, dashes and
+ * underscores (Full Name Arabic = full_name_arabic). Dates may be yyyy-MM-dd,
+ * dd/MM/yyyy or Excel serial day numbers. parse() runs on pool threads and only
+ * checks the row itself; uniqueness is checked in file order by CensusImportService.
+ */
+record CensusRow(
+        int rowNumber,
+        String civilId,
+        String principalCivilId,
+        FamilyMember.Relationship relationship,
+        String fullNameArabic,
+        String fullNameEnglish,
+        LocalDate birthDate,
+        String gender,
+        Member.MaritalStatus maritalStatus,
+        String phone,
+        String email,
+        String address,
+        String nationality,
+        String employeeNumber,
+        LocalDate joinDate,
+        String occupation,
+        String cardNumber,
+        LocalDate startDate,
+        LocalDate endDate) {
+
+    enum Column {
+        CIVIL_ID(true, "civilid", "nationalid"),
+        PRINCIPAL_CIVIL_ID(false, "principalcivilid", "employeecivilid"),
+        RELATIONSHIP(false, "relationship", "relation"),
+        FULL_NAME_ARABIC(true, "fullnamearabic", "namearabic", "arabicname"),
+        FULL_NAME_ENGLISH(false, "fullnameenglish", "nameenglish", "englishname"),
+        BIRTH_DATE(true, "birthdate", "dateofbirth", "dob"),
+        GENDER(true, "gender", "sex"),
+        MARITAL_STATUS(false, "maritalstatus"),
+        PHONE(false, "phone", "mobile"),
+        EMAIL(false, "email"),
+        ADDRESS(false, "address"),
+        NATIONALITY(false, "nationality"),
+        EMPLOYEE_NUMBER(false, "employeenumber", "employeeno", "staffnumber"),
+        JOIN_DATE(false, "joindate"),
+        OCCUPATION(false, "occupation", "jobtitle"),
+        CARD_NUMBER(false, "cardnumber"),
+        START_DATE(false, "startdate"),
+        END_DATE(false, "enddate");
+
+        private final boolean required;
+        private final List<String> names;
+
+        Column(boolean required, String... names) {
+            this.required = required;
+            this.names = List.of(names);
+        }
+    }
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final DateTimeFormatter DAY_FIRST = DateTimeFormatter.ofPattern("d/M/uuuu");
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+
+    /**
+     * Column positions resolved from the header record.
+     *
+     * @throws IllegalArgumentException when a required column is missing
+     */
+    static Map<Column, Integer> columns(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("Census file is empty");
+        }
+        Map<Column, Integer> positions = new EnumMap<>(Column.class);
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "");
+            for (Column column : Column.values()) {
+                if (column.names.contains(name)) {
+                    positions.putIfAbsent(column, i);
+                }
+            }
+        }
+        for (Column column : Column.values()) {
+            if (column.required && !positions.containsKey(column)) {
+                throw new IllegalArgumentException("Census file has no " + column.name().toLowerCase(Locale.ROOT) + " column");
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * True when every cell of the record is blank (skipped without rejection).
+     */
+    static boolean isBlank(List<String> values) {
+        return values.stream().allMatch(value -> value == null || value.isBlank());
+    }
+
+    /**
+     * Parse and validate one record.
+     *
+     * @throws IllegalArgumentException with the rejection reason
+     */
+    static CensusRow parse(int rowNumber, List<String> values, Map<Column, Integer> columns) {
+        FamilyMember.Relationship relationship = relationship(text(values, columns, Column.RELATIONSHIP, 20));
+        String principalCivilId = text(values, columns, Column.PRINCIPAL_CIVIL_ID, 50);
+        if (relationship != null && principalCivilId == null) {
+            throw new IllegalArgumentException("principal_civil_id is required for dependants");
+        }
+        String email = text(values, columns, Column.EMAIL, 255);
+        if (email != null && !EMAIL.matcher(email).matches()) {
+            throw new IllegalArgumentException("Invalid email format");
+        }
+        return new CensusRow(
+                rowNumber,
+                required(values, columns, Column.CIVIL_ID, 50),
+                relationship != null ? principalCivilId : null,
+                relationship,
+                required(values, columns, Column.FULL_NAME_ARABIC, 200),
+                text(values, columns, Column.FULL_NAME_ENGLISH, 200),
+                requiredDate(values, columns, Column.BIRTH_DATE),
+                gender(required(values, columns, Column.GENDER, 10)),
+                maritalStatus(text(values, columns, Column.MARITAL_STATUS, 20)),
+                text(values, columns, Column.PHONE, 20),
+                email,
+                text(values, columns, Column.ADDRESS, 500),
+                text(values, columns, Column.NATIONALITY, 100),
+                text(values, columns, Column.EMPLOYEE_NUMBER, 100),
+                date(values, columns, Column.JOIN_DATE),
+                text(values, columns, Column.OCCUPATION, 100),
+                text(values, columns, Column.CARD_NUMBER, 50),
+                date(values, columns, Column.START_DATE),
+                date(values, columns, Column.END_DATE));
+    }
+
+    /**
+     * Civil IDs of the row without validating the rest (used to replay rows committed before a resume).
+     * Returns {civilId, principalCivilId or null}, or null when the row has no civil ID.
+     */
+    static String[] identity(List<String> values, Map<Column, Integer> columns) {
+        try {
+            String civilId = text(values, columns, Column.CIVIL_ID, Integer.MAX_VALUE);
+            if (civilId == null) {
+                return null;
+            }
+            FamilyMember.Relationship relationship = relationship(text(values, columns, Column.RELATIONSHIP, 20));
+            return new String[] {civilId, relationship != null
+                    ? text(values, columns, Column.PRINCIPAL_CIVIL_ID, Integer.MAX_VALUE) : null};
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    boolean isDependant() {
+        return relationship != null;
+    }
+
+    private static String text(List<String> values, Map<Column, Integer> columns, Column column, int maxLength) {
+        Integer position = columns.get(column);
+        if (position == null || position >= values.size() || values.get(position) == null) {
+            return null;
+        }
+        String value = values.get(position).trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(label(column) + " exceeds " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static String required(List<String> values, Map<Column, Integer> columns, Column column, int maxLength) {
+        String value = text(values, columns, column, maxLength);
+        if (value == null) {
+            throw new IllegalArgumentException(label(column) + " is required");
+        }
+        return value;
+    }
+
+    private static LocalDate requiredDate(List<String> values, Map<Column, Integer> columns, Column column) {
+        LocalDate value = date(values, columns, column);
+        if (value == null) {
+            throw new IllegalArgumentException(label(column) + " is required");
+        }
+        return value;
+    }
+
+    private static LocalDate date(List<String> values, Map<Column, Integer> columns, Column column) {
+        String value = text(values, columns, column, 30);
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (value.chars().allMatch(Character::isDigit) && value.length() <= 6) {
+                return EXCEL_EPOCH.plusDays(Long.parseLong(value));
+            }
+            if (value.indexOf('/') > 0) {
+                return LocalDate.parse(value, DAY_FIRST);
+            }
+            return LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(label(column) + " is not a valid date: " + value);
+        }
+    }
+
+    private static FamilyMember.Relationship relationship(String value) {
+        if (value == null) {
+            return null;
+        }
+        String name = value.toUpperCase(Locale.ROOT);
+        if (name.equals("EMPLOYEE") || name.equals("PRINCIPAL") || name.equals("SELF") || name.equals("MEMBER")) {
+            return null;
+        }
+        try {
+            return FamilyMember.Relationship.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown relationship: " + value);
+        }
+    }
+
+    private static String gender(String value) {
+        return switch (value.toUpperCase(Locale.ROOT)) {
+            case "MALE", "M" -> "MALE";
+            case "FEMALE", "F" -> "FEMALE";
+            default -> throw new IllegalArgumentException("Unknown gender: " + value);
+        };
+    }
+
+    private static Member.MaritalStatus maritalStatus(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Member.MaritalStatus.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown marital status: " + value);
+        }
+    }
+
+    private static String label(Column column) {
+        return column.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,72 @@
+package com.waad.tba.modules.member.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.waad.tba.modules.member.entity.FamilyMember;
+import com.waad.tba.modules.member.repository.FamilyMemberRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Family Member Batch Loader
+ *
+ * Loads family members (or just their counts) for a whole page of members with
+ * a single IN query and groups them in memory, instead of one query per member.
+ * Larger id sets are queried in chunks of IN_CHUNK_SIZE ids, far below the
+ * PostgreSQL limit of 32767 bind parameters per statement.
+ */
+@Component
+@RequiredArgsConstructor
+public class FamilyMemberBatchLoader {
+
+    static final int IN_CHUNK_SIZE = 1000;
+
+    private final FamilyMemberRepository familyRepo;
+
+    /**
+     * Family members grouped by member id; members without family are absent from the map.
+     */
+    public Map<Long, List<FamilyMember>> loadByMemberIds(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<FamilyMember>> families = new HashMap<>();
+        for (List<Long> chunk : chunks(memberIds)) {
+            for (FamilyMember family : familyRepo.findByMemberIdIn(chunk)) {
+                families.computeIfAbsent(family.getMember().getId(), id -> new ArrayList<>()).add(family);
+            }
+        }
+        return families;
+    }
+
+    /**
+     * Family member counts by member id; members without family are absent from the map.
+     */
+    public Map<Long, Integer> countByMemberIds(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Integer> counts = new HashMap<>();
+        for (List<Long> chunk : chunks(memberIds)) {
+            for (FamilyMemberRepository.FamilyCount count : familyRepo.countByMemberIdIn(chunk)) {
+                counts.put(count.getMemberId(), (int) count.getFamilyCount());
+            }
+        }
+        return counts;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>((list.size() + IN_CHUNK_SIZE - 1) / IN_CHUNK_SIZE);
+        for (int from = 0; from < list.size(); from += IN_CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + IN_CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.waad.tba.common.exception.ResourceNotFoundException;
+import com.waad.tba.modules.eligibility.service.EligibilityIndex;
 import com.waad.tba.modules.member.entity.FamilyMember;
 import com.waad.tba.modules.member.entity.Member;
 import com.waad.tba.modules.member.repository.FamilyMemberRepository;
@@ -21,6 +22,7 @@ public class FamilyMemberService {
 
     private static final Logger log = LoggerFactory.getLogger(FamilyMemberService.class);
     private final FamilyMemberRepository familyMemberRepository;
+    private final EligibilityIndex eligibilityIndex;
 
     /**
      * Find all family members for a specific member
@@ -107,6 +109,8 @@ public class FamilyMemberService {
     public void deleteByMemberId(Long memberId) {
         log.info("Deleting all family members for member ID: {}", memberId);
         familyMemberRepository.deleteByMemberId(memberId);
+        // Bulk delete bypasses entity listeners
+        eligibilityIndex.memberChanged(memberId);
     }
 
     /**
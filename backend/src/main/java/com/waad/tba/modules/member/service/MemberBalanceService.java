@@ -0,0 +1,178 @@
+package com.waad.tba.modules.member.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.waad.tba.modules.claim.entity.Claim;
+import com.waad.tba.modules.claim.entity.ClaimStatus;
+import com.waad.tba.modules.claim.repository.ClaimRepository;
+import com.waad.tba.modules.member.entity.MemberBalance;
+import com.waad.tba.modules.member.repository.MemberBalanceRepository;
+import com.waad.tba.modules.member.repository.MemberRepository;
+import com.waad.tba.modules.preauth.entity.PreApproval;
+import com.waad.tba.modules.preauth.repository.PreApprovalRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Member Balance Service
+ *
+ * Per-member benefit-utilization ledger backed by the member_balances row:
+ * remaining = limit - approved claim amounts - open pre-approval amounts.
+ *
+ * Claim and pre-approval services report state changes as deltas; each delta is
+ * applied with a version compare-and-set so concurrent approvals for the same
+ * member are serialized and cannot overspend the limit. Balance checks are a
+ * single indexed read of the ledger row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MemberBalanceService {
+
+    private static final int MAX_UPDATE_ATTEMPTS = 5;
+
+    private static final List<ClaimStatus> CONSUMING_CLAIM_STATUSES =
+            List.of(ClaimStatus.APPROVED, ClaimStatus.PARTIALLY_APPROVED);
+
+    private static final List<PreApproval.ApprovalStatus> RESERVING_APPROVAL_STATUSES =
+            List.of(PreApproval.ApprovalStatus.APPROVED, PreApproval.ApprovalStatus.PARTIALLY_APPROVED);
+
+    private final MemberBalanceRepository balanceRepository;
+    private final MemberRepository memberRepository;
+    private final ClaimRepository claimRepository;
+    private final PreApprovalRepository preApprovalRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Limit applied to members whose benefit package has no limit configured.
+     */
+    @Value("${ledger.default-annual-limit:10000}")
+    private BigDecimal defaultAnnualLimit;
+
+    /**
+     * Amount a claim consumes from the member balance in its current state.
+     */
+    public static BigDecimal consumedAmountOf(Claim claim) {
+        if (claim == null || !Boolean.TRUE.equals(claim.getActive())
+                || !CONSUMING_CLAIM_STATUSES.contains(claim.getStatus())
+                || claim.getApprovedAmount() == null) {
+            return BigDecimal.ZERO;
+        }
+        return claim.getApprovedAmount();
+    }
+
+    /**
+     * Amount a pre-approval reserves from the member balance in its current state.
+     */
+    public static BigDecimal reservedAmountOf(PreApproval preApproval) {
+        if (preApproval == null || !Boolean.TRUE.equals(preApproval.getActive())
+                || Boolean.TRUE.equals(preApproval.getExpired())
+                || !RESERVING_APPROVAL_STATUSES.contains(preApproval.getStatus())
+                || preApproval.getApprovedAmount() == null) {
+            return BigDecimal.ZERO;
+        }
+        return preApproval.getApprovedAmount();
+    }
+
+    /**
+     * Remaining balance for a member (one indexed read when the ledger row exists).
+     * Safe to call from read-only transactions: a missing row is computed, not inserted.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getRemainingBalance(Long memberId) {
+        return balanceRepository.findStateByMemberId(memberId)
+                .map(state -> remaining(state.getAnnualLimit(), state.getConsumedAmount(), state.getReservedAmount()))
+                .orElseGet(() -> remaining(resolveLimit(memberId),
+                        claimRepository.sumApprovedAmountByMemberId(memberId, CONSUMING_CLAIM_STATUSES),
+                        preApprovalRepository.sumOpenApprovedAmountByMemberId(memberId, RESERVING_APPROVAL_STATUSES)));
+    }
+
+    /**
+     * Apply consumed/reserved deltas to the member ledger.
+     *
+     * @param enforceLimit if true and the deltas increase utilization, fail when
+     *                     the remaining balance is insufficient
+     * @throws IllegalStateException if the balance would be overspent
+     */
+    @Transactional
+    public void applyDelta(Long memberId, BigDecimal consumedDelta, BigDecimal reservedDelta, boolean enforceLimit) {
+        if (consumedDelta.signum() == 0 && reservedDelta.signum() == 0) {
+            return;
+        }
+
+        for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+            MemberBalanceRepository.BalanceState state = loadOrCreate(memberId);
+
+            BigDecimal increase = consumedDelta.add(reservedDelta);
+            if (enforceLimit && increase.signum() > 0) {
+                BigDecimal remaining = remaining(state.getAnnualLimit(), state.getConsumedAmount(),
+                        state.getReservedAmount());
+                if (increase.compareTo(remaining) > 0) {
+                    throw new IllegalStateException(String.format(
+                            "Insufficient remaining balance for member %d: remaining %s, required %s",
+                            memberId, remaining, increase));
+                }
+            }
+
+            if (balanceRepository.applyDelta(memberId, state.getVersion(), consumedDelta, reservedDelta) == 1) {
+                log.debug("Member {} balance updated: consumed {} reserved {}", memberId, consumedDelta, reservedDelta);
+                return;
+            }
+            log.debug("Concurrent balance update for member {}, retrying (attempt {})", memberId, attempt);
+        }
+        throw new ObjectOptimisticLockingFailureException(MemberBalance.class, memberId);
+    }
+
+    /**
+     * Re-resolve the member's limit (after benefit package / policy change).
+     */
+    @Transactional
+    public void refreshLimit(Long memberId) {
+        balanceRepository.updateLimit(memberId, resolveLimit(memberId));
+    }
+
+    /**
+     * Propagate a benefit package limit change to all ledger rows of its members.
+     */
+    @Transactional
+    public void refreshLimitsForBenefitPackage(Long benefitPackageId, BigDecimal maxLimit) {
+        int updated = balanceRepository.updateLimitForBenefitPackage(benefitPackageId, maxLimit);
+        log.info("Benefit package {} limit changed, {} member balances updated", benefitPackageId, updated);
+    }
+
+    private MemberBalanceRepository.BalanceState loadOrCreate(Long memberId) {
+        return balanceRepository.findStateByMemberId(memberId).orElseGet(() -> {
+            // First write for this member: seed the row from committed claims and approvals
+            // in a separate transaction, so changes of the caller's transaction are only
+            // counted through the delta being applied.
+            TransactionTemplate seeding = new TransactionTemplate(transactionManager);
+            seeding.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            seeding.executeWithoutResult(status -> balanceRepository.insertIfAbsent(memberId, resolveLimit(memberId),
+                    claimRepository.sumApprovedAmountByMemberId(memberId, CONSUMING_CLAIM_STATUSES),
+                    preApprovalRepository.sumOpenApprovedAmountByMemberId(memberId, RESERVING_APPROVAL_STATUSES)));
+            return balanceRepository.findStateByMemberId(memberId)
+                    .orElseThrow(() -> new IllegalStateException("Member balance not initialized: " + memberId));
+        });
+    }
+
+    private BigDecimal resolveLimit(Long memberId) {
+        return memberRepository.findBenefitPackageMaxLimitById(memberId)
+                .or(() -> memberRepository.findPolicyAnnualLimitById(memberId))
+                .orElse(null);
+    }
+
+    private BigDecimal remaining(BigDecimal limit, BigDecimal consumed, BigDecimal reserved) {
+        BigDecimal effectiveLimit = limit != null ? limit : defaultAnnualLimit;
+        return effectiveLimit.subtract(consumed).subtract(reserved);
+    }
+}
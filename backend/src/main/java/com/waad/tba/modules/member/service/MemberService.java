@@ -1,14 +1,21 @@
 package com.waad.tba.modules.member.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.waad.tba.common.exception.ResourceNotFoundException;
+import com.waad.tba.common.search.ArabicTextNormalizer;
+import com.waad.tba.common.typeahead.ReferenceTypeaheadIndex;
+import com.waad.tba.common.typeahead.TypeaheadOption;
 import com.waad.tba.modules.employer.entity.Employer;
 import com.waad.tba.modules.employer.repository.EmployerRepository;
 import com.waad.tba.modules.insurance.entity.InsuranceCompany;
@@ -32,27 +39,51 @@ public class MemberService {
 
     private final MemberRepository memberRepository;
     private final FamilyMemberRepository familyRepo;
+    private final FamilyMemberBatchLoader familyLoader;
     private final MemberMapperV2 mapper;
 
     private final EmployerRepository employerRepo;
     private final InsuranceCompanyRepository insuranceRepo;
+    private final MemberBalanceService memberBalanceService;
 
+    @Value("${typeahead.member-selector-limit:500}")
+    private int selectorLimit;
+
+    @Value("${members.search.max-results:200}")
+    private int searchLimit;
+
+    /**
+     * Selector options as a bounded projection; use typeahead() to search beyond the first page.
+     */
     public List<MemberSelectorDto> getSelectorOptions() {
-        return memberRepository.findAll().stream()
-                .map(mapper::toSelectorDto)
-                .collect(Collectors.toList());
+        return memberRepository.findSelectorOptions(PageRequest.of(0, selectorLimit));
+    }
+
+    /**
+     * Prefix search over active members (database, trigram-indexed search text)
+     */
+    public List<TypeaheadOption> typeahead(String prefix, int limit) {
+        String term = ArabicTextNormalizer.normalize(prefix);
+        int boundedLimit = Math.min(Math.max(limit, 1), ReferenceTypeaheadIndex.MAX_LIMIT);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        return memberRepository.findTypeaheadOptions(term, PageRequest.of(0, boundedLimit));
     }
 
     public long count() {
         return memberRepository.count();
     }
 
+    /**
+     * Members matching the query, at most members.search.max-results, most similar first.
+     */
     public List<MemberViewDto> search(String query) {
-        return memberRepository.search(query).stream()
-                .map(member -> {
-                    List<FamilyMember> family = familyRepo.findByMemberId(member.getId());
-                    return mapper.toViewDto(member, family);
-                })
+        String term = ArabicTextNormalizer.normalize(query);
+        List<Member> members = memberRepository.search(term, PageRequest.of(0, searchLimit));
+        Map<Long, List<FamilyMember>> families = familyLoader.loadByMemberIds(idsOf(members));
+        return members.stream()
+                .map(member -> mapper.toViewDto(member, families.getOrDefault(member.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
@@ -94,6 +125,7 @@ public class MemberService {
         Member member = memberRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Member not found: " + id));
 
+        Long benefitPackageBefore = member.getBenefitPackageId();
         mapper.updateEntityFromDto(member, dto);
 
         if (dto.getInsuranceCompanyId() != null) {
@@ -104,6 +136,10 @@ public class MemberService {
 
         memberRepository.save(member);
 
+        if (!Objects.equals(benefitPackageBefore, member.getBenefitPackageId())) {
+            memberBalanceService.refreshLimit(member.getId());
+        }
+
         List<FamilyMember> existing = familyRepo.findByMemberId(member.getId());
 
         List<Long> incomingIds = dto.getFamilyMembers() != null
@@ -159,18 +195,38 @@ public class MemberService {
 
     @Transactional(readOnly = true)
     public Page<MemberViewDto> listMembers(Pageable pageable, String search) {
+        return listMembers(pageable, search, true);
+    }
+
+    /**
+     * List members with a constant number of queries per page: the page query
+     * (employer and insurance company fetched with it), its count, and one
+     * batched family query. With includeFamily=false only familyMembersCount is
+     * filled, from a grouped count query.
+     */
+    @Transactional(readOnly = true)
+    public Page<MemberViewDto> listMembers(Pageable pageable, String search, boolean includeFamily) {
         Page<Member> memberPage;
         
         if (search != null && !search.isBlank()) {
-            memberPage = memberRepository.searchPaged(search, pageable);
+            memberPage = memberRepository.searchPaged(ArabicTextNormalizer.normalize(search), pageable);
         } else {
             memberPage = memberRepository.findAll(pageable);
         }
         
-        return memberPage.map(member -> {
-            List<FamilyMember> family = familyRepo.findByMemberId(member.getId());
-            return mapper.toViewDto(member, family);
-        });
+        List<Long> memberIds = idsOf(memberPage.getContent());
+        if (includeFamily) {
+            Map<Long, List<FamilyMember>> families = familyLoader.loadByMemberIds(memberIds);
+            return memberPage.map(member -> mapper.toViewDto(member, families.getOrDefault(member.getId(), List.of())));
+        }
+        Map<Long, Integer> familyCounts = familyLoader.countByMemberIds(memberIds);
+        return memberPage.map(member -> mapper.toSummaryViewDto(member, familyCounts.getOrDefault(member.getId(), 0)));
+    }
+
+    private static List<Long> idsOf(List<Member> members) {
+        return members.stream()
+                .map(Member::getId)
+                .toList();
     }
 
     @Transactional
@@ -1,5 +1,6 @@
 package com.waad.tba.modules.policy.entity;
 
+import com.waad.tba.modules.eligibility.service.EligibilityChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -21,7 +22,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EligibilityChangeListener.class})
 public class BenefitPackage {
 
     @Id
@@ -1,5 +1,6 @@
 package com.waad.tba.modules.preauth.entity;
 
+import com.waad.tba.modules.preauth.service.PreApprovalRuleChangeListener;
 import com.waad.tba.modules.provider.entity.Provider;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -29,7 +30,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, PreApprovalRuleChangeListener.class})
 public class PreApprovalRule {
 
     @Id
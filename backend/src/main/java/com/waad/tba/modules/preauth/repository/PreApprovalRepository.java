@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -69,4 +70,11 @@ public interface PreApprovalRepository extends JpaRepository<PreApproval, Long>
     );
     
     boolean existsByApprovalNumber(String approvalNumber);
+
+    // Member balance ledger: approved amount reserved by open (unused, unexpired) approvals
+    @Query("SELECT COALESCE(SUM(pa.approvedAmount), 0) FROM PreApproval pa " +
+           "WHERE pa.member.id = :memberId AND pa.active = true AND pa.expired = false " +
+           "AND pa.status IN :statuses")
+    BigDecimal sumOpenApprovedAmountByMemberId(@Param("memberId") Long memberId,
+                                               @Param("statuses") List<PreApproval.ApprovalStatus> statuses);
 }
@@ -0,0 +1,29 @@
+package com.waad.tba.modules.preauth.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.waad.tba.modules.preauth.entity.PreApprovalRule;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JPA listener that invalidates PreApprovalRuleIndex whenever a rule is
+ * inserted, updated or deleted through JPA.
+ */
+@Component
+@RequiredArgsConstructor
+public class PreApprovalRuleChangeListener {
+
+    private final ObjectProvider<PreApprovalRuleIndex> ruleIndex;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onRuleChanged(PreApprovalRule rule) {
+        ruleIndex.ifAvailable(PreApprovalRuleIndex::invalidate);
+    }
+}
@@ -0,0 +1,252 @@
+package com.waad.tba.modules.preauth.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.waad.tba.common.cache.CacheVersions;
+import com.waad.tba.common.cache.VersionedCache;
+import com.waad.tba.modules.preauth.entity.PreApproval;
+import com.waad.tba.modules.preauth.entity.PreApprovalRule;
+import com.waad.tba.modules.preauth.repository.PreApprovalRuleRepository;
+import com.waad.tba.modules.provider.entity.Provider;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compiled index of active pre-approval rules.
+ *
+ * Rules are partitioned by provider type (plus an "any provider" partition for
+ * rules without a type) and by chronicOnly. Each partition is a prefix trie over
+ * serviceCode: exact codes are stored at their terminal node, wildcard patterns
+ * ("CPT-123*") at the node of their prefix and rules without a service code at
+ * the root. Every rule carries its rank in priority order, so a lookup walks the
+ * code once and keeps the best ranked candidate - no database round-trip.
+ *
+ * Matching semantics follow PreApprovalRule.matchesCriteria for non-null criteria.
+ * A null serviceCode / providerType is not a wildcard: it matches only rules
+ * without a service code / provider type, as the findMatchingRules query used
+ * before the index did (matchesCriteria alone would accept every rule).
+ *
+ * Rebuilt lazily after any committed change to pre_approval_rules (see
+ * PreApprovalRuleChangeListener); other nodes rebuild when the
+ * "pre-approval-rules" cache version moves (see CacheVersions).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PreApprovalRuleIndex implements VersionedCache {
+
+    private static final String CACHE_NAME = "pre-approval-rules";
+
+    private static final Comparator<PreApprovalRule> PRIORITY_ORDER = Comparator
+            .comparing((PreApprovalRule rule) -> rule.getPriority() != null ? rule.getPriority() : 0)
+            .reversed()
+            .thenComparing(PreApprovalRule::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final PreApprovalRuleRepository ruleRepository;
+    private final CacheVersions cacheVersions;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Immutable view of a matched rule.
+     */
+    public record MatchedRule(Long id,
+                              String ruleName,
+                              PreApproval.ApprovalLevel requiredApprovalLevel,
+                              boolean allowAutoApproval,
+                              BigDecimal maxAutoApproveAmount) {
+    }
+
+    private record CompiledRule(int rank, BigDecimal minAmount, MatchedRule rule) {
+
+        boolean acceptsAmount(BigDecimal amount) {
+            return minAmount == null || amount == null || amount.compareTo(minAmount) >= 0;
+        }
+    }
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private final List<CompiledRule> exact = new ArrayList<>();
+        private final List<CompiledRule> prefix = new ArrayList<>();
+    }
+
+    /**
+     * Tries per chronicOnly flag: index 0 = all members, 1 = chronic members only.
+     */
+    private record Partition(TrieNode[] tries) {
+    }
+
+    private record Snapshot(long version, Map<Provider.ProviderType, Partition> byProviderType,
+                            Partition anyProvider, int size) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        current();
+    }
+
+    /**
+     * Highest priority active rule matching the criteria, or null if none.
+     * A null serviceCode or providerType only matches rules without one.
+     */
+    public MatchedRule findFirstMatch(String serviceCode, Provider.ProviderType providerType,
+                                      BigDecimal amount, boolean hasChronic) {
+        Snapshot current = current();
+        CompiledRule best = null;
+
+        if (providerType != null) {
+            Partition typed = current.byProviderType().get(providerType);
+            if (typed != null) {
+                best = search(typed, serviceCode, amount, hasChronic, best);
+            }
+        }
+        best = search(current.anyProvider(), serviceCode, amount, hasChronic, best);
+
+        return best != null ? best.rule() : null;
+    }
+
+    @Override
+    public String cacheName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    public synchronized void onVersion(long version) {
+        if (snapshot != null && snapshot.version() != version) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Schedule a rebuild after the current transaction commits, here and
+     * (through the cache version) on every other node.
+     */
+    public void invalidate() {
+        cacheVersions.bump(CACHE_NAME);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    snapshot = null;
+                }
+            });
+        } else {
+            snapshot = null;
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    long version = cacheVersions.read(CACHE_NAME);
+                    snapshot = compile(version, ruleRepository.findByActiveTrue());
+                    log.info("Pre-approval rule index compiled: {} active rules", snapshot.size());
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private CompiledRule search(Partition partition, String serviceCode, BigDecimal amount,
+                                boolean hasChronic, CompiledRule best) {
+        best = searchTrie(partition.tries()[0], serviceCode, amount, best);
+        if (hasChronic) {
+            best = searchTrie(partition.tries()[1], serviceCode, amount, best);
+        }
+        return best;
+    }
+
+    private CompiledRule searchTrie(TrieNode root, String serviceCode, BigDecimal amount, CompiledRule best) {
+        best = pick(root.prefix, amount, best);
+        if (serviceCode == null) {
+            return best; // Only rules without a service code (see class comment)
+        }
+
+        TrieNode node = root;
+        for (int i = 0; i < serviceCode.length() && node != null; i++) {
+            node = node.children.get(serviceCode.charAt(i));
+            if (node != null) {
+                best = pick(node.prefix, amount, best);
+            }
+        }
+        if (node != null) {
+            best = pick(node.exact, amount, best);
+        }
+        return best;
+    }
+
+    private CompiledRule pick(List<CompiledRule> candidates, BigDecimal amount, CompiledRule best) {
+        // Candidates are in rank order, so the first acceptable one is the best of this list
+        for (CompiledRule candidate : candidates) {
+            if (best != null && candidate.rank() >= best.rank()) {
+                return best;
+            }
+            if (candidate.acceptsAmount(amount)) {
+                return candidate;
+            }
+        }
+        return best;
+    }
+
+    private Snapshot compile(long version, List<PreApprovalRule> rules) {
+        List<PreApprovalRule> ordered = new ArrayList<>(rules);
+        ordered.sort(PRIORITY_ORDER);
+
+        Map<Provider.ProviderType, Partition> byProviderType = new EnumMap<>(Provider.ProviderType.class);
+        Partition anyProvider = newPartition();
+
+        for (int rank = 0; rank < ordered.size(); rank++) {
+            PreApprovalRule rule = ordered.get(rank);
+            CompiledRule compiled = new CompiledRule(rank, rule.getMinAmount(), new MatchedRule(
+                    rule.getId(),
+                    rule.getRuleName(),
+                    rule.getRequiredApprovalLevel(),
+                    Boolean.TRUE.equals(rule.getAllowAutoApproval()),
+                    rule.getMaxAutoApproveAmount()));
+
+            Partition partition = rule.getProviderType() != null
+                    ? byProviderType.computeIfAbsent(rule.getProviderType(), type -> newPartition())
+                    : anyProvider;
+            TrieNode root = partition.tries()[Boolean.TRUE.equals(rule.getChronicOnly()) ? 1 : 0];
+            insert(root, rule.getServiceCode(), compiled);
+        }
+
+        return new Snapshot(version, byProviderType, anyProvider, ordered.size());
+    }
+
+    private void insert(TrieNode root, String pattern, CompiledRule rule) {
+        if (pattern == null) {
+            root.prefix.add(rule);
+            return;
+        }
+
+        boolean wildcard = pattern.endsWith("*");
+        String path = wildcard ? pattern.substring(0, pattern.length() - 1) : pattern;
+
+        TrieNode node = root;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.children.computeIfAbsent(path.charAt(i), c -> new TrieNode());
+        }
+        (wildcard ? node.prefix : node.exact).add(rule);
+    }
+
+    private static Partition newPartition() {
+        return new Partition(new TrieNode[] { new TrieNode(), new TrieNode() });
+    }
+}
@@ -1,7 +1,10 @@
 package com.waad.tba.modules.preauth.service;
 
+import com.waad.tba.common.numbering.DocumentNumberService;
+import com.waad.tba.common.numbering.DocumentNumberType;
 import com.waad.tba.modules.member.entity.Member;
 import com.waad.tba.modules.member.repository.MemberRepository;
+import com.waad.tba.modules.member.service.MemberBalanceService;
 import com.waad.tba.modules.preauth.entity.*;
 import com.waad.tba.modules.preauth.repository.*;
 import com.waad.tba.modules.provider.entity.Provider;
@@ -13,7 +16,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,11 +33,13 @@ import java.util.Optional;
 public class PreApprovalService {
 
     private final PreApprovalRepository preApprovalRepository;
-    private final PreApprovalRuleRepository ruleRepository;
+    private final PreApprovalRuleIndex ruleIndex;
     private final MemberChronicConditionRepository memberChronicRepository;
     private final ChronicConditionRepository chronicConditionRepository;
     private final MemberRepository memberRepository;
     private final ProviderRepository providerRepository;
+    private final MemberBalanceService memberBalanceService;
+    private final DocumentNumberService documentNumberService;
 
     /**
      * Check if pre-approval is required for a service
@@ -46,6 +50,16 @@ public class PreApprovalService {
             String serviceCode,
             Long providerId,
             BigDecimal amount) {
+        return checkIfApprovalRequired(memberId, serviceCode, providerId, amount,
+            calculateMemberRemainingBalance(memberId));
+    }
+
+    private PreApprovalRequirement checkIfApprovalRequired(
+            Long memberId,
+            String serviceCode,
+            Long providerId,
+            BigDecimal amount,
+            BigDecimal remainingBalance) {
 
         log.info("Checking pre-approval requirement for member: {}, service: {}, amount: {}",
                 memberId, serviceCode, amount);
@@ -74,10 +88,6 @@ public class PreApprovalService {
         List<MemberChronicCondition> activeConditions = 
             memberChronicRepository.findActiveConditionsForMember(memberId, LocalDate.now());
 
-        // Get matching rules
-        List<PreApprovalRule> rules = ruleRepository.findMatchingRules(
-            serviceCode, provider.getProviderType());
-
         PreApprovalRequirement requirement = new PreApprovalRequirement();
         requirement.setRequired(false);
         requirement.setMemberId(memberId);
@@ -85,22 +95,20 @@ public class PreApprovalService {
         requirement.setProviderId(providerId);
         requirement.setAmount(amount);
 
-        // Check rules
-        for (PreApprovalRule rule : rules) {
-            if (rule.matchesCriteria(serviceCode, provider.getProviderType(), amount, hasChronic)) {
-                requirement.setRequired(true);
-                requirement.setReason("Matches rule: " + rule.getRuleName());
-                requirement.setRequiredLevel(rule.getRequiredApprovalLevel());
-                requirement.setAllowAutoApproval(rule.getAllowAutoApproval());
-                
-                // Check if can be auto-approved
-                if (rule.getAllowAutoApproval() && 
-                    rule.getMaxAutoApproveAmount() != null &&
-                    amount.compareTo(rule.getMaxAutoApproveAmount()) <= 0) {
-                    requirement.setCanAutoApprove(true);
-                }
-                
-                break;
+        // Highest priority matching rule from the compiled index (no DB round-trip)
+        PreApprovalRuleIndex.MatchedRule rule = ruleIndex.findFirstMatch(
+            serviceCode, provider.getProviderType(), amount, hasChronic);
+        if (rule != null) {
+            requirement.setRequired(true);
+            requirement.setReason("Matches rule: " + rule.ruleName());
+            requirement.setRequiredLevel(rule.requiredApprovalLevel());
+            requirement.setAllowAutoApproval(rule.allowAutoApproval());
+
+            // Check if can be auto-approved
+            if (rule.allowAutoApproval() &&
+                rule.maxAutoApproveAmount() != null &&
+                amount.compareTo(rule.maxAutoApproveAmount()) <= 0) {
+                requirement.setCanAutoApprove(true);
             }
         }
 
@@ -116,7 +124,6 @@ public class PreApprovalService {
         }
 
         // Check if amount exceeds member balance
-        BigDecimal remainingBalance = calculateMemberRemainingBalance(memberId);
         if (amount.compareTo(remainingBalance) > 0) {
             requirement.setRequired(true);
             requirement.setExceedLimit(true);
@@ -144,6 +151,7 @@ public class PreApprovalService {
 
         // Generate approval number
         String approvalNumber = generateApprovalNumber();
+        BigDecimal remainingBalance = calculateMemberRemainingBalance(member.getId());
 
         PreApproval preApproval = PreApproval.builder()
                 .approvalNumber(approvalNumber)
@@ -156,7 +164,7 @@ public class PreApprovalService {
                 .diagnosisCode(request.getDiagnosisCode())
                 .diagnosisDescription(request.getDiagnosisDescription())
                 .requestedAmount(request.getRequestedAmount())
-                .memberRemainingBalance(calculateMemberRemainingBalance(member.getId()))
+                .memberRemainingBalance(remainingBalance)
                 .requestDate(LocalDate.now())
                 .expectedServiceDate(request.getExpectedServiceDate())
                 .requestReason(request.getRequestReason())
@@ -174,9 +182,10 @@ public class PreApprovalService {
         // Check if can be auto-approved
         PreApprovalRequirement requirement = checkIfApprovalRequired(
             request.getMemberId(), request.getServiceCode(), 
-            request.getProviderId(), request.getRequestedAmount());
+            request.getProviderId(), request.getRequestedAmount(), remainingBalance);
 
-        if (requirement.isCanAutoApprove()) {
+        // Never auto-approve beyond the member's remaining balance
+        if (requirement.isCanAutoApprove() && !requirement.isExceedLimit()) {
             preApproval.setAutoApproved(true);
             preApproval.setStatus(PreApproval.ApprovalStatus.APPROVED);
             preApproval.setApprovedAmount(request.getRequestedAmount());
@@ -187,7 +196,9 @@ public class PreApprovalService {
             preApproval.setRequiredLevel(requirement.getRequiredLevel());
         }
 
-        return preApprovalRepository.save(preApproval);
+        PreApproval saved = preApprovalRepository.save(preApproval);
+        applyBalanceChange(saved, BigDecimal.ZERO);
+        return saved;
     }
 
     /**
@@ -208,13 +219,16 @@ public class PreApprovalService {
                 preApproval.getStatus());
         }
 
+        BigDecimal reservedBefore = MemberBalanceService.reservedAmountOf(preApproval);
         preApproval.setStatus(PreApproval.ApprovalStatus.APPROVED);
         preApproval.setApprovedAmount(approvedAmount);
         preApproval.setMedicalReviewNotes(notes);
         preApproval.setValidFrom(LocalDate.now());
         preApproval.setValidUntil(LocalDate.now().plusDays(30)); // Default 30 days validity
 
-        return preApprovalRepository.save(preApproval);
+        PreApproval saved = preApprovalRepository.save(preApproval);
+        applyBalanceChange(saved, reservedBefore);
+        return saved;
     }
 
     /**
@@ -227,10 +241,13 @@ public class PreApprovalService {
         PreApproval preApproval = preApprovalRepository.findById(approvalId)
                 .orElseThrow(() -> new RuntimeException("Pre-approval not found"));
 
+        BigDecimal reservedBefore = MemberBalanceService.reservedAmountOf(preApproval);
         preApproval.setStatus(PreApproval.ApprovalStatus.REJECTED);
         preApproval.setRejectionReason(reason);
 
-        return preApprovalRepository.save(preApproval);
+        PreApproval saved = preApprovalRepository.save(preApproval);
+        applyBalanceChange(saved, reservedBefore);
+        return saved;
     }
 
     /**
@@ -266,8 +283,10 @@ public class PreApprovalService {
         List<PreApproval> expired = preApprovalRepository.findExpiredApprovals(LocalDate.now());
         
         for (PreApproval pa : expired) {
+            BigDecimal reservedBefore = MemberBalanceService.reservedAmountOf(pa);
             pa.setExpired(true);
             pa.setStatus(PreApproval.ApprovalStatus.EXPIRED);
+            applyBalanceChange(pa, reservedBefore);
         }
         
         preApprovalRepository.saveAll(expired);
@@ -275,25 +294,29 @@ public class PreApprovalService {
     }
 
     /**
-     * Calculate member remaining balance
-     * This is a simplified version - actual implementation should consider:
-     * - Policy limits
-     * - Used amounts from claims
-     * - Extra limits from chronic conditions
+     * Calculate member remaining balance from the member balance ledger
+     * (benefit package limit - approved claims - open approvals)
      */
     private BigDecimal calculateMemberRemainingBalance(Long memberId) {
-        // TODO: Implement actual balance calculation
-        // For now, return a default value
-        return BigDecimal.valueOf(10000);
+        return memberBalanceService.getRemainingBalance(memberId);
+    }
+
+    /**
+     * Report the approval's reservation change to the member balance ledger.
+     * EXCEED_LIMIT approvals are allowed to go beyond the remaining balance.
+     */
+    private void applyBalanceChange(PreApproval preApproval, BigDecimal reservedBefore) {
+        BigDecimal reservedAfter = MemberBalanceService.reservedAmountOf(preApproval);
+        memberBalanceService.applyDelta(preApproval.getMember().getId(), BigDecimal.ZERO,
+            reservedAfter.subtract(reservedBefore),
+            preApproval.getType() != PreApproval.ApprovalType.EXCEED_LIMIT);
     }
 
     /**
-     * Generate unique approval number
+     * Generate unique approval number (PA-yyyyMMdd-NNNNNN)
      */
     private String generateApprovalNumber() {
-        String date = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long count = preApprovalRepository.count() + 1;
-        return String.format("PA-%s-%06d", date, count);
+        return documentNumberService.next(DocumentNumberType.PRE_APPROVAL);
     }
 
     // Inner classes for request/response
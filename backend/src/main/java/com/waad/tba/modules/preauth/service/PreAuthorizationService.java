@@ -1,5 +1,7 @@
 package com.waad.tba.modules.preauth.service;
 
+import com.waad.tba.common.numbering.DocumentNumberService;
+import com.waad.tba.common.numbering.DocumentNumberType;
 import com.waad.tba.modules.member.entity.Member;
 import com.waad.tba.modules.member.repository.MemberRepository;
 import com.waad.tba.modules.preauth.dto.ApprovePreAuthDto;
@@ -27,6 +29,7 @@ public class PreAuthorizationService {
     private final PreAuthorizationRepository preAuthRepository;
     private final MemberRepository memberRepository;
     private final UserRepository userRepository;
+    private final DocumentNumberService documentNumberService;
 
     @Transactional(readOnly = true)
     public List<PreAuthorizationDto> getAllPreAuthorizations() {
@@ -238,7 +241,7 @@ public class PreAuthorizationService {
     }
 
     private String generatePreAuthNumber() {
-        return "PA-" + System.currentTimeMillis();
+        return documentNumberService.next(DocumentNumberType.PRE_AUTHORIZATION);
     }
 
     private PreAuthorizationDto toDto(PreAuthorization entity) {
@@ -26,6 +26,12 @@ public interface ProviderContractRepository extends JpaRepository<ProviderContra
            "WHERE pc.provider.id = :providerId AND pc.active = true")
     List<ProviderContract> findByProviderId(@Param("providerId") Long providerId);
 
+    // Claim adjudication tariff tables
+    @Query("SELECT pc FROM ProviderContract pc " +
+           "JOIN FETCH pc.provider " +
+           "WHERE pc.active = true")
+    List<ProviderContract> findAllActiveWithProvider();
+
     @Query("SELECT COUNT(pc) FROM ProviderContract pc WHERE pc.active = true")
     long countActive();
 
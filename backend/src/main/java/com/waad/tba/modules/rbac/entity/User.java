@@ -75,6 +75,15 @@ public class User {
     @Column(name = "company_id")
     private Long companyId;
 
+    /**
+     * Token version - embedded in every issued JWT.
+     * Bumped whenever the user is deactivated, deleted, has roles changed or
+     * password reset, which invalidates all previously issued tokens.
+     */
+    @Column(name = "token_version")
+    @Builder.Default
+    private Long tokenVersion = 0L;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "user_roles",
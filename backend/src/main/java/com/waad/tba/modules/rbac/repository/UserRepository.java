@@ -3,6 +3,7 @@ package com.waad.tba.modules.rbac.repository;
 import com.waad.tba.modules.rbac.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -22,4 +23,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> searchUsers(String query);
     
     Optional<User> findByUsernameOrEmail(String username, String email);
+
+    /**
+     * Lightweight token state lookup (no role/permission joins).
+     * Used by the JWT filter to verify that a token has not been revoked.
+     */
+    @Query("SELECT u.id AS id, u.active AS active, u.tokenVersion AS tokenVersion " +
+           "FROM User u WHERE u.username = :username")
+    Optional<TokenState> findTokenStateByUsername(@Param("username") String username);
+
+    interface TokenState {
+        Long getId();
+        Boolean getActive();
+        Long getTokenVersion();
+    }
 }
@@ -6,6 +6,7 @@ import com.waad.tba.modules.rbac.dto.PermissionResponseDto;
 import com.waad.tba.modules.rbac.entity.Permission;
 import com.waad.tba.modules.rbac.mapper.PermissionMapper;
 import com.waad.tba.modules.rbac.repository.PermissionRepository;
+import com.waad.tba.security.CompiledPermissionMatrix;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -23,6 +24,7 @@ public class PermissionService {
 
     private final PermissionRepository permissionRepository;
     private final PermissionMapper permissionMapper;
+    private final CompiledPermissionMatrix compiledPermissionMatrix;
 
     @Transactional(readOnly = true)
     public List<PermissionResponseDto> findAll() {
@@ -50,6 +52,7 @@ public class PermissionService {
 
         Permission permission = permissionMapper.toEntity(dto);
         Permission savedPermission = permissionRepository.save(permission);
+        compiledPermissionMatrix.invalidate();
         
         log.info("Permission created successfully with id: {}", savedPermission.getId());
         return permissionMapper.toResponseDto(savedPermission);
@@ -69,6 +72,7 @@ public class PermissionService {
 
         permissionMapper.updateEntityFromDto(permission, dto);
         Permission updatedPermission = permissionRepository.save(permission);
+        compiledPermissionMatrix.invalidate();
         
         log.info("Permission updated successfully: {}", id);
         return permissionMapper.toResponseDto(updatedPermission);
@@ -83,6 +87,7 @@ public class PermissionService {
         }
         
         permissionRepository.deleteById(id);
+        compiledPermissionMatrix.invalidate();
         log.info("Permission deleted successfully: {}", id);
     }
 
@@ -7,6 +7,7 @@ import com.waad.tba.modules.rbac.entity.Role;
 import com.waad.tba.modules.rbac.mapper.RoleMapper;
 import com.waad.tba.modules.rbac.repository.PermissionRepository;
 import com.waad.tba.modules.rbac.repository.RoleRepository;
+import com.waad.tba.security.CompiledPermissionMatrix;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -27,6 +28,7 @@ public class RoleService {
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final RoleMapper roleMapper;
+    private final CompiledPermissionMatrix compiledPermissionMatrix;
 
     @Transactional(readOnly = true)
     public List<RoleResponseDto> findAll() {
@@ -54,6 +56,7 @@ public class RoleService {
 
         Role role = roleMapper.toEntity(dto);
         Role savedRole = roleRepository.save(role);
+        compiledPermissionMatrix.invalidate();
         
         log.info("Role created successfully with id: {}", savedRole.getId());
         return roleMapper.toResponseDto(savedRole);
@@ -73,6 +76,7 @@ public class RoleService {
 
         roleMapper.updateEntityFromDto(role, dto);
         Role updatedRole = roleRepository.save(role);
+        compiledPermissionMatrix.invalidate();
         
         log.info("Role updated successfully: {}", id);
         return roleMapper.toResponseDto(updatedRole);
@@ -87,6 +91,7 @@ public class RoleService {
         }
         
         roleRepository.deleteById(id);
+        compiledPermissionMatrix.invalidate();
         log.info("Role deleted successfully: {}", id);
     }
 
@@ -121,6 +126,7 @@ public class RoleService {
 
         role.setPermissions(permissions);
         Role updatedRole = roleRepository.save(role);
+        compiledPermissionMatrix.invalidate();
         
         log.info("Permissions assigned successfully to role: {}", roleId);
         return roleMapper.toResponseDto(updatedRole);
@@ -7,6 +7,7 @@ import com.waad.tba.modules.rbac.entity.User;
 import com.waad.tba.modules.rbac.mapper.UserMapper;
 import com.waad.tba.modules.rbac.repository.RoleRepository;
 import com.waad.tba.modules.rbac.repository.UserRepository;
+import com.waad.tba.security.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -17,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -29,6 +31,7 @@ public class UserService {
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
 
     @Transactional(readOnly = true)
     public List<UserResponseDto> findAll() {
@@ -83,7 +86,11 @@ public class UserService {
             throw new IllegalArgumentException("Email already exists");
         }
 
+        Boolean wasActive = user.getActive();
         userMapper.updateEntityFromDto(user, dto);
+        if (!Objects.equals(wasActive, user.getActive())) {
+            tokenRevocationService.revokeTokens(user);
+        }
         User updatedUser = userRepository.save(user);
         
         log.info("User updated successfully: {}", id);
@@ -98,6 +105,7 @@ public class UserService {
             throw new ResourceNotFoundException("User", "id", id);
         }
         
+        userRepository.findById(id).ifPresent(user -> tokenRevocationService.evict(user.getUsername()));
         userRepository.deleteById(id);
         log.info("User deleted successfully: {}", id);
     }
@@ -132,6 +140,7 @@ public class UserService {
         }
 
         user.setRoles(roles);
+        tokenRevocationService.revokeTokens(user);
         User updatedUser = userRepository.save(user);
         
         log.info("Roles assigned successfully to user: {}", userId);
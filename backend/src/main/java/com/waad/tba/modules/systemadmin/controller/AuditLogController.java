@@ -2,17 +2,26 @@ package com.waad.tba.modules.systemadmin.controller;
 
 import com.waad.tba.common.dto.ApiResponse;
 import com.waad.tba.modules.systemadmin.entity.AuditLog;
+import com.waad.tba.modules.systemadmin.service.AuditExportFormat;
+import com.waad.tba.modules.systemadmin.service.AuditLogExportService;
 import com.waad.tba.modules.systemadmin.service.AuditLogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,6 +34,10 @@ import java.util.List;
 public class AuditLogController {
 
     private final AuditLogService auditLogService;
+    private final AuditLogExportService auditLogExportService;
+
+    @Value("${audit.export.timeout:30m}")
+    private Duration exportTimeout;
 
     @GetMapping
     @Operation(summary = "Get all audit logs")
@@ -54,6 +67,29 @@ public class AuditLogController {
         return ApiResponse.success("Entity audit logs retrieved", logs);
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export audit logs", description = "Streams audit logs of [from, to) as CSV or NDJSON, optionally filtered by user, action and entity")
+    public WebAsyncTask<Void> exportAuditLogs(
+            @RequestParam(defaultValue = "CSV") AuditExportFormat format,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            HttpServletResponse response) {
+        AuditLogExportService.validateRange(from, to);
+        String fileName = "audit-logs-" + from.toLocalDate() + "-" + to.toLocalDate() + "." + format.getExtension();
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        response.setContentType(format.getContentType());
+        // Streamed on an async thread with its own timeout: a quarter's export outlasts the default
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            auditLogExportService.export(format, from, to, userId, action, entityType, entityId,
+                    response.getOutputStream());
+            return null;
+        });
+    }
+
     @GetMapping("/actions")
     @Operation(summary = "Get all action types")
     public ApiResponse<List<String>> getAllActionTypes() {
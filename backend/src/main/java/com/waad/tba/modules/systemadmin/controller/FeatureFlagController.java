@@ -3,6 +3,8 @@ package com.waad.tba.modules.systemadmin.controller;
 import com.waad.tba.common.dto.ApiResponse;
 import com.waad.tba.modules.systemadmin.dto.FeatureFlagDto;
 import com.waad.tba.modules.systemadmin.service.FeatureFlagService;
+import com.waad.tba.security.AuthorizationService;
+import com.waad.tba.security.ResolvedPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,6 +17,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/features")
@@ -26,6 +29,7 @@ import java.util.List;
 public class FeatureFlagController {
 
     private final FeatureFlagService featureFlagService;
+    private final AuthorizationService authorizationService;
 
     @GetMapping
     @Operation(summary = "Get all feature flags")
@@ -38,6 +42,16 @@ public class FeatureFlagController {
         return ApiResponse.success("Feature flags retrieved", flags);
     }
 
+    @GetMapping("/evaluate")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Evaluate all feature flags for the current user",
+               description = "Returns flagKey -> enabled for the current user's roles in a single call")
+    public ApiResponse<Map<String, Boolean>> evaluateFeatureFlags() {
+        ResolvedPrincipal principal = authorizationService.getCurrentPrincipal();
+        List<String> roles = principal != null ? principal.getRoleNames() : List.of();
+        return ApiResponse.success("Feature flags evaluated", featureFlagService.evaluateAll(roles));
+    }
+
     @GetMapping("/{key}")
     @Operation(summary = "Get feature flag by key")
     public ApiResponse<FeatureFlagDto> getFeatureFlagByKey(@PathVariable String key) {
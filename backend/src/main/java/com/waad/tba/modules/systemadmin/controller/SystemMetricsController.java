@@ -0,0 +1,70 @@
+package com.waad.tba.modules.systemadmin.controller;
+
+import java.util.Map;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.waad.tba.common.dto.ApiResponse;
+import com.waad.tba.modules.eligibility.service.EligibilityService;
+import com.waad.tba.modules.systemadmin.service.AuditLogWriter;
+import com.waad.tba.security.ResolvedPrincipalCache;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * System Metrics Controller
+ *
+ * Exposes runtime statistics of in-memory caches and pipelines.
+ * Base path: /api/admin/metrics
+ */
+@RestController
+@RequestMapping("/api/admin/metrics")
+@Tag(name = "System Metrics", description = "Runtime cache and pipeline statistics")
+@Slf4j
+@RequiredArgsConstructor
+@PreAuthorize("hasAuthority('MANAGE_SYSTEM_SETTINGS')")
+public class SystemMetricsController {
+
+    private final ResolvedPrincipalCache principalCache;
+    private final AuditLogWriter auditLogWriter;
+    private final EligibilityService eligibilityService;
+
+    /**
+     * GET /api/admin/metrics/principal-cache
+     * Resolved principal cache statistics (size, hits, misses, hit rate)
+     */
+    @GetMapping("/principal-cache")
+    @Operation(summary = "Principal cache statistics", description = "Hit rate and size of the resolved principal cache")
+    public ApiResponse<Map<String, Object>> getPrincipalCacheStats() {
+        log.debug("GET /api/admin/metrics/principal-cache");
+        return ApiResponse.success("Principal cache statistics retrieved", principalCache.getStats());
+    }
+
+    /**
+     * GET /api/admin/metrics/audit-writer
+     * Async audit writer statistics (queue depth, written, backpressure, dropped, failed)
+     */
+    @GetMapping("/audit-writer")
+    @Operation(summary = "Audit writer statistics", description = "Queue depth, batch and backpressure / drop counters of the async audit log writer")
+    public ApiResponse<Map<String, Object>> getAuditWriterStats() {
+        log.debug("GET /api/admin/metrics/audit-writer");
+        return ApiResponse.success("Audit writer statistics retrieved", auditLogWriter.getStats());
+    }
+
+    /**
+     * GET /api/admin/metrics/eligibility-index
+     * Eligibility index statistics (entries, rebuilds, lookups, p50 / p99 lookup latency)
+     */
+    @GetMapping("/eligibility-index")
+    @Operation(summary = "Eligibility index statistics", description = "Size, rebuild and lookup latency statistics of the in-memory eligibility index")
+    public ApiResponse<Map<String, Object>> getEligibilityIndexStats() {
+        log.debug("GET /api/admin/metrics/eligibility-index");
+        return ApiResponse.success("Eligibility index statistics retrieved", eligibilityService.getStats());
+    }
+}
@@ -0,0 +1,33 @@
+package com.waad.tba.modules.systemadmin.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Audit Entity Type
+ * Phase 2 - System Administration
+ *
+ * Dictionary of entity types seen in audit_logs (e.g. User, VISIT),
+ * maintained by AuditTypeDictionary so filters never scan the audit table.
+ */
+@Entity
+@Table(name = "audit_entity_types")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEntityType {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(name = "first_seen_at", nullable = false)
+    private LocalDateTime firstSeenAt;
+}
@@ -20,12 +20,15 @@ import lombok.NoArgsConstructor;
  * 
  * Comprehensive tracking of all system actions.
  * Used by SUPER_ADMIN to monitor user activities.
+ *
+ * Stored in monthly range partitions on timestamp with a BRIN index on timestamp
+ * (see V26 migration and AuditLogPartitionService). Action / entity type values
+ * are also kept in the audit_action_types / audit_entity_types dictionaries.
  */
 @Entity
 @Table(name = "audit_logs", indexes = {
-    @Index(name = "idx_user", columnList = "user_id"),
-    @Index(name = "idx_entity", columnList = "entity_type,entity_id"),
-    @Index(name = "idx_timestamp", columnList = "timestamp")
+    @Index(name = "idx_user", columnList = "user_id,timestamp"),
+    @Index(name = "idx_entity", columnList = "entity_type,entity_id,timestamp")
 })
 @Data
 @Builder
@@ -2,15 +2,22 @@ package com.waad.tba.modules.systemadmin.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.waad.tba.modules.systemadmin.entity.AuditLog;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repository for Audit Log Entity
  * Phase 2 - System Administration
@@ -47,17 +54,39 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     );
     
     /**
-     * Get distinct action types
+     * Get distinct action types (dictionary, see AuditTypeDictionary)
      */
-    @Query("SELECT DISTINCT a.action FROM AuditLog a ORDER BY a.action")
+    @Query("SELECT t.name FROM AuditActionType t ORDER BY t.name")
     List<String> findDistinctActions();
     
     /**
-     * Get distinct entity types
+     * Get distinct entity types (dictionary, see AuditTypeDictionary)
      */
-    @Query("SELECT DISTINCT a.entityType FROM AuditLog a WHERE a.entityType IS NOT NULL ORDER BY a.entityType")
+    @Query("SELECT t.name FROM AuditEntityType t ORDER BY t.name")
     List<String> findDistinctEntityTypes();
     
+    /**
+     * Cursor over audit logs of a time range for streaming export (see AuditLogExportService).
+     * Read-only entities, fetched in blocks of 1000 rows; the caller must close the stream.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AuditLog a " +
+           "WHERE a.timestamp >= :from AND a.timestamp < :to " +
+           "AND (:userId IS NULL OR a.userId = :userId) " +
+           "AND (:action IS NULL OR a.action = :action) " +
+           "AND (:entityType IS NULL OR a.entityType = :entityType) " +
+           "AND (:entityId IS NULL OR a.entityId = :entityId) " +
+           "ORDER BY a.timestamp, a.id")
+    Stream<AuditLog> streamForExport(@Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("userId") Long userId,
+                                     @Param("action") String action,
+                                     @Param("entityType") String entityType,
+                                     @Param("entityId") Long entityId);
+
     /**
      * Count logs by user
      */
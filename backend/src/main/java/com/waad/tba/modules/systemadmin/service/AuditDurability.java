@@ -0,0 +1,19 @@
+package com.waad.tba.modules.systemadmin.service;
+
+/**
+ * How an audit entry is written.
+ */
+public enum AuditDurability {
+
+    /**
+     * Saved in the caller's transaction: the entry commits or rolls back with the
+     * audited change. Use for security and administration events.
+     */
+    SYNC,
+
+    /**
+     * Queued and written in batches by AuditLogWriter after the call returns.
+     * Entries still queued are lost if the process dies. Use for read / access events.
+     */
+    ASYNC
+}
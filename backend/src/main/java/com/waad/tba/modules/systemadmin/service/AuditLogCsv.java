@@ -0,0 +1,70 @@
+package com.waad.tba.modules.systemadmin.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import com.waad.tba.modules.systemadmin.entity.AuditLog;
+
+/**
+ * CSV layout of audit log rows (RFC 4180 quoting), shared by archival and export.
+ */
+public final class AuditLogCsv {
+
+    public static final String COLUMNS =
+            "id, timestamp, user_id, username, action, entity_type, entity_id, details, ip_address, user_agent";
+
+    public static final String HEADER =
+            "id,timestamp,user_id,username,action,entity_type,entity_id,details,ip_address,user_agent";
+
+    private AuditLogCsv() {
+    }
+
+    /**
+     * Map a row selected with COLUMNS.
+     */
+    public static AuditLog fromRow(ResultSet rs) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp("timestamp");
+        return AuditLog.builder()
+                .id(rs.getLong("id"))
+                .timestamp(timestamp != null ? timestamp.toLocalDateTime() : null)
+                .userId(rs.getObject("user_id", Long.class))
+                .username(rs.getString("username"))
+                .action(rs.getString("action"))
+                .entityType(rs.getString("entity_type"))
+                .entityId(rs.getObject("entity_id", Long.class))
+                .details(rs.getString("details"))
+                .ipAddress(rs.getString("ip_address"))
+                .userAgent(rs.getString("user_agent"))
+                .build();
+    }
+
+    /**
+     * One CSV line (without line terminator).
+     */
+    public static String toLine(AuditLog entry) {
+        StringBuilder line = new StringBuilder(128);
+        append(line, entry.getId()).append(',');
+        append(line, entry.getTimestamp()).append(',');
+        append(line, entry.getUserId()).append(',');
+        append(line, entry.getUsername()).append(',');
+        append(line, entry.getAction()).append(',');
+        append(line, entry.getEntityType()).append(',');
+        append(line, entry.getEntityId()).append(',');
+        append(line, entry.getDetails()).append(',');
+        append(line, entry.getIpAddress()).append(',');
+        append(line, entry.getUserAgent());
+        return line.toString();
+    }
+
+    private static StringBuilder append(StringBuilder line, Object value) {
+        if (value == null) {
+            return line;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return line.append(text);
+        }
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
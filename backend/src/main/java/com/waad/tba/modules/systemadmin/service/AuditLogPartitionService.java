@@ -0,0 +1,210 @@
+package com.waad.tba.modules.systemadmin.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Audit Log Partition Service
+ *
+ * Maintains the monthly range partitions of audit_logs (see V26 migration):
+ * - creates the partitions of the current and the next audit.partitions.months-ahead
+ *   months, so inserts never land in the default partition
+ * - archives partitions older than audit.retention.months: the rows are streamed
+ *   to a gzip CSV file in audit.retention.archive-dir, the row count is verified,
+ *   then the partition is detached and dropped
+ *
+ * Does nothing (besides a warning) when audit_logs is not partitioned.
+ */
+@Slf4j
+@Service
+public class AuditLogPartitionService {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_logs_(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final int FETCH_SIZE = 2000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final boolean retentionEnabled;
+    private final Path archiveDir;
+
+    public AuditLogPartitionService(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${audit.partitions.months-ahead:3}") int monthsAhead,
+                                    @Value("${audit.retention.months:24}") int retentionMonths,
+                                    @Value("${audit.retention.enabled:true}") boolean retentionEnabled,
+                                    @Value("${audit.retention.archive-dir:./archive/audit-logs}") String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.monthsAhead = Math.max(1, monthsAhead);
+        this.retentionMonths = Math.max(1, retentionMonths);
+        this.retentionEnabled = retentionEnabled;
+        this.archiveDir = Paths.get(archiveDir);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            ensurePartitions();
+        } catch (RuntimeException e) {
+            log.warn("Audit log partitions could not be prepared: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${audit.retention.cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!ensurePartitions() || !retentionEnabled) {
+            return;
+        }
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        for (String partition : partitionNames()) {
+            Optional<YearMonth> month = monthOf(partition);
+            if (month.isPresent() && month.get().isBefore(oldestKept)) {
+                try {
+                    archive(partition);
+                } catch (RuntimeException e) {
+                    log.error("Audit log partition {} could not be archived: {}", partition, e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Create missing monthly partitions; false when audit_logs is not partitioned.
+     */
+    public boolean ensurePartitions() {
+        if (!isPartitioned()) {
+            log.warn("audit_logs is not partitioned (apply V26 migration); partition maintenance skipped");
+            return false;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            LocalDate from = month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                    + " PARTITION OF audit_logs FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        }
+        return true;
+    }
+
+    /**
+     * Export one partition to a gzip CSV file, then detach and drop it.
+     */
+    public void archive(String partition) {
+        if (!PARTITION_NAME.matcher(partition).matches()) {
+            throw new IllegalArgumentException("Not an audit log partition: " + partition);
+        }
+        long expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partition, Long.class);
+        Path target = archiveDir.resolve(partition + ".csv.gz");
+        long exported = export(partition, target);
+        if (exported != expected) {
+            throw new IllegalStateException("Archived " + exported + " of " + expected + " rows of " + partition);
+        }
+
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE audit_logs DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        });
+        log.info("Audit log partition {} archived to {} ({} rows) and dropped", partition, target, exported);
+    }
+
+    private long export(String partition, Path target) {
+        try {
+            Files.createDirectories(archiveDir);
+            Path temp = Files.createTempFile(archiveDir, partition, ".tmp");
+            try {
+                long rows;
+                try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+                    out.write(AuditLogCsv.HEADER);
+                    out.write('\n');
+                    // Cursor-based read needs a transaction (PostgreSQL fetch size)
+                    rows = transaction.execute(status -> streamRows(partition, out));
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return rows;
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Audit archive " + target + " could not be written", e);
+        }
+    }
+
+    private long streamRows(String partition, Writer out) {
+        long[] rows = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT " + AuditLogCsv.COLUMNS + " FROM " + partition + " ORDER BY timestamp, id");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            try {
+                out.write(AuditLogCsv.toLine(AuditLogCsv.fromRow(rs)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT COALESCE((SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass('audit_logs')), false)",
+                Boolean.class);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass('audit_logs') ORDER BY c.relname", String.class);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "audit_logs_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static Optional<YearMonth> monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+}
@@ -4,6 +4,7 @@ import com.waad.tba.modules.systemadmin.entity.AuditLog;
 import com.waad.tba.modules.systemadmin.repository.AuditLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -24,6 +25,12 @@ import java.util.List;
 public class AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditTypeDictionary auditTypeDictionary;
+
+    // false writes ASYNC entries synchronously as well (troubleshooting)
+    @Value("${audit.writer.async-enabled:true}")
+    private boolean asyncEnabled;
 
     /**
      * Get all audit logs (paginated)
@@ -90,12 +97,23 @@ public class AuditLogService {
     }
 
     /**
-     * Create audit log entry
+     * Create audit log entry in the caller's transaction (SYNC)
      */
     @Transactional
     public void createAuditLog(String action, String entityType, Long entityId, 
                                String details, Long userId, String username, 
                                String ipAddress, String userAgent) {
+        createAuditLog(action, entityType, entityId, details, userId, username, ipAddress, userAgent,
+                AuditDurability.SYNC);
+    }
+
+    /**
+     * Create audit log entry with the given durability (see AuditDurability).
+     * SYNC entries join the caller's transaction through the repository.
+     */
+    public void createAuditLog(String action, String entityType, Long entityId,
+                               String details, Long userId, String username,
+                               String ipAddress, String userAgent, AuditDurability durability) {
         AuditLog auditLog = AuditLog.builder()
                 .action(action)
                 .entityType(entityType)
@@ -107,6 +125,14 @@ public class AuditLogService {
                 .userAgent(userAgent)
                 .build();
 
+        auditTypeDictionary.register(action, entityType);
+
+        if (durability == AuditDurability.ASYNC && asyncEnabled) {
+            auditLogWriter.enqueue(auditLog);
+            log.debug("Audit log queued: {} by {}", action, username);
+            return;
+        }
+
         auditLogRepository.save(auditLog);
         log.debug("Audit log created: {} by {}", action, username);
     }
@@ -0,0 +1,226 @@
+package com.waad.tba.modules.systemadmin.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.waad.tba.modules.systemadmin.entity.AuditLog;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Audit Log Writer
+ *
+ * Background writer for ASYNC audit entries. Callers enqueue into a bounded
+ * lock-free ring buffer (AuditEventRingBuffer) and return immediately; a single
+ * daemon thread drains the buffer and inserts the entries with JDBC batch inserts,
+ * one transaction per batch.
+ *
+ * Backpressure: when the buffer is full the entry is either written by the caller
+ * in its own transaction (audit.writer.overflow-policy=CALLER_RUNS, default) or
+ * dropped (DROP). Both cases are counted and exposed through getStats().
+ * A batch that fails is retried entry by entry; entries that still fail are
+ * logged and counted as failed.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    public enum OverflowPolicy {
+        CALLER_RUNS,
+        DROP
+    }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (timestamp, user_id, username, action, entity_type, entity_id, " +
+            "details, ip_address, user_agent) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+    private final AuditEventRingBuffer<AuditLog> buffer;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final OverflowPolicy overflowPolicy;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${audit.writer.capacity:8192}") int capacity,
+                          @Value("${audit.writer.batch-size:200}") int batchSize,
+                          @Value("${audit.writer.flush-interval-ms:200}") long flushIntervalMillis,
+                          @Value("${audit.writer.overflow-policy:CALLER_RUNS}") OverflowPolicy overflowPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // Independent of any caller transaction (caller-runs writes happen inside one)
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buffer = new AuditEventRingBuffer<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMillis = Math.max(10, flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        Thread thread = new Thread(this::run, "audit-log-writer");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Stop the writer and flush what is still queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        drainAll();
+    }
+
+    /**
+     * Queue an entry for the background writer; never blocks.
+     */
+    public void enqueue(AuditLog entry) {
+        if (buffer.offer(entry)) {
+            enqueued.increment();
+            if (buffer.size() >= batchSize) {
+                wakeUp();
+            }
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            dropped.increment();
+            log.debug("Audit buffer full, dropped {} on {} {}", entry.getAction(), entry.getEntityType(),
+                    entry.getEntityId());
+            return;
+        }
+
+        callerRuns.increment();
+        write(List.of(entry));
+        wakeUp();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", buffer.size());
+        stats.put("capacity", buffer.capacity());
+        stats.put("batchSize", batchSize);
+        stats.put("overflowPolicy", overflowPolicy.name());
+        stats.put("enqueued", enqueued.sum());
+        stats.put("written", written.sum());
+        stats.put("batches", batches.sum());
+        stats.put("backpressure", callerRuns.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    private void run() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                if (buffer.drainTo(batch, batchSize) == 0) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis));
+                    continue;
+                }
+                write(batch);
+            } catch (RuntimeException e) {
+                log.error("Audit log writer iteration failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void drainAll() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void wakeUp() {
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void write(List<AuditLog> entries) {
+        try {
+            insert(entries);
+            batches.increment();
+            written.add(entries.size());
+        } catch (RuntimeException batchFailure) {
+            if (entries.size() == 1) {
+                failed.increment();
+                log.error("Audit log entry {} could not be written: {}", entries.get(0).getAction(),
+                        batchFailure.getMessage());
+                return;
+            }
+            log.warn("Audit log batch of {} failed ({}), retrying entry by entry", entries.size(),
+                    batchFailure.getMessage());
+            for (AuditLog entry : entries) {
+                write(List.of(entry));
+            }
+        }
+    }
+
+    private void insert(List<AuditLog> entries) {
+        writeTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        AuditLog entry = entries.get(i);
+                        statement.setTimestamp(1, Timestamp.valueOf(entry.getTimestamp()));
+                        statement.setObject(2, entry.getUserId(), Types.BIGINT);
+                        statement.setString(3, entry.getUsername());
+                        statement.setString(4, entry.getAction());
+                        statement.setString(5, entry.getEntityType());
+                        statement.setObject(6, entry.getEntityId(), Types.BIGINT);
+                        statement.setString(7, entry.getDetails());
+                        statement.setString(8, entry.getIpAddress());
+                        statement.setString(9, entry.getUserAgent());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return entries.size();
+                    }
+                }));
+    }
+}
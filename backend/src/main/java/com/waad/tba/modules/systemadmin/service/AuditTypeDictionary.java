@@ -0,0 +1,101 @@
+package com.waad.tba.modules.systemadmin.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Audit Type Dictionary
+ *
+ * Keeps audit_action_types / audit_entity_types in step with the audit log.
+ * Known names are cached in memory, so registering an already seen name costs
+ * nothing; a new name is inserted in its own transaction (it may outlive a rolled
+ * back audit entry, so the dictionaries are a superset of the logged values).
+ */
+@Slf4j
+@Component
+public class AuditTypeDictionary {
+
+    private static final String INSERT_ACTION =
+            "INSERT INTO audit_action_types (name, first_seen_at) VALUES (?, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING";
+    private static final String INSERT_ENTITY_TYPE =
+            "INSERT INTO audit_entity_types (name, first_seen_at) VALUES (?, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+
+    private final Set<String> knownActions = ConcurrentHashMap.newKeySet();
+    private final Set<String> knownEntityTypes = ConcurrentHashMap.newKeySet();
+
+    public AuditTypeDictionary(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Load the dictionaries; fill them from audit_logs once if they are empty
+     * (databases created before the dictionaries, see V26 migration).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            ownTransaction.executeWithoutResult(status -> {
+                if (count("audit_action_types") == 0) {
+                    jdbcTemplate.update("INSERT INTO audit_action_types (name, first_seen_at) " +
+                            "SELECT action, MIN(timestamp) FROM audit_logs GROUP BY action ON CONFLICT DO NOTHING");
+                }
+                if (count("audit_entity_types") == 0) {
+                    jdbcTemplate.update("INSERT INTO audit_entity_types (name, first_seen_at) " +
+                            "SELECT entity_type, MIN(timestamp) FROM audit_logs WHERE entity_type IS NOT NULL " +
+                            "GROUP BY entity_type ON CONFLICT DO NOTHING");
+                }
+            });
+            knownActions.addAll(names("audit_action_types"));
+            knownEntityTypes.addAll(names("audit_entity_types"));
+            log.info("Audit type dictionary loaded: {} actions, {} entity types",
+                    knownActions.size(), knownEntityTypes.size());
+        } catch (RuntimeException e) {
+            log.warn("Audit type dictionary could not be loaded: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Record the action / entity type of an audit entry.
+     */
+    public void register(String action, String entityType) {
+        registerName(action, knownActions, INSERT_ACTION);
+        registerName(entityType, knownEntityTypes, INSERT_ENTITY_TYPE);
+    }
+
+    private void registerName(String name, Set<String> known, String insertSql) {
+        if (name == null || known.contains(name)) {
+            return;
+        }
+        try {
+            ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(insertSql, name));
+            known.add(name);
+        } catch (RuntimeException e) {
+            log.warn("Audit type {} could not be registered: {}", name, e.getMessage());
+        }
+    }
+
+    private long count(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count != null ? count : 0L;
+    }
+
+    private List<String> names(String table) {
+        return jdbcTemplate.queryForList("SELECT name FROM " + table, String.class);
+    }
+}
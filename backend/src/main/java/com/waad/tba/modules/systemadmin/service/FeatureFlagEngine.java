@@ -0,0 +1,189 @@
+package com.waad.tba.modules.systemadmin.service;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waad.tba.common.cache.CacheVersions;
+import com.waad.tba.common.cache.VersionedCache;
+import com.waad.tba.modules.systemadmin.entity.FeatureFlag;
+import com.waad.tba.modules.systemadmin.repository.FeatureFlagRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feature Flag Engine
+ * Phase 2 - System Administration
+ *
+ * Evaluates feature flags against an immutable snapshot of
+ * flagKey -> (enabled, role bitset). Role names are mapped to bit positions
+ * when the snapshot is compiled, so an evaluation is two map lookups and a
+ * bit test, with no database access and no JSON parsing.
+ *
+ * The snapshot is warm-loaded at startup and replaced atomically (copy-on-write)
+ * after every committed create/toggle/update/delete. Writes on other nodes are
+ * picked up through the "feature-flags" cache version (CacheVersions).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class FeatureFlagEngine implements VersionedCache {
+
+    static final String CACHE_NAME = "feature-flags";
+
+    private final FeatureFlagRepository featureFlagRepository;
+    private final ObjectMapper objectMapper;
+    private final CacheVersions cacheVersions;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Published by FeatureFlagService whenever a flag is written.
+     */
+    record FlagsChanged(String flagKey) {
+    }
+
+    /**
+     * Compiled flag. allRoles is set when the flag has no role filters.
+     */
+    private record CompiledFlag(boolean enabled, boolean allRoles, BitSet roles) {
+
+        boolean isEnabledFor(int roleBit) {
+            if (!enabled) {
+                return false;
+            }
+            return allRoles || (roleBit >= 0 && roles.get(roleBit));
+        }
+    }
+
+    private record Snapshot(long version, Map<String, CompiledFlag> flags, Map<String, Integer> roleIndex) {
+
+        int roleBit(String role) {
+            Integer bit = role != null ? roleIndex.get(role) : null;
+            return bit != null ? bit : -1;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFlagsChanged(FlagsChanged event) {
+        log.debug("Feature flag '{}' changed, reloading flag engine", event.flagKey());
+        reload();
+    }
+
+    @Override
+    public String cacheName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    public synchronized void onVersion(long version) {
+        if (snapshot != null && snapshot.version() != version) {
+            log.debug("Feature flags changed on another node, flag engine will reload");
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Check if feature is enabled for role. Unknown flags are disabled.
+     */
+    boolean isEnabled(String flagKey, String role) {
+        Snapshot current = current();
+        CompiledFlag flag = current.flags().get(flagKey);
+        return flag != null && flag.isEnabledFor(current.roleBit(role));
+    }
+
+    /**
+     * Evaluate every flag for role in one pass.
+     */
+    Map<String, Boolean> evaluateAll(String role) {
+        Snapshot current = current();
+        int roleBit = current.roleBit(role);
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        current.flags().forEach((key, flag) -> result.put(key, flag.isEnabledFor(roleBit)));
+        return result;
+    }
+
+    /**
+     * Evaluate every flag for a user holding several roles (enabled if any role matches).
+     */
+    Map<String, Boolean> evaluateAll(Collection<String> roles) {
+        Snapshot current = current();
+        int[] roleBits = roles.stream().mapToInt(current::roleBit).toArray();
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        current.flags().forEach((key, flag) -> {
+            boolean enabled = flag.isEnabledFor(-1); // enabled flags without role filters
+            for (int i = 0; !enabled && i < roleBits.length; i++) {
+                enabled = flag.isEnabledFor(roleBits[i]);
+            }
+            result.put(key, enabled);
+        });
+        return result;
+    }
+
+    /**
+     * Parse role filter JSON array. Returns empty list if JSON is empty or invalid.
+     */
+    List<String> parseRoleFilters(String json) {
+        if (json == null || json.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
+        } catch (JsonProcessingException e) {
+            log.error("Error parsing JSON", e);
+            return List.of();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private synchronized void reload() {
+        long version = cacheVersions.read(CACHE_NAME);
+        Map<String, Integer> roleIndex = new HashMap<>();
+        Map<String, CompiledFlag> flags = new LinkedHashMap<>();
+
+        for (FeatureFlag flag : featureFlagRepository.findAll()) {
+            boolean allRoles = flag.getRoleFilters() == null || flag.getRoleFilters().isEmpty();
+            BitSet roles = new BitSet();
+            if (!allRoles) {
+                for (String role : parseRoleFilters(flag.getRoleFilters())) {
+                    roles.set(roleIndex.computeIfAbsent(role, r -> roleIndex.size()));
+                }
+            }
+            flags.put(flag.getFlagKey(), new CompiledFlag(Boolean.TRUE.equals(flag.getEnabled()), allRoles, roles));
+        }
+
+        snapshot = new Snapshot(version, Collections.unmodifiableMap(flags), Map.copyOf(roleIndex));
+        log.info("Feature flag engine loaded: {} flags, {} roles", flags.size(), roleIndex.size());
+    }
+}
@@ -5,22 +5,27 @@ import com.waad.tba.modules.systemadmin.entity.FeatureFlag;
 import com.waad.tba.modules.systemadmin.repository.FeatureFlagRepository;
 import com.waad.tba.modules.systemadmin.repository.AuditLogRepository;
 import com.waad.tba.modules.systemadmin.entity.AuditLog;
+import com.waad.tba.common.cache.CacheVersions;
 import com.waad.tba.common.exception.ResourceNotFoundException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * Feature Flag Service
  * Phase 2 - System Administration
  * 
- * Manages feature toggles for dynamic module enabling/disabling
+ * Manages feature toggles for dynamic module enabling/disabling.
+ * Flag evaluation is served by FeatureFlagEngine (in-memory, refreshed after each write).
  */
 @Service
 @Slf4j
@@ -29,7 +34,11 @@ public class FeatureFlagService {
 
     private final FeatureFlagRepository featureFlagRepository;
     private final AuditLogRepository auditLogRepository;
+    private final AuditTypeDictionary auditTypeDictionary;
     private final ObjectMapper objectMapper;
+    private final FeatureFlagEngine featureFlagEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheVersions cacheVersions;
 
     /**
      * Get all feature flags
@@ -74,6 +83,7 @@ public class FeatureFlagService {
                 .build();
 
         FeatureFlag saved = featureFlagRepository.save(flag);
+        publishChanged(saved.getFlagKey());
         
         // Audit log
         createAuditLog("FEATURE_FLAG_CREATED", "FeatureFlag", saved.getId(), 
@@ -96,6 +106,7 @@ public class FeatureFlagService {
         flag.setUpdatedBy(updatedBy);
 
         FeatureFlag updated = featureFlagRepository.save(flag);
+        publishChanged(flagKey);
 
         // Audit log
         createAuditLog("FEATURE_FLAG_TOGGLED", "FeatureFlag", updated.getId(), 
@@ -122,6 +133,7 @@ public class FeatureFlagService {
         flag.setUpdatedBy(updatedBy);
 
         FeatureFlag updated = featureFlagRepository.save(flag);
+        publishChanged(flagKey);
 
         // Audit log
         createAuditLog("FEATURE_FLAG_UPDATED", "FeatureFlag", updated.getId(), 
@@ -142,6 +154,7 @@ public class FeatureFlagService {
 
         Long flagId = flag.getId();
         featureFlagRepository.delete(flag);
+        publishChanged(flagKey);
 
         // Audit log
         createAuditLog("FEATURE_FLAG_DELETED", "FeatureFlag", flagId, 
@@ -151,21 +164,22 @@ public class FeatureFlagService {
     /**
      * Check if feature is enabled for specific role
      */
-    @Transactional(readOnly = true)
     public boolean isFeatureEnabledForRole(String flagKey, String role) {
-        FeatureFlag flag = featureFlagRepository.findByFlagKey(flagKey).orElse(null);
-        if (flag == null || !flag.getEnabled()) {
-            return false;
-        }
+        return featureFlagEngine.isEnabled(flagKey, role);
+    }
 
-        // If no role filters, feature is enabled for all roles
-        if (flag.getRoleFilters() == null || flag.getRoleFilters().isEmpty()) {
-            return true;
-        }
+    /**
+     * Evaluate all feature flags for a role in one call (flagKey -> enabled)
+     */
+    public Map<String, Boolean> evaluateAll(String role) {
+        return featureFlagEngine.evaluateAll(role);
+    }
 
-        // Check if role is in filters
-        List<String> roleFilters = fromJson(flag.getRoleFilters());
-        return roleFilters.contains(role);
+    /**
+     * Evaluate all feature flags for a user's roles; a flag is enabled if any role matches
+     */
+    public Map<String, Boolean> evaluateAll(Collection<String> roles) {
+        return featureFlagEngine.evaluateAll(roles);
     }
 
     // Helper methods
@@ -197,16 +211,13 @@ public class FeatureFlagService {
     }
 
     private List<String> fromJson(String json) {
-        if (json == null || json.isEmpty()) {
-            return List.of();
-        }
-        try {
-            return objectMapper.readValue(json, 
-                objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
-        } catch (JsonProcessingException e) {
-            log.error("Error parsing JSON", e);
-            return List.of();
-        }
+        return featureFlagEngine.parseRoleFilters(json);
+    }
+
+    // Reloads the engine after commit here, through the cache version on other nodes
+    private void publishChanged(String flagKey) {
+        cacheVersions.bump(FeatureFlagEngine.CACHE_NAME);
+        eventPublisher.publishEvent(new FeatureFlagEngine.FlagsChanged(flagKey));
     }
 
     private void createAuditLog(String action, String entityType, Long entityId, String details, String username) {
@@ -217,6 +228,7 @@ public class FeatureFlagService {
                 .details(details)
                 .username(username)
                 .build();
+        auditTypeDictionary.register(action, entityType);
         auditLogRepository.save(auditLog);
     }
 }
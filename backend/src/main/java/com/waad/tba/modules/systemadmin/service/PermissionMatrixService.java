@@ -19,6 +19,7 @@ import com.waad.tba.modules.rbac.repository.PermissionRepository;
 import com.waad.tba.modules.rbac.repository.RoleRepository;
 import com.waad.tba.modules.rbac.repository.UserRepository;
 import com.waad.tba.modules.systemadmin.dto.PermissionMatrixDto;
+import com.waad.tba.security.CompiledPermissionMatrix;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +39,7 @@ public class PermissionMatrixService {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final AuditLogService auditLogService;
+    private final CompiledPermissionMatrix compiledPermissionMatrix;
 
     /**
      * Get all permissions
@@ -106,6 +108,7 @@ public class PermissionMatrixService {
 
         role.getPermissions().add(permission);
         roleRepository.save(role);
+        compiledPermissionMatrix.invalidate();
 
         // Audit log
         auditLogService.createAuditLog(
@@ -136,6 +139,7 @@ public class PermissionMatrixService {
 
         role.getPermissions().remove(permission);
         roleRepository.save(role);
+        compiledPermissionMatrix.invalidate();
 
         // Audit log
         auditLogService.createAuditLog(
@@ -208,6 +212,7 @@ public class PermissionMatrixService {
         }
 
         roleRepository.save(role);
+        compiledPermissionMatrix.invalidate();
 
         // Audit log
         auditLogService.createAuditLog(
@@ -241,6 +246,7 @@ public class PermissionMatrixService {
         }
 
         roleRepository.save(role);
+        compiledPermissionMatrix.invalidate();
 
         // Audit log
         auditLogService.createAuditLog(
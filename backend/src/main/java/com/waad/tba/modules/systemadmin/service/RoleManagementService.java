@@ -18,6 +18,7 @@ import com.waad.tba.modules.rbac.repository.UserRepository;
 import com.waad.tba.modules.systemadmin.dto.RoleCreateDto;
 import com.waad.tba.modules.systemadmin.dto.RoleUpdateDto;
 import com.waad.tba.modules.systemadmin.dto.RoleViewDto;
+import com.waad.tba.security.CompiledPermissionMatrix;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +38,7 @@ public class RoleManagementService {
     private final PermissionRepository permissionRepository;
     private final UserRepository userRepository;
     private final AuditLogService auditLogService;
+    private final CompiledPermissionMatrix compiledPermissionMatrix;
 
     /**
      * Get all roles with user counts
@@ -105,6 +107,7 @@ public class RoleManagementService {
                 .build();
 
         Role saved = roleRepository.save(role);
+        compiledPermissionMatrix.invalidate();
 
         // Audit log
         auditLogService.createAuditLog(
@@ -147,6 +150,7 @@ public class RoleManagementService {
         }
 
         Role updated = roleRepository.save(role);
+        compiledPermissionMatrix.invalidate();
 
         // Audit log
         auditLogService.createAuditLog(
@@ -184,6 +188,7 @@ public class RoleManagementService {
 
         String roleName = role.getName();
         roleRepository.delete(role);
+        compiledPermissionMatrix.invalidate();
 
         // Audit log
         auditLogService.createAuditLog(
@@ -213,6 +218,7 @@ public class RoleManagementService {
         Set<Permission> newPermissions = resolvePermissions(permissionNames);
         role.getPermissions().addAll(newPermissions);
         Role updated = roleRepository.save(role);
+        compiledPermissionMatrix.invalidate();
 
         // Audit log
         auditLogService.createAuditLog(
@@ -242,6 +248,7 @@ public class RoleManagementService {
         Set<Permission> permissionsToRemove = resolvePermissions(permissionNames);
         role.getPermissions().removeAll(permissionsToRemove);
         Role updated = roleRepository.save(role);
+        compiledPermissionMatrix.invalidate();
 
         // Audit log
         auditLogService.createAuditLog(
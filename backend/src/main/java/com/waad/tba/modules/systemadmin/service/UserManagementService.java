@@ -19,6 +19,7 @@ import com.waad.tba.modules.rbac.repository.UserRepository;
 import com.waad.tba.modules.systemadmin.dto.UserCreateDto;
 import com.waad.tba.modules.systemadmin.dto.UserUpdateDto;
 import com.waad.tba.modules.systemadmin.dto.UserViewDto;
+import com.waad.tba.security.TokenRevocationService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +39,7 @@ public class UserManagementService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuditLogService auditLogService;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * Get all users (paginated)
@@ -147,6 +149,9 @@ public class UserManagementService {
             user.setRoles(resolveRoles(dto.getRoles()));
         }
 
+        // Roles, status and data scope are embedded in issued tokens
+        tokenRevocationService.revokeTokens(user);
+
         User updated = userRepository.save(user);
 
         // Audit log
@@ -177,6 +182,7 @@ public class UserManagementService {
 
         String username = user.getUsername();
         userRepository.delete(user);
+        tokenRevocationService.evict(username);
 
         // Audit log
         auditLogService.createAuditLog(
@@ -204,6 +210,7 @@ public class UserManagementService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
 
         user.setActive(active);
+        tokenRevocationService.revokeTokens(user);
         User updated = userRepository.save(user);
 
         // Audit log
@@ -232,6 +239,7 @@ public class UserManagementService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        tokenRevocationService.revokeTokens(user);
         userRepository.save(user);
 
         // Audit log
@@ -261,6 +269,7 @@ public class UserManagementService {
 
         Set<Role> newRoles = resolveRoles(roleNames);
         user.getRoles().addAll(newRoles);
+        tokenRevocationService.revokeTokens(user);
         User updated = userRepository.save(user);
 
         // Audit log
@@ -290,6 +299,7 @@ public class UserManagementService {
 
         Set<Role> rolesToRemove = resolveRoles(roleNames);
         user.getRoles().removeAll(rolesToRemove);
+        tokenRevocationService.revokeTokens(user);
         User updated = userRepository.save(user);
 
         // Audit log
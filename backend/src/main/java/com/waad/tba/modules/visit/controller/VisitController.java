@@ -1,8 +1,10 @@
 package com.waad.tba.modules.visit.controller;
 
 import com.waad.tba.common.dto.ApiResponse;
+import com.waad.tba.common.dto.CursorPageResponse;
 import com.waad.tba.common.dto.PaginationResponse;
 import com.waad.tba.modules.visit.dto.VisitCreateDto;
+import com.waad.tba.modules.visit.dto.VisitListItemDto;
 import com.waad.tba.modules.visit.dto.VisitResponseDto;
 import com.waad.tba.modules.visit.service.VisitService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,11 +15,13 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -164,6 +168,22 @@ public class VisitController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    /**
+     * Keyset-paginated list of flat visit rows, latest visit date first, limited to the caller's data scope.
+     * Pass nextCursor from the previous response to continue; total=exact adds a count.
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAuthority('VIEW_VISITS')")
+    @Operation(summary = "Scroll visits", description = "Keyset-paginated visit list with optional visit date range")
+    public ResponseEntity<ApiResponse<CursorPageResponse<VisitListItemDto>>> scroll(
+            @Parameter(name = "cursor", description = "nextCursor of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(name = "size", description = "Page size (max 200)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(name = "fromDate", description = "Visit date from (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(name = "toDate", description = "Visit date to (inclusive)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(name = "total", description = "none or exact") @RequestParam(defaultValue = "none") String total) {
+        return ResponseEntity.ok(ApiResponse.success(service.listVisitsKeyset(cursor, size, fromDate, toDate, total)));
+    }
+
     @GetMapping("/count")
     @PreAuthorize("hasAuthority('VIEW_VISITS')")
     @Operation(summary = "Count visits", description = "Returns total number of visits")
@@ -0,0 +1,31 @@
+package com.waad.tba.modules.visit.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat visit row for list screens, selected directly by JPQL constructor
+ * expression (no Visit or Member entity loaded).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VisitListItemDto {
+    private Long id;
+    private Long memberId;
+    private String memberName;
+    private String memberNumber;
+    private Long providerId;
+    private LocalDate visitDate;
+    private String doctorName;
+    private String specialty;
+    private String diagnosis;
+    private BigDecimal totalAmount;
+    private Boolean active;
+    private LocalDateTime createdAt;
+}
@@ -8,6 +8,9 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import com.waad.tba.common.search.ArabicTextNormalizer;
+import com.waad.tba.modules.dashboard.service.DashboardCounterListener;
+import com.waad.tba.modules.dashboard.service.DashboardCounterSnapshot;
 import com.waad.tba.modules.member.entity.Member;
 
 import jakarta.persistence.Column;
@@ -19,11 +22,16 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "visits")
@@ -31,7 +39,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, DashboardCounterListener.class})
 public class Visit {
 
     @Id
@@ -71,4 +79,20 @@ public class Visit {
 
     @LastModifiedDate
     private LocalDateTime updatedAt;
+
+    // Normalized doctor / specialty / diagnosis for search (see ArabicTextNormalizer)
+    @Column(name = "search_text", columnDefinition = "TEXT")
+    private String searchText;
+
+    // Dimensions last written to the dashboard counters (see DashboardCounterListener)
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private DashboardCounterSnapshot countedSnapshot;
+
+    @PrePersist
+    @PreUpdate
+    protected void updateSearchText() {
+        searchText = ArabicTextNormalizer.searchText(doctorName, specialty, diagnosis);
+    }
 }
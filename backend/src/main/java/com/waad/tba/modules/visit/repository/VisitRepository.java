@@ -1,6 +1,8 @@
 package com.waad.tba.modules.visit.repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.waad.tba.modules.visit.dto.VisitListItemDto;
 import com.waad.tba.modules.visit.entity.Visit;
 
 @Repository
@@ -24,19 +27,61 @@ public interface VisitRepository extends JpaRepository<Visit, Long> {
     @Query("SELECT v FROM Visit v WHERE v.member.insuranceCompany.id = :companyId")
     List<Visit> findByMemberInsuranceCompanyId(@Param("companyId") Long companyId);
     
-    @Query("SELECT v FROM Visit v LEFT JOIN v.member m WHERE " +
-           "LOWER(v.doctorName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(v.specialty) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(v.diagnosis) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(m.fullNameEnglish) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(m.fullNameArabic) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Visit> search(@Param("query") String query);
-
-    @Query("SELECT v FROM Visit v LEFT JOIN v.member m WHERE " +
-           "LOWER(v.doctorName) LIKE LOWER(CONCAT('%', :q, '%')) OR " +
-           "LOWER(v.specialty) LIKE LOWER(CONCAT('%', :q, '%')) OR " +
-           "LOWER(v.diagnosis) LIKE LOWER(CONCAT('%', :q, '%')) OR " +
-           "LOWER(m.fullNameEnglish) LIKE LOWER(CONCAT('%', :q, '%')) OR " +
-           "LOWER(m.fullNameArabic) LIKE LOWER(CONCAT('%', :q, '%'))")
+    // Scalar lookup for data-level access checks (no entity load)
+    @Query("SELECT v.member.employer.id FROM Visit v WHERE v.id = :visitId")
+    Optional<Long> findMemberEmployerIdById(@Param("visitId") Long visitId);
+    
+    // Search methods expect a term normalized with ArabicTextNormalizer (trigram-indexed, see V23).
+    // Visit text and member text are matched in separate UNION branches: an OR across the
+    // join could use neither trigram index, each branch uses its own (then idx_visits_member_id).
+    String KEYWORD_MATCH = "v.id IN (" +
+           "SELECT kv.id FROM Visit kv WHERE kv.searchText LIKE CONCAT('%', :q, '%') " +
+           "UNION " +
+           "SELECT km.id FROM Visit km WHERE km.member.id IN " +
+           "(SELECT mm.id FROM Member mm WHERE mm.searchText LIKE CONCAT('%', :q, '%')))";
+
+    @Query("SELECT v FROM Visit v LEFT JOIN FETCH v.member m WHERE " + KEYWORD_MATCH)
+    List<Visit> search(@Param("q") String query);
+
+    @Query("SELECT v FROM Visit v WHERE " + KEYWORD_MATCH)
     Page<Visit> searchPaged(@Param("q") String q, Pageable pageable);
+
+    // Keyset listing: flat projection ordered by (visitDate, id) DESC, scoped in SQL.
+    // employerId / companyId are null when the caller is not restricted; the date bounds
+    // are always set (inclusive) so the visit_date index range applies.
+    // Pass a Pageable of (0, size + 1) only as a row limit; no count query is issued.
+    String LIST_ITEM_SELECT = "SELECT new com.waad.tba.modules.visit.dto.VisitListItemDto(" +
+           "v.id, m.id, COALESCE(m.fullNameArabic, m.fullNameEnglish), m.cardNumber, v.providerId, v.visitDate, v.doctorName, " +
+           "v.specialty, v.diagnosis, v.totalAmount, v.active, v.createdAt) " +
+           "FROM Visit v JOIN v.member m " +
+           "WHERE v.visitDate BETWEEN :fromDate AND :toDate " +
+           "AND (:employerId IS NULL OR m.employer.id = :employerId) " +
+           "AND (:companyId IS NULL OR m.insuranceCompany.id = :companyId) ";
+
+    @Query(LIST_ITEM_SELECT + "ORDER BY v.visitDate DESC, v.id DESC")
+    List<VisitListItemDto> findListItems(@Param("employerId") Long employerId,
+                                         @Param("companyId") Long companyId,
+                                         @Param("fromDate") LocalDate fromDate,
+                                         @Param("toDate") LocalDate toDate,
+                                         Pageable limit);
+
+    @Query(LIST_ITEM_SELECT +
+           "AND (v.visitDate, v.id) < (:visitDate, :id) " +
+           "ORDER BY v.visitDate DESC, v.id DESC")
+    List<VisitListItemDto> findListItemsAfter(@Param("employerId") Long employerId,
+                                              @Param("companyId") Long companyId,
+                                              @Param("fromDate") LocalDate fromDate,
+                                              @Param("toDate") LocalDate toDate,
+                                              @Param("visitDate") LocalDate visitDate,
+                                              @Param("id") Long id,
+                                              Pageable limit);
+
+    @Query("SELECT COUNT(v) FROM Visit v JOIN v.member m " +
+           "WHERE v.visitDate BETWEEN :fromDate AND :toDate " +
+           "AND (:employerId IS NULL OR m.employer.id = :employerId) " +
+           "AND (:companyId IS NULL OR m.insuranceCompany.id = :companyId)")
+    long countListItems(@Param("employerId") Long employerId,
+                        @Param("companyId") Long companyId,
+                        @Param("fromDate") LocalDate fromDate,
+                        @Param("toDate") LocalDate toDate);
 }
@@ -1,26 +1,34 @@
 package com.waad.tba.modules.visit.service;
 
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.waad.tba.common.dto.CursorPageResponse;
+import com.waad.tba.common.dto.KeysetCursor;
 import com.waad.tba.common.exception.ResourceNotFoundException;
+import com.waad.tba.common.search.ArabicTextNormalizer;
+import com.waad.tba.common.search.SearchRanking;
 import com.waad.tba.modules.member.entity.Member;
 import com.waad.tba.modules.member.repository.MemberRepository;
-import com.waad.tba.modules.rbac.entity.User;
+import com.waad.tba.modules.systemadmin.service.AuditDurability;
 import com.waad.tba.modules.systemadmin.service.AuditLogService;
 import com.waad.tba.modules.visit.dto.VisitCreateDto;
+import com.waad.tba.modules.visit.dto.VisitListItemDto;
 import com.waad.tba.modules.visit.dto.VisitResponseDto;
 import com.waad.tba.modules.visit.entity.Visit;
 import com.waad.tba.modules.visit.mapper.VisitMapper;
 import com.waad.tba.modules.visit.repository.VisitRepository;
 import com.waad.tba.security.AuthorizationService;
+import com.waad.tba.security.ResolvedPrincipal;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +38,10 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class VisitService {
 
+    private static final int MAX_KEYSET_PAGE_SIZE = 200;
+    private static final LocalDate MIN_VISIT_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_VISIT_DATE = LocalDate.of(9999, 12, 31);
+
     private final VisitRepository repository;
     private final MemberRepository memberRepository;
     private final VisitMapper mapper;
@@ -41,65 +53,139 @@ public class VisitService {
         log.debug("Finding all visits with data-level filtering");
         
         // Get current user and apply role-based filtering
-        User currentUser = authorizationService.getCurrentUser();
+        ResolvedPrincipal currentUser = authorizationService.getCurrentPrincipal();
         if (currentUser == null) {
             log.warn("No authenticated user found when accessing visits list");
             return Collections.emptyList();
         }
         
+        VisitScope scope = resolveListScope(currentUser);
+        if (scope == null) {
+            return Collections.emptyList();
+        }
+        
         List<Visit> visits;
+        if (scope.employerId() != null) {
+            visits = repository.findByMemberEmployerId(scope.employerId());
+        } else if (scope.companyId() != null) {
+            visits = repository.findByMemberInsuranceCompanyId(scope.companyId());
+        } else {
+            visits = repository.findAll();
+        }
         
+        return visits.stream()
+                .map(mapper::toResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Keyset-paginated visit list (flat projection, latest visit date first).
+     * The role-based data filter and the visit date range are applied in SQL,
+     * so only one page of rows is read regardless of how many visits are visible.
+     *
+     * @param fromDate inclusive lower bound on visitDate (optional)
+     * @param toDate inclusive upper bound on visitDate (optional)
+     * @param total none (default) or exact
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<VisitListItemDto> listVisitsKeyset(String cursor, int size, LocalDate fromDate,
+                                                                 LocalDate toDate, String total) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_KEYSET_PAGE_SIZE);
+        LocalDate from = fromDate != null ? fromDate : MIN_VISIT_DATE;
+        LocalDate to = toDate != null ? toDate : MAX_VISIT_DATE;
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("fromDate must not be after toDate");
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        ResolvedPrincipal currentUser = authorizationService.getCurrentPrincipal();
+        VisitScope scope = currentUser != null ? resolveListScope(currentUser) : null;
+        if (scope == null) {
+            return CursorPageResponse.<VisitListItemDto>builder()
+                    .items(Collections.emptyList())
+                    .size(pageSize)
+                    .build();
+        }
+
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<VisitListItemDto> rows = after == null
+                ? repository.findListItems(scope.employerId(), scope.companyId(), from, to, limit)
+                : repository.findListItemsAfter(scope.employerId(), scope.companyId(), from, to,
+                        after.timestamp().toLocalDate(), after.id(), limit);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<VisitListItemDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+        VisitListItemDto last = items.isEmpty() ? null : items.get(items.size() - 1);
+
+        CursorPageResponse<VisitListItemDto> response = CursorPageResponse.<VisitListItemDto>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? new KeysetCursor(last.getVisitDate().atStartOfDay(), last.getId()).encode() : null)
+                .size(pageSize)
+                .build();
+
+        if ("exact".equalsIgnoreCase(total)) {
+            response.setTotal(repository.countListItems(scope.employerId(), scope.companyId(), from, to));
+            response.setTotalEstimated(false);
+        }
+        return response;
+    }
+
+    /**
+     * Visit list data scope of the current user; null when the user may not list visits.
+     */
+    private VisitScope resolveListScope(ResolvedPrincipal currentUser) {
         // Apply data-level security based on user role
         if (authorizationService.isSuperAdmin(currentUser)) {
             // SUPER_ADMIN: Access to all visits
             log.debug("SUPER_ADMIN access: returning all visits");
-            visits = repository.findAll();
-            
-        } else if (authorizationService.isInsuranceAdmin(currentUser)) {
+            return VisitScope.ALL;
+        }
+        
+        if (authorizationService.isInsuranceAdmin(currentUser)) {
             // INSURANCE_ADMIN: Filter by insurance company
             Long companyFilter = authorizationService.getCompanyFilterForUser(currentUser);
-            if (companyFilter != null) {
-                log.info("Applying insurance company filter for visits: companyId={} for user {}", 
-                    companyFilter, currentUser.getUsername());
-                // Get visits for members belonging to this insurance company
-                visits = repository.findByMemberInsuranceCompanyId(companyFilter);
-            } else {
+            if (companyFilter == null) {
                 log.debug("INSURANCE_ADMIN access: returning all visits (no company filter)");
-                visits = repository.findAll();
+                return VisitScope.ALL;
             }
-            
-        } else if (authorizationService.isEmployerAdmin(currentUser)) {
+            log.info("Applying insurance company filter for visits: companyId={} for user {}", 
+                companyFilter, currentUser.getUsername());
+            return new VisitScope(null, companyFilter);
+        }
+        
+        if (authorizationService.isEmployerAdmin(currentUser)) {
             // EMPLOYER_ADMIN: Check feature toggle first (Phase 9)
             if (!authorizationService.canEmployerViewVisits(currentUser)) {
                 log.warn("FeatureCheck: EMPLOYER_ADMIN user {} attempted to view visits but feature VIEW_VISITS is disabled", 
                     currentUser.getUsername());
-                return Collections.emptyList();
+                return null;
             }
             
             // Feature enabled: Filter by employer
             Long employerId = authorizationService.getEmployerFilterForUser(currentUser);
             if (employerId == null) {
                 log.warn("EMPLOYER_ADMIN user {} has no employerId assigned", currentUser.getUsername());
-                return Collections.emptyList();
+                return null;
             }
             
             log.info("Applying employer filter for visits: employerId={} for user {}", 
                 employerId, currentUser.getUsername());
-            visits = repository.findByMemberEmployerId(employerId);
-            
-        } else {
-            // REVIEWER, PROVIDER, USER: No access to visits list
-            log.warn("Access denied: user {} with roles {} attempted to access visits list", 
-                currentUser.getUsername(), 
-                currentUser.getRoles().stream()
-                    .map(r -> r.getName())
-                    .collect(Collectors.joining(", ")));
-            return Collections.emptyList();
+            return new VisitScope(employerId, null);
         }
         
-        return visits.stream()
-                .map(mapper::toResponseDto)
-                .collect(Collectors.toList());
+        // REVIEWER, PROVIDER, USER: No access to visits list
+        log.warn("Access denied: user {} with roles {} attempted to access visits list", 
+            currentUser.getUsername(), 
+            String.join(", ", currentUser.getRoleNames()));
+        return null;
+    }
+
+    /**
+     * Member filter of a visit list: null ids mean unrestricted.
+     */
+    private record VisitScope(Long employerId, Long companyId) {
+        static final VisitScope ALL = new VisitScope(null, null);
     }
 
     @Transactional(readOnly = true)
@@ -107,7 +193,7 @@ public class VisitService {
         log.debug("Finding visit by id: {}", id);
         
         // Get current user and validate access
-        User currentUser = authorizationService.getCurrentUser();
+        ResolvedPrincipal currentUser = authorizationService.getCurrentPrincipal();
         if (currentUser == null) {
             log.warn("No authenticated user found when accessing visit: {}", id);
             throw new AccessDeniedException("Authentication required");
@@ -135,7 +221,7 @@ public class VisitService {
         // Audit log: Visit viewed
         auditLogService.createAuditLog("VIEW", "VISIT", id, 
             "Visit viewed by " + currentUser.getUsername(),
-            currentUser.getId(), currentUser.getUsername(), null, null);
+            currentUser.getUserId(), currentUser.getUsername(), null, null, AuditDurability.ASYNC);
         
         log.debug("Visit {} accessed successfully by user {}", id, currentUser.getUsername());
         return mapper.toResponseDto(entity);
@@ -187,7 +273,10 @@ public class VisitService {
     @Transactional(readOnly = true)
     public List<VisitResponseDto> search(String query) {
         log.debug("Searching visits with query: {}", query);
-        return repository.search(query).stream()
+        String term = ArabicTextNormalizer.normalize(query);
+        List<Visit> visits = SearchRanking.rank(repository.search(term),
+                visit -> ArabicTextNormalizer.searchText(visit.getSearchText(), visit.getMember().getSearchText()), term);
+        return visits.stream()
                 .map(mapper::toResponseDto)
                 .collect(Collectors.toList());
     }
@@ -198,7 +287,7 @@ public class VisitService {
         if (search == null || search.isBlank()) {
             return repository.findAll(pageable).map(mapper::toResponseDto);
         } else {
-            return repository.searchPaged(search, pageable).map(mapper::toResponseDto);
+            return repository.searchPaged(ArabicTextNormalizer.normalize(search), pageable).map(mapper::toResponseDto);
         }
     }
 
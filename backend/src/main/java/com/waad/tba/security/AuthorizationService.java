@@ -5,15 +5,14 @@ import java.util.Optional;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
-import com.waad.tba.modules.claim.entity.Claim;
 import com.waad.tba.modules.claim.repository.ClaimRepository;
 import com.waad.tba.modules.company.service.CompanySettingsService;
-import com.waad.tba.modules.member.entity.Member;
 import com.waad.tba.modules.member.repository.MemberRepository;
 import com.waad.tba.modules.rbac.entity.User;
 import com.waad.tba.modules.rbac.repository.UserRepository;
-import com.waad.tba.modules.visit.entity.Visit;
 import com.waad.tba.modules.visit.repository.VisitRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -25,22 +24,38 @@ import lombok.extern.slf4j.Slf4j;
  * Handles permission-based and data-level access control.
  * Enforces employer-level, insurance-level, and provider-level restrictions.
  * 
+ * All checks operate on a ResolvedPrincipal which is resolved once per request
+ * (request attribute) and memoized across requests (ResolvedPrincipalCache),
+ * so role checks are O(1) bit tests.
+ * 
  * @author TBA WAAD System
- * @version 1.0
+ * @version 1.1
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthorizationService {
 
+    private static final String CURRENT_PRINCIPAL_ATTRIBUTE = AuthorizationService.class.getName() + ".PRINCIPAL";
+
+    private static final int CLAIM_READ_ROLES =
+            SystemRole.REVIEWER.mask() | SystemRole.INSURANCE_ADMIN.mask() | SystemRole.PROVIDER.mask();
+
+    private static final int MODIFY_CLAIM_ROLES =
+            SystemRole.SUPER_ADMIN.mask() | SystemRole.INSURANCE_ADMIN.mask() | SystemRole.REVIEWER.mask();
+
     private final UserRepository userRepository;
     private final MemberRepository memberRepository;
     private final ClaimRepository claimRepository;
     private final VisitRepository visitRepository;
     private final CompanySettingsService companySettingsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final ResolvedPrincipalCache principalCache;
+    private final CompiledPermissionMatrix permissionMatrix;
 
     /**
-     * Get currently authenticated user from security context.
+     * Get currently authenticated user entity from security context.
+     * Prefer getCurrentPrincipal() for authorization checks.
      */
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -54,58 +69,83 @@ public class AuthorizationService {
     }
 
     /**
-     * Check if user is SUPER_ADMIN (bypasses all restrictions).
+     * Get resolved principal for the currently authenticated user.
+     * Resolved at most once per request.
      */
-    public boolean isSuperAdmin(User user) {
-        if (user == null || user.getRoles() == null) {
-            return false;
+    public ResolvedPrincipal getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            log.warn("No authenticated user found in security context");
+            return null;
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(CURRENT_PRINCIPAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                        instanceof ResolvedPrincipal memoized) {
+            return memoized;
+        }
+
+        ResolvedPrincipal principal = resolvePrincipal(authentication);
+        if (attributes != null && principal != null) {
+            attributes.setAttribute(CURRENT_PRINCIPAL_ATTRIBUTE, principal, RequestAttributes.SCOPE_REQUEST);
         }
-        return user.getRoles().stream()
-                .anyMatch(role -> "SUPER_ADMIN".equals(role.getName()));
+        return principal;
+    }
+
+    private ResolvedPrincipal resolvePrincipal(Authentication authentication) {
+        // Stateless mode: everything needed is already in the token claims
+        if (authentication.getPrincipal() instanceof JwtPrincipal jwtPrincipal) {
+            return principalCache.get(jwtPrincipal.getUsername(), jwtPrincipal.getTokenVersion(),
+                    () -> ResolvedPrincipal.fromJwt(jwtPrincipal));
+        }
+
+        // Database mode: key by current token version so changes are picked up immediately
+        String username = authentication.getName();
+        long tokenVersion = tokenRevocationService.getCurrentTokenVersion(username);
+        if (tokenVersion < 0) {
+            log.warn("Authenticated user {} not found", username);
+            return null;
+        }
+        return principalCache.get(username, tokenVersion,
+                () -> userRepository.findByUsername(username)
+                        .map(user -> ResolvedPrincipal.fromUser(user, permissionMatrix.grantForUser(user).permissions()))
+                        .orElse(null));
+    }
+
+    /**
+     * Check if user is SUPER_ADMIN (bypasses all restrictions).
+     */
+    public boolean isSuperAdmin(ResolvedPrincipal user) {
+        return user != null && user.hasRole(SystemRole.SUPER_ADMIN);
     }
 
     /**
      * Check if user is INSURANCE_ADMIN.
      */
-    public boolean isInsuranceAdmin(User user) {
-        if (user == null || user.getRoles() == null) {
-            return false;
-        }
-        return user.getRoles().stream()
-                .anyMatch(role -> "INSURANCE_ADMIN".equals(role.getName()));
+    public boolean isInsuranceAdmin(ResolvedPrincipal user) {
+        return user != null && user.hasRole(SystemRole.INSURANCE_ADMIN);
     }
 
     /**
      * Check if user is EMPLOYER_ADMIN.
      */
-    public boolean isEmployerAdmin(User user) {
-        if (user == null || user.getRoles() == null) {
-            return false;
-        }
-        return user.getRoles().stream()
-                .anyMatch(role -> "EMPLOYER_ADMIN".equals(role.getName()));
+    public boolean isEmployerAdmin(ResolvedPrincipal user) {
+        return user != null && user.hasRole(SystemRole.EMPLOYER_ADMIN);
     }
 
     /**
      * Check if user is PROVIDER.
      */
-    public boolean isProvider(User user) {
-        if (user == null || user.getRoles() == null) {
-            return false;
-        }
-        return user.getRoles().stream()
-                .anyMatch(role -> "PROVIDER".equals(role.getName()));
+    public boolean isProvider(ResolvedPrincipal user) {
+        return user != null && user.hasRole(SystemRole.PROVIDER);
     }
 
     /**
      * Check if user is REVIEWER.
      */
-    public boolean isReviewer(User user) {
-        if (user == null || user.getRoles() == null) {
-            return false;
-        }
-        return user.getRoles().stream()
-                .anyMatch(role -> "REVIEWER".equals(role.getName()));
+    public boolean isReviewer(ResolvedPrincipal user) {
+        return user != null && user.hasRole(SystemRole.REVIEWER);
     }
 
     /**
@@ -117,7 +157,7 @@ public class AuthorizationService {
      * - EMPLOYER_ADMIN: Access if member's employer matches user's employer
      * - Others: No access
      */
-    public boolean canAccessMember(User user, Long memberId) {
+    public boolean canAccessMember(ResolvedPrincipal user, Long memberId) {
         if (user == null || memberId == null) {
             log.warn("Access denied: null user or memberId");
             return false;
@@ -128,21 +168,14 @@ public class AuthorizationService {
             return true;
         }
 
-        Optional<Member> memberOpt = memberRepository.findById(memberId);
-        if (memberOpt.isEmpty()) {
-            log.warn("Access denied: member {} not found", memberId);
-            return false;
-        }
-
-        Member member = memberOpt.get();
-
         // EMPLOYER_ADMIN: Check employer match
         if (isEmployerAdmin(user)) {
             if (user.getEmployerId() == null) {
                 log.warn("Access denied: EMPLOYER_ADMIN user {} has no employerId", user.getUsername());
                 return false;
             }
-            if (member.getEmployer() == null || !user.getEmployerId().equals(member.getEmployer().getId())) {
+            Optional<Long> memberEmployerId = memberRepository.findEmployerIdById(memberId);
+            if (memberEmployerId.isEmpty() || !user.getEmployerId().equals(memberEmployerId.get())) {
                 log.warn("Access denied: user {} attempted to access member {} from different employer", 
                         user.getUsername(), memberId);
                 return false;
@@ -150,6 +183,11 @@ public class AuthorizationService {
             return true;
         }
 
+        if (!memberRepository.existsById(memberId)) {
+            log.warn("Access denied: member {} not found", memberId);
+            return false;
+        }
+
         // INSURANCE_ADMIN: Can access all members (for now, add company restriction if needed)
         if (isInsuranceAdmin(user)) {
             return true;
@@ -170,7 +208,7 @@ public class AuthorizationService {
      * - REVIEWER: Full access to claims for review
      * - Others: No access
      */
-    public boolean canAccessClaim(User user, Long claimId) {
+    public boolean canAccessClaim(ResolvedPrincipal user, Long claimId) {
         if (user == null || claimId == null) {
             log.warn("Access denied: null user or claimId");
             return false;
@@ -181,29 +219,14 @@ public class AuthorizationService {
             return true;
         }
 
-        Optional<Claim> claimOpt = claimRepository.findById(claimId);
-        if (claimOpt.isEmpty()) {
-            log.warn("Access denied: claim {} not found", claimId);
-            return false;
-        }
-
-        Claim claim = claimOpt.get();
-
-        // REVIEWER: Can access all claims for review
-        if (isReviewer(user)) {
-            return true;
-        }
-
-        // INSURANCE_ADMIN: Can access all claims
-        if (isInsuranceAdmin(user)) {
-            return true;
-        }
-
-        // PROVIDER: Can only access claims they created
-        if (isProvider(user)) {
-            // Note: Need to add createdBy field to Claim entity
-            // For now, allow access (implement after adding createdBy)
-            log.debug("Provider access to claim {} - need to implement createdBy check", claimId);
+        // REVIEWER, INSURANCE_ADMIN: Can access all claims
+        // PROVIDER: Should only access claims they created
+        // Note: createdBy check not implemented yet, allow access (implement after adding createdBy)
+        if ((user.getRoleMask() & CLAIM_READ_ROLES) != 0) {
+            if (!claimRepository.existsById(claimId)) {
+                log.warn("Access denied: claim {} not found", claimId);
+                return false;
+            }
             return true;
         }
 
@@ -213,8 +236,8 @@ public class AuthorizationService {
                 log.warn("Access denied: EMPLOYER_ADMIN user {} has no employerId", user.getUsername());
                 return false;
             }
-            if (claim.getMember() == null || claim.getMember().getEmployer() == null ||
-                !user.getEmployerId().equals(claim.getMember().getEmployer().getId())) {
+            Optional<Long> claimEmployerId = claimRepository.findMemberEmployerIdById(claimId);
+            if (claimEmployerId.isEmpty() || !user.getEmployerId().equals(claimEmployerId.get())) {
                 log.warn("Access denied: user {} attempted to access claim {} from different employer", 
                         user.getUsername(), claimId);
                 return false;
@@ -235,7 +258,7 @@ public class AuthorizationService {
      * - EMPLOYER_ADMIN: Access if visit's member belongs to employer
      * - Others: No access
      */
-    public boolean canAccessVisit(User user, Long visitId) {
+    public boolean canAccessVisit(ResolvedPrincipal user, Long visitId) {
         if (user == null || visitId == null) {
             log.warn("Access denied: null user or visitId");
             return false;
@@ -246,16 +269,12 @@ public class AuthorizationService {
             return true;
         }
 
-        Optional<Visit> visitOpt = visitRepository.findById(visitId);
-        if (visitOpt.isEmpty()) {
-            log.warn("Access denied: visit {} not found", visitId);
-            return false;
-        }
-
-        Visit visit = visitOpt.get();
-
         // INSURANCE_ADMIN: Can access all visits
         if (isInsuranceAdmin(user)) {
+            if (!visitRepository.existsById(visitId)) {
+                log.warn("Access denied: visit {} not found", visitId);
+                return false;
+            }
             return true;
         }
 
@@ -265,8 +284,8 @@ public class AuthorizationService {
                 log.warn("Access denied: EMPLOYER_ADMIN user {} has no employerId", user.getUsername());
                 return false;
             }
-            if (visit.getMember() == null || visit.getMember().getEmployer() == null ||
-                !user.getEmployerId().equals(visit.getMember().getEmployer().getId())) {
+            Optional<Long> visitEmployerId = visitRepository.findMemberEmployerIdById(visitId);
+            if (visitEmployerId.isEmpty() || !user.getEmployerId().equals(visitEmployerId.get())) {
                 log.warn("Access denied: user {} attempted to access visit {} from different employer", 
                         user.getUsername(), visitId);
                 return false;
@@ -282,7 +301,7 @@ public class AuthorizationService {
      * Filter members query by user's access level.
      * Returns employerId for EMPLOYER_ADMIN, null for SUPER_ADMIN/INSURANCE_ADMIN.
      */
-    public Long getEmployerFilterForUser(User user) {
+    public Long getEmployerFilterForUser(ResolvedPrincipal user) {
         if (user == null) {
             return null;
         }
@@ -304,7 +323,7 @@ public class AuthorizationService {
      * Check if INSURANCE_ADMIN has access to data from specific company.
      * Phase 8.2: Company-level filtering for insurance admins.
      */
-    public boolean hasCompanyAccess(User user, Long companyId) {
+    public boolean hasCompanyAccess(ResolvedPrincipal user, Long companyId) {
         if (user == null || companyId == null) {
             return false;
         }
@@ -332,7 +351,7 @@ public class AuthorizationService {
      * Returns companyId for INSURANCE_ADMIN, null for SUPER_ADMIN.
      * Phase 8.2: Company-level filtering.
      */
-    public Long getCompanyFilterForUser(User user) {
+    public Long getCompanyFilterForUser(ResolvedPrincipal user) {
         if (user == null) {
             return null;
         }
@@ -353,23 +372,13 @@ public class AuthorizationService {
     /**
      * Check if user can modify claim (approve/reject).
      */
-    public boolean canModifyClaim(User user, Long claimId) {
+    public boolean canModifyClaim(ResolvedPrincipal user, Long claimId) {
         if (user == null || claimId == null) {
             return false;
         }
 
-        // SUPER_ADMIN can modify
-        if (isSuperAdmin(user)) {
-            return true;
-        }
-
-        // INSURANCE_ADMIN can modify
-        if (isInsuranceAdmin(user)) {
-            return true;
-        }
-
-        // REVIEWER can modify
-        if (isReviewer(user)) {
+        // SUPER_ADMIN, INSURANCE_ADMIN and REVIEWER can modify
+        if ((user.getRoleMask() & MODIFY_CLAIM_ROLES) != 0) {
             return true;
         }
 
@@ -388,7 +397,7 @@ public class AuthorizationService {
      * @param user Current user
      * @return true if user can view claims
      */
-    public boolean canEmployerViewClaims(User user) {
+    public boolean canEmployerViewClaims(ResolvedPrincipal user) {
         if (user == null) {
             log.warn("FeatureCheck: user=null feature=VIEW_CLAIMS result=DENIED (null user)");
             return false;
@@ -409,7 +418,7 @@ public class AuthorizationService {
         }
 
         boolean result = companySettingsService.canEmployerViewClaims(user.getEmployerId());
-        log.info("FeatureCheck: employerId={} user={} feature=VIEW_CLAIMS result={}", 
+        log.debug("FeatureCheck: employerId={} user={} feature=VIEW_CLAIMS result={}", 
             user.getEmployerId(), user.getUsername(), result ? "ALLOWED" : "DENIED");
         
         return result;
@@ -421,7 +430,7 @@ public class AuthorizationService {
      * @param user Current user
      * @return true if user can view visits
      */
-    public boolean canEmployerViewVisits(User user) {
+    public boolean canEmployerViewVisits(ResolvedPrincipal user) {
         if (user == null) {
             log.warn("FeatureCheck: user=null feature=VIEW_VISITS result=DENIED (null user)");
             return false;
@@ -442,7 +451,7 @@ public class AuthorizationService {
         }
 
         boolean result = companySettingsService.canEmployerViewVisits(user.getEmployerId());
-        log.info("FeatureCheck: employerId={} user={} feature=VIEW_VISITS result={}", 
+        log.debug("FeatureCheck: employerId={} user={} feature=VIEW_VISITS result={}", 
             user.getEmployerId(), user.getUsername(), result ? "ALLOWED" : "DENIED");
         
         return result;
@@ -454,7 +463,7 @@ public class AuthorizationService {
      * @param user Current user
      * @return true if user can edit members
      */
-    public boolean canEmployerEditMembers(User user) {
+    public boolean canEmployerEditMembers(ResolvedPrincipal user) {
         if (user == null) {
             log.warn("FeatureCheck: user=null feature=EDIT_MEMBERS result=DENIED (null user)");
             return false;
@@ -475,7 +484,7 @@ public class AuthorizationService {
         }
 
         boolean result = companySettingsService.canEmployerEditMembers(user.getEmployerId());
-        log.info("FeatureCheck: employerId={} user={} feature=EDIT_MEMBERS result={}", 
+        log.debug("FeatureCheck: employerId={} user={} feature=EDIT_MEMBERS result={}", 
             user.getEmployerId(), user.getUsername(), result ? "ALLOWED" : "DENIED");
         
         return result;
@@ -487,7 +496,7 @@ public class AuthorizationService {
      * @param user Current user
      * @return true if user can download attachments
      */
-    public boolean canEmployerDownloadAttachments(User user) {
+    public boolean canEmployerDownloadAttachments(ResolvedPrincipal user) {
         if (user == null) {
             log.warn("FeatureCheck: user=null feature=DOWNLOAD_ATTACHMENTS result=DENIED (null user)");
             return false;
@@ -508,7 +517,7 @@ public class AuthorizationService {
         }
 
         boolean result = companySettingsService.canEmployerDownloadAttachments(user.getEmployerId());
-        log.info("FeatureCheck: employerId={} user={} feature=DOWNLOAD_ATTACHMENTS result={}", 
+        log.debug("FeatureCheck: employerId={} user={} feature=DOWNLOAD_ATTACHMENTS result={}", 
             user.getEmployerId(), user.getUsername(), result ? "ALLOWED" : "DENIED");
         
         return result;
@@ -0,0 +1,228 @@
+package com.waad.tba.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.waad.tba.common.cache.CacheVersions;
+import com.waad.tba.common.cache.VersionedCache;
+import com.waad.tba.modules.rbac.entity.Permission;
+import com.waad.tba.modules.rbac.entity.Role;
+import com.waad.tba.modules.rbac.entity.User;
+import com.waad.tba.modules.rbac.repository.PermissionRepository;
+import com.waad.tba.modules.rbac.repository.RoleRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compiled Permission Matrix
+ *
+ * Compiles the role -> permission matrix into PermissionBits once at startup
+ * and again only when the matrix is changed (role/permission assignment,
+ * role or permission CRUD). Request-time checks are then bit tests on an
+ * immutable snapshot, with no allocation or string hashing per permission.
+ *
+ * Changes made on other nodes are picked up through the "permission-matrix"
+ * cache version (CacheVersions), within cache.version-poll-ms.
+ *
+ * Bit layout: AppPermission constants use their ordinal, permissions that only
+ * exist in the database are appended in name order.
+ *
+ * @author TBA WAAD System
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompiledPermissionMatrix implements VersionedCache {
+
+    private static final String CACHE_NAME = "permission-matrix";
+
+    private final RoleRepository roleRepository;
+    private final PermissionRepository permissionRepository;
+    private final ResolvedPrincipalCache principalCache;
+    private final CacheVersions cacheVersions;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Permissions and authorities granted by a set of roles.
+     */
+    public record Grant(PermissionBits permissions, List<GrantedAuthority> authorities) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        recompile();
+    }
+
+    /**
+     * Bit position of permission, or -1 if unknown.
+     */
+    public int bitOf(String permissionName) {
+        Integer bit = current().bitIndex().get(permissionName);
+        return bit != null ? bit : -1;
+    }
+
+    /**
+     * Compiled grant for a list of role names (memoized per role combination).
+     */
+    public Grant grantForRoles(List<String> roleNames) {
+        Snapshot current = current();
+        Grant grant = current.grants().get(roleNames);
+        if (grant == null) {
+            grant = current.grants().computeIfAbsent(List.copyOf(roleNames), roles -> compileGrant(current, roles));
+        }
+        return grant;
+    }
+
+    /**
+     * Compiled grant for a loaded user entity.
+     */
+    public Grant grantForUser(User user) {
+        return grantForRoles(user.getRoles().stream()
+                .map(Role::getName)
+                .sorted()
+                .toList());
+    }
+
+    /**
+     * Convert a granted authority collection into permission bits.
+     * Used when the principal was not built from a compiled grant.
+     */
+    public PermissionBits bitsForAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        Snapshot current = current();
+        int[] bits = new int[authorities.size()];
+        int i = 0;
+        for (GrantedAuthority authority : authorities) {
+            Integer bit = current.bitIndex().get(authority.getAuthority());
+            bits[i++] = bit != null ? bit : -1;
+        }
+        return PermissionBits.of(bits);
+    }
+
+    @Override
+    public String cacheName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    public synchronized void onVersion(long version) {
+        if (snapshot != null && snapshot.version() != version) {
+            markStale();
+        }
+    }
+
+    /**
+     * Schedule recompilation after the current transaction commits, here and
+     * (through the cache version) on every other node.
+     */
+    public void invalidate() {
+        cacheVersions.bump(CACHE_NAME);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markStale();
+                }
+            });
+        } else {
+            markStale();
+        }
+    }
+
+    /**
+     * Rebuild the snapshot from the database.
+     */
+    public synchronized void recompile() {
+        long version = cacheVersions.read(CACHE_NAME);
+        Map<String, Integer> bitIndex = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        for (AppPermission permission : AppPermission.values()) {
+            bitIndex.put(permission.name(), permission.ordinal());
+            names.add(permission.name());
+        }
+
+        TreeSet<String> extraNames = new TreeSet<>();
+        for (Permission permission : permissionRepository.findAll()) {
+            if (!bitIndex.containsKey(permission.getName())) {
+                extraNames.add(permission.getName());
+            }
+        }
+        for (String name : extraNames) {
+            bitIndex.put(name, names.size());
+            names.add(name);
+        }
+
+        Map<String, PermissionBits> roleBits = new HashMap<>();
+        for (Role role : roleRepository.findAll()) {
+            int[] bits = role.getPermissions().stream()
+                    .map(Permission::getName)
+                    .mapToInt(name -> bitIndex.getOrDefault(name, -1))
+                    .toArray();
+            roleBits.put(role.getName(), PermissionBits.of(bits));
+        }
+
+        snapshot = new Snapshot(version, Map.copyOf(bitIndex), List.copyOf(names), Map.copyOf(roleBits),
+                new ConcurrentHashMap<>());
+        principalCache.clear();
+        log.info("Permission matrix compiled: {} permissions, {} roles", names.size(), roleBits.size());
+    }
+
+    private synchronized void markStale() {
+        snapshot = null;
+        principalCache.clear();
+        log.info("Permission matrix changed, will recompile on next access");
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    recompile();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private Grant compileGrant(Snapshot current, List<String> roleNames) {
+        PermissionBits bits = PermissionBits.EMPTY;
+        for (String roleName : roleNames) {
+            PermissionBits rolePermissions = current.roleBits().get(roleName);
+            if (rolePermissions != null) {
+                bits = bits.or(rolePermissions);
+            }
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>(bits.cardinality());
+        for (int bit = 0; bit < current.names().size(); bit++) {
+            if (bits.has(bit)) {
+                authorities.add(new SimpleGrantedAuthority(current.names().get(bit)));
+            }
+        }
+        return new Grant(bits, List.copyOf(authorities));
+    }
+
+    private record Snapshot(long version,
+                            Map<String, Integer> bitIndex,
+                            List<String> names,
+                            Map<String, PermissionBits> roleBits,
+                            Map<List<String>, Grant> grants) {
+    }
+}
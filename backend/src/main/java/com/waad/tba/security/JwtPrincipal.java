@@ -0,0 +1,77 @@
+package com.waad.tba.security;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import io.jsonwebtoken.Claims;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Authenticated principal reconstructed from JWT claims.
+ *
+ * Built by JwtAuthenticationFilter in stateless principal mode, so no
+ * User -> Roles -> Permissions query is needed per request. Permissions are
+ * taken from the compiled role matrix, so matrix changes apply to live tokens.
+ *
+ * @author TBA WAAD System
+ * @version 1.0
+ */
+@Getter
+@Builder
+public class JwtPrincipal implements Principal {
+
+    private final Long userId;
+    private final String username;
+    private final List<String> roles;
+    private final PermissionBits permissionBits;
+    private final List<GrantedAuthority> authorities;
+    private final Long employerId;
+    private final Long companyId;
+    private final long tokenVersion;
+
+    /**
+     * Build principal from already verified token claims.
+     */
+    public static JwtPrincipal fromClaims(Claims claims, CompiledPermissionMatrix permissionMatrix) {
+        Long tokenVersion = toLong(claims.get("tokenVersion"));
+        List<String> roles = toStringList(claims.get("roles"));
+        CompiledPermissionMatrix.Grant grant = permissionMatrix.grantForRoles(roles);
+        return JwtPrincipal.builder()
+                .userId(toLong(claims.get("userId")))
+                .username(claims.getSubject())
+                .roles(roles)
+                .permissionBits(grant.permissions())
+                .authorities(grant.authorities())
+                .employerId(toLong(claims.get("employerId")))
+                .companyId(toLong(claims.get("companyId")))
+                .tokenVersion(tokenVersion != null ? tokenVersion : 0L)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static List<String> toStringList(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return Collections.emptyList();
+        }
+        return list.stream()
+                .map(String::valueOf)
+                .toList();
+    }
+}
@@ -55,6 +55,7 @@ public class JwtTokenProvider {
                 .claim("permissions", permissions)
                 .claim("employerId", user.getEmployerId()) // Phase 8: Add employer ID
                 .claim("companyId", user.getCompanyId())   // Phase 8: Add company ID
+                .claim("tokenVersion", user.getTokenVersion() != null ? user.getTokenVersion() : 0L)
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(key)
@@ -72,12 +73,20 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
+        return parseClaims(token) != null;
+    }
+
+    /**
+     * Verify the token signature and expiry and return its claims in a single parse.
+     * Returns null if the token is invalid.
+     */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parser()
+            return Jwts.parser()
                     .verifyWith(key)
                     .build()
-                    .parseSignedClaims(token);
-            return true;
+                    .parseSignedClaims(token)
+                    .getPayload();
         } catch (SecurityException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -89,6 +98,6 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,109 @@
+package com.waad.tba.security;
+
+import java.util.Arrays;
+
+/**
+ * Immutable permission bitmask.
+ *
+ * Bit positions are assigned by CompiledPermissionMatrix: AppPermission
+ * constants occupy bits 0..n-1 (their ordinal), other permissions stored in
+ * the database follow.
+ *
+ * @author TBA WAAD System
+ * @version 1.0
+ */
+public final class PermissionBits {
+
+    public static final PermissionBits EMPTY = new PermissionBits(new long[0]);
+
+    private final long[] words;
+
+    private PermissionBits(long[] words) {
+        this.words = words;
+    }
+
+    public boolean has(int bit) {
+        if (bit < 0) {
+            return false;
+        }
+        int word = bit >>> 6;
+        return word < words.length && (words[word] & (1L << bit)) != 0;
+    }
+
+    public boolean has(AppPermission permission) {
+        return has(permission.ordinal());
+    }
+
+    /**
+     * Union of this and other bitmask.
+     */
+    public PermissionBits or(PermissionBits other) {
+        if (other.words.length == 0) {
+            return this;
+        }
+        if (words.length == 0) {
+            return other;
+        }
+        long[] result = Arrays.copyOf(words, Math.max(words.length, other.words.length));
+        for (int i = 0; i < other.words.length; i++) {
+            result[i] |= other.words[i];
+        }
+        return new PermissionBits(result);
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Build bitmask with the given bits set. Negative bits are ignored.
+     */
+    public static PermissionBits of(int... bits) {
+        int max = -1;
+        for (int bit : bits) {
+            max = Math.max(max, bit);
+        }
+        if (max < 0) {
+            return EMPTY;
+        }
+        long[] words = new long[(max >>> 6) + 1];
+        for (int bit : bits) {
+            if (bit >= 0) {
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new PermissionBits(words);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PermissionBits other)) {
+            return false;
+        }
+        int length = Math.max(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            long a = i < words.length ? words[i] : 0L;
+            long b = i < other.words.length ? other.words[i] : 0L;
+            if (a != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0L) {
+            length--;
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, length));
+    }
+}
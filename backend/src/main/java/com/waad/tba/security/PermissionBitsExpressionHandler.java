@@ -0,0 +1,37 @@
+package com.waad.tba.security;
+
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Method security expression handler that evaluates @PreAuthorize
+ * expressions against PermissionBitsExpressionRoot.
+ *
+ * @author TBA WAAD System
+ * @version 1.0
+ */
+public class PermissionBitsExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    private final ObjectProvider<CompiledPermissionMatrix> permissionMatrix;
+
+    public PermissionBitsExpressionHandler(ObjectProvider<CompiledPermissionMatrix> permissionMatrix) {
+        this.permissionMatrix = permissionMatrix;
+    }
+
+    @Override
+    public EvaluationContext createEvaluationContext(Supplier<Authentication> authentication, MethodInvocation mi) {
+        EvaluationContext context = super.createEvaluationContext(authentication, mi);
+        PermissionBitsExpressionRoot root =
+                new PermissionBitsExpressionRoot(authentication, permissionMatrix.getObject());
+        root.setPermissionEvaluator(getPermissionEvaluator());
+        root.setThis(mi.getThis());
+        ((StandardEvaluationContext) context).setRootObject(root);
+        return context;
+    }
+}
@@ -0,0 +1,183 @@
+package com.waad.tba.security;
+
+import java.io.Serializable;
+import java.util.function.Supplier;
+
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Method security expression root backed by compiled permission bits.
+ *
+ * hasAuthority/hasAnyAuthority resolve the permission name to its bit once and
+ * test it against the principal's PermissionBits, instead of building a
+ * Set of authority strings for every @PreAuthorize evaluation.
+ * Names unknown to the matrix fall back to a plain authority comparison.
+ *
+ * @author TBA WAAD System
+ * @version 1.0
+ */
+public class PermissionBitsExpressionRoot implements MethodSecurityExpressionOperations {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+
+    private final Supplier<Authentication> authentication;
+    private final CompiledPermissionMatrix permissionMatrix;
+    private PermissionEvaluator permissionEvaluator;
+    private PermissionBits permissionBits;
+
+    private Object filterObject;
+    private Object returnObject;
+    private Object target;
+
+    public PermissionBitsExpressionRoot(Supplier<Authentication> authentication,
+                                        CompiledPermissionMatrix permissionMatrix) {
+        this.authentication = authentication;
+        this.permissionMatrix = permissionMatrix;
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return authentication.get();
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        return hasAnyAuthority(authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        for (String authority : authorities) {
+            int bit = permissionMatrix.bitOf(authority);
+            if (bit >= 0 ? getPermissionBits().has(bit) : hasAuthorityName(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        return hasAnyRole(role);
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        for (String role : roles) {
+            String authority = role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role;
+            if (hasAuthorityName(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean permitAll() {
+        return true;
+    }
+
+    @Override
+    public boolean denyAll() {
+        return false;
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return TRUST_RESOLVER.isAnonymous(getAuthentication());
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return TRUST_RESOLVER.isAuthenticated(getAuthentication());
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return TRUST_RESOLVER.isRememberMe(getAuthentication());
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return TRUST_RESOLVER.isFullyAuthenticated(getAuthentication());
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return permissionEvaluator != null
+                && permissionEvaluator.hasPermission(getAuthentication(), target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return permissionEvaluator != null
+                && permissionEvaluator.hasPermission(getAuthentication(), (Serializable) targetId,
+                        targetType, permission);
+    }
+
+    public void setPermissionEvaluator(PermissionEvaluator permissionEvaluator) {
+        this.permissionEvaluator = permissionEvaluator;
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        this.filterObject = filterObject;
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return filterObject;
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        this.returnObject = returnObject;
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return returnObject;
+    }
+
+    void setThis(Object target) {
+        this.target = target;
+    }
+
+    @Override
+    public Object getThis() {
+        return target;
+    }
+
+    private PermissionBits getPermissionBits() {
+        if (permissionBits == null) {
+            Authentication auth = getAuthentication();
+            if (auth == null) {
+                permissionBits = PermissionBits.EMPTY;
+            } else if (auth.getPrincipal() instanceof JwtPrincipal principal) {
+                permissionBits = principal.getPermissionBits();
+            } else {
+                permissionBits = permissionMatrix.bitsForAuthorities(auth.getAuthorities());
+            }
+        }
+        return permissionBits;
+    }
+
+    private boolean hasAuthorityName(String authority) {
+        Authentication auth = getAuthentication();
+        if (auth == null) {
+            return false;
+        }
+        for (GrantedAuthority granted : auth.getAuthorities()) {
+            if (authority.equals(granted.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
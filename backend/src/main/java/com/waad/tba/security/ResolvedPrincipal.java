@@ -0,0 +1,78 @@
+package com.waad.tba.security;
+
+import java.util.List;
+
+import com.waad.tba.modules.rbac.entity.Role;
+import com.waad.tba.modules.rbac.entity.User;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Resolved Principal
+ *
+ * Immutable, pre-computed view of the current user used by AuthorizationService
+ * (role bitmask + compiled permission bitmask).
+ * Resolved once per request and memoized across requests by ResolvedPrincipalCache,
+ * so role checks are a single bit test instead of a stream over user roles.
+ *
+ * @author TBA WAAD System
+ * @version 1.0
+ */
+@Getter
+@Builder
+public class ResolvedPrincipal {
+
+    private final Long userId;
+    private final String username;
+    private final List<String> roleNames;
+    private final int roleMask;
+    private final Long employerId;
+    private final Long companyId;
+    private final PermissionBits permissionBits;
+    private final long tokenVersion;
+
+    public boolean hasRole(SystemRole role) {
+        return (roleMask & role.mask()) != 0;
+    }
+
+    public boolean hasPermission(AppPermission permission) {
+        return permissionBits.has(permission);
+    }
+
+    /**
+     * Build from a principal reconstructed from JWT claims (no database access).
+     */
+    public static ResolvedPrincipal fromJwt(JwtPrincipal principal) {
+        return ResolvedPrincipal.builder()
+                .userId(principal.getUserId())
+                .username(principal.getUsername())
+                .roleNames(principal.getRoles())
+                .roleMask(SystemRole.maskOf(principal.getRoles()))
+                .employerId(principal.getEmployerId())
+                .companyId(principal.getCompanyId())
+                .permissionBits(principal.getPermissionBits())
+                .tokenVersion(principal.getTokenVersion())
+                .build();
+    }
+
+    /**
+     * Build from a loaded user entity and its compiled permissions.
+     */
+    public static ResolvedPrincipal fromUser(User user, PermissionBits permissionBits) {
+        List<String> roleNames = user.getRoles().stream()
+                .map(Role::getName)
+                .toList();
+
+        return ResolvedPrincipal.builder()
+                .userId(user.getId())
+                .username(user.getUsername())
+                .roleNames(roleNames)
+                .roleMask(SystemRole.maskOf(roleNames))
+                .employerId(user.getEmployerId())
+                .companyId(user.getCompanyId())
+                .permissionBits(permissionBits)
+                .tokenVersion(user.getTokenVersion() != null ? user.getTokenVersion() : 0L)
+                .build();
+    }
+}
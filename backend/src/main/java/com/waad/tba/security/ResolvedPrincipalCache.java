@@ -0,0 +1,115 @@
+package com.waad.tba.security;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resolved Principal Cache
+ *
+ * Bounded, TTL-evicting cache of ResolvedPrincipal keyed by username + token version.
+ * A new token version (role change, deactivation, ...) produces a new key, so stale
+ * principals are never served; old entries simply age out.
+ *
+ * @author TBA WAAD System
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class ResolvedPrincipalCache {
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${security.principal-cache.ttl:300000}")
+    private long ttlMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Get cached principal or resolve and cache it.
+     */
+    public ResolvedPrincipal get(String username, long tokenVersion, Supplier<ResolvedPrincipal> loader) {
+        String key = username + '#' + tokenVersion;
+        long now = System.currentTimeMillis();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return entry.principal();
+        }
+
+        misses.increment();
+        ResolvedPrincipal principal = loader.get();
+        if (principal != null) {
+            if (entries.size() >= maxSize) {
+                evict(now);
+            }
+            entries.put(key, new Entry(principal, now + ttlMillis));
+        }
+        return principal;
+    }
+
+    /**
+     * Drop all cached principals (e.g. after a role/permission change).
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Cache statistics for monitoring.
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlMillis", ttlMillis);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+
+    /**
+     * Remove expired entries; if still full, remove entries until below 90% capacity.
+     */
+    private void evict(long now) {
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAt() <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+
+        int target = (int) (maxSize * 0.9);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+        log.debug("Principal cache eviction finished, size={}", entries.size());
+    }
+
+    private record Entry(ResolvedPrincipal principal, long expiresAt) {
+    }
+}
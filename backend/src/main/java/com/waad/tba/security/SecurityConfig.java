@@ -1,8 +1,10 @@
 package com.waad.tba.security;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -61,6 +63,15 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Evaluate @PreAuthorize authority checks against compiled permission bits.
+     */
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler(
+            ObjectProvider<CompiledPermissionMatrix> permissionMatrix) {
+        return new PermissionBitsExpressionHandler(permissionMatrix);
+    }
+
     @Bean
     CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,46 @@
+package com.waad.tba.security;
+
+import java.util.Collection;
+
+/**
+ * Business roles seeded by RbacDataInitializer.
+ * Each role maps to one bit so role checks are a single mask test.
+ *
+ * @author TBA WAAD System
+ * @version 1.0
+ */
+public enum SystemRole {
+
+    SUPER_ADMIN,
+    INSURANCE_ADMIN,
+    EMPLOYER_ADMIN,
+    REVIEWER,
+    PROVIDER,
+    USER;
+
+    /**
+     * Bit for this role inside a role mask.
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Build role mask from role names. Unknown (custom) roles are ignored.
+     */
+    public static int maskOf(Collection<String> roleNames) {
+        int mask = 0;
+        if (roleNames == null) {
+            return mask;
+        }
+        for (String roleName : roleNames) {
+            for (SystemRole role : values()) {
+                if (role.name().equals(roleName)) {
+                    mask |= role.mask();
+                    break;
+                }
+            }
+        }
+        return mask;
+    }
+}
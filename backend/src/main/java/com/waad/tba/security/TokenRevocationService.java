@@ -0,0 +1,124 @@
+package com.waad.tba.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.waad.tba.modules.rbac.entity.User;
+import com.waad.tba.modules.rbac.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token Revocation Service
+ *
+ * Verifies that a JWT is still current for its user without loading roles
+ * and permissions. Each user carries a token version which is embedded in
+ * issued tokens; bumping it (or deactivating the user) revokes all tokens.
+ *
+ * User token state is cached for a short TTL, so a revocation performed on
+ * another node becomes effective within {@code jwt.revocation-cache-ttl} ms.
+ * Revocations on this node are effective immediately after commit.
+ *
+ * @author TBA WAAD System
+ * @version 1.0
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private final UserRepository userRepository;
+
+    @Value("${jwt.revocation-cache-ttl:30000}")
+    private long cacheTtlMillis;
+
+    private final Map<String, TokenState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Check that the user is still active and the token version is current.
+     */
+    public boolean isTokenCurrent(String username, long tokenVersion) {
+        TokenState state = getTokenState(username);
+        if (state == null) {
+            log.warn("Token rejected: user {} no longer exists", username);
+            return false;
+        }
+        if (!state.active()) {
+            log.warn("Token rejected: user {} is not active", username);
+            return false;
+        }
+        if (state.tokenVersion() != tokenVersion) {
+            log.warn("Token rejected: user {} token version {} has been revoked (current {})",
+                    username, tokenVersion, state.tokenVersion());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get current token version for user, or -1 if the user does not exist.
+     */
+    public long getCurrentTokenVersion(String username) {
+        TokenState state = getTokenState(username);
+        return state != null ? state.tokenVersion() : -1L;
+    }
+
+    /**
+     * Revoke all tokens issued to the user.
+     * Must be called before the user entity is saved.
+     */
+    public void revokeTokens(User user) {
+        long current = user.getTokenVersion() != null ? user.getTokenVersion() : 0L;
+        user.setTokenVersion(current + 1);
+        log.info("Revoking tokens for user {} (token version {} -> {})",
+                user.getUsername(), current, current + 1);
+        evict(user.getUsername());
+    }
+
+    /**
+     * Drop cached token state for user once the current transaction commits.
+     */
+    public void evict(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    states.remove(username);
+                }
+            });
+        } else {
+            states.remove(username);
+        }
+    }
+
+    private TokenState getTokenState(String username) {
+        long now = System.currentTimeMillis();
+        TokenState cached = states.get(username);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached;
+        }
+
+        TokenState loaded = userRepository.findTokenStateByUsername(username)
+                .map(state -> new TokenState(
+                        Boolean.TRUE.equals(state.getActive()),
+                        state.getTokenVersion() != null ? state.getTokenVersion() : 0L,
+                        now + cacheTtlMillis))
+                .orElse(null);
+
+        if (loaded == null) {
+            states.remove(username);
+        } else {
+            states.put(username, loaded);
+        }
+        return loaded;
+    }
+
+    private record TokenState(boolean active, long tokenVersion, long expiresAt) {
+    }
+}
@@ -0,0 +1,15 @@
+-- ============================================================================
+-- V18 - Token version for stateless JWT revocation
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- Every issued JWT embeds the user's token_version. Bumping it (deactivation,
+-- role change, password reset) revokes all previously issued tokens without
+-- loading roles/permissions on each request.
+-- ============================================================================
+
+ALTER TABLE users
+ADD COLUMN IF NOT EXISTS token_version BIGINT NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN users.token_version IS
+'Incremented to revoke all JWTs issued to this user';
@@ -0,0 +1,27 @@
+-- ============================================================================
+-- V19 - Member balance ledger
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- One materialized row per member:
+--   remaining = annual_limit - consumed_amount - reserved_amount
+-- consumed_amount: approved claim amounts
+-- reserved_amount: approved, not yet used pre-approval amounts
+-- Updated incrementally with a version compare-and-set.
+-- Rows are seeded on the first claim / pre-approval change of a member.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS member_balances (
+    id BIGSERIAL PRIMARY KEY,
+    member_id BIGINT NOT NULL REFERENCES members(id) ON DELETE CASCADE,
+    annual_limit NUMERIC(15,2),
+    consumed_amount NUMERIC(15,2) NOT NULL DEFAULT 0,
+    reserved_amount NUMERIC(15,2) NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_member_balance_member UNIQUE (member_id)
+);
+
+COMMENT ON TABLE member_balances IS 'Per-member benefit utilization ledger';
+COMMENT ON COLUMN member_balances.annual_limit IS 'Benefit package limit (NULL = ledger.default-annual-limit)';
+COMMENT ON COLUMN member_balances.version IS 'Optimistic lock version, incremented on every change';
@@ -0,0 +1,29 @@
+-- ============================================================================
+-- V20 - Document number sequences
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- Backing sequences for DocumentNumberService (hi/lo allocation, 50 numbers
+-- per nextval). Numbers are PREFIX-yyyyMMdd-NNNNNN with NNNNNN = hi * 50 + lo.
+-- Start values skip numbers issued by the previous COUNT(*)-based generator.
+-- ============================================================================
+
+DO $$
+DECLARE
+    start_block BIGINT;
+BEGIN
+    IF to_regclass('pre_approval_number_seq') IS NULL THEN
+        SELECT COUNT(*) / 50 + 1 INTO start_block FROM pre_approvals;
+        EXECUTE 'CREATE SEQUENCE pre_approval_number_seq START WITH ' || start_block;
+    END IF;
+
+    IF to_regclass('pre_authorization_number_seq') IS NULL THEN
+        SELECT COUNT(*) / 50 + 1 INTO start_block FROM pre_authorizations;
+        EXECUTE 'CREATE SEQUENCE pre_authorization_number_seq START WITH ' || start_block;
+    END IF;
+
+    IF to_regclass('claim_number_seq') IS NULL THEN
+        SELECT COUNT(*) / 50 + 1 INTO start_block FROM claims;
+        EXECUTE 'CREATE SEQUENCE claim_number_seq START WITH ' || start_block;
+    END IF;
+END $$;
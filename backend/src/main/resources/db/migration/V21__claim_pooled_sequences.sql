@@ -0,0 +1,30 @@
+-- ============================================================================
+-- V21 - Pooled sequence IDs for the claim aggregate
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- Claim, ClaimLine and ClaimAttachment switched from IDENTITY to pooled
+-- sequence generation (allocationSize = 50) so Hibernate can batch inserts.
+-- The existing id sequences are reused; only their increment changes, so ids
+-- continue after the current values.
+-- ============================================================================
+
+DO $$
+DECLARE
+    tbl TEXT;
+    seq TEXT;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY['claims', 'claim_lines', 'claim_attachments'] LOOP
+        seq := pg_get_serial_sequence(tbl, 'id');
+        IF seq IS NULL THEN
+            seq := tbl || '_id_seq';
+            EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', seq);
+            EXECUTE format('SELECT setval(%L, (SELECT COALESCE(MAX(id), 0) + 1 FROM %I))', seq, tbl);
+        ELSIF EXISTS (SELECT 1 FROM pg_attribute
+                      WHERE attrelid = tbl::regclass AND attname = 'id' AND attidentity <> '') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET INCREMENT BY 50', tbl);
+        ELSE
+            EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', seq);
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,11 @@
+-- ============================================================================
+-- V22 - Keyset pagination index for claims listing
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- GET /api/claims/scroll seeks on (created_at, id) DESC over active claims.
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_claims_active_created_id
+    ON claims (created_at DESC, id DESC)
+    WHERE active = true;
@@ -0,0 +1,56 @@
+-- ============================================================================
+-- V23 - Trigram search for members, claims and visits
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- Search queries match a normalized search_text column with LIKE '%term%'.
+-- The column is maintained by the entities (ArabicTextNormalizer); this script
+-- adds pg_trgm GIN indexes so those LIKE queries no longer scan the tables,
+-- and backfills existing rows with the SQL twin of the normalizer.
+--
+-- Normalization (must match ArabicTextNormalizer):
+--   lower case; diacritics, superscript alef, tatweel and Quranic marks removed;
+--   alef variants -> alef, taa marbuta -> haa, alef maqsura / yaa-hamza -> yaa,
+--   waw-hamza -> waw; Arabic-Indic / Persian digits -> ASCII; spaces collapsed.
+-- ============================================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE OR REPLACE FUNCTION tba_search_normalize(input TEXT) RETURNS TEXT
+LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT btrim(regexp_replace(
+        translate(
+            regexp_replace(lower(coalesce(input, '')),
+                           '[\u064B-\u065F\u0670\u0640\u06D6-\u06ED]', '', 'g'),
+            U&'\0623\0625\0622\0671\0629\0649\0626\0624\0660\0661\0662\0663\0664\0665\0666\0667\0668\0669\06F0\06F1\06F2\06F3\06F4\06F5\06F6\06F7\06F8\06F9',
+            U&'\0627\0627\0627\0627\0647\064A\064A\064801234567890123456789'),
+        '\s+', ' ', 'g'))
+$$;
+
+-- Columns (also created by Hibernate ddl-auto=update)
+ALTER TABLE members ADD COLUMN IF NOT EXISTS search_text TEXT;
+ALTER TABLE claims ADD COLUMN IF NOT EXISTS search_text TEXT;
+ALTER TABLE visits ADD COLUMN IF NOT EXISTS search_text TEXT;
+
+-- Backfill
+UPDATE members
+SET search_text = tba_search_normalize(concat_ws(' ', full_name_english, full_name_arabic, civil_id, card_number))
+WHERE search_text IS NULL;
+
+UPDATE claims
+SET search_text = tba_search_normalize(concat_ws(' ', provider_name, diagnosis))
+WHERE search_text IS NULL;
+
+UPDATE visits
+SET search_text = tba_search_normalize(concat_ws(' ', doctor_name, specialty, diagnosis))
+WHERE search_text IS NULL;
+
+-- Trigram indexes (serve LIKE '%term%' and similarity ranking)
+CREATE INDEX IF NOT EXISTS idx_members_search_text_trgm
+ON members USING gin (search_text gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_claims_search_text_trgm
+ON claims USING gin (search_text gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_visits_search_text_trgm
+ON visits USING gin (search_text gin_trgm_ops);
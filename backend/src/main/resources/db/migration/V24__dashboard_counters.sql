@@ -0,0 +1,25 @@
+-- ============================================================================
+-- V24 - Pre-aggregated dashboard counters
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- One row per (metric, employer, insurance company, status, day) holding the
+-- number of active members / claims / visits. Maintained incrementally by
+-- DashboardCounterListener and rebuilt by DashboardCounterReconciler; the
+-- application builds the table on startup when it is empty.
+-- Missing dimensions are stored as 0 / '' so they can be part of the key.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS dashboard_counters (
+    metric               VARCHAR(20) NOT NULL,
+    employer_id          BIGINT      NOT NULL,
+    insurance_company_id BIGINT      NOT NULL,
+    status               VARCHAR(30) NOT NULL,
+    stat_date            DATE        NOT NULL,
+    total                BIGINT      NOT NULL,
+    PRIMARY KEY (metric, employer_id, insurance_company_id, status, stat_date)
+);
+
+-- Employer-filtered dashboard reads
+CREATE INDEX IF NOT EXISTS idx_dashboard_counters_employer
+    ON dashboard_counters (employer_id, metric, stat_date);
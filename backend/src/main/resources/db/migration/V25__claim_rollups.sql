@@ -0,0 +1,57 @@
+-- ============================================================================
+-- V25 - Daily / monthly claim rollups
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- Claim count and requested / approved / difference amounts of active claims per
+-- bucket (basis, day or month, employer, insurance company, provider, status).
+-- basis = CREATED buckets by claims.created_at, VISIT by claims.visit_date.
+-- Claim writes mark (basis, day) rows in claim_rollup_dirty_days; the
+-- application re-aggregates only those days and their months. An empty daily
+-- rollup is backfilled at startup.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS claim_rollup_daily (
+    basis                VARCHAR(10)    NOT NULL,
+    bucket_date          DATE           NOT NULL,
+    employer_id          BIGINT         NOT NULL,
+    insurance_company_id BIGINT         NOT NULL,
+    provider_name        VARCHAR(255)   NOT NULL,
+    status               VARCHAR(30)    NOT NULL,
+    claim_count          BIGINT         NOT NULL,
+    requested_amount     NUMERIC(18, 2) NOT NULL,
+    approved_amount      NUMERIC(18, 2) NOT NULL,
+    difference_amount    NUMERIC(18, 2) NOT NULL,
+    PRIMARY KEY (basis, bucket_date, employer_id, insurance_company_id, provider_name, status)
+);
+
+CREATE TABLE IF NOT EXISTS claim_rollup_monthly (
+    basis                VARCHAR(10)    NOT NULL,
+    bucket_date          DATE           NOT NULL,
+    employer_id          BIGINT         NOT NULL,
+    insurance_company_id BIGINT         NOT NULL,
+    provider_name        VARCHAR(255)   NOT NULL,
+    status               VARCHAR(30)    NOT NULL,
+    claim_count          BIGINT         NOT NULL,
+    requested_amount     NUMERIC(18, 2) NOT NULL,
+    approved_amount      NUMERIC(18, 2) NOT NULL,
+    difference_amount    NUMERIC(18, 2) NOT NULL,
+    PRIMARY KEY (basis, bucket_date, employer_id, insurance_company_id, provider_name, status)
+);
+
+CREATE TABLE IF NOT EXISTS claim_rollup_dirty_days (
+    basis       VARCHAR(10) NOT NULL,
+    bucket_date DATE        NOT NULL,
+    marked_at   TIMESTAMP   NOT NULL,
+    PRIMARY KEY (basis, bucket_date)
+);
+
+-- Employer-filtered series
+CREATE INDEX IF NOT EXISTS idx_claim_rollup_daily_employer
+    ON claim_rollup_daily (employer_id, basis, bucket_date);
+CREATE INDEX IF NOT EXISTS idx_claim_rollup_monthly_employer
+    ON claim_rollup_monthly (employer_id, basis, bucket_date);
+
+-- Re-aggregation of one VISIT day (CREATED days use idx_claims_active_created_id, V22)
+CREATE INDEX IF NOT EXISTS idx_claims_active_visit_date
+    ON claims (visit_date) WHERE active = true;
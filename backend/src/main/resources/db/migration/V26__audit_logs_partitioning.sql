@@ -0,0 +1,96 @@
+-- ============================================================================
+-- V26 - Partitioned audit_logs, BRIN timestamp index, type dictionaries
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- audit_logs becomes a table range-partitioned by month on timestamp
+-- (partitions audit_logs_YYYY_MM plus a default partition). Existing rows are
+-- copied over. AuditLogPartitionService creates upcoming partitions and
+-- archives / drops partitions past the retention period.
+--
+-- The B-tree on timestamp is replaced by a BRIN index: rows are appended in
+-- time order, so block ranges map to narrow time ranges at a fraction of the
+-- size. User and entity lookups keep B-trees that include timestamp for the
+-- ORDER BY timestamp DESC pages.
+--
+-- audit_action_types / audit_entity_types replace SELECT DISTINCT over the
+-- whole audit table (kept current by AuditTypeDictionary).
+-- ============================================================================
+
+-- Id sequence independent of the old table's identity column
+CREATE SEQUENCE IF NOT EXISTS audit_logs_seq;
+SELECT setval('audit_logs_seq', COALESCE((SELECT MAX(id) FROM audit_logs), 0) + 1, false);
+
+ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+DROP INDEX IF EXISTS idx_user;
+DROP INDEX IF EXISTS idx_entity;
+DROP INDEX IF EXISTS idx_timestamp;
+
+CREATE TABLE audit_logs (
+    id          BIGINT       NOT NULL DEFAULT nextval('audit_logs_seq'),
+    timestamp   TIMESTAMP    NOT NULL,
+    user_id     BIGINT,
+    username    VARCHAR(50),
+    action      VARCHAR(100) NOT NULL,
+    entity_type VARCHAR(50),
+    entity_id   BIGINT,
+    details     TEXT,
+    ip_address  VARCHAR(45),
+    user_agent  TEXT,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE audit_logs_seq OWNED BY audit_logs.id;
+
+-- Safety net only; partitions are created ahead of time
+CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+-- Monthly partitions from the oldest entry to three months ahead
+DO $$
+DECLARE
+    month_start DATE;
+    last_month  DATE;
+BEGIN
+    SELECT CAST(date_trunc('month', COALESCE(MIN(timestamp), now())) AS DATE)
+      INTO month_start FROM audit_logs_legacy;
+    last_month := CAST(date_trunc('month', now()) + INTERVAL '3 months' AS DATE);
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                       'audit_logs_' || to_char(month_start, 'YYYY_MM'),
+                       month_start,
+                       CAST(month_start + INTERVAL '1 month' AS DATE));
+        month_start := CAST(month_start + INTERVAL '1 month' AS DATE);
+    END LOOP;
+END $$;
+
+INSERT INTO audit_logs (id, timestamp, user_id, username, action, entity_type, entity_id,
+                        details, ip_address, user_agent)
+SELECT id, timestamp, user_id, username, action, entity_type, entity_id,
+       details, ip_address, user_agent
+FROM audit_logs_legacy;
+
+DROP TABLE audit_logs_legacy;
+
+CREATE INDEX idx_audit_logs_timestamp_brin ON audit_logs USING BRIN (timestamp);
+CREATE INDEX idx_user ON audit_logs (user_id, timestamp);
+CREATE INDEX idx_entity ON audit_logs (entity_type, entity_id, timestamp);
+
+-- Type dictionaries
+CREATE TABLE IF NOT EXISTS audit_action_types (
+    name          VARCHAR(100) PRIMARY KEY,
+    first_seen_at TIMESTAMP    NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS audit_entity_types (
+    name          VARCHAR(50) PRIMARY KEY,
+    first_seen_at TIMESTAMP   NOT NULL
+);
+
+INSERT INTO audit_action_types (name, first_seen_at)
+SELECT action, MIN(timestamp) FROM audit_logs GROUP BY action
+ON CONFLICT DO NOTHING;
+
+INSERT INTO audit_entity_types (name, first_seen_at)
+SELECT entity_type, MIN(timestamp) FROM audit_logs WHERE entity_type IS NOT NULL GROUP BY entity_type
+ON CONFLICT DO NOTHING;
+
@@ -0,0 +1,18 @@
+-- ============================================================================
+-- V27 - Keyset visit listing
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- GET /api/visits/scroll reads visits ordered by (visit_date, id) DESC within a
+-- visit date range, joined to members for the employer / insurance company scope.
+-- Large scopes walk the ordered index and stop after one page; small scopes
+-- (few members) start from the member side.
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_visits_visit_date_id
+    ON visits (visit_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_visits_member_visit_date
+    ON visits (member_id, visit_date DESC, id DESC);
+
+ANALYZE visits;
@@ -0,0 +1,97 @@
+-- ============================================================================
+-- V28 - Eligibility change log
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- Every write that can change a member's eligibility appends the member id to
+-- eligibility_changes. The eligibility index snapshot records the change-log
+-- position (database time) it was built at; a restarting node maps the snapshot
+-- and reloads only the members changed since then, and running nodes tail the
+-- log to pick up changes made on other nodes. Rows are pruned by the nightly
+-- index rebuild (eligibility.snapshot.change-log-retention-days).
+--
+-- Triggers also cover bulk UPDATE / DELETE statements that bypass JPA listeners.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS eligibility_changes (
+    id         BIGSERIAL PRIMARY KEY,
+    member_id  BIGINT      NOT NULL,
+    changed_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX IF NOT EXISTS idx_eligibility_changes_changed_at
+    ON eligibility_changes (changed_at);
+
+-- Members: the row itself
+CREATE OR REPLACE FUNCTION log_member_eligibility_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO eligibility_changes (member_id) VALUES (OLD.id);
+        RETURN OLD;
+    END IF;
+    INSERT INTO eligibility_changes (member_id) VALUES (NEW.id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trigger_members_eligibility_change ON members;
+CREATE TRIGGER trigger_members_eligibility_change
+AFTER INSERT OR UPDATE OR DELETE ON members
+FOR EACH ROW
+EXECUTE FUNCTION log_member_eligibility_change();
+
+-- Dependants: the principal member (old and new one when a dependant moves)
+CREATE OR REPLACE FUNCTION log_family_member_eligibility_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO eligibility_changes (member_id) VALUES (OLD.member_id);
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.member_id IS DISTINCT FROM OLD.member_id) THEN
+        INSERT INTO eligibility_changes (member_id) VALUES (NEW.member_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trigger_family_members_eligibility_change ON family_members;
+CREATE TRIGGER trigger_family_members_eligibility_change
+AFTER INSERT OR UPDATE OR DELETE ON family_members
+FOR EACH ROW
+EXECUTE FUNCTION log_family_member_eligibility_change();
+
+-- Chronic coverage: members of a policy whose benefit package changed
+CREATE OR REPLACE FUNCTION log_policy_eligibility_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO eligibility_changes (member_id)
+    SELECT m.id FROM members m WHERE m.policy_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trigger_policies_eligibility_change ON policies;
+CREATE TRIGGER trigger_policies_eligibility_change
+AFTER UPDATE OF benefit_package_id ON policies
+FOR EACH ROW
+WHEN (NEW.benefit_package_id IS DISTINCT FROM OLD.benefit_package_id)
+EXECUTE FUNCTION log_policy_eligibility_change();
+
+-- Chronic coverage: members of every policy using a benefit package whose flag changed
+CREATE OR REPLACE FUNCTION log_benefit_package_eligibility_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO eligibility_changes (member_id)
+    SELECT m.id FROM members m JOIN policies p ON p.id = m.policy_id
+    WHERE p.benefit_package_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trigger_benefit_packages_eligibility_change ON benefit_packages;
+CREATE TRIGGER trigger_benefit_packages_eligibility_change
+AFTER UPDATE OF chronic_disease_covered ON benefit_packages
+FOR EACH ROW
+WHEN (NEW.chronic_disease_covered IS DISTINCT FROM OLD.chronic_disease_covered)
+EXECUTE FUNCTION log_benefit_package_eligibility_change();
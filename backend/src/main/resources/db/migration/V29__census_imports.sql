@@ -0,0 +1,47 @@
+-- ============================================================================
+-- V29 - Employer census imports
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- One row per uploaded census file (POST /api/members/census-imports).
+-- processed_rows is the resume checkpoint: it is advanced in the same
+-- transaction as the members written for those rows, together with the
+-- counters and the committed length of the rejected-rows file (rejected_bytes).
+-- Running jobs refresh heartbeat_at with every checkpoint; a job whose
+-- heartbeat is older than census.import.stale-after-ms is taken over.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS census_imports (
+    id                   BIGSERIAL PRIMARY KEY,
+    employer_id          BIGINT        NOT NULL,
+    insurance_company_id BIGINT,
+    policy_id            BIGINT,
+    benefit_package_id   BIGINT,
+    file_name            VARCHAR(255),
+    file_path            VARCHAR(1000) NOT NULL,
+    format               VARCHAR(10)   NOT NULL,
+    status               VARCHAR(20)   NOT NULL DEFAULT 'PENDING',
+    total_rows           INTEGER,
+    processed_rows       INTEGER       NOT NULL DEFAULT 0,
+    inserted_members     INTEGER       NOT NULL DEFAULT 0,
+    updated_members      INTEGER       NOT NULL DEFAULT 0,
+    inserted_dependants  INTEGER       NOT NULL DEFAULT 0,
+    updated_dependants   INTEGER       NOT NULL DEFAULT 0,
+    rejected_rows        INTEGER       NOT NULL DEFAULT 0,
+    rejected_file_path   VARCHAR(1000),
+    rejected_bytes       BIGINT        NOT NULL DEFAULT 0,
+    error                VARCHAR(1000),
+    created_by           VARCHAR(255),
+    created_at           TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at           TIMESTAMP,
+    heartbeat_at         TIMESTAMP,
+    finished_at          TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_census_imports_employer
+    ON census_imports (employer_id, id DESC);
+
+-- Stalled job scan (CensusImportService.resumeStalled)
+CREATE INDEX IF NOT EXISTS idx_census_imports_active
+    ON census_imports (status, heartbeat_at)
+    WHERE status IN ('PENDING', 'RUNNING');
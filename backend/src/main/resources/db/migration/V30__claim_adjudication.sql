@@ -0,0 +1,22 @@
+-- ============================================================================
+-- V30 - Automated claim adjudication
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- The adjudication engine prices PENDING_REVIEW claims against CPT tariffs,
+-- provider contracts and benefit package copays. adjudicated_at marks claims
+-- it has processed; referred claims keep PENDING_REVIEW with the reasons in
+-- adjudication_notes. Lines keep the priced amounts for the reviewer.
+-- ============================================================================
+
+ALTER TABLE claims ADD COLUMN IF NOT EXISTS adjudicated_at TIMESTAMP;
+ALTER TABLE claims ADD COLUMN IF NOT EXISTS adjudication_notes TEXT;
+
+ALTER TABLE claim_lines ADD COLUMN IF NOT EXISTS allowed_amount NUMERIC(15,2);
+ALTER TABLE claim_lines ADD COLUMN IF NOT EXISTS copay_amount NUMERIC(15,2);
+ALTER TABLE claim_lines ADD COLUMN IF NOT EXISTS adjudication_note VARCHAR(500);
+
+-- Backlog scan of the engine: only claims still waiting for it are indexed
+CREATE INDEX IF NOT EXISTS idx_claims_awaiting_adjudication
+    ON claims (id)
+    WHERE status = 'PENDING_REVIEW' AND adjudicated_at IS NULL AND active = true;
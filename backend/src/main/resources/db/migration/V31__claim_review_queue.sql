@@ -0,0 +1,29 @@
+-- ============================================================================
+-- V31 - Claim review work queue and optimistic locking
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- POST /api/claims/review-queue/next leases the oldest free PENDING_REVIEW
+-- claim to a reviewer (SELECT ... FOR UPDATE SKIP LOCKED). A lease is free
+-- again once lease_expires_at has passed. claims.version is the JPA @Version
+-- column: concurrent updates of the same claim fail instead of overwriting.
+-- ============================================================================
+
+ALTER TABLE claims ADD COLUMN IF NOT EXISTS version BIGINT;
+UPDATE claims SET version = 0 WHERE version IS NULL;
+ALTER TABLE claims ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE claims ALTER COLUMN version SET NOT NULL;
+
+ALTER TABLE claims ADD COLUMN IF NOT EXISTS leased_by VARCHAR(255);
+ALTER TABLE claims ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMP;
+
+-- Dispatch order; only the review backlog is indexed, so the next free claim is
+-- found after skipping at most the currently leased ones
+CREATE INDEX IF NOT EXISTS idx_claims_review_queue
+    ON claims (created_at, id)
+    WHERE status = 'PENDING_REVIEW' AND active = true;
+
+-- A reviewer's current lease
+CREATE INDEX IF NOT EXISTS idx_claims_leased_by
+    ON claims (leased_by)
+    WHERE leased_by IS NOT NULL;
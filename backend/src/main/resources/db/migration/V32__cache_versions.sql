@@ -0,0 +1,18 @@
+-- ============================================================================
+-- V32 - Cache versions
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- Nodes keep compiled copies of small, rarely changed tables in memory
+-- (permission matrix, company settings, feature flags, pre-approval rules,
+-- typeahead indexes). A write increments the cache's row in the same
+-- transaction; every node polls this table (cache.version-poll-ms) and
+-- rebuilds a cache whose version moved, so changes made on one node reach
+-- all others without a restart.
+-- ============================================================================
+
+CREATE TABLE IF NOT EXISTS cache_versions (
+    name       VARCHAR(100) PRIMARY KEY,
+    version    BIGINT       NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
@@ -0,0 +1,16 @@
+-- ============================================================================
+-- V33 - Review queue index for adjudicated claims
+-- TBA-WAAD System
+-- ============================================================================
+--
+-- While the adjudication engine is enabled, the review queue only dispatches
+-- PENDING_REVIEW claims the engine has referred (adjudicated_at IS NOT NULL).
+-- idx_claims_review_queue (V31) also covers claims still waiting for the
+-- engine; right after the engine is switched on that is the whole backlog, and
+-- each dispatch would walk past all of them. This index holds only referred
+-- claims, so a dispatch again skips at most the currently leased ones.
+-- ============================================================================
+
+CREATE INDEX IF NOT EXISTS idx_claims_review_queue_adjudicated
+    ON claims (created_at, id)
+    WHERE status = 'PENDING_REVIEW' AND active = true AND adjudicated_at IS NOT NULL;
@@ -0,0 +1,25 @@
+package com.waad.tba;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks under src/test. Skipped unless -Djmh is set, e.g.
+ *
+ *   mvn test -Dtest=JmhBenchmarkRunner -Djmh=FeatureFlagEngineBenchmark
+ *
+ * The property value is the JMH include pattern (a regex over benchmark names).
+ */
+@EnabledIfSystemProperty(named = "jmh", matches = ".+")
+class JmhBenchmarkRunner {
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(System.getProperty("jmh"))
+                .build()).run();
+    }
+}
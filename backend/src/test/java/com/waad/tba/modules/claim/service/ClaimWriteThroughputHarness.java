@@ -0,0 +1,136 @@
+package com.waad.tba.modules.claim.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.waad.tba.modules.claim.dto.ClaimAttachmentDto;
+import com.waad.tba.modules.claim.dto.ClaimCreateDto;
+import com.waad.tba.modules.claim.dto.ClaimLineDto;
+import com.waad.tba.modules.claim.dto.ClaimUpdateDto;
+import com.waad.tba.modules.claim.dto.ClaimViewDto;
+import com.waad.tba.modules.claim.repository.ClaimRepository;
+import com.waad.tba.modules.insurance.entity.InsuranceCompany;
+import com.waad.tba.modules.insurance.repository.InsuranceCompanyRepository;
+import com.waad.tba.modules.member.entity.Member;
+import com.waad.tba.modules.member.repository.MemberRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Claim create/update throughput against the configured datasource (DB_URL etc.).
+ * Skipped unless -Dclaims.benchmark.count is set, e.g.
+ *
+ *   mvn test -Dtest=ClaimWriteThroughputHarness -Dclaims.benchmark.count=500
+ *
+ * Creates that many claims (30 lines, 3 attachments each) for the first member and
+ * insurance company found, updates each one (quantity of one line changed), logs
+ * claims/s for both phases, then deletes the claims again. Run it on a scratch
+ * database: the claims are hard-deleted, but sequences advance.
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "claims.benchmark.count", matches = "\\d+")
+class ClaimWriteThroughputHarness {
+
+    private static final int LINES_PER_CLAIM = 30;
+    private static final int ATTACHMENTS_PER_CLAIM = 3;
+
+    @Autowired
+    private ClaimService claimService;
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private InsuranceCompanyRepository insuranceCompanyRepository;
+
+    @Test
+    void measureCreateAndUpdateThroughput() {
+        int count = Integer.getInteger("claims.benchmark.count");
+        Member member = memberRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        InsuranceCompany company = insuranceCompanyRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+
+        // Warm up the persistence path before timing
+        List<Long> ids = new ArrayList<>(count + 1);
+        ids.add(claimService.createClaim(createDto(member.getId(), company.getId())).getId());
+
+        try {
+            List<ClaimViewDto> created = new ArrayList<>(count);
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                ClaimViewDto claim = claimService.createClaim(createDto(member.getId(), company.getId()));
+                created.add(claim);
+                ids.add(claim.getId());
+            }
+            report("create", count, System.nanoTime() - startedAt);
+
+            startedAt = System.nanoTime();
+            for (ClaimViewDto claim : created) {
+                ClaimViewDto updated = claimService.updateClaim(claim.getId(), updateDto(claim));
+                assertEquals(LINES_PER_CLAIM, updated.getLines().size());
+            }
+            report("update", count, System.nanoTime() - startedAt);
+            assertFalse(created.isEmpty());
+        } finally {
+            claimRepository.deleteAllById(ids);
+        }
+    }
+
+    private static ClaimCreateDto createDto(Long memberId, Long insuranceCompanyId) {
+        return ClaimCreateDto.builder()
+                .memberId(memberId)
+                .insuranceCompanyId(insuranceCompanyId)
+                .providerName("Throughput Harness")
+                .diagnosis("Benchmark")
+                .visitDate(LocalDate.now())
+                .requestedAmount(new BigDecimal("3000.00"))
+                .lines(IntStream.range(0, LINES_PER_CLAIM)
+                        .mapToObj(i -> ClaimLineDto.builder()
+                                .serviceCode("SVC-" + i)
+                                .description("Service " + i)
+                                .quantity(1)
+                                .unitPrice(new BigDecimal("100.00"))
+                                .build())
+                        .toList())
+                .attachments(IntStream.range(0, ATTACHMENTS_PER_CLAIM)
+                        .mapToObj(i -> ClaimAttachmentDto.builder()
+                                .fileName("attachment-" + i + ".pdf")
+                                .fileType("application/pdf")
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    // Sends back every line and attachment unchanged except the first line's quantity
+    private static ClaimUpdateDto updateDto(ClaimViewDto claim) {
+        List<ClaimLineDto> lines = new ArrayList<>(claim.getLines());
+        ClaimLineDto first = lines.get(0);
+        first.setQuantity(first.getQuantity() + 1);
+        return ClaimUpdateDto.builder()
+                .lines(lines)
+                .attachments(claim.getAttachments())
+                .version(claim.getVersion())
+                .build();
+    }
+
+    private static void report(String phase, int count, long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        log.info("Claim {}: {} claims in {} ms ({} claims/s, {} lines/claim)",
+                phase, count, Math.round(seconds * 1000), Math.round(count / seconds), LINES_PER_CLAIM);
+    }
+}
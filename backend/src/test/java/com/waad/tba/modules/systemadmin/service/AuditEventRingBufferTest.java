@@ -0,0 +1,104 @@
+package com.waad.tba.modules.systemadmin.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class AuditEventRingBufferTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int ITEMS_PER_PRODUCER = 1_000_000;
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1024, new AuditEventRingBuffer<Integer>(1000).capacity());
+        assertEquals(1024, new AuditEventRingBuffer<Integer>(1024).capacity());
+        assertEquals(2, new AuditEventRingBuffer<Integer>(0).capacity());
+    }
+
+    @Test
+    void fullBufferRejectsOffersUntilDrained() {
+        AuditEventRingBuffer<Integer> buffer = new AuditEventRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, buffer.drainTo(drained, 10));
+        assertEquals(List.of(0, 1, 2, 3), drained);
+        assertNull(buffer.poll());
+        assertTrue(buffer.offer(4));
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void concurrentProducersDeliverEveryItemExactlyOnce() throws Exception {
+        AuditEventRingBuffer<Integer> buffer = new AuditEventRingBuffer<>(1024);
+        int total = PRODUCERS * ITEMS_PER_PRODUCER;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                int first = p * ITEMS_PER_PRODUCER;
+                futures.add(producers.submit(() -> {
+                    start.await();
+                    for (int i = first; i < first + ITEMS_PER_PRODUCER; i++) {
+                        while (!buffer.offer(i)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            BitSet seen = new BitSet(total);
+            int[] lastOfProducer = new int[PRODUCERS];
+            Arrays.fill(lastOfProducer, -1);
+            List<Integer> batch = new ArrayList<>(256);
+            int received = 0;
+            start.countDown();
+            while (received < total) {
+                batch.clear();
+                if (buffer.drainTo(batch, 256) == 0) {
+                    Thread.yield();
+                    continue;
+                }
+                for (int item : batch) {
+                    assertFalse(seen.get(item), () -> "item " + item + " delivered twice");
+                    seen.set(item);
+                    // Items of one producer arrive in the order it offered them
+                    int producer = item / ITEMS_PER_PRODUCER;
+                    assertTrue(item > lastOfProducer[producer], () -> "item " + item + " out of order");
+                    lastOfProducer[producer] = item;
+                }
+                received += batch.size();
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertEquals(total, seen.cardinality());
+            assertNull(buffer.poll());
+            assertEquals(0, buffer.size());
+        } finally {
+            producers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.waad.tba.modules.systemadmin.service;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.waad.tba.common.cache.CacheVersions;
+import com.waad.tba.modules.systemadmin.entity.FeatureFlag;
+import com.waad.tba.modules.systemadmin.repository.FeatureFlagRepository;
+
+/**
+ * Per-evaluation cost of FeatureFlagEngine against the previous evaluation path,
+ * which parsed the flag's role filter JSON on every call (its findByFlagKey round
+ * trip is left out, so the legacy numbers are a lower bound).
+ *
+ * Run with: mvn test -Dtest=JmhBenchmarkRunner -Djmh=FeatureFlagEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureFlagEngineBenchmark {
+
+    private static final String[] ROLES = {
+        "SUPER_ADMIN", "INSURANCE_ADMIN", "EMPLOYER_ADMIN", "REVIEWER", "PROVIDER", "MEMBER"
+    };
+
+    @Param({"50"})
+    private int flagCount;
+
+    private FeatureFlagEngine engine;
+    private ObjectMapper objectMapper;
+    private Map<String, FeatureFlag> flagsByKey;
+    private String[] keys;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        List<FeatureFlag> flags = new ArrayList<>(flagCount);
+        flagsByKey = new HashMap<>();
+        for (int i = 0; i < flagCount; i++) {
+            // every third flag applies to all roles, the rest to two or three roles
+            String roleFilters = i % 3 == 0 ? null
+                    : i % 3 == 1 ? "[\"SUPER_ADMIN\",\"REVIEWER\"]"
+                    : "[\"INSURANCE_ADMIN\",\"EMPLOYER_ADMIN\",\"PROVIDER\"]";
+            FeatureFlag flag = FeatureFlag.builder()
+                    .flagKey("FLAG_" + i)
+                    .flagName("Flag " + i)
+                    .enabled(i % 5 != 0)
+                    .roleFilters(roleFilters)
+                    .build();
+            flags.add(flag);
+            flagsByKey.put(flag.getFlagKey(), flag);
+        }
+        keys = flagsByKey.keySet().toArray(String[]::new);
+
+        FeatureFlagRepository repository = mock(FeatureFlagRepository.class);
+        when(repository.findAll()).thenReturn(flags);
+        CacheVersions cacheVersions = mock(CacheVersions.class);
+        when(cacheVersions.read(anyString())).thenReturn(1L);
+
+        engine = new FeatureFlagEngine(repository, objectMapper, cacheVersions);
+        engine.onApplicationReady();
+    }
+
+    private String nextKey() {
+        next = (next + 1) % keys.length;
+        return keys[next];
+    }
+
+    private String nextRole() {
+        return ROLES[next % ROLES.length];
+    }
+
+    @Benchmark
+    public boolean isEnabled() {
+        String key = nextKey();
+        return engine.isEnabled(key, nextRole());
+    }
+
+    @Benchmark
+    public boolean isEnabledUnknownFlag() {
+        return engine.isEnabled("NO_SUCH_FLAG", "REVIEWER");
+    }
+
+    @Benchmark
+    public Map<String, Boolean> evaluateAll() {
+        return engine.evaluateAll(nextRole());
+    }
+
+    @Benchmark
+    public Map<String, Boolean> evaluateAllRoles() {
+        return engine.evaluateAll(List.of("REVIEWER", "PROVIDER"));
+    }
+
+    @Benchmark
+    public boolean legacyIsEnabled() {
+        FeatureFlag flag = flagsByKey.get(nextKey());
+        String role = nextRole();
+        if (flag == null || !Boolean.TRUE.equals(flag.getEnabled())) {
+            return false;
+        }
+        if (flag.getRoleFilters() == null || flag.getRoleFilters().isEmpty()) {
+            return true;
+        }
+        return engine.parseRoleFilters(flag.getRoleFilters()).contains(role);
+    }
+}